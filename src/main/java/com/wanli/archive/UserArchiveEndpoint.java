@@ -0,0 +1,44 @@
+package com.wanli.archive;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * 用户归档管理端点
+ * GET 查看归档进度，POST 立即在后台执行一次归档
+ *
+ * @author JamesWu
+ * @since 1.0.0
+ */
+@Component
+@Endpoint(id = "userarchive")
+public class UserArchiveEndpoint {
+
+    private final UserArchiver userArchiver;
+    private final UserArchiveJob userArchiveJob;
+
+    public UserArchiveEndpoint(UserArchiver userArchiver, UserArchiveJob userArchiveJob) {
+        this.userArchiver = userArchiver;
+        this.userArchiveJob = userArchiveJob;
+    }
+
+    @ReadOperation
+    public Map<String, Object> stats() {
+        return userArchiver.stats();
+    }
+
+    @WriteOperation
+    public Map<String, Object> run() {
+        boolean started = !userArchiver.isRunning();
+        if (started) {
+            userArchiveJob.runAsync();
+        }
+        Map<String, Object> stats = userArchiver.stats();
+        stats.put("started", started);
+        return stats;
+    }
+}
@@ -0,0 +1,44 @@
+package com.wanli.archive;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 已删除用户归档任务
+ * 按 app.archive.cron 定时执行（默认每天 03:30），app.archive.enabled=false 时不执行
+ *
+ * @author JamesWu
+ * @since 1.0.0
+ */
+@Component
+public class UserArchiveJob {
+
+    private final UserArchiver userArchiver;
+    private final boolean enabled;
+
+    public UserArchiveJob(UserArchiver userArchiver,
+                          @Value("${app.archive.enabled:true}") boolean enabled) {
+        this.userArchiver = userArchiver;
+        this.enabled = enabled;
+    }
+
+    /**
+     * 定时归档
+     */
+    @Scheduled(cron = "${app.archive.cron:0 30 3 * * *}")
+    public void scheduledRun() {
+        if (enabled) {
+            userArchiver.run();
+        }
+    }
+
+    /**
+     * 在后台执行归档
+     */
+    @Async
+    public void runAsync() {
+        userArchiver.run();
+    }
+}
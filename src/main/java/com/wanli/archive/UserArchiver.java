@@ -0,0 +1,252 @@
+package com.wanli.archive;
+
+import com.wanli.cache.UserNearCache;
+import com.wanli.entity.User;
+import com.wanli.lock.RedisLock;
+import com.wanli.search.UserSearchIndex;
+import com.wanli.stats.UserStatisticsCounter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 已删除用户归档
+ * 将删除（status = DELETED）超过保留期的用户从 users 表移入 users_archive，并清理其搜索词元与缓存。
+ * 按 (updated_at, id) 键集顺序分块处理，每块在独立的短事务中先锁定、复制、再删除，块之间暂停以限制对线上的影响；
+ * 单次运行超过 max-run-time 后停止，剩余部分留到下次运行。集群内通过 Redis 锁保证同一时刻只有一个节点执行。
+ *
+ * @author JamesWu
+ * @since 1.0.0
+ */
+@Component
+public class UserArchiver {
+
+    private static final Logger log = LoggerFactory.getLogger(UserArchiver.class);
+
+    private static final String LOCK = "user-archive";
+
+    /**
+     * 锁的过期时间在最长运行时间之外留出的余量（最后一块的执行与释放锁）
+     */
+    private static final Duration LOCK_MARGIN = Duration.ofMinutes(1);
+
+    private static final String COUNT_ELIGIBLE = "SELECT COUNT(*) FROM users "
+            + "WHERE status = 'DELETED' AND updated_at < :cutoff";
+    private static final String FIRST_CHUNK = "SELECT id, updated_at FROM users "
+            + "WHERE status = 'DELETED' AND updated_at < :cutoff "
+            + "ORDER BY updated_at, id LIMIT :limit";
+    private static final String NEXT_CHUNK = "SELECT id, updated_at FROM users "
+            + "WHERE status = 'DELETED' AND updated_at < :cutoff "
+            + "AND (updated_at > :afterUpdatedAt OR (updated_at = :afterUpdatedAt AND id > :afterId)) "
+            + "ORDER BY updated_at, id LIMIT :limit";
+    // 锁定后再次校验状态：选出到锁定之间用户可能已被恢复
+    private static final String LOCK_CHUNK = "SELECT id FROM users "
+            + "WHERE id IN (:ids) AND status = 'DELETED' AND updated_at < :cutoff FOR UPDATE";
+    private static final String COPY_TO_ARCHIVE = "INSERT INTO users_archive (id, username, email, full_name, phone, "
+            + "avatar_url, status, email_verified, phone_verified, last_login_at, created_at, deleted_at, "
+            + "created_by, updated_by, archived_at) "
+            + "SELECT id, username, email, full_name, phone, avatar_url, status, email_verified, phone_verified, "
+            + "last_login_at, created_at, updated_at, created_by, updated_by, :archivedAt "
+            + "FROM users WHERE id IN (:ids)";
+    private static final String DELETE_USERS = "DELETE FROM users WHERE id IN (:ids)";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final RedisLock redisLock;
+    private final UserNearCache userNearCache;
+    private final UserSearchIndex userSearchIndex;
+    private final UserStatisticsCounter userStatisticsCounter;
+    private final Duration retention;
+    private final int chunkSize;
+    private final Duration pause;
+    private final Duration maxRunTime;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final AtomicLong backlog = new AtomicLong();
+    private final AtomicLong currentRunArchived = new AtomicLong();
+    private volatile LocalDateTime lastStartedAt;
+    private volatile LocalDateTime lastFinishedAt;
+    private volatile long lastRunArchived;
+
+    private final Counter archivedCounter;
+    private final Timer chunkTimer;
+
+    public UserArchiver(NamedParameterJdbcTemplate jdbcTemplate,
+                        PlatformTransactionManager transactionManager,
+                        RedisLock redisLock,
+                        UserNearCache userNearCache,
+                        UserSearchIndex userSearchIndex,
+                        UserStatisticsCounter userStatisticsCounter,
+                        MeterRegistry meterRegistry,
+                        @Value("${app.archive.retention:90d}") Duration retention,
+                        @Value("${app.archive.chunk-size:500}") int chunkSize,
+                        @Value("${app.archive.pause:200ms}") Duration pause,
+                        @Value("${app.archive.max-run-time:10m}") Duration maxRunTime) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.redisLock = redisLock;
+        this.userNearCache = userNearCache;
+        this.userSearchIndex = userSearchIndex;
+        this.userStatisticsCounter = userStatisticsCounter;
+        this.retention = retention;
+        this.chunkSize = chunkSize;
+        this.pause = pause;
+        this.maxRunTime = maxRunTime;
+
+        this.archivedCounter = Counter.builder("user.archive.rows")
+                .description("Deleted users moved to users_archive")
+                .register(meterRegistry);
+        this.chunkTimer = Timer.builder("user.archive.chunk")
+                .description("Time to archive one chunk of deleted users")
+                .register(meterRegistry);
+        Gauge.builder("user.archive.backlog", backlog, AtomicLong::get)
+                .description("Deleted users past retention still waiting to be archived, as of the last chunk")
+                .register(meterRegistry);
+        Gauge.builder("user.archive.running", running, flag -> flag.get() ? 1 : 0)
+                .description("Whether this node is currently archiving")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 执行一次归档，其他节点正在归档时直接返回
+     *
+     * @return 是否执行了归档
+     */
+    public boolean run() {
+        return redisLock.runIfAcquired(LOCK, maxRunTime.plus(LOCK_MARGIN), this::archive);
+    }
+
+    public boolean isRunning() {
+        return running.get();
+    }
+
+    /**
+     * 归档状态
+     */
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("running", running.get());
+        stats.put("retention", retention.toString());
+        stats.put("chunkSize", chunkSize);
+        stats.put("backlog", backlog.get());
+        stats.put("currentRunArchived", currentRunArchived.get());
+        stats.put("lastStartedAt", lastStartedAt);
+        stats.put("lastFinishedAt", lastFinishedAt);
+        stats.put("lastRunArchived", lastRunArchived);
+        stats.put("totalArchived", (long) archivedCounter.count());
+        return stats;
+    }
+
+    private void archive() {
+        if (!running.compareAndSet(false, true)) {
+            return;
+        }
+        LocalDateTime cutoff = LocalDateTime.now().minus(retention);
+        long deadline = System.nanoTime() + maxRunTime.toNanos();
+        lastStartedAt = LocalDateTime.now();
+        currentRunArchived.set(0);
+        try {
+            Long eligible = jdbcTemplate.queryForObject(COUNT_ELIGIBLE,
+                    new MapSqlParameterSource("cutoff", Timestamp.valueOf(cutoff)), Long.class);
+            backlog.set(eligible != null ? eligible : 0);
+
+            ChunkKey after = null;
+            while (true) {
+                List<ChunkKey> keys = nextChunk(cutoff, after);
+                if (keys.isEmpty()) {
+                    break;
+                }
+                List<String> ids = keys.stream().map(ChunkKey::id).toList();
+                Integer archived = chunkTimer.record(() -> transactionTemplate.execute(status -> archiveChunk(ids, cutoff)));
+                int count = archived != null ? archived : 0;
+                archivedCounter.increment(count);
+                currentRunArchived.addAndGet(count);
+                backlog.updateAndGet(value -> Math.max(0, value - keys.size()));
+                after = keys.get(keys.size() - 1);
+
+                if (keys.size() < chunkSize) {
+                    break;
+                }
+                if (System.nanoTime() > deadline) {
+                    log.info("用户归档达到单次运行时长上限 {}，剩余约 {} 个用户留待下次", maxRunTime, backlog.get());
+                    break;
+                }
+                if (!sleep(pause)) {
+                    break;
+                }
+            }
+            if (currentRunArchived.get() > 0) {
+                log.info("用户归档完成，本次归档 {} 个已删除用户", currentRunArchived.get());
+            }
+        } finally {
+            lastRunArchived = currentRunArchived.get();
+            lastFinishedAt = LocalDateTime.now();
+            running.set(false);
+        }
+    }
+
+    private List<ChunkKey> nextChunk(LocalDateTime cutoff, ChunkKey after) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("cutoff", Timestamp.valueOf(cutoff))
+                .addValue("limit", chunkSize);
+        if (after != null) {
+            params.addValue("afterUpdatedAt", after.updatedAt()).addValue("afterId", after.id());
+        }
+        return jdbcTemplate.query(after != null ? NEXT_CHUNK : FIRST_CHUNK, params,
+                (rs, rowNum) -> new ChunkKey(rs.getString("id"), rs.getTimestamp("updated_at")));
+    }
+
+    /**
+     * 归档一块用户，在事务内执行
+     *
+     * @return 实际归档的数量
+     */
+    private int archiveChunk(List<String> candidates, LocalDateTime cutoff) {
+        List<String> ids = jdbcTemplate.queryForList(LOCK_CHUNK, new MapSqlParameterSource()
+                .addValue("ids", candidates)
+                .addValue("cutoff", Timestamp.valueOf(cutoff)), String.class);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        jdbcTemplate.update(COPY_TO_ARCHIVE, new MapSqlParameterSource()
+                .addValue("ids", ids)
+                .addValue("archivedAt", Timestamp.valueOf(LocalDateTime.now())));
+        userSearchIndex.remove(ids);
+        jdbcTemplate.update(DELETE_USERS, Map.of("ids", ids));
+
+        userNearCache.invalidateAfterCommit(ids);
+        userStatisticsCounter.recordRemoved(User.UserStatus.DELETED, ids.size());
+        return ids.size();
+    }
+
+    private static boolean sleep(Duration duration) {
+        try {
+            Thread.sleep(duration.toMillis());
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private record ChunkKey(String id, Timestamp updatedAt) {
+    }
+}
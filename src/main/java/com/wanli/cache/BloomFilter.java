@@ -0,0 +1,117 @@
+package com.wanli.cache;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 线程安全的布隆过滤器
+ * 位数组基于 AtomicLongArray，使用 64 位 MurmurHash3 混合后的双重哈希生成 k 个位置。
+ * mightContain 返回 false 时元素一定不存在；返回 true 时可能存在。
+ *
+ * @author JamesWu
+ * @since 1.0.0
+ */
+public class BloomFilter {
+
+    private final AtomicLongArray bits;
+    private final long bitSize;
+    private final int hashFunctions;
+    private final AtomicLong bitCount = new AtomicLong();
+
+    /**
+     * @param expectedInsertions 预计元素数量
+     * @param falsePositiveRate 目标误判率
+     */
+    public BloomFilter(long expectedInsertions, double falsePositiveRate) {
+        long n = Math.max(1, expectedInsertions);
+        long m = (long) Math.ceil(-n * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        int words = (int) Math.min(Integer.MAX_VALUE, (m + 63) >>> 6);
+        this.bits = new AtomicLongArray(words);
+        this.bitSize = (long) words << 6;
+        this.hashFunctions = Math.max(1, (int) Math.round((double) bitSize / n * Math.log(2)));
+    }
+
+    /**
+     * 添加元素
+     */
+    public void put(String value) {
+        long hash = hash(value);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= hashFunctions; i++) {
+            setBit(index(h1, h2, i, bitSize));
+        }
+    }
+
+    /**
+     * 判断元素是否可能存在
+     */
+    public boolean mightContain(String value) {
+        long hash = hash(value);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= hashFunctions; i++) {
+            long index = index(h1, h2, i, bitSize);
+            if ((bits.get((int) (index >>> 6)) & (1L << index)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 按当前置位比例估算的误判率
+     */
+    public double expectedFalsePositiveRate() {
+        return Math.pow((double) bitCount.get() / bitSize, hashFunctions);
+    }
+
+    /**
+     * 位数组占用的内存（字节）
+     */
+    public long memoryBytes() {
+        return bitSize >>> 3;
+    }
+
+    /**
+     * 第 i 个哈希位置
+     * 以 long 计算组合哈希，位数组超过 2^31 位时高位同样可以被选中
+     */
+    static long index(int h1, int h2, int i, long bitSize) {
+        long combined = h1 + i * (long) h2;
+        return (combined & Long.MAX_VALUE) % bitSize;
+    }
+
+    private void setBit(long index) {
+        int word = (int) (index >>> 6);
+        long mask = 1L << index;
+        long current;
+        do {
+            current = bits.get(word);
+            if ((current & mask) != 0) {
+                return;
+            }
+        } while (!bits.compareAndSet(word, current, current | mask));
+        bitCount.incrementAndGet();
+    }
+
+    /**
+     * MurmurHash3 风格的 64 位哈希
+     */
+    private static long hash(String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        long h = 0x9E3779B97F4A7C15L ^ bytes.length;
+        for (byte b : bytes) {
+            h ^= b & 0xFF;
+            h *= 0xC6A4A7935BD1E995L;
+            h ^= h >>> 47;
+        }
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
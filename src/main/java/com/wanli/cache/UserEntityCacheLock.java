@@ -0,0 +1,106 @@
+package com.wanli.cache;
+
+import com.wanli.entity.User;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.cache.spi.access.EntityDataAccess;
+import org.hibernate.cache.spi.access.SoftLock;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.function.IntSupplier;
+
+/**
+ * User 二级缓存软锁
+ * 绕过 Hibernate 的 JDBC 写入不会自动加 READ_WRITE 软锁，直接 evict 也挡不住并发回源：
+ * 在提交前读到旧行的会话仍可在 evict 之后把旧行放回缓存。
+ * 这里通过 EntityDataAccess 显式加锁/解锁，锁定期间及解锁前开启的会话都不能写入该条目。
+ *
+ * @author JamesWu
+ * @since 1.0.0
+ */
+@Component
+public class UserEntityCacheLock {
+
+    private final SessionFactoryImplementor sessionFactory;
+    private final EntityPersister persister;
+    private final EntityDataAccess access;
+
+    public UserEntityCacheLock(EntityManagerFactory entityManagerFactory) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        this.persister = sessionFactory.getMappingMetamodel().getEntityDescriptor(User.class);
+        // 未启用二级缓存时为 null，加锁与隔离均为空操作
+        this.access = persister.getCacheAccessStrategy();
+    }
+
+    /**
+     * 在软锁保护下执行写入；有事务时锁持有到事务结束，否则写入后立即解锁
+     *
+     * @param id 用户ID
+     * @param write 写入操作，返回影响行数
+     * @return 影响行数
+     */
+    public int writeLocked(String id, IntSupplier write) {
+        if (access == null) {
+            return write.getAsInt();
+        }
+        Object key = access.generateCacheKey(id, persister, sessionFactory, null);
+        SoftLock lock = lock(key);
+        boolean deferred = false;
+        try {
+            int rows = write.getAsInt();
+            if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCompletion(int status) {
+                        unlock(key, lock);
+                    }
+                });
+                deferred = true;
+            }
+            return rows;
+        } finally {
+            if (!deferred) {
+                unlock(key, lock);
+            }
+        }
+    }
+
+    /**
+     * 隔离缓存条目：立即加锁再解锁，丢弃已缓存的数据，并拒绝此刻之前开启的会话写回旧数据
+     *
+     * @param ids 用户ID列表
+     */
+    public void fence(Collection<String> ids) {
+        if (access == null) {
+            return;
+        }
+        for (String id : ids) {
+            Object key = access.generateCacheKey(id, persister, sessionFactory, null);
+            unlock(key, lock(key));
+        }
+    }
+
+    private SoftLock lock(Object key) {
+        try (SharedSessionContractImplementor session = openSession()) {
+            return access.lockItem(session, key, null);
+        }
+    }
+
+    private void unlock(Object key, SoftLock lock) {
+        try (SharedSessionContractImplementor session = openSession()) {
+            access.unlockItem(session, key, lock);
+        }
+    }
+
+    /**
+     * 缓存访问只需要会话作为上下文，无状态会话不会获取数据库连接
+     */
+    private SharedSessionContractImplementor openSession() {
+        return (SharedSessionContractImplementor) sessionFactory.openStatelessSession();
+    }
+}
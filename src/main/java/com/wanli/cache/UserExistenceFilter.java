@@ -0,0 +1,298 @@
+package com.wanli.cache;
+
+import com.wanli.entity.User;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.text.Collator;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 用户名/邮箱存在性过滤器
+ * 基于布隆过滤器为用户名、邮箱可用性检查提供快速路径：过滤器判定"一定不存在"时无需查询数据库。
+ * 启动后以流式查询扫描 users 表构建，createUser 时增量更新，支持在线重建。
+ *
+ * 键为主强度（PRIMARY）排序键：与 utf8mb4_unicode_ci 一样忽略大小写、重音、全半角与可忽略字符，
+ * 并按 PAD SPACE 忽略尾随空格，数据库视为相同的两个值得到相同的键，过滤器不会对已占用的名称判定"一定不存在"。
+ * JDK 根排序规则与 MySQL 的 UCA 4.0.0 权重表在个别罕见字符上可能不一致，这类值仍由唯一约束拒绝重复注册。
+ *
+ * @author JamesWu
+ * @since 1.0.0
+ */
+@Component
+public class UserExistenceFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(UserExistenceFilter.class);
+
+    /**
+     * RuleBasedCollator 生成排序键时加锁，每个线程使用自己的副本
+     */
+    private static final ThreadLocal<Collator> COLLATOR = ThreadLocal.withInitial(() -> {
+        Collator collator = Collator.getInstance(Locale.ROOT);
+        collator.setStrength(Collator.PRIMARY);
+        collator.setDecomposition(Collator.FULL_DECOMPOSITION);
+        return collator;
+    });
+
+    private final JdbcTemplate jdbcTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.bloom-filter.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.bloom-filter.expected-insertions:5000000}")
+    private long expectedInsertions;
+
+    @Value("${app.bloom-filter.false-positive-rate:0.01}")
+    private double falsePositiveRate;
+
+    /**
+     * 当前生效的过滤器，构建完成前为 null（此时所有判定都回退到数据库）
+     */
+    private volatile Filters current;
+
+    /**
+     * 正在重建的过滤器，重建期间的新增同时写入
+     */
+    private volatile Filters building;
+
+    private volatile LocalDateTime lastBuiltAt;
+
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+
+    private final Counter usernameNegative;
+    private final Counter usernameMaybe;
+    private final Counter emailNegative;
+    private final Counter emailMaybe;
+    private final Timer rebuildTimer;
+
+    public UserExistenceFilter(JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.meterRegistry = meterRegistry;
+        this.usernameNegative = requestCounter("username", "negative");
+        this.usernameMaybe = requestCounter("username", "maybe");
+        this.emailNegative = requestCounter("email", "negative");
+        this.emailMaybe = requestCounter("email", "maybe");
+        this.rebuildTimer = Timer.builder("user.bloom.filter.rebuild")
+                .description("Time to rebuild the username/email bloom filters")
+                .register(meterRegistry);
+
+        Gauge.builder("user.bloom.filter.false.positive.rate", this, f -> f.fpp(true))
+                .tag("field", "username")
+                .register(meterRegistry);
+        Gauge.builder("user.bloom.filter.false.positive.rate", this, f -> f.fpp(false))
+                .tag("field", "email")
+                .register(meterRegistry);
+        Gauge.builder("user.bloom.filter.memory", this, UserExistenceFilter::memoryBytes)
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 应用启动完成后在后台构建过滤器
+     */
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        if (enabled) {
+            rebuild();
+        }
+    }
+
+    /**
+     * 用户名是否可能存在
+     *
+     * @param username 用户名
+     * @return false 表示一定不存在
+     */
+    public boolean mightContainUsername(String username) {
+        Filters filters = current;
+        if (filters == null) {
+            return true;
+        }
+        boolean maybe = filters.usernames.mightContain(normalize(username));
+        (maybe ? usernameMaybe : usernameNegative).increment();
+        return maybe;
+    }
+
+    /**
+     * 邮箱是否可能存在
+     *
+     * @param email 邮箱
+     * @return false 表示一定不存在
+     */
+    public boolean mightContainEmail(String email) {
+        Filters filters = current;
+        if (filters == null) {
+            return true;
+        }
+        boolean maybe = filters.emails.mightContain(normalize(email));
+        (maybe ? emailMaybe : emailNegative).increment();
+        return maybe;
+    }
+
+    /**
+     * 记录新用户
+     * 立即写入一次，并在事务提交后再写入一次，避免与并发重建的快照产生空窗
+     *
+     * @param user 新创建的用户
+     */
+    public void add(User user) {
+        String username = normalize(user.getUsername());
+        String email = normalize(user.getEmail());
+        put(username, email);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    put(username, email);
+                }
+            });
+        }
+    }
+
+    /**
+     * 在线重建过滤器：流式扫描 users 表构建新过滤器后原子替换，期间旧过滤器继续服务
+     *
+     * @return 是否执行了重建（已有重建在进行时返回 false）
+     */
+    public boolean rebuild() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            return false;
+        }
+        try {
+            rebuildTimer.record(() -> {
+                Long rows = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM users", Long.class);
+                long capacity = Math.max(expectedInsertions, (rows != null ? rows : 0) * 2);
+                Filters next = new Filters(capacity, falsePositiveRate);
+                building = next;
+
+                jdbcTemplate.query(con -> {
+                    PreparedStatement ps = con.prepareStatement("SELECT username, email FROM users",
+                            ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                    // MySQL Connector/J 在该取值下逐行流式返回结果
+                    ps.setFetchSize(Integer.MIN_VALUE);
+                    return ps;
+                }, (ResultSet rs) -> {
+                    next.put(normalize(rs.getString(1)), normalize(rs.getString(2)));
+                });
+
+                current = next;
+                lastBuiltAt = LocalDateTime.now();
+                log.info("用户存在性过滤器构建完成，容量 {}，内存 {} 字节", capacity, next.memoryBytes());
+            });
+            return true;
+        } catch (RuntimeException e) {
+            log.error("用户存在性过滤器构建失败", e);
+            return false;
+        } finally {
+            building = null;
+            rebuilding.set(false);
+        }
+    }
+
+    /**
+     * 过滤器状态
+     */
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("ready", current != null);
+        stats.put("rebuilding", rebuilding.get());
+        stats.put("lastBuiltAt", lastBuiltAt);
+        stats.put("usernameFalsePositiveRate", fpp(true));
+        stats.put("emailFalsePositiveRate", fpp(false));
+        stats.put("memoryBytes", memoryBytes());
+        return stats;
+    }
+
+    private void put(String username, String email) {
+        Filters filters = current;
+        if (filters != null) {
+            filters.put(username, email);
+        }
+        Filters next = building;
+        if (next != null) {
+            next.put(username, email);
+        }
+    }
+
+    private double fpp(boolean username) {
+        Filters filters = current;
+        if (filters == null) {
+            return 0;
+        }
+        return (username ? filters.usernames : filters.emails).expectedFalsePositiveRate();
+    }
+
+    private double memoryBytes() {
+        Filters filters = current;
+        return filters != null ? filters.memoryBytes() : 0;
+    }
+
+    private Counter requestCounter(String field, String result) {
+        return Counter.builder("user.bloom.filter.requests")
+                .tag("field", field)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    /**
+     * 按 utf8mb4_unicode_ci 的比较语义归一化为主强度排序键
+     * 返回值只用于相等比较（过滤器、去重集合），不可读
+     */
+    public static String normalize(String value) {
+        if (value == null) {
+            return "";
+        }
+        int end = value.length();
+        while (end > 0 && value.charAt(end - 1) == ' ') {
+            end--;
+        }
+        byte[] key = COLLATOR.get().getCollationKey(value.substring(0, end)).toByteArray();
+        return new String(key, StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * 用户名、邮箱两个过滤器
+     */
+    private static final class Filters {
+
+        private final BloomFilter usernames;
+        private final BloomFilter emails;
+
+        private Filters(long capacity, double falsePositiveRate) {
+            this.usernames = new BloomFilter(capacity, falsePositiveRate);
+            this.emails = new BloomFilter(capacity, falsePositiveRate);
+        }
+
+        private void put(String username, String email) {
+            usernames.put(username);
+            emails.put(email);
+        }
+
+        private long memoryBytes() {
+            return usernames.memoryBytes() + emails.memoryBytes();
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.wanli.cache;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * 用户存在性过滤器管理端点
+ * GET 查看过滤器状态，POST 触发在线重建
+ *
+ * @author JamesWu
+ * @since 1.0.0
+ */
+@Component
+@Endpoint(id = "userbloomfilter")
+public class UserExistenceFilterEndpoint {
+
+    private final UserExistenceFilter userExistenceFilter;
+
+    public UserExistenceFilterEndpoint(UserExistenceFilter userExistenceFilter) {
+        this.userExistenceFilter = userExistenceFilter;
+    }
+
+    @ReadOperation
+    public Map<String, Object> stats() {
+        return userExistenceFilter.stats();
+    }
+
+    @WriteOperation
+    public Map<String, Object> rebuild() {
+        boolean rebuilt = userExistenceFilter.rebuild();
+        Map<String, Object> stats = userExistenceFilter.stats();
+        stats.put("rebuilt", rebuilt);
+        return stats;
+    }
+}
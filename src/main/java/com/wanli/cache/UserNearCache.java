@@ -0,0 +1,387 @@
+package com.wanli.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wanli.entity.User;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * 用户两级近端缓存
+ * L1 为进程内 Ehcache（有界、TTL），L2 为共享 Redis；
+ * 用户名/邮箱通过二级键索引映射到用户ID；经索引命中的用户须与查询的用户名/邮箱一致才会返回，
+ * 否则（用户已改名、已归档）丢弃该索引并回源。失效时按缓存中的用户一并删除其索引。
+ * 写操作提交后通过 Redis pub/sub 广播失效消息，各节点据此丢弃本地 L1 与 Hibernate 二级缓存中的旧数据。
+ * 失效时同时写入短期墓碑，墓碑存在期间回源结果不再写入缓存，
+ * 避免提交前读到旧行的回源在失效之后把旧值写回 Redis。
+ *
+ * 缓存中的用户不包含密码哈希，需要密码哈希的调用方应直接访问 UserRepository。
+ *
+ * @author JamesWu
+ * @since 1.0.0
+ */
+@Component
+public class UserNearCache implements MessageListener {
+
+    private static final Logger log = LoggerFactory.getLogger(UserNearCache.class);
+
+    /**
+     * 失效消息频道
+     */
+    public static final String INVALIDATION_CHANNEL = "user:cache:invalidation";
+
+    private static final String L1_CACHE = "user-near-cache";
+    private static final String KEY_INDEX_CACHE = "user-key-index";
+
+    private static final String ID_KEY_PREFIX = "user:cache:id:";
+    private static final String USERNAME_KEY_PREFIX = "user:cache:username:";
+    private static final String EMAIL_KEY_PREFIX = "user:cache:email:";
+    private static final String TOMBSTONE_KEY_PREFIX = "user:cache:tombstone:";
+
+    /**
+     * 墓碑存在时不写入；KEYS[1] 为缓存键，KEYS[2] 为墓碑键，ARGV 为值与 TTL（毫秒）
+     */
+    private static final RedisScript<Long> PUT_SCRIPT = new DefaultRedisScript<>("""
+            if redis.call('exists', KEYS[2]) == 1 then
+                return 0
+            end
+            redis.call('set', KEYS[1], ARGV[1], 'PX', ARGV[2])
+            return 1
+            """, Long.class);
+
+    /**
+     * KEYS 依次为 (缓存键, 墓碑键) 对，ARGV[1] 为墓碑 TTL（毫秒），ARGV[2]/ARGV[3] 为用户名/邮箱索引键前缀；
+     * 删除缓存值前按其中的用户名/邮箱删除对应的索引键
+     */
+    private static final RedisScript<Long> INVALIDATE_SCRIPT = new DefaultRedisScript<>("""
+            for i = 1, #KEYS, 2 do
+                local json = redis.call('get', KEYS[i])
+                if json then
+                    local ok, user = pcall(cjson.decode, json)
+                    if ok and type(user) == 'table' then
+                        if type(user.username) == 'string' then
+                            redis.call('del', ARGV[2] .. user.username)
+                        end
+                        if type(user.email) == 'string' then
+                            redis.call('del', ARGV[3] .. user.email)
+                        end
+                    end
+                    redis.call('del', KEYS[i])
+                end
+                redis.call('set', KEYS[i + 1], '1', 'PX', ARGV[1])
+            end
+            return #KEYS / 2
+            """, Long.class);
+
+    private static final char MESSAGE_SEPARATOR = '|';
+    private static final String ID_SEPARATOR = ",";
+
+    private final Cache<String, User> l1;
+    private final Cache<String, String> keyIndex;
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final UserEntityCacheLock userEntityCacheLock;
+
+    /**
+     * 当前节点标识，用于忽略自己发出的失效消息
+     */
+    private final String nodeId = UUID.randomUUID().toString();
+
+    @Value("${app.cache.user.redis-ttl:30m}")
+    private Duration redisTtl;
+
+    /**
+     * 墓碑时长，应大于一次回源查询的最长耗时
+     */
+    @Value("${app.cache.user.tombstone-ttl:5s}")
+    private Duration tombstoneTtl;
+
+    public UserNearCache(CacheManager jcacheManager,
+                         StringRedisTemplate redisTemplate,
+                         ObjectMapper objectMapper,
+                         UserEntityCacheLock userEntityCacheLock) {
+        this.l1 = jcacheManager.getCache(L1_CACHE, String.class, User.class);
+        this.keyIndex = jcacheManager.getCache(KEY_INDEX_CACHE, String.class, String.class);
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.userEntityCacheLock = userEntityCacheLock;
+    }
+
+    /**
+     * 根据ID查询用户，依次查询 L1、L2，最后回源
+     *
+     * @param id 用户ID
+     * @param loader 回源查询
+     * @return 用户信息（副本）
+     */
+    public Optional<User> getById(String id, Supplier<Optional<User>> loader) {
+        User cached = getCached(id);
+        if (cached != null) {
+            return Optional.of(copyOf(cached));
+        }
+
+        Optional<User> loaded = loader.get();
+        loaded.ifPresent(this::put);
+        return loaded.map(this::copyOf);
+    }
+
+    /**
+     * 根据用户名查询用户
+     *
+     * @param username 用户名
+     * @param loader 回源查询
+     * @return 用户信息（副本）
+     */
+    public Optional<User> getByUsername(String username, Supplier<Optional<User>> loader) {
+        return getBySecondaryKey(USERNAME_KEY_PREFIX + username, username, User::getUsername, loader);
+    }
+
+    /**
+     * 根据邮箱查询用户
+     *
+     * @param email 邮箱
+     * @param loader 回源查询
+     * @return 用户信息（副本）
+     */
+    public Optional<User> getByEmail(String email, Supplier<Optional<User>> loader) {
+        return getBySecondaryKey(EMAIL_KEY_PREFIX + email, email, User::getEmail, loader);
+    }
+
+    /**
+     * 在当前事务提交后失效用户缓存；无事务时立即失效。
+     * 本地 L1 会先行失效一次，避免本节点在事务进行中读到旧值。
+     *
+     * @param id 用户ID
+     */
+    public void invalidateAfterCommit(String id) {
+        invalidateAfterCommit(List.of(id));
+    }
+
+    /**
+     * 在当前事务提交后批量失效用户缓存；无事务时立即失效
+     *
+     * @param ids 用户ID列表
+     */
+    public void invalidateAfterCommit(Collection<String> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        List<String> snapshot = new ArrayList<>(ids);
+        evictLocal(snapshot);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidate(snapshot);
+                }
+            });
+        } else {
+            invalidate(snapshot);
+        }
+    }
+
+    /**
+     * 立即失效用户缓存并通知其他节点
+     *
+     * @param ids 用户ID列表
+     */
+    public void invalidate(Collection<String> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        evictLocal(ids);
+
+        List<String> keys = new ArrayList<>(ids.size() * 2);
+        for (String id : ids) {
+            keys.add(ID_KEY_PREFIX + id);
+            keys.add(TOMBSTONE_KEY_PREFIX + id);
+        }
+        try {
+            redisTemplate.execute(INVALIDATE_SCRIPT, keys, Long.toString(tombstoneTtl.toMillis()),
+                    USERNAME_KEY_PREFIX, EMAIL_KEY_PREFIX);
+            redisTemplate.convertAndSend(INVALIDATION_CHANNEL,
+                    nodeId + MESSAGE_SEPARATOR + String.join(ID_SEPARATOR, ids));
+        } catch (DataAccessException e) {
+            log.warn("用户缓存失效消息发送失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 接收其他节点的失效消息
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        int separator = body.indexOf(MESSAGE_SEPARATOR);
+        if (separator < 0 || nodeId.equals(body.substring(0, separator))) {
+            return;
+        }
+        String ids = body.substring(separator + 1);
+        if (!ids.isEmpty()) {
+            evictLocal(List.of(ids.split(ID_SEPARATOR)));
+        }
+    }
+
+    /**
+     * 经二级键索引查询；索引指向的缓存用户与查询值不一致时视为过期索引，丢弃后回源。
+     * 比较使用与数据库排序规则一致的归一化键，大小写不同的查询同样可以命中。
+     */
+    private Optional<User> getBySecondaryKey(String key, String value, Function<User, String> keyOf,
+                                             Supplier<Optional<User>> loader) {
+        String id = keyIndex.get(key);
+        if (id == null) {
+            id = readRemoteIndex(key);
+            if (id != null) {
+                keyIndex.put(key, id);
+            }
+        }
+        if (id != null) {
+            User cached = getCached(id);
+            if (cached != null && UserExistenceFilter.normalize(keyOf.apply(cached))
+                    .equals(UserExistenceFilter.normalize(value))) {
+                return Optional.of(copyOf(cached));
+            }
+        }
+
+        Optional<User> loaded = loader.get();
+        if (loaded.isPresent()) {
+            User user = loaded.get();
+            put(user);
+            keyIndex.put(key, user.getId());
+            writeRemoteIndex(key, user.getId());
+        } else if (id != null) {
+            keyIndex.remove(key);
+            deleteRemoteIndex(key);
+        }
+        return loaded.map(this::copyOf);
+    }
+
+    /**
+     * 依次查询 L1、L2，L2 命中时回填 L1
+     */
+    private User getCached(String id) {
+        User cached = l1.get(id);
+        if (cached != null) {
+            return cached;
+        }
+        User remote = readRemote(id);
+        if (remote != null) {
+            l1.put(id, remote);
+        }
+        return remote;
+    }
+
+    /**
+     * 写入回源结果；用户刚被失效（墓碑仍在）时两级缓存都不写，回源结果可能早于那次提交
+     */
+    private void put(User user) {
+        User snapshot = copyOf(user);
+        try {
+            Long written = redisTemplate.execute(PUT_SCRIPT,
+                    List.of(ID_KEY_PREFIX + snapshot.getId(), TOMBSTONE_KEY_PREFIX + snapshot.getId()),
+                    objectMapper.writeValueAsString(snapshot), Long.toString(redisTtl.toMillis()));
+            if (written == null || written == 0) {
+                return;
+            }
+        } catch (JsonProcessingException | DataAccessException e) {
+            log.debug("写入用户二级缓存失败: {}", e.getMessage());
+        }
+        l1.put(snapshot.getId(), snapshot);
+    }
+
+    private User readRemote(String id) {
+        try {
+            String json = redisTemplate.opsForValue().get(ID_KEY_PREFIX + id);
+            return json != null ? objectMapper.readValue(json, User.class) : null;
+        } catch (JsonProcessingException | DataAccessException e) {
+            log.debug("读取用户二级缓存失败: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private String readRemoteIndex(String key) {
+        try {
+            return redisTemplate.opsForValue().get(key);
+        } catch (DataAccessException e) {
+            log.debug("读取用户键索引失败: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private void writeRemoteIndex(String key, String id) {
+        try {
+            redisTemplate.opsForValue().set(key, id, redisTtl);
+        } catch (DataAccessException e) {
+            log.debug("写入用户键索引失败: {}", e.getMessage());
+        }
+    }
+
+    private void deleteRemoteIndex(String key) {
+        try {
+            redisTemplate.delete(key);
+        } catch (DataAccessException e) {
+            log.debug("删除用户键索引失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 丢弃本地 L1 及 L1 中用户对应的本地键索引；
+     * 二级缓存用加锁再解锁代替 evict：evict 会一并删掉写入方持有的软锁，让提交前开启的会话把旧行写回
+     */
+    private void evictLocal(Collection<String> ids) {
+        for (String id : ids) {
+            User cached = l1.getAndRemove(id);
+            if (cached != null) {
+                keyIndex.remove(USERNAME_KEY_PREFIX + cached.getUsername());
+                keyIndex.remove(EMAIL_KEY_PREFIX + cached.getEmail());
+            }
+        }
+        userEntityCacheLock.fence(ids);
+    }
+
+    /**
+     * 复制用户信息（不含密码哈希），保证缓存中的对象不会被调用方修改
+     */
+    private User copyOf(User source) {
+        User copy = new User();
+        copy.setId(source.getId());
+        copy.setUsername(source.getUsername());
+        copy.setEmail(source.getEmail());
+        copy.setFullName(source.getFullName());
+        copy.setPhone(source.getPhone());
+        copy.setAvatarUrl(source.getAvatarUrl());
+        copy.setStatus(source.getStatus());
+        copy.setRole(source.getRole());
+        copy.setEmailVerified(source.getEmailVerified());
+        copy.setPhoneVerified(source.getPhoneVerified());
+        copy.setLastLoginAt(source.getLastLoginAt());
+        copy.setCreatedAt(source.getCreatedAt());
+        copy.setUpdatedAt(source.getUpdatedAt());
+        copy.setCreatedBy(source.getCreatedBy());
+        copy.setUpdatedBy(source.getUpdatedBy());
+        return copy;
+    }
+}
@@ -0,0 +1,61 @@
+package com.wanli.config;
+
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+import org.ehcache.jsr107.EhcacheCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.Resource;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+import java.io.IOException;
+
+/**
+ * 缓存配置类
+ * 创建基于 Ehcache 的 JCache 缓存管理器，并交给 Hibernate 作为二级缓存使用，
+ * 同时将各缓存区域的命中/未命中/淘汰次数发布到 Micrometer
+ *
+ * @author JamesWu
+ * @since 1.0.0
+ */
+@Configuration
+public class CacheConfig {
+
+    @Value("${app.cache.config:classpath:ehcache.xml}")
+    private Resource cacheConfig;
+
+    /**
+     * JCache 缓存管理器
+     */
+    @Bean(destroyMethod = "close")
+    public CacheManager jcacheManager() throws IOException {
+        CachingProvider provider = Caching.getCachingProvider(EhcacheCachingProvider.class.getName());
+        return provider.getCacheManager(cacheConfig.getURI(), getClass().getClassLoader());
+    }
+
+    /**
+     * 让 Hibernate 二级缓存复用同一个缓存管理器，保证指标与配置一致
+     */
+    @Bean
+    public HibernatePropertiesCustomizer hibernateSecondLevelCacheCustomizer(CacheManager jcacheManager) {
+        return hibernateProperties -> hibernateProperties.put(ConfigSettings.CACHE_MANAGER, jcacheManager);
+    }
+
+    /**
+     * 缓存区域指标（cache.gets / cache.puts / cache.evictions / cache.removals）
+     */
+    @Bean
+    public MeterBinder jcacheMetrics(CacheManager jcacheManager) {
+        return registry -> {
+            for (String cacheName : jcacheManager.getCacheNames()) {
+                JCacheMetrics.monitor(registry, jcacheManager.getCache(cacheName), Tags.of("provider", "ehcache"));
+            }
+        };
+    }
+}
@@ -0,0 +1,34 @@
+package com.wanli.config;
+
+import com.wanli.metrics.MethodTimingPostProcessor;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+/**
+ * 指标配置类
+ * 为 app.metrics.method-timing.packages 中的 Bean 注册方法计时；
+ * Repository、Hikari 连接池与 Lettuce 命令的指标由 Spring Boot 自动配置提供，直方图等参数见 application.yml。
+ *
+ * @author JamesWu
+ * @since 1.0.0
+ */
+@Configuration
+public class MetricsConfig {
+
+    /**
+     * 后置处理器需要在其他 Bean 之前创建，因此声明为静态方法
+     */
+    @Bean
+    @ConditionalOnProperty(name = "app.metrics.method-timing.enabled", havingValue = "true", matchIfMissing = true)
+    public static MethodTimingPostProcessor methodTimingPostProcessor(
+            @Value("${app.metrics.method-timing.packages:com.wanli.service}") String[] packages,
+            ObjectProvider<MeterRegistry> meterRegistry) {
+        return new MethodTimingPostProcessor(List.of(packages), meterRegistry);
+    }
+}
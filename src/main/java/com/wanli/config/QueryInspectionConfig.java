@@ -0,0 +1,50 @@
+package com.wanli.config;
+
+import com.wanli.query.QueryInspectingDataSource;
+import com.wanli.query.QueryInspectionFilter;
+import com.wanli.query.QueryInspector;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * SQL 检查配置类
+ * 用 {@link QueryInspectingDataSource} 包装数据源，并在安全过滤器之前注册 {@link QueryInspectionFilter}；
+ * app.query-inspector.enabled=false 时两者都不注册，数据访问不经过任何代理。
+ *
+ * @author JamesWu
+ * @since 1.0.0
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.query-inspector.enabled", havingValue = "true", matchIfMissing = true)
+public class QueryInspectionConfig {
+
+    /**
+     * 后置处理器需要在其他 Bean 之前创建，因此声明为静态方法
+     */
+    @Bean
+    public static BeanPostProcessor queryInspectingDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof QueryInspectingDataSource)) {
+                    return new QueryInspectingDataSource(dataSource);
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public FilterRegistrationBean<QueryInspectionFilter> queryInspectionFilter(QueryInspector queryInspector) {
+        FilterRegistrationBean<QueryInspectionFilter> registration =
+                new FilterRegistrationBean<>(new QueryInspectionFilter(queryInspector));
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER - 1);
+        return registration;
+    }
+}
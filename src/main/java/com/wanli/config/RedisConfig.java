@@ -0,0 +1,28 @@
+package com.wanli.config;
+
+import com.wanli.cache.UserNearCache;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+/**
+ * Redis配置类
+ * 注册 pub/sub 消息监听容器，用于接收跨节点的缓存失效消息
+ *
+ * @author JamesWu
+ * @since 1.0.0
+ */
+@Configuration
+public class RedisConfig {
+
+    @Bean
+    public RedisMessageListenerContainer redisMessageListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                       UserNearCache userNearCache) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(userNearCache, new ChannelTopic(UserNearCache.INVALIDATION_CHANNEL));
+        return container;
+    }
+}
@@ -0,0 +1,97 @@
+package com.wanli.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wanli.entity.User;
+import com.wanli.ratelimit.RateLimitFilter;
+import com.wanli.ratelimit.RateLimitProperties;
+import com.wanli.ratelimit.RateLimiter;
+import com.wanli.security.JwtAuthenticationFilter;
+import com.wanli.security.JwtPrincipal;
+import com.wanli.security.JwtTokenProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
+import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
+import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
+import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.HttpStatusEntryPoint;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+
+/**
+ * Spring Security配置类
+ * 无状态 JWT 认证：不创建会话，每个请求由 {@link JwtAuthenticationFilter} 根据 Bearer 令牌认证；
+ * 认证之前先经过 {@link RateLimitFilter} 限流。
+ * 导出、导入、状态变更、邮箱/手机号人工验证、删除与管理端点（健康、info、prometheus 除外）只允许 ADMIN；
+ * 修改用户本身的接口只允许本人或 ADMIN
+ *
+ * @author JamesWu
+ * @since 1.0.0
+ */
+@Configuration
+@EnableWebSecurity
+public class SecurityConfig {
+
+    private static final String ADMIN = User.UserRole.ADMIN.name();
+
+    @Bean
+    public SecurityFilterChain securityFilterChain(HttpSecurity http,
+                                                   JwtTokenProvider jwtTokenProvider,
+                                                   RateLimiter rateLimiter,
+                                                   RateLimitProperties rateLimitProperties,
+                                                   ObjectMapper objectMapper) throws Exception {
+        http
+                .csrf(AbstractHttpConfigurer::disable)
+                .httpBasic(AbstractHttpConfigurer::disable)
+                .formLogin(AbstractHttpConfigurer::disable)
+                .logout(AbstractHttpConfigurer::disable)
+                .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+                .exceptionHandling(exceptions -> exceptions
+                        .authenticationEntryPoint(new HttpStatusEntryPoint(HttpStatus.UNAUTHORIZED)))
+                .authorizeHttpRequests(authorize -> authorize
+                        .requestMatchers(HttpMethod.OPTIONS, "/**").permitAll()
+                        .requestMatchers("/api/auth/**").permitAll()
+                        .requestMatchers(HttpMethod.POST, "/api/users").permitAll()
+                        .requestMatchers(HttpMethod.GET, "/api/users/check-username", "/api/users/check-email",
+                                "/api/users/verify-email").permitAll()
+                        .requestMatchers("/actuator/health", "/actuator/health/**", "/actuator/info",
+                                "/actuator/prometheus").permitAll()
+                        .requestMatchers("/actuator/**").hasRole(ADMIN)
+                        .requestMatchers(HttpMethod.GET, "/health").permitAll()
+                        .requestMatchers(HttpMethod.GET, "/health/detailed").hasRole(ADMIN)
+                        .requestMatchers(HttpMethod.GET, "/api/users/export").hasRole(ADMIN)
+                        .requestMatchers(HttpMethod.POST, "/api/users/import").hasRole(ADMIN)
+                        .requestMatchers(HttpMethod.PUT, "/api/users/{id}/status").hasRole(ADMIN)
+                        // 人工标记验证只给管理员，用户本人需走邮件/短信验证流程
+                        .requestMatchers(HttpMethod.PUT, "/api/users/{id}/verify-email",
+                                "/api/users/{id}/verify-phone").hasRole(ADMIN)
+                        .requestMatchers(HttpMethod.DELETE, "/api/users/{id}").hasRole(ADMIN)
+                        .requestMatchers(HttpMethod.PUT, "/api/users/{id}", "/api/users/{id}/**").access(selfOrAdmin())
+                        .anyRequest().authenticated())
+                .addFilterBefore(new RateLimitFilter(rateLimiter, rateLimitProperties, objectMapper),
+                        UsernamePasswordAuthenticationFilter.class)
+                .addFilterBefore(new JwtAuthenticationFilter(jwtTokenProvider),
+                        UsernamePasswordAuthenticationFilter.class);
+        return http.build();
+    }
+
+    /**
+     * 路径中的 {id} 为当前用户，或当前用户为 ADMIN
+     */
+    private static AuthorizationManager<RequestAuthorizationContext> selfOrAdmin() {
+        return (authentication, context) -> {
+            Authentication current = authentication.get();
+            if (current == null || !(current.getPrincipal() instanceof JwtPrincipal principal)) {
+                return new AuthorizationDecision(false);
+            }
+            return new AuthorizationDecision(ADMIN.equals(principal.role())
+                    || principal.userId().equals(context.getVariables().get("id")));
+        };
+    }
+}
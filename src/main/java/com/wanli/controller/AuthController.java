@@ -0,0 +1,106 @@
+package com.wanli.controller;
+
+import com.wanli.dto.ApiResponse;
+import com.wanli.dto.LoginRequestDto;
+import com.wanli.dto.LoginResponseDto;
+import com.wanli.dto.RefreshTokenRequestDto;
+import com.wanli.security.JwtPrincipal;
+import com.wanli.security.PasswordHashingBusyException;
+import com.wanli.service.AuthService;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * 认证控制器
+ * 提供登录、令牌刷新、退出等认证相关的REST API接口；响应与用户接口一致，统一为 {@link ApiResponse}
+ * 
+ * @author JamesWu
+ * @since 1.0.0
+ */
+@RestController
+@RequestMapping("/api/auth")
+@CrossOrigin(origins = "*", maxAge = 3600)
+public class AuthController {
+
+    @Autowired
+    private AuthService authService;
+
+    /**
+     * 用户登录
+     * 
+     * @param request 登录请求（用户名或邮箱 + 密码）
+     * @return 访问令牌与用户信息
+     */
+    @PostMapping("/login")
+    public ResponseEntity<ApiResponse<LoginResponseDto>> login(@Valid @RequestBody LoginRequestDto request) {
+        try {
+            LoginResponseDto login = authService.login(request.getLogin(), request.getPassword());
+            return ResponseEntity.ok(ApiResponse.ok("登录成功", login));
+        } catch (PasswordHashingBusyException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body(ApiResponse.fail(e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(ApiResponse.fail(e.getMessage()));
+        }
+    }
+
+    /**
+     * 刷新访问令牌（刷新令牌随之轮换，旧令牌立即失效）
+     * 
+     * @param request 刷新令牌
+     * @return 新的访问令牌与刷新令牌
+     */
+    @PostMapping("/refresh")
+    public ResponseEntity<ApiResponse<LoginResponseDto>> refresh(@Valid @RequestBody RefreshTokenRequestDto request) {
+        try {
+            LoginResponseDto tokens = authService.refresh(request.getRefreshToken());
+            return ResponseEntity.ok(ApiResponse.ok("令牌刷新成功", tokens));
+        } catch (DataAccessException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(ApiResponse.fail("令牌服务暂不可用"));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(ApiResponse.fail(e.getMessage()));
+        }
+    }
+
+    /**
+     * 退出当前设备
+     * 
+     * @param request 刷新令牌
+     * @return 操作结果
+     */
+    @PostMapping("/logout")
+    public ResponseEntity<ApiResponse<Void>> logout(@Valid @RequestBody RefreshTokenRequestDto request) {
+        try {
+            authService.logout(request.getRefreshToken());
+            return ResponseEntity.ok(ApiResponse.ok("退出成功", null));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(ApiResponse.fail(e.getMessage()));
+        }
+    }
+
+    /**
+     * 退出所有设备（需要访问令牌）
+     * 
+     * @param principal 当前用户
+     * @return 吊销的刷新令牌数量
+     */
+    @PostMapping("/logout-all")
+    public ResponseEntity<ApiResponse<Long>> logoutAll(@AuthenticationPrincipal JwtPrincipal principal) {
+        if (principal == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(ApiResponse.fail("未登录"));
+        }
+        try {
+            long revoked = authService.logoutAll(principal.userId());
+            return ResponseEntity.ok(ApiResponse.ok("已退出所有设备", revoked));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(ApiResponse.fail(e.getMessage()));
+        }
+    }
+}
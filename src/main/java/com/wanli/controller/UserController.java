@@ -1,27 +1,53 @@
 package com.wanli.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wanli.dto.ApiResponse;
+import com.wanli.dto.CursorPageView;
+import com.wanli.dto.ExistenceCheckResponse;
+import com.wanli.dto.PageView;
+import com.wanli.dto.UserCursor;
+import com.wanli.dto.UserStatisticsView;
+import com.wanli.dto.UserView;
 import com.wanli.entity.User;
+import com.wanli.export.UserExportFormat;
+import com.wanli.export.UserExportService;
+import com.wanli.importer.UserImportBusyException;
+import com.wanli.importer.UserImportReader;
+import com.wanli.importer.UserImportResult;
+import com.wanli.importer.UserImportService;
+import com.wanli.security.PasswordHashingBusyException;
 import com.wanli.service.UserService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
-import javax.validation.Valid;
-import javax.validation.constraints.Min;
-import javax.validation.constraints.NotBlank;
-import java.util.HashMap;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.zip.GZIPOutputStream;
 
 /**
  * 用户控制器
- * 提供用户相关的REST API接口
+ * 提供用户相关的REST API接口；响应为不可变的 {@link ApiResponse}，用户数据统一映射为 {@link UserView}
  * 
  * @author JamesWu
  * @since 1.0.0
@@ -35,6 +61,15 @@ public class UserController {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private UserImportService userImportService;
+
+    @Autowired
+    private UserExportService userExportService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
     /**
      * 创建用户
      * 
@@ -42,21 +77,92 @@ public class UserController {
      * @return 创建结果
      */
     @PostMapping
-    public ResponseEntity<Map<String, Object>> createUser(@Valid @RequestBody User user) {
-        Map<String, Object> response = new HashMap<>();
+    public ResponseEntity<ApiResponse<UserView>> createUser(@Valid @RequestBody User user) {
         try {
             User createdUser = userService.createUser(user);
-            // 不返回密码哈希
-            createdUser.setPasswordHash(null);
-            
-            response.put("success", true);
-            response.put("message", "用户创建成功");
-            response.put("data", createdUser);
-            return ResponseEntity.status(HttpStatus.CREATED).body(response);
+            return ResponseEntity.status(HttpStatus.CREATED).body(ApiResponse.ok("用户创建成功", UserView.from(createdUser)));
+        } catch (PasswordHashingBusyException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body(ApiResponse.fail(e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ApiResponse.fail(e.getMessage()));
+        }
+    }
+
+    /**
+     * 批量导入用户
+     * 请求体为 CSV（text/csv，首行为表头）或 NDJSON（application/x-ndjson），流式读取不整体缓存；
+     * 每行提供明文 password 或 bcrypt 格式的 password_hash / passwordHash
+     * 
+     * @param format 数据格式（csv 或 ndjson），为空时按 Content-Type 判断
+     * @param request HTTP请求
+     * @return 导入结果，包含逐行错误信息
+     */
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson"})
+    public ResponseEntity<ApiResponse<UserImportResult>> importUsers(
+            @RequestParam(required = false) String format,
+            HttpServletRequest request) {
+        if (format == null) {
+            String contentType = request.getContentType();
+            format = contentType != null && contentType.contains("csv") ? "csv" : "ndjson";
+        }
+        
+        try (UserImportReader reader = UserImportReader.open(format, request.getInputStream(), objectMapper)) {
+            UserImportResult result = userImportService.importUsers(reader);
+            String message = String.format("导入完成：成功 %d 条，失败 %d 条", result.getImported(), result.getFailed());
+            return ResponseEntity.ok(new ApiResponse<>(result.getFailed() == 0, message, result));
+        } catch (UserImportBusyException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, "30")
+                    .body(ApiResponse.fail(e.getMessage()));
         } catch (Exception e) {
-            response.put("success", false);
-            response.put("message", e.getMessage());
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ApiResponse.fail("导入失败: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * 导出用户
+     * 流式写出全部匹配的用户（不含密码哈希），内存占用与数据量无关；
+     * 同步写入响应流，不受异步请求超时限制
+     * 
+     * @param format 导出格式（ndjson/csv）
+     * @param status 用户状态过滤
+     * @param createdAfter 创建时间下限（含）
+     * @param createdBefore 创建时间上限（不含）
+     * @param gzip 是否以 gzip 压缩输出
+     * @param response HTTP响应
+     */
+    @GetMapping("/export")
+    public void exportUsers(
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(required = false) User.UserStatus status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdAfter,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdBefore,
+            @RequestParam(defaultValue = "false") boolean gzip,
+            HttpServletResponse response) throws IOException {
+        UserExportFormat exportFormat;
+        try {
+            exportFormat = UserExportFormat.valueOf(format.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            response.setStatus(HttpStatus.BAD_REQUEST.value());
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.setCharacterEncoding("UTF-8");
+            objectMapper.writeValue(response.getOutputStream(), ApiResponse.fail("不支持的导出格式: " + format));
+            return;
+        }
+        
+        String filename = "users-" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMddHHmmss"))
+                + "." + exportFormat.getExtension() + (gzip ? ".gz" : "");
+        response.setContentType(gzip ? "application/gzip" : exportFormat.getContentType() + ";charset=UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"");
+        
+        OutputStream output = response.getOutputStream();
+        if (gzip) {
+            output = new GZIPOutputStream(output, 64 * 1024);
+        }
+        try (OutputStream out = output) {
+            userExportService.export(exportFormat, status, createdAfter, createdBefore, out);
         }
     }
 
@@ -67,22 +173,13 @@ public class UserController {
      * @return 用户信息
      */
     @GetMapping("/{id}")
-    public ResponseEntity<Map<String, Object>> getUserById(@PathVariable String id) {
-        Map<String, Object> response = new HashMap<>();
+    public ResponseEntity<ApiResponse<UserView>> getUserById(@PathVariable String id) {
         Optional<User> userOpt = userService.findById(id);
         
         if (userOpt.isPresent()) {
-            User user = userOpt.get();
-            // 不返回密码哈希
-            user.setPasswordHash(null);
-            
-            response.put("success", true);
-            response.put("data", user);
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok(ApiResponse.ok(UserView.from(userOpt.get())));
         } else {
-            response.put("success", false);
-            response.put("message", "用户不存在");
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ApiResponse.fail("用户不存在"));
         }
     }
 
@@ -93,75 +190,107 @@ public class UserController {
      * @return 用户信息
      */
     @GetMapping("/username/{username}")
-    public ResponseEntity<Map<String, Object>> getUserByUsername(@PathVariable String username) {
-        Map<String, Object> response = new HashMap<>();
+    public ResponseEntity<ApiResponse<UserView>> getUserByUsername(@PathVariable String username) {
         Optional<User> userOpt = userService.findByUsername(username);
         
         if (userOpt.isPresent()) {
-            User user = userOpt.get();
-            // 不返回密码哈希
-            user.setPasswordHash(null);
-            
-            response.put("success", true);
-            response.put("data", user);
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok(ApiResponse.ok(UserView.from(userOpt.get())));
         } else {
-            response.put("success", false);
-            response.put("message", "用户不存在");
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ApiResponse.fail("用户不存在"));
         }
     }
 
     /**
      * 分页查询用户列表
+     * 默认为页码分页；pagination=cursor 或携带 cursor 参数时使用游标分页
      * 
-     * @param page 页码（从0开始）
+     * @param page 页码（从0开始，仅页码分页）
      * @param size 每页大小
-     * @param sortBy 排序字段
+     * @param sortBy 排序字段（游标分页仅支持 createdAt/lastLoginAt）
      * @param sortDir 排序方向（asc/desc）
      * @param status 用户状态过滤
+     * @param pagination 分页模式（offset/cursor）
+     * @param cursor 上一页返回的 nextCursor
      * @return 用户分页列表
      */
     @GetMapping
-    public ResponseEntity<Map<String, Object>> getUsers(
+    public ResponseEntity<ApiResponse<?>> getUsers(
             @RequestParam(defaultValue = "0") @Min(0) int page,
             @RequestParam(defaultValue = "10") @Min(1) int size,
             @RequestParam(defaultValue = "createdAt") String sortBy,
             @RequestParam(defaultValue = "desc") String sortDir,
-            @RequestParam(required = false) User.UserStatus status) {
+            @RequestParam(required = false) User.UserStatus status,
+            @RequestParam(defaultValue = "offset") String pagination,
+            @RequestParam(required = false) String cursor) {
         
-        Map<String, Object> response = new HashMap<>();
+        if ("cursor".equalsIgnoreCase(pagination) || cursor != null) {
+            return getUsersByCursor(size, sortBy, sortDir, status, cursor);
+        }
         
         try {
             Sort sort = Sort.by(Sort.Direction.fromString(sortDir), sortBy);
             Pageable pageable = PageRequest.of(page, size, sort);
             
-            Page<User> userPage;
+            Page<UserView> userPage;
             if (status != null) {
-                userPage = userService.findByStatus(status, pageable);
+                userPage = userService.findViewsByStatus(status, pageable);
             } else {
-                userPage = userService.findAll(pageable);
+                userPage = userService.findViews(pageable);
             }
             
-            // 清除密码哈希
-            userPage.getContent().forEach(user -> user.setPasswordHash(null));
+            return ResponseEntity.ok(ApiResponse.ok(PageView.from(userPage)));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ApiResponse.fail(e.getMessage()));
+        }
+    }
+
+    /**
+     * 搜索用户
+     * 
+     * @param keyword 关键字（匹配用户名、邮箱、全名）
+     * @param page 页码（从0开始）
+     * @param size 每页大小
+     * @return 按相关度排序的用户分页列表
+     */
+    @GetMapping("/search")
+    public ResponseEntity<ApiResponse<PageView<UserView>>> searchUsers(
+            @RequestParam @NotBlank String keyword,
+            @RequestParam(defaultValue = "0") @Min(0) int page,
+            @RequestParam(defaultValue = "10") @Min(1) int size) {
+        
+        try {
+            Page<UserView> userPage = userService.search(keyword, PageRequest.of(page, size));
+            return ResponseEntity.ok(ApiResponse.ok(PageView.from(userPage)));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ApiResponse.fail(e.getMessage()));
+        }
+    }
+
+    /**
+     * 游标分页查询用户列表
+     * 游标中已编码排序字段与方向，携带游标时以游标为准
+     */
+    private ResponseEntity<ApiResponse<?>> getUsersByCursor(
+            int size, String sortBy, String sortDir, User.UserStatus status, String cursor) {
+        
+        try {
+            UserCursor after = cursor != null && !cursor.isEmpty() ? UserCursor.decode(cursor) : null;
+            String sortProperty = after != null ? after.getSortBy() : sortBy;
+            Sort.Direction direction = after != null ? after.getDirection() : Sort.Direction.fromString(sortDir);
             
-            Map<String, Object> pageInfo = new HashMap<>();
-            pageInfo.put("content", userPage.getContent());
-            pageInfo.put("totalElements", userPage.getTotalElements());
-            pageInfo.put("totalPages", userPage.getTotalPages());
-            pageInfo.put("currentPage", userPage.getNumber());
-            pageInfo.put("size", userPage.getSize());
-            pageInfo.put("hasNext", userPage.hasNext());
-            pageInfo.put("hasPrevious", userPage.hasPrevious());
+            Slice<UserView> userSlice = userService.findSliceAfter(status, sortProperty, direction, after, size);
+            List<UserView> content = userSlice.getContent();
             
-            response.put("success", true);
-            response.put("data", pageInfo);
-            return ResponseEntity.ok(response);
+            String nextCursor = null;
+            if (userSlice.hasNext()) {
+                UserView last = content.get(content.size() - 1);
+                LocalDateTime lastValue = "lastLoginAt".equals(sortProperty) ? last.lastLoginAt() : last.createdAt();
+                nextCursor = new UserCursor(sortProperty, direction, lastValue, last.id()).encode();
+            }
+            
+            return ResponseEntity.ok(ApiResponse.ok(new CursorPageView<>(content, size, userSlice.hasNext(), nextCursor)));
         } catch (Exception e) {
-            response.put("success", false);
-            response.put("message", e.getMessage());
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ApiResponse.fail(e.getMessage()));
         }
     }
 
@@ -173,24 +302,15 @@ public class UserController {
      * @return 更新结果
      */
     @PutMapping("/{id}")
-    public ResponseEntity<Map<String, Object>> updateUser(
+    public ResponseEntity<ApiResponse<UserView>> updateUser(
             @PathVariable String id, 
             @Valid @RequestBody User user) {
         
-        Map<String, Object> response = new HashMap<>();
         try {
             User updatedUser = userService.updateUser(id, user);
-            // 不返回密码哈希
-            updatedUser.setPasswordHash(null);
-            
-            response.put("success", true);
-            response.put("message", "用户信息更新成功");
-            response.put("data", updatedUser);
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok(ApiResponse.ok("用户信息更新成功", UserView.from(updatedUser)));
         } catch (Exception e) {
-            response.put("success", false);
-            response.put("message", e.getMessage());
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ApiResponse.fail(e.getMessage()));
         }
     }
 
@@ -202,36 +322,30 @@ public class UserController {
      * @return 更新结果
      */
     @PutMapping("/{id}/password")
-    public ResponseEntity<Map<String, Object>> updatePassword(
+    public ResponseEntity<ApiResponse<Void>> updatePassword(
             @PathVariable String id,
             @RequestBody Map<String, String> passwordRequest) {
         
-        Map<String, Object> response = new HashMap<>();
-        
         String oldPassword = passwordRequest.get("oldPassword");
         String newPassword = passwordRequest.get("newPassword");
         
         if (oldPassword == null || newPassword == null) {
-            response.put("success", false);
-            response.put("message", "旧密码和新密码不能为空");
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ApiResponse.fail("旧密码和新密码不能为空"));
         }
         
         try {
             boolean success = userService.updatePassword(id, oldPassword, newPassword);
             if (success) {
-                response.put("success", true);
-                response.put("message", "密码更新成功");
-                return ResponseEntity.ok(response);
+                return ResponseEntity.ok(ApiResponse.ok("密码更新成功", null));
             } else {
-                response.put("success", false);
-                response.put("message", "旧密码验证失败");
-                return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ApiResponse.fail("旧密码验证失败"));
             }
+        } catch (PasswordHashingBusyException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body(ApiResponse.fail(e.getMessage()));
         } catch (Exception e) {
-            response.put("success", false);
-            response.put("message", e.getMessage());
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ApiResponse.fail(e.getMessage()));
         }
     }
 
@@ -243,37 +357,39 @@ public class UserController {
      * @return 更新结果
      */
     @PutMapping("/{id}/status")
-    public ResponseEntity<Map<String, Object>> updateUserStatus(
+    public ResponseEntity<ApiResponse<UserView>> updateUserStatus(
             @PathVariable String id,
             @RequestBody Map<String, String> statusRequest) {
         
-        Map<String, Object> response = new HashMap<>();
-        
         String statusStr = statusRequest.get("status");
         if (statusStr == null) {
-            response.put("success", false);
-            response.put("message", "状态不能为空");
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ApiResponse.fail("状态不能为空"));
         }
         
         try {
             User.UserStatus status = User.UserStatus.valueOf(statusStr.toUpperCase());
             User updatedUser = userService.updateUserStatus(id, status);
-            // 不返回密码哈希
-            updatedUser.setPasswordHash(null);
-            
-            response.put("success", true);
-            response.put("message", "用户状态更新成功");
-            response.put("data", updatedUser);
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok(ApiResponse.ok("用户状态更新成功", UserView.from(updatedUser)));
         } catch (IllegalArgumentException e) {
-            response.put("success", false);
-            response.put("message", "无效的用户状态");
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ApiResponse.fail("无效的用户状态"));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ApiResponse.fail(e.getMessage()));
+        }
+    }
+
+    /**
+     * 通过验证邮件中的链接验证邮箱
+     * 
+     * @param token 邮箱验证令牌
+     * @return 验证结果
+     */
+    @GetMapping("/verify-email")
+    public ResponseEntity<ApiResponse<UserView>> verifyEmailByToken(@RequestParam String token) {
+        try {
+            User updatedUser = userService.verifyEmailByToken(token);
+            return ResponseEntity.ok(ApiResponse.ok("邮箱验证成功", UserView.from(updatedUser)));
         } catch (Exception e) {
-            response.put("success", false);
-            response.put("message", e.getMessage());
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ApiResponse.fail(e.getMessage()));
         }
     }
 
@@ -284,21 +400,12 @@ public class UserController {
      * @return 验证结果
      */
     @PutMapping("/{id}/verify-email")
-    public ResponseEntity<Map<String, Object>> verifyEmail(@PathVariable String id) {
-        Map<String, Object> response = new HashMap<>();
+    public ResponseEntity<ApiResponse<UserView>> verifyEmail(@PathVariable String id) {
         try {
             User updatedUser = userService.verifyEmail(id);
-            // 不返回密码哈希
-            updatedUser.setPasswordHash(null);
-            
-            response.put("success", true);
-            response.put("message", "邮箱验证成功");
-            response.put("data", updatedUser);
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok(ApiResponse.ok("邮箱验证成功", UserView.from(updatedUser)));
         } catch (Exception e) {
-            response.put("success", false);
-            response.put("message", e.getMessage());
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ApiResponse.fail(e.getMessage()));
         }
     }
 
@@ -309,21 +416,12 @@ public class UserController {
      * @return 验证结果
      */
     @PutMapping("/{id}/verify-phone")
-    public ResponseEntity<Map<String, Object>> verifyPhone(@PathVariable String id) {
-        Map<String, Object> response = new HashMap<>();
+    public ResponseEntity<ApiResponse<UserView>> verifyPhone(@PathVariable String id) {
         try {
             User updatedUser = userService.verifyPhone(id);
-            // 不返回密码哈希
-            updatedUser.setPasswordHash(null);
-            
-            response.put("success", true);
-            response.put("message", "手机号验证成功");
-            response.put("data", updatedUser);
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok(ApiResponse.ok("手机号验证成功", UserView.from(updatedUser)));
         } catch (Exception e) {
-            response.put("success", false);
-            response.put("message", e.getMessage());
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ApiResponse.fail(e.getMessage()));
         }
     }
 
@@ -334,17 +432,12 @@ public class UserController {
      * @return 删除结果
      */
     @DeleteMapping("/{id}")
-    public ResponseEntity<Map<String, Object>> deleteUser(@PathVariable String id) {
-        Map<String, Object> response = new HashMap<>();
+    public ResponseEntity<ApiResponse<Void>> deleteUser(@PathVariable String id) {
         try {
             userService.deleteUser(id);
-            response.put("success", true);
-            response.put("message", "用户删除成功");
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok(ApiResponse.ok("用户删除成功", null));
         } catch (Exception e) {
-            response.put("success", false);
-            response.put("message", e.getMessage());
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ApiResponse.fail(e.getMessage()));
         }
     }
 
@@ -355,17 +448,11 @@ public class UserController {
      * @return 检查结果
      */
     @GetMapping("/check-username")
-    public ResponseEntity<Map<String, Object>> checkUsername(
+    public ResponseEntity<ExistenceCheckResponse> checkUsername(
             @RequestParam @NotBlank String username) {
         
-        Map<String, Object> response = new HashMap<>();
         boolean exists = userService.existsByUsername(username);
-        
-        response.put("success", true);
-        response.put("exists", exists);
-        response.put("message", exists ? "用户名已存在" : "用户名可用");
-        
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok(new ExistenceCheckResponse(true, exists, exists ? "用户名已存在" : "用户名可用"));
     }
 
     /**
@@ -375,42 +462,36 @@ public class UserController {
      * @return 检查结果
      */
     @GetMapping("/check-email")
-    public ResponseEntity<Map<String, Object>> checkEmail(
+    public ResponseEntity<ExistenceCheckResponse> checkEmail(
             @RequestParam @NotBlank String email) {
         
-        Map<String, Object> response = new HashMap<>();
         boolean exists = userService.existsByEmail(email);
-        
-        response.put("success", true);
-        response.put("exists", exists);
-        response.put("message", exists ? "邮箱已存在" : "邮箱可用");
-        
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok(new ExistenceCheckResponse(true, exists, exists ? "邮箱已存在" : "邮箱可用"));
     }
 
     /**
      * 获取用户统计信息
+     * 数据来自增量维护的计数器，存在秒级延迟
      * 
      * @return 统计信息
      */
     @GetMapping("/statistics")
-    public ResponseEntity<Map<String, Object>> getUserStatistics() {
-        Map<String, Object> response = new HashMap<>();
-        Map<String, Object> statistics = new HashMap<>();
-        
+    public ResponseEntity<ApiResponse<UserStatisticsView>> getUserStatistics() {
         try {
-            statistics.put("totalUsers", userService.countUsers());
-            statistics.put("activeUsers", userService.countByStatus(User.UserStatus.ACTIVE));
-            statistics.put("inactiveUsers", userService.countByStatus(User.UserStatus.INACTIVE));
-            statistics.put("deletedUsers", userService.countByStatus(User.UserStatus.DELETED));
-            
-            response.put("success", true);
-            response.put("data", statistics);
-            return ResponseEntity.ok(response);
+            Map<User.UserStatus, Long> counts = userService.countAllByStatus();
+            long totalUsers = 0;
+            for (long count : counts.values()) {
+                totalUsers += count;
+            }
+            UserStatisticsView statistics = new UserStatisticsView(
+                    totalUsers,
+                    counts.get(User.UserStatus.ACTIVE),
+                    counts.get(User.UserStatus.INACTIVE),
+                    counts.get(User.UserStatus.SUSPENDED),
+                    counts.get(User.UserStatus.DELETED));
+            return ResponseEntity.ok(ApiResponse.ok(statistics));
         } catch (Exception e) {
-            response.put("success", false);
-            response.put("message", e.getMessage());
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(ApiResponse.fail(e.getMessage()));
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,32 @@
+package com.wanli.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+/**
+ * 统一响应信封
+ * 字段与原先的 HashMap 响应一致（success / message / data），为空的字段不输出
+ *
+ * @param success 是否成功
+ * @param message 提示信息
+ * @param data 响应数据
+ * @param <T> 数据类型
+ * @author JamesWu
+ * @since 1.0.0
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@JsonPropertyOrder({"success", "message", "data"})
+public record ApiResponse<T>(boolean success, String message, T data) {
+
+    public static <T> ApiResponse<T> ok(T data) {
+        return new ApiResponse<>(true, null, data);
+    }
+
+    public static <T> ApiResponse<T> ok(String message, T data) {
+        return new ApiResponse<>(true, message, data);
+    }
+
+    public static <T> ApiResponse<T> fail(String message) {
+        return new ApiResponse<>(false, message, null);
+    }
+}
@@ -0,0 +1,14 @@
+package com.wanli.dto;
+
+import java.util.List;
+
+/**
+ * 游标分页视图
+ * 最后一页的 nextCursor 为 null
+ *
+ * @param <T> 元素类型
+ * @author JamesWu
+ * @since 1.0.0
+ */
+public record CursorPageView<T>(List<T> content, int size, boolean hasNext, String nextCursor) {
+}
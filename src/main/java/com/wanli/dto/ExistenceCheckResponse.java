@@ -0,0 +1,13 @@
+package com.wanli.dto;
+
+/**
+ * 用户名/邮箱存在性检查响应
+ *
+ * @param success 是否成功
+ * @param exists 是否已存在
+ * @param message 提示信息
+ * @author JamesWu
+ * @since 1.0.0
+ */
+public record ExistenceCheckResponse(boolean success, boolean exists, String message) {
+}
@@ -0,0 +1,46 @@
+package com.wanli.dto;
+
+import jakarta.validation.constraints.NotBlank;
+
+/**
+ * 登录请求
+ * 
+ * @author JamesWu
+ * @since 1.0.0
+ */
+public class LoginRequestDto {
+
+    /**
+     * 用户名或邮箱
+     */
+    @NotBlank(message = "用户名或邮箱不能为空")
+    private String login;
+
+    @NotBlank(message = "密码不能为空")
+    private String password;
+
+    // Constructors
+    public LoginRequestDto() {}
+
+    public LoginRequestDto(String login, String password) {
+        this.login = login;
+        this.password = password;
+    }
+
+    // Getters and Setters
+    public String getLogin() {
+        return login;
+    }
+
+    public void setLogin(String login) {
+        this.login = login;
+    }
+
+    public String getPassword() {
+        return password;
+    }
+
+    public void setPassword(String password) {
+        this.password = password;
+    }
+}
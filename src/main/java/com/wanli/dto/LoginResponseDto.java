@@ -1,12 +1,24 @@
 package com.wanli.dto;
 
-import java.time.LocalDateTime;
-
+/**
+ * 登录响应
+ * 
+ * @author JamesWu
+ * @since 1.0.0
+ */
 public class LoginResponseDto {
 
     private String token;
     private UserInfoDto user;
+    /**
+     * 令牌有效期（秒）
+     */
     private long expiresIn;
+    private String refreshToken;
+    /**
+     * 刷新令牌有效期（秒）
+     */
+    private long refreshExpiresIn;
 
     // Constructors
     public LoginResponseDto() {}
@@ -17,6 +29,13 @@ public class LoginResponseDto {
         this.expiresIn = expiresIn;
     }
 
+    public LoginResponseDto(String token, UserInfoDto user, long expiresIn,
+                            String refreshToken, long refreshExpiresIn) {
+        this(token, user, expiresIn);
+        this.refreshToken = refreshToken;
+        this.refreshExpiresIn = refreshExpiresIn;
+    }
+
     // Getters and Setters
     public String getToken() {
         return token;
@@ -42,9 +61,25 @@ public class LoginResponseDto {
         this.expiresIn = expiresIn;
     }
 
+    public String getRefreshToken() {
+        return refreshToken;
+    }
+
+    public void setRefreshToken(String refreshToken) {
+        this.refreshToken = refreshToken;
+    }
+
+    public long getRefreshExpiresIn() {
+        return refreshExpiresIn;
+    }
+
+    public void setRefreshExpiresIn(long refreshExpiresIn) {
+        this.refreshExpiresIn = refreshExpiresIn;
+    }
+
     // Inner class for user info
     public static class UserInfoDto {
-        private Long id;
+        private String id;
         private String username;
         private String email;
         private String role;
@@ -52,7 +87,7 @@ public class LoginResponseDto {
         // Constructors
         public UserInfoDto() {}
 
-        public UserInfoDto(Long id, String username, String email, String role) {
+        public UserInfoDto(String id, String username, String email, String role) {
             this.id = id;
             this.username = username;
             this.email = email;
@@ -60,11 +95,11 @@ public class LoginResponseDto {
         }
 
         // Getters and Setters
-        public Long getId() {
+        public String getId() {
             return id;
         }
 
-        public void setId(Long id) {
+        public void setId(String id) {
             this.id = id;
         }
 
@@ -0,0 +1,53 @@
+package com.wanli.dto;
+
+import org.springframework.data.domain.Page;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * 页码分页视图
+ * 字段与原先的 pageInfo 响应一致
+ *
+ * @param <T> 元素类型
+ * @author JamesWu
+ * @since 1.0.0
+ */
+public record PageView<T>(
+        List<T> content,
+        long totalElements,
+        int totalPages,
+        int currentPage,
+        int size,
+        boolean hasNext,
+        boolean hasPrevious) {
+
+    /**
+     * 直接使用分页结果中的元素
+     *
+     * @param page 分页结果
+     * @return 分页视图
+     */
+    public static <T> PageView<T> from(Page<T> page) {
+        return new PageView<>(page.getContent(), page.getTotalElements(), page.getTotalPages(), page.getNumber(),
+                page.getSize(), page.hasNext(), page.hasPrevious());
+    }
+
+    /**
+     * 映射分页结果中的每个元素
+     *
+     * @param page 分页结果
+     * @param mapper 元素映射
+     * @return 分页视图
+     */
+    public static <E, T> PageView<T> from(Page<E> page, Function<? super E, ? extends T> mapper) {
+        List<E> source = page.getContent();
+        List<T> content = new ArrayList<>(source.size());
+        for (E element : source) {
+            content.add(mapper.apply(element));
+        }
+        return new PageView<>(content, page.getTotalElements(), page.getTotalPages(), page.getNumber(),
+                page.getSize(), page.hasNext(), page.hasPrevious());
+    }
+}
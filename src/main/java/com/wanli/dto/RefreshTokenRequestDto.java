@@ -0,0 +1,31 @@
+package com.wanli.dto;
+
+import jakarta.validation.constraints.NotBlank;
+
+/**
+ * 刷新令牌请求
+ * 
+ * @author JamesWu
+ * @since 1.0.0
+ */
+public class RefreshTokenRequestDto {
+
+    @NotBlank(message = "刷新令牌不能为空")
+    private String refreshToken;
+
+    // Constructors
+    public RefreshTokenRequestDto() {}
+
+    public RefreshTokenRequestDto(String refreshToken) {
+        this.refreshToken = refreshToken;
+    }
+
+    // Getters and Setters
+    public String getRefreshToken() {
+        return refreshToken;
+    }
+
+    public void setRefreshToken(String refreshToken) {
+        this.refreshToken = refreshToken;
+    }
+}
@@ -0,0 +1,88 @@
+package com.wanli.dto;
+
+import org.springframework.data.domain.Sort;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.Set;
+
+/**
+ * 用户列表游标
+ * 编码排序字段、排序方向、最后一行的排序键和ID，对客户端不透明
+ *
+ * @author JamesWu
+ * @since 1.0.0
+ */
+public final class UserCursor {
+
+    /**
+     * 游标分页支持的排序字段
+     */
+    public static final Set<String> SORT_PROPERTIES = Set.of("createdAt", "lastLoginAt");
+
+    private static final String VERSION = "v1";
+    private static final String SEPARATOR = "|";
+
+    private final String sortBy;
+    private final Sort.Direction direction;
+    private final LocalDateTime value;
+    private final String id;
+
+    public UserCursor(String sortBy, Sort.Direction direction, LocalDateTime value, String id) {
+        if (!SORT_PROPERTIES.contains(sortBy)) {
+            throw new IllegalArgumentException("游标分页不支持的排序字段: " + sortBy);
+        }
+        this.sortBy = sortBy;
+        this.direction = direction;
+        this.value = value;
+        this.id = id;
+    }
+
+    /**
+     * 编码为URL安全的字符串
+     */
+    public String encode() {
+        String raw = String.join(SEPARATOR, VERSION, sortBy, direction.name(),
+                value != null ? value.toString() : "", id);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 解析游标
+     *
+     * @param cursor 编码后的游标
+     * @return 游标
+     * @throws IllegalArgumentException 游标格式不正确
+     */
+    public static UserCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", -1);
+            if (parts.length != 5 || !VERSION.equals(parts[0]) || parts[4].isEmpty()) {
+                throw new IllegalArgumentException("无效的分页游标");
+            }
+            LocalDateTime value = parts[3].isEmpty() ? null : LocalDateTime.parse(parts[3]);
+            return new UserCursor(parts[1], Sort.Direction.valueOf(parts[2]), value, parts[4]);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new IllegalArgumentException("无效的分页游标", e);
+        }
+    }
+
+    public String getSortBy() {
+        return sortBy;
+    }
+
+    public Sort.Direction getDirection() {
+        return direction;
+    }
+
+    public LocalDateTime getValue() {
+        return value;
+    }
+
+    public String getId() {
+        return id;
+    }
+}
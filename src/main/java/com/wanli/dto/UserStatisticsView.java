@@ -0,0 +1,15 @@
+package com.wanli.dto;
+
+/**
+ * 用户统计视图
+ *
+ * @author JamesWu
+ * @since 1.0.0
+ */
+public record UserStatisticsView(
+        long totalUsers,
+        Long activeUsers,
+        Long inactiveUsers,
+        Long suspendedUsers,
+        Long deletedUsers) {
+}
@@ -0,0 +1,60 @@
+package com.wanli.dto;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.wanli.entity.User;
+
+import java.time.LocalDateTime;
+
+/**
+ * 用户视图
+ * 接口返回的用户信息，不含密码哈希；由实体一次性映射得到，不修改受管实体。
+ * 列表与搜索查询通过 JPQL 构造器表达式直接投影为该记录（见 UserRepository），不加载实体也不进入持久化上下文，
+ * 因此组件名须与 User 的属性名一致。
+ * 序列化由 {@link UserViewSerializer} 按固定字段顺序直接写出
+ *
+ * @author JamesWu
+ * @since 1.0.0
+ */
+@JsonSerialize(using = UserViewSerializer.class)
+public record UserView(
+        String id,
+        String username,
+        String email,
+        String fullName,
+        String phone,
+        String avatarUrl,
+        User.UserStatus status,
+        Boolean emailVerified,
+        Boolean phoneVerified,
+        LocalDateTime lastLoginAt,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt,
+        String createdBy,
+        String updatedBy) {
+
+    public static UserView from(User user) {
+        return new UserView(
+                user.getId(),
+                user.getUsername(),
+                user.getEmail(),
+                user.getFullName(),
+                user.getPhone(),
+                user.getAvatarUrl(),
+                user.getStatus(),
+                user.getEmailVerified(),
+                user.getPhoneVerified(),
+                user.getLastLoginAt(),
+                user.getCreatedAt(),
+                user.getUpdatedAt(),
+                user.getCreatedBy(),
+                user.getUpdatedBy());
+    }
+
+    /**
+     * 替换最后登录时间
+     */
+    public UserView withLastLoginAt(LocalDateTime lastLoginAt) {
+        return new UserView(id, username, email, fullName, phone, avatarUrl, status, emailVerified, phoneVerified,
+                lastLoginAt, createdAt, updatedAt, createdBy, updatedBy);
+    }
+}
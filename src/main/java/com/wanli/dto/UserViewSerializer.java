@@ -0,0 +1,66 @@
+package com.wanli.dto;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * 用户视图序列化器
+ * 按固定顺序逐字段写出，不经过 BeanSerializer 的反射属性访问；
+ * 输出与默认序列化一致（null 字段输出 null，日期为 ISO-8601 字符串）。
+ * 开启 WRITE_DATES_AS_TIMESTAMPS 时日期交给已注册的 JSR-310 序列化器处理。
+ *
+ * @author JamesWu
+ * @since 1.0.0
+ */
+public class UserViewSerializer extends StdSerializer<UserView> {
+
+    public UserViewSerializer() {
+        super(UserView.class);
+    }
+
+    @Override
+    public void serialize(UserView user, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        boolean timestamps = provider.isEnabled(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        gen.writeStartObject(user);
+        gen.writeStringField("id", user.id());
+        gen.writeStringField("username", user.username());
+        gen.writeStringField("email", user.email());
+        gen.writeStringField("fullName", user.fullName());
+        gen.writeStringField("phone", user.phone());
+        gen.writeStringField("avatarUrl", user.avatarUrl());
+        gen.writeStringField("status", user.status() != null ? user.status().name() : null);
+        writeBooleanField(gen, "emailVerified", user.emailVerified());
+        writeBooleanField(gen, "phoneVerified", user.phoneVerified());
+        writeDateTimeField(gen, provider, timestamps, "lastLoginAt", user.lastLoginAt());
+        writeDateTimeField(gen, provider, timestamps, "createdAt", user.createdAt());
+        writeDateTimeField(gen, provider, timestamps, "updatedAt", user.updatedAt());
+        gen.writeStringField("createdBy", user.createdBy());
+        gen.writeStringField("updatedBy", user.updatedBy());
+        gen.writeEndObject();
+    }
+
+    private static void writeBooleanField(JsonGenerator gen, String name, Boolean value) throws IOException {
+        if (value != null) {
+            gen.writeBooleanField(name, value);
+        } else {
+            gen.writeNullField(name);
+        }
+    }
+
+    private static void writeDateTimeField(JsonGenerator gen, SerializerProvider provider, boolean timestamps,
+                                           String name, LocalDateTime value) throws IOException {
+        if (value == null) {
+            gen.writeNullField(name);
+        } else if (timestamps) {
+            provider.defaultSerializeField(name, value, gen);
+        } else {
+            gen.writeStringField(name, DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(value));
+        }
+    }
+}
@@ -4,6 +4,8 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
@@ -19,9 +21,21 @@ import java.util.Objects;
  */
 @Entity
 @Table(name = "users")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = User.CACHE_REGION)
 @EntityListeners(AuditingEntityListener.class)
 public class User {
 
+    /**
+     * 二级缓存区域名称（见 ehcache.xml）
+     */
+    public static final String CACHE_REGION = "users";
+
+    /**
+     * 查询缓存区域名称（见 ehcache.xml）
+     */
+    public static final String QUERY_CACHE_REGION = "users-query";
+
     @Id
     @Column(name = "id", length = 36)
     private String id;
@@ -55,6 +69,10 @@ public class User {
     @Column(name = "status", nullable = false)
     private UserStatus status = UserStatus.ACTIVE;
 
+    @Enumerated(EnumType.STRING)
+    @Column(name = "role", nullable = false)
+    private UserRole role = UserRole.USER;
+
     @Column(name = "email_verified", nullable = false)
     private Boolean emailVerified = false;
 
@@ -84,7 +102,16 @@ public class User {
     public enum UserStatus {
         ACTIVE,    // 活跃
         INACTIVE,  // 非活跃
-        SUSPENDED  // 暂停
+        SUSPENDED, // 暂停
+        DELETED    // 已删除（软删除）
+    }
+
+    /**
+     * 用户角色枚举
+     */
+    public enum UserRole {
+        USER,  // 普通用户
+        ADMIN  // 管理员
     }
 
     // 构造函数
@@ -162,6 +189,14 @@ public class User {
         this.status = status;
     }
 
+    public UserRole getRole() {
+        return role;
+    }
+
+    public void setRole(UserRole role) {
+        this.role = role;
+    }
+
     public Boolean getEmailVerified() {
         return emailVerified;
     }
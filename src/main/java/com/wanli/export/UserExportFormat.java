@@ -0,0 +1,29 @@
+package com.wanli.export;
+
+/**
+ * 用户导出格式
+ *
+ * @author JamesWu
+ * @since 1.0.0
+ */
+public enum UserExportFormat {
+
+    NDJSON("application/x-ndjson", "ndjson"),
+    CSV("text/csv", "csv");
+
+    private final String contentType;
+    private final String extension;
+
+    UserExportFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+}
@@ -0,0 +1,249 @@
+package com.wanli.health;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.io.File;
+import java.sql.Connection;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * 后台健康探测
+ * 定时并行探测数据库、Redis 与磁盘，每项探测单独超时，结果整体替换到一个快照中；
+ * 健康检查接口只读取快照，不再为每次请求占用数据库连接或 Redis 连接。
+ * 快照超过 stale-after 未更新（探测线程卡死、调度停止）时视为 DOWN。
+ *
+ * @author JamesWu
+ * @since 1.0.0
+ */
+@Component
+public class HealthProbeService {
+
+    private static final Logger log = LoggerFactory.getLogger(HealthProbeService.class);
+
+    private static final String DATABASE = "database";
+    private static final String REDIS = "redis";
+    private static final String DISK_SPACE = "diskSpace";
+
+    private final DataSource dataSource;
+    private final StringRedisTemplate redisTemplate;
+    private final MeterRegistry meterRegistry;
+    private final Duration timeout;
+    private final Duration staleAfter;
+    private final double diskUsageThreshold;
+
+    private final ExecutorService executor;
+    private final AtomicReference<HealthSnapshot> snapshot = new AtomicReference<>();
+    private final Map<String, AtomicBoolean> running = new LinkedHashMap<>();
+
+    public HealthProbeService(DataSource dataSource,
+                              StringRedisTemplate redisTemplate,
+                              MeterRegistry meterRegistry,
+                              @Value("${app.health.probe-timeout:2s}") Duration timeout,
+                              @Value("${app.health.stale-after:15s}") Duration staleAfter,
+                              @Value("${app.health.disk-usage-threshold:90}") double diskUsageThreshold) {
+        this.dataSource = dataSource;
+        this.redisTemplate = redisTemplate;
+        this.meterRegistry = meterRegistry;
+        this.timeout = timeout;
+        this.staleAfter = staleAfter;
+        this.diskUsageThreshold = diskUsageThreshold;
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(3, runnable -> {
+            Thread thread = new Thread(runnable, "health-probe-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (String component : new String[]{DATABASE, REDIS, DISK_SPACE}) {
+            running.put(component, new AtomicBoolean());
+        }
+
+        Gauge.builder("health.snapshot.age", this, service -> {
+                    HealthSnapshot current = service.snapshot.get();
+                    return current != null ? current.age(Instant.now()).toMillis() / 1000.0 : Double.NaN;
+                })
+                .description("Age of the latest health probe snapshot")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 启动完成后立即探测一次，避免首个快照要等一个调度周期
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void probeOnStartup() {
+        probe();
+    }
+
+    /**
+     * 定时探测：各组件并行执行，全部完成（或超时）后整体替换快照，调度线程不等待探测结果
+     */
+    @Scheduled(fixedDelayString = "${app.health.probe-interval-ms:5000}")
+    public void probe() {
+        CompletableFuture<Map<String, Object>> database = submit(DATABASE, this::checkDatabase);
+        CompletableFuture<Map<String, Object>> redis = submit(REDIS, this::checkRedis);
+        CompletableFuture<Map<String, Object>> disk = submit(DISK_SPACE, this::checkDiskSpace);
+
+        CompletableFuture.allOf(database, redis, disk).thenRun(() -> {
+            Map<String, Map<String, Object>> components = new LinkedHashMap<>();
+            components.put(DATABASE, database.join());
+            components.put(REDIS, redis.join());
+            components.put(DISK_SPACE, disk.join());
+            publish(components);
+        });
+    }
+
+    /**
+     * 最新快照；尚未完成首次探测时为 null
+     */
+    public HealthSnapshot getSnapshot() {
+        return snapshot.get();
+    }
+
+    /**
+     * 快照是否已过期
+     */
+    public boolean isStale(HealthSnapshot current, Instant now) {
+        return current == null || current.age(now).compareTo(staleAfter) > 0;
+    }
+
+    private void publish(Map<String, Map<String, Object>> components) {
+        boolean allUp = components.values().stream()
+                .allMatch(component -> HealthSnapshot.UP.equals(component.get("status")));
+        HealthSnapshot next = new HealthSnapshot(allUp ? HealthSnapshot.UP : HealthSnapshot.DOWN,
+                Instant.now(), components);
+        HealthSnapshot previous = snapshot.getAndSet(next);
+        if (previous != null && previous.isUp() != next.isUp()) {
+            log.warn("健康状态变化：{} -> {}，{}", previous.status(), next.status(), components);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * 提交一项探测；上一轮同一探测仍未结束（线程卡住）时不再重复提交，直接判定为 DOWN
+     */
+    private CompletableFuture<Map<String, Object>> submit(String component, Supplier<Map<String, Object>> check) {
+        AtomicBoolean inFlight = running.get(component);
+        if (!inFlight.compareAndSet(false, true)) {
+            return CompletableFuture.completedFuture(down("Previous probe has not finished", null));
+        }
+        Timer timer = Timer.builder("health.probe")
+                .description("Health probe duration")
+                .tag("component", component)
+                .register(meterRegistry);
+        long started = System.nanoTime();
+        return CompletableFuture.supplyAsync(() -> {
+                    try {
+                        return check.get();
+                    } finally {
+                        timer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+                        inFlight.set(false);
+                    }
+                }, executor)
+                .completeOnTimeout(null, timeout.toMillis(), TimeUnit.MILLISECONDS)
+                .handle((result, error) -> {
+                    if (error != null) {
+                        return down("Probe failed", error);
+                    }
+                    return result != null ? result : down("Probe timed out after " + timeout.toMillis() + " ms",
+                            new TimeoutException());
+                });
+    }
+
+    /**
+     * 检查数据库连接（从连接池借用连接）
+     */
+    private Map<String, Object> checkDatabase() {
+        try (Connection connection = dataSource.getConnection()) {
+            boolean valid = connection.isValid((int) Math.max(1, timeout.toSeconds()));
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("status", valid ? HealthSnapshot.UP : HealthSnapshot.DOWN);
+            result.put("database", "MySQL");
+            result.put("details", valid ? "Database connection is healthy" : "Database connection validation failed");
+            return result;
+        } catch (Exception e) {
+            return down("Failed to connect to database", e);
+        }
+    }
+
+    /**
+     * 检查 Redis（复用共享连接发送 PING）
+     */
+    private Map<String, Object> checkRedis() {
+        try {
+            String pong = redisTemplate.execute(RedisConnection::ping);
+            boolean healthy = "PONG".equals(pong);
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("status", healthy ? HealthSnapshot.UP : HealthSnapshot.DOWN);
+            result.put("redis", "Redis");
+            result.put("details", healthy ? "Redis connection is healthy" : "Redis ping failed");
+            return result;
+        } catch (Exception e) {
+            return down("Failed to connect to Redis", e);
+        }
+    }
+
+    /**
+     * 检查磁盘空间
+     */
+    private Map<String, Object> checkDiskSpace() {
+        try {
+            File root = new File("/");
+            long totalSpace = root.getTotalSpace();
+            long freeSpace = root.getFreeSpace();
+            long usedSpace = totalSpace - freeSpace;
+            double usagePercentage = (double) usedSpace / totalSpace * 100;
+            boolean healthy = usagePercentage < diskUsageThreshold;
+
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("status", healthy ? HealthSnapshot.UP : HealthSnapshot.DOWN);
+            result.put("total", totalSpace);
+            result.put("free", freeSpace);
+            result.put("used", usedSpace);
+            result.put("usagePercentage", Math.round(usagePercentage * 100.0) / 100.0);
+            result.put("details", healthy ? "Disk space is sufficient" : "Disk space is running low");
+            return result;
+        } catch (Exception e) {
+            return down("Failed to check disk space", e);
+        }
+    }
+
+    private static Map<String, Object> down(String details, Throwable error) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("status", HealthSnapshot.DOWN);
+        if (error != null && error.getMessage() != null) {
+            result.put("error", error.getMessage());
+        }
+        result.put("details", details);
+        return result;
+    }
+}
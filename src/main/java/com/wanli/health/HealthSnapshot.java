@@ -0,0 +1,32 @@
+package com.wanli.health;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * 一轮健康探测的结果快照（不可变）
+ *
+ * @param status 整体状态（所有组件 UP 时为 UP）
+ * @param probedAt 探测完成时间
+ * @param components 各组件的状态与详情
+ *
+ * @author JamesWu
+ * @since 1.0.0
+ */
+public record HealthSnapshot(String status, Instant probedAt, Map<String, Map<String, Object>> components) {
+
+    public static final String UP = "UP";
+    public static final String DOWN = "DOWN";
+
+    public boolean isUp() {
+        return UP.equals(status);
+    }
+
+    /**
+     * 快照距今的时长
+     */
+    public Duration age(Instant now) {
+        return Duration.between(probedAt, now);
+    }
+}
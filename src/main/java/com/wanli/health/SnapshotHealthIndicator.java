@@ -0,0 +1,44 @@
+package com.wanli.health;
+
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+
+/**
+ * 基于后台探测快照的健康指示器
+ * /actuator/health 的唯一数据来源：Spring Boot 自带的 db / redis / diskSpace 指示器已关闭（见 management.health），
+ * 健康检查请求只读取 {@link HealthProbeService} 的最新快照，不借用连接池连接、不发送 Redis 命令。
+ * 快照过期或尚未生成时为 DOWN，actuator 随之返回 503。
+ *
+ * @author JamesWu
+ * @since 1.0.0
+ */
+@Component
+public class SnapshotHealthIndicator implements HealthIndicator {
+
+    private final HealthProbeService healthProbeService;
+
+    public SnapshotHealthIndicator(HealthProbeService healthProbeService) {
+        this.healthProbeService = healthProbeService;
+    }
+
+    @Override
+    public Health health() {
+        Instant now = Instant.now();
+        HealthSnapshot snapshot = healthProbeService.getSnapshot();
+        if (snapshot == null) {
+            return Health.down().withDetail("details", "Health probes have not completed yet").build();
+        }
+
+        boolean stale = healthProbeService.isStale(snapshot, now);
+        Health.Builder builder = snapshot.isUp() && !stale ? Health.up() : Health.down();
+        snapshot.components().forEach((name, component) -> builder.withDetail(name, component.get("status")));
+        return builder
+                .withDetail("probedAt", snapshot.probedAt())
+                .withDetail("ageMillis", snapshot.age(now).toMillis())
+                .withDetail("stale", stale)
+                .build();
+    }
+}
@@ -0,0 +1,155 @@
+package com.wanli.importer;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * CSV 格式的用户导入读取器（RFC 4180）
+ * 第一行为表头，列名不区分大小写：username、email、password、password_hash、full_name、phone，
+ * 其中 password 与 password_hash 二选一。字段可用双引号包裹，引号内可包含逗号、换行和成对的双引号。
+ *
+ * @author JamesWu
+ * @since 1.0.0
+ */
+class CsvUserImportReader implements UserImportReader {
+
+    private static final int MAX_FIELD_LENGTH = 4096;
+
+    private final BufferedReader reader;
+    private final Map<String, Integer> columns = new HashMap<>();
+    private long rowNumber;
+    private boolean eof;
+
+    CsvUserImportReader(BufferedReader reader) throws IOException {
+        this.reader = reader;
+        List<String> header = readRecord();
+        if (header == null) {
+            throw new IllegalArgumentException("CSV 缺少表头");
+        }
+        for (int i = 0; i < header.size(); i++) {
+            String name = header.get(i).trim().toLowerCase(Locale.ROOT);
+            if (i == 0 && name.startsWith("\uFEFF")) {
+                name = name.substring(1);
+            }
+            columns.put(name, i);
+        }
+        if (!columns.containsKey("username") || !columns.containsKey("email")) {
+            throw new IllegalArgumentException("CSV 表头必须包含 username 和 email 列");
+        }
+    }
+
+    @Override
+    public UserImportRow next() throws IOException {
+        List<String> record;
+        try {
+            record = readRecord();
+        } catch (IllegalStateException e) {
+            rowNumber++;
+            skipLine();
+            return UserImportRow.failed(rowNumber, e.getMessage());
+        }
+        if (record == null) {
+            return null;
+        }
+        rowNumber++;
+
+        UserImportRow row = new UserImportRow(rowNumber);
+        row.setUsername(field(record, "username"));
+        row.setEmail(field(record, "email"));
+        row.setPassword(field(record, "password"));
+        row.setPasswordHash(field(record, "password_hash"));
+        row.setFullName(field(record, "full_name"));
+        row.setPhone(field(record, "phone"));
+        return row;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private String field(List<String> record, String column) {
+        Integer index = columns.get(column);
+        if (index == null || index >= record.size()) {
+            return null;
+        }
+        String value = record.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    /**
+     * 读取一条记录，跳过空行
+     *
+     * @return 字段列表，读完时返回 null
+     */
+    private List<String> readRecord() throws IOException {
+        while (!eof) {
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            boolean empty = true;
+
+            while (true) {
+                int c = reader.read();
+                if (c == -1) {
+                    eof = true;
+                    if (quoted) {
+                        throw new IllegalStateException("引号未闭合");
+                    }
+                    break;
+                }
+                empty = false;
+                if (quoted) {
+                    if (c == '"') {
+                        reader.mark(1);
+                        if (reader.read() == '"') {
+                            field.append('"');
+                        } else {
+                            reader.reset();
+                            quoted = false;
+                        }
+                    } else {
+                        field.append((char) c);
+                    }
+                } else if (c == '"' && field.length() == 0) {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else if (c == '\n') {
+                    break;
+                } else if (c != '\r') {
+                    field.append((char) c);
+                }
+                if (field.length() > MAX_FIELD_LENGTH) {
+                    throw new IllegalStateException("字段长度超过 " + MAX_FIELD_LENGTH + " 个字符");
+                }
+            }
+
+            if (empty || (fields.isEmpty() && field.length() == 0)) {
+                continue;
+            }
+            fields.add(field.toString());
+            return fields;
+        }
+        return null;
+    }
+
+    /**
+     * 丢弃当前行的剩余部分
+     */
+    private void skipLine() throws IOException {
+        int c;
+        while ((c = reader.read()) != -1 && c != '\n') {
+            // 跳过
+        }
+        if (c == -1) {
+            eof = true;
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.wanli.importer;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+
+/**
+ * NDJSON 格式的用户导入读取器
+ * 每行一个 JSON 对象，字段：username、email、password、passwordHash、fullName、phone；
+ * 单行解析失败只影响该行。
+ *
+ * @author JamesWu
+ * @since 1.0.0
+ */
+class NdjsonUserImportReader implements UserImportReader {
+
+    private final BufferedReader reader;
+    private final ObjectMapper objectMapper;
+    private long rowNumber;
+
+    NdjsonUserImportReader(BufferedReader reader, ObjectMapper objectMapper) {
+        this.reader = reader;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public UserImportRow next() throws IOException {
+        String line;
+        do {
+            line = reader.readLine();
+            if (line == null) {
+                return null;
+            }
+        } while (line.isBlank());
+        rowNumber++;
+
+        JsonNode node;
+        try {
+            node = objectMapper.readTree(line);
+        } catch (JsonProcessingException e) {
+            return UserImportRow.failed(rowNumber, "JSON 格式错误: " + e.getOriginalMessage());
+        }
+        if (!node.isObject()) {
+            return UserImportRow.failed(rowNumber, "每行必须是一个 JSON 对象");
+        }
+
+        UserImportRow row = new UserImportRow(rowNumber);
+        row.setUsername(text(node, "username"));
+        row.setEmail(text(node, "email"));
+        row.setPassword(text(node, "password"));
+        row.setPasswordHash(text(node, "passwordHash"));
+        row.setFullName(text(node, "fullName"));
+        row.setPhone(text(node, "phone"));
+        return row;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private static String text(JsonNode node, String field) {
+        JsonNode value = node.get(field);
+        if (value == null || value.isNull()) {
+            return null;
+        }
+        String text = value.asText().trim();
+        return text.isEmpty() ? null : text;
+    }
+}
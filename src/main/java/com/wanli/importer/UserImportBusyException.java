@@ -0,0 +1,15 @@
+package com.wanli.importer;
+
+/**
+ * 同时进行的导入任务已达上限，请求被快速拒绝
+ * 控制器应返回 429，由客户端稍后重试
+ *
+ * @author JamesWu
+ * @since 1.0.0
+ */
+public class UserImportBusyException extends RuntimeException {
+
+    public UserImportBusyException(String message) {
+        super(message);
+    }
+}
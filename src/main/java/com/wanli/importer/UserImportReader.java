@@ -0,0 +1,45 @@
+package com.wanli.importer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 用户导入数据流式读取器
+ * 逐行读取请求体，不在内存中缓存整个文件
+ *
+ * @author JamesWu
+ * @since 1.0.0
+ */
+public interface UserImportReader extends Closeable {
+
+    /**
+     * 读取下一行
+     *
+     * @return 用户记录，读完时返回 null
+     */
+    UserImportRow next() throws IOException;
+
+    /**
+     * 按格式创建读取器
+     *
+     * @param format 格式：csv 或 ndjson
+     * @param input 数据流（UTF-8）
+     * @param objectMapper NDJSON 解析使用的 ObjectMapper
+     */
+    static UserImportReader open(String format, InputStream input, ObjectMapper objectMapper) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8), 64 * 1024);
+        if ("csv".equalsIgnoreCase(format)) {
+            return new CsvUserImportReader(reader);
+        }
+        if ("ndjson".equalsIgnoreCase(format)) {
+            return new NdjsonUserImportReader(reader, objectMapper);
+        }
+        throw new IllegalArgumentException("不支持的导入格式: " + format);
+    }
+}
@@ -0,0 +1,93 @@
+package com.wanli.importer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 用户导入结果
+ * 错误明细最多保留 maxReportedErrors 条，超出部分只计数
+ *
+ * @author JamesWu
+ * @since 1.0.0
+ */
+public class UserImportResult {
+
+    private final int maxReportedErrors;
+    private final List<RowError> errors = new ArrayList<>();
+    private long total;
+    private long imported;
+    private long failed;
+    private long elapsedMillis;
+
+    public UserImportResult(int maxReportedErrors) {
+        this.maxReportedErrors = maxReportedErrors;
+    }
+
+    void addRow() {
+        total++;
+    }
+
+    void addImported(long count) {
+        imported += count;
+    }
+
+    void addError(long rowNumber, String message) {
+        failed++;
+        if (errors.size() < maxReportedErrors) {
+            errors.add(new RowError(rowNumber, message));
+        }
+    }
+
+    void setElapsedMillis(long elapsedMillis) {
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public long getImported() {
+        return imported;
+    }
+
+    public long getFailed() {
+        return failed;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public List<RowError> getErrors() {
+        return errors;
+    }
+
+    /**
+     * 错误明细是否被截断
+     */
+    public boolean isErrorsTruncated() {
+        return failed > errors.size();
+    }
+
+    /**
+     * 单行错误
+     */
+    public static class RowError {
+
+        private final long row;
+        private final String message;
+
+        public RowError(long row, String message) {
+            this.row = row;
+            this.message = message;
+        }
+
+        public long getRow() {
+            return row;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+    }
+}
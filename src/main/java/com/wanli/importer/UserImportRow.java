@@ -0,0 +1,89 @@
+package com.wanli.importer;
+
+/**
+ * 导入数据中的一行用户记录
+ * 解析失败的行只包含行号和错误信息
+ *
+ * @author JamesWu
+ * @since 1.0.0
+ */
+public class UserImportRow {
+
+    private final long rowNumber;
+    private String username;
+    private String email;
+    private String password;
+    private String passwordHash;
+    private String fullName;
+    private String phone;
+    private String error;
+
+    public UserImportRow(long rowNumber) {
+        this.rowNumber = rowNumber;
+    }
+
+    /**
+     * 创建解析失败的行
+     */
+    public static UserImportRow failed(long rowNumber, String error) {
+        UserImportRow row = new UserImportRow(rowNumber);
+        row.error = error;
+        return row;
+    }
+
+    public long getRowNumber() {
+        return rowNumber;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public void setEmail(String email) {
+        this.email = email;
+    }
+
+    public String getPassword() {
+        return password;
+    }
+
+    public void setPassword(String password) {
+        this.password = password;
+    }
+
+    public String getPasswordHash() {
+        return passwordHash;
+    }
+
+    public void setPasswordHash(String passwordHash) {
+        this.passwordHash = passwordHash;
+    }
+
+    public String getFullName() {
+        return fullName;
+    }
+
+    public void setFullName(String fullName) {
+        this.fullName = fullName;
+    }
+
+    public String getPhone() {
+        return phone;
+    }
+
+    public void setPhone(String phone) {
+        this.phone = phone;
+    }
+
+    public String getError() {
+        return error;
+    }
+}
@@ -0,0 +1,365 @@
+package com.wanli.importer;
+
+import com.wanli.cache.UserExistenceFilter;
+import com.wanli.entity.User;
+import com.wanli.outbox.UserEventType;
+import com.wanli.outbox.UserOutbox;
+import com.wanli.search.UserSearchIndex;
+import com.wanli.security.PasswordHashingEngine;
+import com.wanli.stats.UserStatisticsCounter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+/**
+ * 用户批量导入服务
+ * 流式读取导入数据，按 app.import.batch-size 分块处理：
+ * 校验 → 块内去重 → 以 IN 查询批量检查已存在的用户名/邮箱（先经布隆过滤器筛选）→
+ * 在导入专用的有界线程池中并行哈希密码（不占用交互请求的哈希线程池）→ JDBC 批量插入。每块在独立事务中提交，
+ * 后续块的存在性检查因此能看到前面块已导入的用户，无需在内存中保留全部用户名。
+ *
+ * @author JamesWu
+ * @since 1.0.0
+ */
+@Service
+public class UserImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(UserImportService.class);
+
+    private static final Pattern EMAIL_PATTERN = Pattern.compile("^[^@\\s]+@[^@\\s]+\\.[^@\\s]+$");
+    private static final Pattern BCRYPT_PATTERN = Pattern.compile("^\\$2[aby]?\\$\\d{2}\\$[./A-Za-z0-9]{53}$");
+
+    private static final String INSERT_USER = "INSERT INTO users (id, username, email, password_hash, full_name, "
+            + "phone, status, email_verified, phone_verified, created_at, updated_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, FALSE, FALSE, ?, ?)";
+    private static final String FIND_EXISTING_USERNAMES = "SELECT username FROM users WHERE username IN (:values)";
+    private static final String FIND_EXISTING_EMAILS = "SELECT email FROM users WHERE email IN (:values)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final PasswordHashingEngine passwordHashingEngine;
+    private final UserExistenceFilter userExistenceFilter;
+    private final UserSearchIndex userSearchIndex;
+    private final UserStatisticsCounter userStatisticsCounter;
+    private final UserOutbox userOutbox;
+
+    private final ThreadPoolExecutor hashExecutor;
+    private final Semaphore permits;
+    private final int batchSize;
+    private final int maxReportedErrors;
+
+    private final Timer importTimer;
+    private final Counter importedCounter;
+    private final Counter failedCounter;
+
+    public UserImportService(JdbcTemplate jdbcTemplate,
+                             NamedParameterJdbcTemplate namedParameterJdbcTemplate,
+                             PlatformTransactionManager transactionManager,
+                             PasswordHashingEngine passwordHashingEngine,
+                             UserExistenceFilter userExistenceFilter,
+                             UserSearchIndex userSearchIndex,
+                             UserStatisticsCounter userStatisticsCounter,
+                             UserOutbox userOutbox,
+                             MeterRegistry meterRegistry,
+                             @Value("${app.import.batch-size:1000}") int batchSize,
+                             @Value("${app.import.hash-threads:0}") int hashThreads,
+                             @Value("${app.import.max-concurrent:2}") int maxConcurrent,
+                             @Value("${app.import.max-reported-errors:1000}") int maxReportedErrors) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedParameterJdbcTemplate = namedParameterJdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.passwordHashingEngine = passwordHashingEngine;
+        this.userExistenceFilter = userExistenceFilter;
+        this.userSearchIndex = userSearchIndex;
+        this.userStatisticsCounter = userStatisticsCounter;
+        this.userOutbox = userOutbox;
+        this.batchSize = batchSize;
+        this.maxReportedErrors = maxReportedErrors;
+        this.permits = new Semaphore(maxConcurrent);
+
+        int threads = hashThreads > 0 ? hashThreads : Runtime.getRuntime().availableProcessors();
+        // 队列容量与分块大小一致，超出时由提交线程自己执行哈希，形成背压
+        this.hashExecutor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(batchSize), runnable -> {
+                    Thread thread = new Thread(runnable, "user-import-hash");
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.CallerRunsPolicy());
+
+        this.importTimer = Timer.builder("user.import")
+                .description("Time to run a bulk user import")
+                .register(meterRegistry);
+        this.importedCounter = Counter.builder("user.import.rows")
+                .tag("result", "imported")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("user.import.rows")
+                .tag("result", "failed")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 导入用户
+     *
+     * @param reader 导入数据读取器
+     * @return 导入结果
+     * @throws UserImportBusyException 同时进行的导入任务已达上限
+     */
+    public UserImportResult importUsers(UserImportReader reader) throws IOException {
+        if (!permits.tryAcquire()) {
+            throw new UserImportBusyException("导入任务过多，请稍后重试");
+        }
+        long started = System.nanoTime();
+        try {
+            UserImportResult result = new UserImportResult(maxReportedErrors);
+            List<UserImportRow> chunk = new ArrayList<>(batchSize);
+            UserImportRow row;
+            while ((row = reader.next()) != null) {
+                result.addRow();
+                if (row.getError() != null) {
+                    result.addError(row.getRowNumber(), row.getError());
+                    continue;
+                }
+                chunk.add(row);
+                if (chunk.size() == batchSize) {
+                    importChunk(chunk, result);
+                    chunk.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                importChunk(chunk, result);
+            }
+
+            long elapsed = System.nanoTime() - started;
+            result.setElapsedMillis(TimeUnit.NANOSECONDS.toMillis(elapsed));
+            importTimer.record(elapsed, TimeUnit.NANOSECONDS);
+            importedCounter.increment(result.getImported());
+            failedCounter.increment(result.getFailed());
+            log.info("用户导入完成：共 {} 行，成功 {}，失败 {}，耗时 {} ms",
+                    result.getTotal(), result.getImported(), result.getFailed(), result.getElapsedMillis());
+            return result;
+        } finally {
+            permits.release();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        hashExecutor.shutdownNow();
+    }
+
+    private void importChunk(List<UserImportRow> chunk, UserImportResult result) {
+        // 校验与块内去重
+        List<UserImportRow> candidates = new ArrayList<>(chunk.size());
+        Set<String> usernames = new HashSet<>();
+        Set<String> emails = new HashSet<>();
+        for (UserImportRow row : chunk) {
+            String error = validate(row);
+            if (error == null && !usernames.add(UserExistenceFilter.normalize(row.getUsername()))) {
+                error = "用户名在导入数据中重复";
+            }
+            if (error == null && !emails.add(UserExistenceFilter.normalize(row.getEmail()))) {
+                error = "邮箱在导入数据中重复";
+            }
+            if (error != null) {
+                result.addError(row.getRowNumber(), error);
+            } else {
+                candidates.add(row);
+            }
+        }
+
+        // 批量检查已存在的用户名/邮箱
+        Set<String> existingUsernames = findExisting(FIND_EXISTING_USERNAMES, candidates,
+                UserImportRow::getUsername, userExistenceFilter::mightContainUsername);
+        Set<String> existingEmails = findExisting(FIND_EXISTING_EMAILS, candidates,
+                UserImportRow::getEmail, userExistenceFilter::mightContainEmail);
+        List<UserImportRow> accepted = new ArrayList<>(candidates.size());
+        for (UserImportRow row : candidates) {
+            if (existingUsernames.contains(UserExistenceFilter.normalize(row.getUsername()))) {
+                result.addError(row.getRowNumber(), "用户名已存在");
+            } else if (existingEmails.contains(UserExistenceFilter.normalize(row.getEmail()))) {
+                result.addError(row.getRowNumber(), "邮箱已存在");
+            } else {
+                accepted.add(row);
+            }
+        }
+        if (accepted.isEmpty()) {
+            return;
+        }
+
+        List<User> users = toUsers(accepted, result);
+        if (users.isEmpty()) {
+            return;
+        }
+        try {
+            insert(users);
+            result.addImported(users.size());
+        } catch (DataIntegrityViolationException e) {
+            // 与并发注册冲突，逐行插入以定位失败的行
+            for (int i = 0; i < users.size(); i++) {
+                try {
+                    insert(List.of(users.get(i)));
+                    result.addImported(1);
+                } catch (DataIntegrityViolationException rowError) {
+                    result.addError(accepted.get(i).getRowNumber(), "用户名或邮箱已存在");
+                }
+            }
+        }
+    }
+
+    private void insert(List<User> users) {
+        List<Object[]> args = new ArrayList<>(users.size());
+        for (User user : users) {
+            Timestamp createdAt = Timestamp.valueOf(user.getCreatedAt());
+            args.add(new Object[]{user.getId(), user.getUsername(), user.getEmail(), user.getPasswordHash(),
+                    user.getFullName(), user.getPhone(), user.getStatus().name(), createdAt, createdAt});
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.batchUpdate(INSERT_USER, args);
+            userSearchIndex.indexAll(users);
+            userStatisticsCounter.recordCreated(User.UserStatus.ACTIVE, users.size());
+            userOutbox.appendAll(UserEventType.CREATED, users);
+        });
+        users.forEach(userExistenceFilter::add);
+    }
+
+    /**
+     * 并行哈希密码并构造用户；已是 bcrypt 哈希的密码直接使用。
+     * 哈希失败的行记为该行的错误并从 rows 中移除，不影响同一块的其他行，返回的用户与剩余的 rows 一一对应。
+     */
+    private List<User> toUsers(List<UserImportRow> rows, UserImportResult result) {
+        List<CompletableFuture<String>> hashes = new ArrayList<>(rows.size());
+        for (UserImportRow row : rows) {
+            if (row.getPasswordHash() != null) {
+                hashes.add(CompletableFuture.completedFuture(row.getPasswordHash()));
+            } else {
+                String password = row.getPassword();
+                hashes.add(CompletableFuture.supplyAsync(
+                        () -> passwordHashingEngine.encodeOnCallerThread(password), hashExecutor));
+            }
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<User> users = new ArrayList<>(rows.size());
+        Iterator<UserImportRow> iterator = rows.iterator();
+        for (CompletableFuture<String> hash : hashes) {
+            UserImportRow row = iterator.next();
+            String passwordHash;
+            try {
+                passwordHash = hash.join();
+            } catch (CompletionException e) {
+                log.warn("导入第 {} 行密码哈希失败", row.getRowNumber(), e.getCause());
+                result.addError(row.getRowNumber(), "密码哈希失败");
+                iterator.remove();
+                continue;
+            }
+            User user = new User();
+            user.setId(UUID.randomUUID().toString());
+            user.setUsername(row.getUsername());
+            user.setEmail(row.getEmail());
+            user.setPasswordHash(passwordHash);
+            user.setFullName(row.getFullName());
+            user.setPhone(row.getPhone());
+            user.setStatus(User.UserStatus.ACTIVE);
+            user.setEmailVerified(false);
+            user.setPhoneVerified(false);
+            user.setCreatedAt(now);
+            user.setUpdatedAt(now);
+            users.add(user);
+        }
+        return users;
+    }
+
+    /**
+     * 查询已存在的值（归一化后），布隆过滤器判定一定不存在的值不参与查询
+     */
+    private Set<String> findExisting(String sql, Collection<UserImportRow> rows,
+                                     Function<UserImportRow, String> getter,
+                                     Predicate<String> mightContain) {
+        List<String> values = new ArrayList<>();
+        for (UserImportRow row : rows) {
+            String value = getter.apply(row);
+            if (mightContain.test(value)) {
+                values.add(value);
+            }
+        }
+        Set<String> existing = new HashSet<>();
+        if (values.isEmpty()) {
+            return existing;
+        }
+        Map<String, Object> params = new HashMap<>();
+        params.put("values", values);
+        for (String value : namedParameterJdbcTemplate.queryForList(sql, params, String.class)) {
+            existing.add(UserExistenceFilter.normalize(value));
+        }
+        return existing;
+    }
+
+    /**
+     * 校验单行数据，规则与 User 实体上的约束一致
+     *
+     * @return 错误信息，校验通过时为 null
+     */
+    static String validate(UserImportRow row) {
+        String username = row.getUsername();
+        if (username == null) {
+            return "用户名不能为空";
+        }
+        if (username.length() < 3 || username.length() > 50) {
+            return "用户名长度必须在3-50个字符之间";
+        }
+        String email = row.getEmail();
+        if (email == null) {
+            return "邮箱不能为空";
+        }
+        if (email.length() > 100 || !EMAIL_PATTERN.matcher(email).matches()) {
+            return "邮箱格式不正确";
+        }
+        if (row.getPasswordHash() != null) {
+            if (!BCRYPT_PATTERN.matcher(row.getPasswordHash()).matches()) {
+                return "密码哈希必须是 bcrypt 格式";
+            }
+        } else if (row.getPassword() == null) {
+            return "密码不能为空";
+        }
+        if (row.getFullName() != null && row.getFullName().length() > 100) {
+            return "全名长度不能超过100个字符";
+        }
+        if (row.getPhone() != null && row.getPhone().length() > 20) {
+            return "手机号长度不能超过20个字符";
+        }
+        return null;
+    }
+}
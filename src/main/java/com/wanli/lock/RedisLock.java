@@ -0,0 +1,74 @@
+package com.wanli.lock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * 基于 Redis 的跨节点互斥锁
+ * 用于保证定时任务在集群中同一时刻只由一个节点执行。
+ * 锁带有过期时间，持有者宕机后自动释放；释放时校验持有者令牌，不会误删其他节点的锁。
+ *
+ * @author JamesWu
+ * @since 1.0.0
+ */
+@Component
+public class RedisLock {
+
+    private static final Logger log = LoggerFactory.getLogger(RedisLock.class);
+
+    private static final String KEY_PREFIX = "lock:";
+
+    private static final RedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end",
+            Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+
+    public RedisLock(StringRedisTemplate redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    /**
+     * 尝试获取锁并执行任务，锁已被其他节点持有或 Redis 不可用时直接跳过
+     *
+     * @param name 锁名称
+     * @param ttl 锁的过期时间，应大于任务的最长执行时间
+     * @param task 任务
+     * @return 是否执行了任务
+     */
+    public boolean runIfAcquired(String name, Duration ttl, Runnable task) {
+        String key = KEY_PREFIX + name;
+        String token = UUID.randomUUID().toString();
+        Boolean acquired;
+        try {
+            acquired = redisTemplate.opsForValue().setIfAbsent(key, token, ttl);
+        } catch (DataAccessException e) {
+            log.warn("获取锁 {} 失败: {}", name, e.getMessage());
+            return false;
+        }
+        if (!Boolean.TRUE.equals(acquired)) {
+            log.debug("锁 {} 已被其他节点持有，跳过", name);
+            return false;
+        }
+
+        try {
+            task.run();
+            return true;
+        } finally {
+            try {
+                redisTemplate.execute(RELEASE_SCRIPT, List.of(key), token);
+            } catch (DataAccessException e) {
+                log.warn("释放锁 {} 失败，将在过期后自动释放: {}", name, e.getMessage());
+            }
+        }
+    }
+}
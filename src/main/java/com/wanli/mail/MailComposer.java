@@ -0,0 +1,51 @@
+package com.wanli.mail;
+
+import com.wanli.security.EmailVerificationTokens;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 邮件内容生成
+ * 验证邮件中的令牌在生成时签发，有效期从实际发送时算起
+ *
+ * @author JamesWu
+ * @since 1.0.0
+ */
+@Component
+public class MailComposer {
+
+    private final EmailVerificationTokens emailVerificationTokens;
+    private final String from;
+    private final String verificationUrl;
+
+    public MailComposer(EmailVerificationTokens emailVerificationTokens,
+                        @Value("${app.mail.from:noreply@wanli.com}") String from,
+                        @Value("${app.mail.verification.url:http://localhost:8080/api/api/users/verify-email?token=}") String verificationUrl) {
+        this.emailVerificationTokens = emailVerificationTokens;
+        this.from = from;
+        this.verificationUrl = verificationUrl;
+    }
+
+    MimeMessage compose(JavaMailSender mailSender, QueuedMail mail) throws MessagingException {
+        MimeMessage message = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, StandardCharsets.UTF_8.name());
+        helper.setFrom(from);
+        helper.setTo(mail.recipient());
+        switch (mail.template()) {
+            case EMAIL_VERIFICATION -> {
+                helper.setSubject("请验证您的邮箱");
+                helper.setText(mail.recipientName() + "，您好：\n\n"
+                        + "请在 " + emailVerificationTokens.getValidity().toHours() + " 小时内点击以下链接完成邮箱验证：\n"
+                        + verificationUrl + emailVerificationTokens.issue(mail.userId()) + "\n\n"
+                        + "如果您没有注册过账号，请忽略此邮件。\n");
+            }
+        }
+        return message;
+    }
+}
@@ -0,0 +1,388 @@
+package com.wanli.mail;
+
+import com.wanli.lock.RedisLock;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 邮件发送
+ * 调度线程只负责领取：每有一个空闲的发送线程，就以 FOR UPDATE SKIP LOCKED 从 mail_queue 领取一批到期的邮件，
+ * 领取时把 next_attempt_at 推后一个租约并累加 attempts，随即提交，交给发送线程处理；调度线程不等待 SMTP。
+ * 发送线程把整批邮件经同一个 SMTP 连接发出（JavaMailSender.send(MimeMessage...)），
+ * 同时打开的 SMTP 连接数不超过 workers。
+ *
+ * 发送成功标记为 SENT；失败按指数退避（initial-backoff 起翻倍，不超过 max-backoff）重新安排，
+ * 达到 max-attempts 或邮件内容无法生成时标记为 FAILED。进程在发送中途退出时，租约到期后邮件会被重新领取，
+ * 因此同一封邮件可能重复发送。已发送超过 retention 的行由定时任务分块删除。
+ *
+ * @author JamesWu
+ * @since 1.0.0
+ */
+@Component
+public class MailDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(MailDispatcher.class);
+
+    private static final String PRUNE_LOCK = "mail-queue-prune";
+    private static final Duration PRUNE_LOCK_TTL = Duration.ofMinutes(5);
+
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private static final String CLAIM_BATCH = "SELECT id, template, user_id, recipient, recipient_name, attempts "
+            + "FROM mail_queue WHERE status = 'PENDING' AND next_attempt_at <= :now "
+            + "ORDER BY next_attempt_at, id LIMIT :limit FOR UPDATE SKIP LOCKED";
+    private static final String LEASE = "UPDATE mail_queue SET attempts = attempts + 1, next_attempt_at = :leaseUntil "
+            + "WHERE id IN (:ids)";
+    private static final String MARK_SENT = "UPDATE mail_queue SET status = 'SENT', sent_at = :sentAt, last_error = NULL "
+            + "WHERE id IN (:ids)";
+    private static final String RESCHEDULE = "UPDATE mail_queue SET next_attempt_at = :nextAttemptAt, last_error = :error "
+            + "WHERE id = :id";
+    private static final String MARK_FAILED = "UPDATE mail_queue SET status = 'FAILED', last_error = :error WHERE id = :id";
+    private static final String BACKLOG = "SELECT COUNT(*), MIN(created_at) FROM mail_queue WHERE status = 'PENDING'";
+    private static final String PRUNE_CHUNK = "DELETE FROM mail_queue WHERE status = 'SENT' AND sent_at < :cutoff "
+            + "LIMIT :limit";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectProvider<JavaMailSender> mailSenderProvider;
+    private final MailComposer mailComposer;
+    private final RedisLock redisLock;
+    private final boolean enabled;
+    private final int workers;
+    private final int batchSize;
+    private final Duration lease;
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final Duration retention;
+    private final int pruneChunkSize;
+
+    private final ExecutorService executor;
+    private final Semaphore idleWorkers;
+
+    private final AtomicLong pending = new AtomicLong();
+    private final AtomicLong oldestPendingAgeMillis = new AtomicLong();
+    private volatile boolean missingSenderLogged;
+    private volatile LocalDateTime lastSentAt;
+    private volatile LocalDateTime lastPrunedAt;
+
+    private final Counter sentCounter;
+    private final Counter retriedCounter;
+    private final Counter failedCounter;
+    private final Counter prunedCounter;
+    private final Timer batchTimer;
+
+    public MailDispatcher(NamedParameterJdbcTemplate jdbcTemplate,
+                          PlatformTransactionManager transactionManager,
+                          ObjectProvider<JavaMailSender> mailSenderProvider,
+                          MailComposer mailComposer,
+                          RedisLock redisLock,
+                          MeterRegistry meterRegistry,
+                          @Value("${app.mail.enabled:false}") boolean enabled,
+                          @Value("${app.mail.workers:2}") int workers,
+                          @Value("${app.mail.batch-size:50}") int batchSize,
+                          @Value("${app.mail.lease:5m}") Duration lease,
+                          @Value("${app.mail.max-attempts:8}") int maxAttempts,
+                          @Value("${app.mail.initial-backoff:30s}") Duration initialBackoff,
+                          @Value("${app.mail.max-backoff:1h}") Duration maxBackoff,
+                          @Value("${app.mail.retention:7d}") Duration retention,
+                          @Value("${app.mail.prune-chunk-size:1000}") int pruneChunkSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.mailSenderProvider = mailSenderProvider;
+        this.mailComposer = mailComposer;
+        this.redisLock = redisLock;
+        this.enabled = enabled;
+        this.workers = workers;
+        this.batchSize = batchSize;
+        this.lease = lease;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+        this.retention = retention;
+        this.pruneChunkSize = pruneChunkSize;
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(workers, runnable -> {
+            Thread thread = new Thread(runnable, "mail-dispatch-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.idleWorkers = new Semaphore(workers);
+
+        this.sentCounter = Counter.builder("mail.queue.sent")
+                .description("Queued mails delivered to the SMTP server")
+                .register(meterRegistry);
+        this.retriedCounter = Counter.builder("mail.queue.retried")
+                .description("Mail send failures rescheduled with backoff")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("mail.queue.failed")
+                .description("Queued mails given up after max attempts or unrenderable content")
+                .register(meterRegistry);
+        this.prunedCounter = Counter.builder("mail.queue.pruned")
+                .description("Sent mail rows deleted after the retention period")
+                .register(meterRegistry);
+        this.batchTimer = Timer.builder("mail.queue.batch")
+                .description("Time to send one batch of mails over a single SMTP connection")
+                .register(meterRegistry);
+        Gauge.builder("mail.queue.pending", pending, AtomicLong::get)
+                .description("Mails waiting to be sent, as of the last backlog refresh")
+                .register(meterRegistry);
+        Gauge.builder("mail.queue.lag", oldestPendingAgeMillis, AtomicLong::get)
+                .description("Age of the oldest mail waiting to be sent, as of the last backlog refresh")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+        Gauge.builder("mail.queue.workers.busy", idleWorkers, semaphore -> workers - semaphore.availablePermits())
+                .description("Dispatch threads currently sending a batch")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 为每个空闲的发送线程领取一批到期的邮件
+     */
+    @Scheduled(fixedDelayString = "${app.mail.poll-interval-ms:1000}")
+    public void dispatch() {
+        if (!enabled) {
+            return;
+        }
+        JavaMailSender mailSender = mailSenderProvider.getIfAvailable();
+        if (mailSender == null) {
+            if (!missingSenderLogged) {
+                missingSenderLogged = true;
+                log.warn("未配置 spring.mail.host，邮件保留在 mail_queue 中不发送");
+            }
+            return;
+        }
+
+        while (idleWorkers.tryAcquire()) {
+            List<QueuedMail> batch;
+            try {
+                batch = transactionTemplate.execute(status -> claim());
+            } catch (DataAccessException | TransactionException e) {
+                idleWorkers.release();
+                log.warn("领取待发送邮件失败: {}", e.getMessage());
+                return;
+            }
+            if (batch == null || batch.isEmpty()) {
+                idleWorkers.release();
+                return;
+            }
+            try {
+                executor.execute(() -> {
+                    try {
+                        send(mailSender, batch);
+                    } finally {
+                        idleWorkers.release();
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                // 正在关闭，已领取的邮件在租约到期后重新发送
+                idleWorkers.release();
+                return;
+            }
+        }
+    }
+
+    /**
+     * 刷新待发送数量与最早一封的等待时间
+     */
+    @Scheduled(fixedDelayString = "${app.mail.backlog-refresh-interval-ms:15000}")
+    public void refreshBacklog() {
+        try {
+            jdbcTemplate.getJdbcTemplate().query(BACKLOG, rs -> {
+                pending.set(rs.getLong(1));
+                Timestamp oldest = rs.getTimestamp(2);
+                oldestPendingAgeMillis.set(oldest != null
+                        ? Math.max(0, System.currentTimeMillis() - oldest.getTime()) : 0);
+            });
+        } catch (DataAccessException e) {
+            log.warn("读取邮件队列积压失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 定时删除已发送超过保留期的邮件，集群内同一时刻只有一个节点执行
+     */
+    @Scheduled(cron = "${app.mail.prune-cron:0 15 * * * *}")
+    public void prune() {
+        redisLock.runIfAcquired(PRUNE_LOCK, PRUNE_LOCK_TTL, () -> {
+            MapSqlParameterSource params = new MapSqlParameterSource()
+                    .addValue("cutoff", Timestamp.valueOf(LocalDateTime.now().minus(retention)))
+                    .addValue("limit", pruneChunkSize);
+            int deleted;
+            do {
+                deleted = jdbcTemplate.update(PRUNE_CHUNK, params);
+                prunedCounter.increment(deleted);
+            } while (deleted == pruneChunkSize);
+            lastPrunedAt = LocalDateTime.now();
+        });
+    }
+
+    /**
+     * 发送状态
+     */
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("senderConfigured", mailSenderProvider.getIfAvailable() != null);
+        stats.put("workers", workers);
+        stats.put("busyWorkers", workers - idleWorkers.availablePermits());
+        stats.put("pending", pending.get());
+        stats.put("lagMillis", oldestPendingAgeMillis.get());
+        stats.put("sent", (long) sentCounter.count());
+        stats.put("retried", (long) retriedCounter.count());
+        stats.put("failed", (long) failedCounter.count());
+        stats.put("lastSentAt", lastSentAt);
+        stats.put("lastPrunedAt", lastPrunedAt);
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private List<QueuedMail> claim() {
+        LocalDateTime now = LocalDateTime.now();
+        List<QueuedMail> batch = jdbcTemplate.query(CLAIM_BATCH, new MapSqlParameterSource()
+                        .addValue("now", Timestamp.valueOf(now))
+                        .addValue("limit", batchSize),
+                (rs, rowNum) -> new QueuedMail(rs.getLong("id"), MailTemplate.valueOf(rs.getString("template")),
+                        rs.getString("user_id"), rs.getString("recipient"), rs.getString("recipient_name"),
+                        rs.getInt("attempts") + 1));
+        if (!batch.isEmpty()) {
+            jdbcTemplate.update(LEASE, new MapSqlParameterSource()
+                    .addValue("leaseUntil", Timestamp.valueOf(now.plus(lease)))
+                    .addValue("ids", batch.stream().map(QueuedMail::id).toList()));
+        }
+        return batch;
+    }
+
+    private void send(JavaMailSender mailSender, List<QueuedMail> batch) {
+        Map<MimeMessage, QueuedMail> messages = new LinkedHashMap<>();
+        for (QueuedMail mail : batch) {
+            try {
+                messages.put(mailComposer.compose(mailSender, mail), mail);
+            } catch (MessagingException | MailException | IllegalArgumentException e) {
+                fail(mail, e);
+            }
+        }
+        if (messages.isEmpty()) {
+            return;
+        }
+
+        Timer.Sample sample = Timer.start();
+        Map<Object, Exception> failures = Map.of();
+        try {
+            mailSender.send(messages.keySet().toArray(new MimeMessage[0]));
+        } catch (MailSendException e) {
+            // 连接失败时所有邮件都在 failedMessages 中；部分收件人被拒时只包含被拒的邮件
+            failures = e.getFailedMessages();
+        } catch (MailException e) {
+            Map<Object, Exception> all = new LinkedHashMap<>();
+            messages.keySet().forEach(message -> all.put(message, e));
+            failures = all;
+        } finally {
+            sample.stop(batchTimer);
+        }
+
+        List<Long> sent = new ArrayList<>(messages.size());
+        for (Map.Entry<MimeMessage, QueuedMail> entry : messages.entrySet()) {
+            Exception failure = failures.get(entry.getKey());
+            if (failure == null) {
+                sent.add(entry.getValue().id());
+            } else {
+                retryOrFail(entry.getValue(), failure);
+            }
+        }
+        if (!sent.isEmpty()) {
+            LocalDateTime now = LocalDateTime.now();
+            update(MARK_SENT, new MapSqlParameterSource()
+                    .addValue("sentAt", Timestamp.valueOf(now))
+                    .addValue("ids", sent));
+            sentCounter.increment(sent.size());
+            lastSentAt = now;
+        }
+    }
+
+    private void retryOrFail(QueuedMail mail, Exception failure) {
+        if (mail.attempts() >= maxAttempts) {
+            fail(mail, failure);
+            return;
+        }
+        update(RESCHEDULE, new MapSqlParameterSource()
+                .addValue("id", mail.id())
+                .addValue("nextAttemptAt", Timestamp.valueOf(LocalDateTime.now().plus(backoff(mail.attempts()))))
+                .addValue("error", describe(failure)));
+        retriedCounter.increment();
+    }
+
+    private void fail(QueuedMail mail, Exception failure) {
+        log.warn("邮件 {} 发送失败，不再重试（已尝试 {} 次）: {}", mail.id(), mail.attempts(), failure.getMessage());
+        update(MARK_FAILED, new MapSqlParameterSource()
+                .addValue("id", mail.id())
+                .addValue("error", describe(failure)));
+        failedCounter.increment();
+    }
+
+    /**
+     * 第 attempts 次失败后的等待时间：initial-backoff × 2^(attempts-1)，不超过 max-backoff
+     */
+    private Duration backoff(int attempts) {
+        Duration delay = initialBackoff;
+        for (int i = 1; i < attempts && delay.compareTo(maxBackoff) < 0; i++) {
+            delay = delay.multipliedBy(2);
+        }
+        return delay.compareTo(maxBackoff) < 0 ? delay : maxBackoff;
+    }
+
+    /**
+     * 写回发送结果；失败时只记录日志，邮件在租约到期后重新发送
+     */
+    private void update(String sql, MapSqlParameterSource params) {
+        try {
+            jdbcTemplate.update(sql, params);
+        } catch (DataAccessException e) {
+            log.warn("写回邮件发送结果失败: {}", e.getMessage());
+        }
+    }
+
+    private static String describe(Exception failure) {
+        String message = failure.getClass().getSimpleName() + ": " + failure.getMessage();
+        return message.length() > MAX_ERROR_LENGTH ? message.substring(0, MAX_ERROR_LENGTH) : message;
+    }
+}
@@ -0,0 +1,60 @@
+package com.wanli.mail;
+
+import com.wanli.entity.User;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+/**
+ * 邮件队列
+ * 在调用方的事务内把邮件写入 mail_queue，邮件随业务数据一同提交或回滚；
+ * 发送由 MailDispatcher 在后台完成，入队方不连接 SMTP 服务器。
+ * app.mail.enabled=false 时不入队。
+ *
+ * @author JamesWu
+ * @since 1.0.0
+ */
+@Component
+public class MailQueue {
+
+    private static final String INSERT_MAIL = "INSERT INTO mail_queue (template, user_id, recipient, recipient_name, "
+            + "status, attempts, next_attempt_at, created_at) VALUES (?, ?, ?, ?, 'PENDING', 0, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+
+    public MailQueue(JdbcTemplate jdbcTemplate,
+                     @Value("${app.mail.enabled:false}") boolean enabled) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled;
+    }
+
+    /**
+     * 为新用户排入一封邮箱验证邮件
+     *
+     * @param user 新用户
+     */
+    public void enqueueVerification(User user) {
+        enqueue(MailTemplate.EMAIL_VERIFICATION, user.getId(), user.getEmail(),
+                user.getFullName() != null ? user.getFullName() : user.getUsername());
+    }
+
+    /**
+     * 排入一封邮件，立即可发送
+     *
+     * @param template 邮件模板
+     * @param userId 收件用户ID
+     * @param recipient 收件邮箱
+     * @param recipientName 收件人称呼
+     */
+    public void enqueue(MailTemplate template, String userId, String recipient, String recipientName) {
+        if (!enabled) {
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.update(INSERT_MAIL, template.name(), userId, recipient, recipientName, now, now);
+    }
+}
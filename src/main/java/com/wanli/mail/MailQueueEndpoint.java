@@ -0,0 +1,37 @@
+package com.wanli.mail;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * 邮件队列管理端点
+ * GET 查看发送状态，POST 立即重新统计积压
+ *
+ * @author JamesWu
+ * @since 1.0.0
+ */
+@Component
+@Endpoint(id = "mailqueue")
+public class MailQueueEndpoint {
+
+    private final MailDispatcher mailDispatcher;
+
+    public MailQueueEndpoint(MailDispatcher mailDispatcher) {
+        this.mailDispatcher = mailDispatcher;
+    }
+
+    @ReadOperation
+    public Map<String, Object> stats() {
+        return mailDispatcher.stats();
+    }
+
+    @WriteOperation
+    public Map<String, Object> refresh() {
+        mailDispatcher.refreshBacklog();
+        return mailDispatcher.stats();
+    }
+}
@@ -0,0 +1,12 @@
+package com.wanli.mail;
+
+/**
+ * 邮件模板
+ * 以枚举名写入 mail_queue.template，邮件内容在发送时由 MailComposer 生成
+ *
+ * @author JamesWu
+ * @since 1.0.0
+ */
+public enum MailTemplate {
+    EMAIL_VERIFICATION
+}
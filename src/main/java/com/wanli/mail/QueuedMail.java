@@ -0,0 +1,17 @@
+package com.wanli.mail;
+
+/**
+ * 从 mail_queue 领取的一封邮件
+ *
+ * @param id 邮件ID
+ * @param template 邮件模板
+ * @param userId 收件用户ID
+ * @param recipient 收件邮箱
+ * @param recipientName 收件人称呼
+ * @param attempts 含本次在内的尝试次数
+ * @author JamesWu
+ * @since 1.0.0
+ */
+record QueuedMail(long id, MailTemplate template, String userId, String recipient, String recipientName,
+                  int attempts) {
+}
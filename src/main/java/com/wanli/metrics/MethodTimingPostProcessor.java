@@ -0,0 +1,107 @@
+package com.wanli.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.ClassFilter;
+import org.springframework.aop.framework.autoproxy.AbstractBeanFactoryAwareAdvisingPostProcessor;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.StaticMethodMatcherPointcut;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 方法耗时统计
+ * 为指定包内 Bean 的全部 public 方法记录 method.timed 计时器，标签为 class、method、outcome、exception。
+ * 计时切面排在已有切面（事务等）之前，统计结果包含事务开启与提交的耗时。
+ *
+ * 计时器按方法缓存，正常路径只有两次 nanoTime 与一次 record，无额外分配；
+ * MeterRegistry 在首次调用时才获取，避免后置处理器提前初始化注册表而错过 MeterFilter 配置。
+ *
+ * @author JamesWu
+ * @since 1.0.0
+ */
+public class MethodTimingPostProcessor extends AbstractBeanFactoryAwareAdvisingPostProcessor {
+
+    public static final String METRIC_NAME = "method.timed";
+
+    public MethodTimingPostProcessor(List<String> packages, ObjectProvider<MeterRegistry> meterRegistry) {
+        ClassFilter classFilter = clazz -> {
+            String name = clazz.getName();
+            for (String pkg : packages) {
+                if (name.startsWith(pkg + ".")) {
+                    return true;
+                }
+            }
+            return false;
+        };
+        StaticMethodMatcherPointcut pointcut = new StaticMethodMatcherPointcut() {
+            @Override
+            public boolean matches(Method method, Class<?> targetClass) {
+                return Modifier.isPublic(method.getModifiers()) && method.getDeclaringClass() != Object.class;
+            }
+        };
+        pointcut.setClassFilter(classFilter);
+
+        this.advisor = new DefaultPointcutAdvisor(pointcut, new TimingInterceptor(meterRegistry));
+        setBeforeExistingAdvisors(true);
+        setProxyTargetClass(true);
+    }
+
+    private static final class TimingInterceptor implements MethodInterceptor {
+
+        private final ObjectProvider<MeterRegistry> meterRegistryProvider;
+        private final Map<Method, Timer> successTimers = new ConcurrentHashMap<>();
+        private volatile MeterRegistry meterRegistry;
+
+        private TimingInterceptor(ObjectProvider<MeterRegistry> meterRegistryProvider) {
+            this.meterRegistryProvider = meterRegistryProvider;
+        }
+
+        @Override
+        public Object invoke(MethodInvocation invocation) throws Throwable {
+            long started = System.nanoTime();
+            Object result;
+            try {
+                result = invocation.proceed();
+            } catch (Throwable e) {
+                timer(invocation, "ERROR", e.getClass().getSimpleName())
+                        .record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+                throw e;
+            }
+            successTimers.computeIfAbsent(invocation.getMethod(), method -> timer(invocation, "SUCCESS", "none"))
+                    .record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            return result;
+        }
+
+        private Timer timer(MethodInvocation invocation, String outcome, String exception) {
+            Class<?> targetClass = invocation.getThis() != null
+                    ? AopUtils.getTargetClass(invocation.getThis())
+                    : invocation.getMethod().getDeclaringClass();
+            return Timer.builder(METRIC_NAME)
+                    .description("Invocation time of public methods in instrumented packages")
+                    .tag("class", targetClass.getSimpleName())
+                    .tag("method", invocation.getMethod().getName())
+                    .tag("outcome", outcome)
+                    .tag("exception", exception)
+                    .register(registry());
+        }
+
+        private MeterRegistry registry() {
+            MeterRegistry registry = meterRegistry;
+            if (registry == null) {
+                registry = meterRegistryProvider.getObject();
+                meterRegistry = registry;
+            }
+            return registry;
+        }
+    }
+}
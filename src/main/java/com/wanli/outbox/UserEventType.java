@@ -0,0 +1,17 @@
+package com.wanli.outbox;
+
+/**
+ * 用户领域事件类型
+ * 以枚举名写入 user_outbox.event_type 与 Stream 消息的 type 字段
+ *
+ * @author JamesWu
+ * @since 1.0.0
+ */
+public enum UserEventType {
+    CREATED,
+    UPDATED,
+    STATUS_CHANGED,
+    EMAIL_VERIFIED,
+    PHONE_VERIFIED,
+    DELETED
+}
@@ -0,0 +1,83 @@
+package com.wanli.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wanli.dto.UserView;
+import com.wanli.entity.User;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 用户领域事件 outbox
+ * 在调用方的事务内把事件写入 user_outbox，事件与用户数据的修改一同提交或回滚；
+ * 发布由 UserOutboxRelay 在后台完成，写入方不访问 Redis。
+ * 载荷为事件发生后的用户快照（UserView 的 JSON），不含密码哈希。
+ *
+ * @author JamesWu
+ * @since 1.0.0
+ */
+@Component
+public class UserOutbox {
+
+    private static final String INSERT_EVENT = "INSERT INTO user_outbox (event_type, user_id, payload, occurred_at) "
+            + "VALUES (?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    public UserOutbox(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * 写入一条用户事件，须在事务内调用
+     *
+     * @param type 事件类型
+     * @param user 事件发生后的用户
+     */
+    public void append(UserEventType type, User user) {
+        requireTransaction();
+        jdbcTemplate.update(INSERT_EVENT, args(type, user, Timestamp.valueOf(LocalDateTime.now())));
+    }
+
+    /**
+     * 批量写入同类型的用户事件，须在事务内调用
+     *
+     * @param type 事件类型
+     * @param users 事件发生后的用户
+     */
+    public void appendAll(UserEventType type, List<User> users) {
+        requireTransaction();
+        if (users.isEmpty()) {
+            return;
+        }
+        Timestamp occurredAt = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> args = new ArrayList<>(users.size());
+        for (User user : users) {
+            args.add(args(type, user, occurredAt));
+        }
+        jdbcTemplate.batchUpdate(INSERT_EVENT, args);
+    }
+
+    private Object[] args(UserEventType type, User user, Timestamp occurredAt) {
+        try {
+            return new Object[]{type.name(), user.getId(),
+                    objectMapper.writeValueAsString(UserView.from(user)), occurredAt};
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("用户事件序列化失败", e);
+        }
+    }
+
+    private static void requireTransaction() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("用户事件必须在修改用户的事务内写入");
+        }
+    }
+}
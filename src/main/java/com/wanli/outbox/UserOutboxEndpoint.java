@@ -0,0 +1,37 @@
+package com.wanli.outbox;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * 用户事件 outbox 管理端点
+ * GET 查看发布状态与消费组滞后，POST 立即重新统计积压与消费组滞后
+ *
+ * @author JamesWu
+ * @since 1.0.0
+ */
+@Component
+@Endpoint(id = "useroutbox")
+public class UserOutboxEndpoint {
+
+    private final UserOutboxRelay userOutboxRelay;
+
+    public UserOutboxEndpoint(UserOutboxRelay userOutboxRelay) {
+        this.userOutboxRelay = userOutboxRelay;
+    }
+
+    @ReadOperation
+    public Map<String, Object> stats() {
+        return userOutboxRelay.stats();
+    }
+
+    @WriteOperation
+    public Map<String, Object> refresh() {
+        userOutboxRelay.refreshLag();
+        return userOutboxRelay.stats();
+    }
+}
@@ -0,0 +1,322 @@
+package com.wanli.outbox;
+
+import com.wanli.lock.RedisLock;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.MultiGauge;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.RedisStreamCommands;
+import org.springframework.data.redis.connection.stream.StreamInfo;
+import org.springframework.data.redis.connection.stream.StreamRecords;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 用户领域事件发布
+ * 定时从 user_outbox 按 id 顺序读取一批未发布的事件，以一次 pipeline XADD 到 Redis Stream，随后在同一事务内标记为已发布。
+ * 读取使用 FOR UPDATE SKIP LOCKED，多个节点可同时发布而不会重复领取同一批事件。
+ *
+ * 投递语义为至少一次：XADD 成功而标记提交失败时，该批事件会在下次被再次发布。
+ * 消费者以 eventId（outbox 自增ID）去重。
+ * 不保证顺序：SKIP LOCKED 允许多个节点并发发布，自增ID的提交顺序也可能与分配顺序不同，
+ * 同一用户的事件在 Stream 中可能乱序。消费者需容忍乱序，例如按载荷中的 updatedAt 丢弃比已处理状态更旧的事件。
+ *
+ * Redis Streams 需要 Redis 5.0 及以上；连接的 Redis 版本过低时不发布，事件保留在表中（pending 指标持续增长）。
+ * 已发布超过 retention 的行由定时任务分块删除。
+ *
+ * @author JamesWu
+ * @since 1.0.0
+ */
+@Component
+public class UserOutboxRelay {
+
+    private static final Logger log = LoggerFactory.getLogger(UserOutboxRelay.class);
+
+    private static final String PRUNE_LOCK = "user-outbox-prune";
+    private static final Duration PRUNE_LOCK_TTL = Duration.ofMinutes(5);
+
+    private static final String SELECT_BATCH = "SELECT id, event_type, user_id, payload, occurred_at FROM user_outbox "
+            + "WHERE published_at IS NULL ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED";
+    private static final String MARK_PUBLISHED = "UPDATE user_outbox SET published_at = :publishedAt WHERE id IN (:ids)";
+    private static final String PENDING_STATS = "SELECT COUNT(*), MIN(occurred_at) FROM user_outbox "
+            + "WHERE published_at IS NULL";
+    private static final String PRUNE_CHUNK = "DELETE FROM user_outbox WHERE published_at < :cutoff LIMIT :limit";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final StringRedisTemplate redisTemplate;
+    private final RedisLock redisLock;
+    private final boolean enabled;
+    private final String streamKey;
+    private final long streamMaxLength;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+    private final Duration retention;
+    private final int pruneChunkSize;
+
+    /**
+     * Redis 是否支持 Streams，尚未探测（或探测时 Redis 不可用）为 null
+     */
+    private volatile Boolean streamsSupported;
+
+    private final AtomicLong pending = new AtomicLong();
+    private final AtomicLong oldestPendingAgeMillis = new AtomicLong();
+    private volatile LocalDateTime lastPublishedAt;
+    private volatile LocalDateTime lastPrunedAt;
+    private volatile Map<String, Map<String, Object>> consumerGroups = Map.of();
+
+    private final Counter publishedCounter;
+    private final Counter failureCounter;
+    private final Counter prunedCounter;
+    private final Timer batchTimer;
+    private final MultiGauge consumerLag;
+    private final MultiGauge consumerPending;
+
+    public UserOutboxRelay(NamedParameterJdbcTemplate jdbcTemplate,
+                           PlatformTransactionManager transactionManager,
+                           StringRedisTemplate redisTemplate,
+                           RedisLock redisLock,
+                           MeterRegistry meterRegistry,
+                           @Value("${app.outbox.relay-enabled:true}") boolean enabled,
+                           @Value("${app.outbox.stream-key:user:events}") String streamKey,
+                           @Value("${app.outbox.stream-max-length:1000000}") long streamMaxLength,
+                           @Value("${app.outbox.batch-size:500}") int batchSize,
+                           @Value("${app.outbox.max-batches-per-run:20}") int maxBatchesPerRun,
+                           @Value("${app.outbox.retention:24h}") Duration retention,
+                           @Value("${app.outbox.prune-chunk-size:1000}") int pruneChunkSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.redisTemplate = redisTemplate;
+        this.redisLock = redisLock;
+        this.enabled = enabled;
+        this.streamKey = streamKey;
+        this.streamMaxLength = streamMaxLength;
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+        this.retention = retention;
+        this.pruneChunkSize = pruneChunkSize;
+
+        this.publishedCounter = Counter.builder("user.outbox.published")
+                .description("User events published to the Redis stream")
+                .register(meterRegistry);
+        this.failureCounter = Counter.builder("user.outbox.publish.failures")
+                .description("Outbox batches that failed to publish and were left for the next run")
+                .register(meterRegistry);
+        this.prunedCounter = Counter.builder("user.outbox.pruned")
+                .description("Published outbox rows deleted after the retention period")
+                .register(meterRegistry);
+        this.batchTimer = Timer.builder("user.outbox.batch")
+                .description("Time to claim, publish and mark one outbox batch")
+                .register(meterRegistry);
+        Gauge.builder("user.outbox.pending", pending, AtomicLong::get)
+                .description("Unpublished outbox rows, as of the last lag refresh")
+                .register(meterRegistry);
+        Gauge.builder("user.outbox.lag", oldestPendingAgeMillis, AtomicLong::get)
+                .description("Age of the oldest unpublished outbox row, as of the last lag refresh")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+        this.consumerLag = MultiGauge.builder("user.events.consumer.lag")
+                .description("How far each consumer group's last delivered entry is behind the stream head")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+        this.consumerPending = MultiGauge.builder("user.events.consumer.pending")
+                .description("Entries delivered to each consumer group but not yet acknowledged")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 发布未发布的事件，直到取不满一批或达到 max-batches-per-run
+     * 发布失败时整批回滚，留待下次执行
+     */
+    @Scheduled(fixedDelayString = "${app.outbox.poll-interval-ms:500}")
+    public void relay() {
+        if (!enabled || !streamsSupported()) {
+            return;
+        }
+        for (int i = 0; i < maxBatchesPerRun; i++) {
+            int published;
+            try {
+                published = batchTimer.record(() -> transactionTemplate.execute(status -> publishBatch()));
+            } catch (DataAccessException | TransactionException e) {
+                failureCounter.increment();
+                log.warn("用户事件发布失败: {}", e.getMessage());
+                return;
+            }
+            if (published < batchSize) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * 刷新 outbox 积压与各消费组的滞后
+     * 消费组滞后按 Stream ID 中的毫秒时间戳计算：Stream 最新条目与该组最后投递条目之差
+     */
+    @Scheduled(fixedDelayString = "${app.outbox.lag-refresh-interval-ms:15000}")
+    public void refreshLag() {
+        try {
+            jdbcTemplate.getJdbcTemplate().query(PENDING_STATS, rs -> {
+                pending.set(rs.getLong(1));
+                Timestamp oldest = rs.getTimestamp(2);
+                oldestPendingAgeMillis.set(oldest != null
+                        ? Math.max(0, System.currentTimeMillis() - oldest.getTime()) : 0);
+            });
+        } catch (DataAccessException e) {
+            log.warn("读取 outbox 积压失败: {}", e.getMessage());
+        }
+
+        if (!Boolean.TRUE.equals(streamsSupported)) {
+            return;
+        }
+        try {
+            Map<String, Map<String, Object>> groups = new LinkedHashMap<>();
+            List<MultiGauge.Row<?>> lagRows = new ArrayList<>();
+            List<MultiGauge.Row<?>> pendingRows = new ArrayList<>();
+            if (Boolean.TRUE.equals(redisTemplate.hasKey(streamKey))) {
+                long head = idMillis(redisTemplate.opsForStream().info(streamKey).lastGeneratedId());
+                for (StreamInfo.XInfoGroup group : redisTemplate.opsForStream().groups(streamKey).stream().toList()) {
+                    long lag = Math.max(0, head - idMillis(group.lastDeliveredId()));
+                    Map<String, Object> info = new LinkedHashMap<>();
+                    info.put("lastDeliveredId", group.lastDeliveredId());
+                    info.put("lagMillis", lag);
+                    info.put("pending", group.pendingCount());
+                    groups.put(group.groupName(), info);
+                    lagRows.add(MultiGauge.Row.of(Tags.of("group", group.groupName()), lag));
+                    pendingRows.add(MultiGauge.Row.of(Tags.of("group", group.groupName()), group.pendingCount()));
+                }
+            }
+            consumerLag.register(lagRows, true);
+            consumerPending.register(pendingRows, true);
+            consumerGroups = groups;
+        } catch (DataAccessException e) {
+            log.warn("读取用户事件消费组失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 定时删除已发布超过保留期的事件，集群内同一时刻只有一个节点执行
+     */
+    @Scheduled(cron = "${app.outbox.prune-cron:0 */5 * * * *}")
+    public void prune() {
+        redisLock.runIfAcquired(PRUNE_LOCK, PRUNE_LOCK_TTL, () -> {
+            MapSqlParameterSource params = new MapSqlParameterSource()
+                    .addValue("cutoff", Timestamp.valueOf(LocalDateTime.now().minus(retention)))
+                    .addValue("limit", pruneChunkSize);
+            int deleted;
+            do {
+                deleted = jdbcTemplate.update(PRUNE_CHUNK, params);
+                prunedCounter.increment(deleted);
+            } while (deleted == pruneChunkSize);
+            lastPrunedAt = LocalDateTime.now();
+        });
+    }
+
+    /**
+     * 发布状态
+     */
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("streamsSupported", streamsSupported);
+        stats.put("streamKey", streamKey);
+        stats.put("pending", pending.get());
+        stats.put("lagMillis", oldestPendingAgeMillis.get());
+        stats.put("published", (long) publishedCounter.count());
+        stats.put("failures", (long) failureCounter.count());
+        stats.put("lastPublishedAt", lastPublishedAt);
+        stats.put("lastPrunedAt", lastPrunedAt);
+        stats.put("consumerGroups", consumerGroups);
+        return stats;
+    }
+
+    private int publishBatch() {
+        List<Map<String, Object>> events = jdbcTemplate.queryForList(SELECT_BATCH,
+                new MapSqlParameterSource("limit", batchSize));
+        if (events.isEmpty()) {
+            return 0;
+        }
+
+        byte[] key = bytes(streamKey);
+        RedisStreamCommands.XAddOptions options = RedisStreamCommands.XAddOptions.maxlen(streamMaxLength)
+                .approximateTrimming(true);
+        List<Long> ids = new ArrayList<>(events.size());
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (Map<String, Object> event : events) {
+                Map<byte[], byte[]> fields = new LinkedHashMap<>();
+                fields.put(bytes("eventId"), bytes(event.get("id").toString()));
+                fields.put(bytes("type"), bytes(event.get("event_type").toString()));
+                fields.put(bytes("userId"), bytes(event.get("user_id").toString()));
+                fields.put(bytes("occurredAt"), bytes(((Timestamp) event.get("occurred_at")).toLocalDateTime().toString()));
+                fields.put(bytes("payload"), bytes(event.get("payload").toString()));
+                connection.streamCommands().xAdd(StreamRecords.rawBytes(fields).withStreamKey(key), options);
+                ids.add(((Number) event.get("id")).longValue());
+            }
+            return null;
+        });
+
+        LocalDateTime now = LocalDateTime.now();
+        jdbcTemplate.update(MARK_PUBLISHED, new MapSqlParameterSource()
+                .addValue("publishedAt", Timestamp.valueOf(now))
+                .addValue("ids", ids));
+        publishedCounter.increment(ids.size());
+        lastPublishedAt = now;
+        return ids.size();
+    }
+
+    /**
+     * 首次发布前探测 Redis 版本，低于 5.0 时记录一次警告并停止发布
+     */
+    private boolean streamsSupported() {
+        Boolean supported = streamsSupported;
+        if (supported != null) {
+            return supported;
+        }
+        try {
+            Properties info = redisTemplate.execute(
+                    (RedisCallback<Properties>) connection -> connection.serverCommands().info("server"));
+            String version = info != null ? info.getProperty("redis_version") : null;
+            supported = version != null && Integer.parseInt(version.substring(0, version.indexOf('.'))) >= 5;
+            if (!supported) {
+                log.warn("Redis {} 不支持 Streams，用户事件保留在 user_outbox 中不发布", version);
+            }
+            streamsSupported = supported;
+            return supported;
+        } catch (DataAccessException e) {
+            log.warn("探测 Redis 版本失败: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    private static long idMillis(String streamId) {
+        int dash = streamId.indexOf('-');
+        return Long.parseLong(dash < 0 ? streamId : streamId.substring(0, dash));
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,150 @@
+package com.wanli.query;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * 统计 SQL 执行的数据源包装
+ * 对连接、语句、结果集做轻量代理：在 HTTP 请求内执行的每条语句记录耗时，每次 ResultSet.next() 成功记一行。
+ * 覆盖 Hibernate 与 JdbcTemplate 的全部访问；不在请求内时直接透传，不包装结果集。
+ * unwrap / isWrapperFor 委托给原数据源，连接池指标与健康检查不受影响。
+ *
+ * @author JamesWu
+ * @since 1.0.0
+ */
+public class QueryInspectingDataSource extends DelegatingDataSource {
+
+    public QueryInspectingDataSource(DataSource targetDataSource) {
+        super(targetDataSource);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return connection(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return connection(super.getConnection(username, password));
+    }
+
+    private static Connection connection(Connection target) {
+        return (Connection) Proxy.newProxyInstance(QueryInspectingDataSource.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, new ConnectionHandler(target));
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+
+    private static final class ConnectionHandler implements InvocationHandler {
+
+        private final Connection target;
+
+        private ConnectionHandler(Connection target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            // 事务同步按连接对象判等，代理需要以自身身份比较
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    break;
+            }
+            Object result = QueryInspectingDataSource.invoke(target, method, args);
+            if (!(result instanceof Statement statement)) {
+                return result;
+            }
+            String sql = args != null && args.length > 0 && args[0] instanceof String s ? s : null;
+            Class<?> type = statement instanceof CallableStatement ? CallableStatement.class
+                    : statement instanceof PreparedStatement ? PreparedStatement.class : Statement.class;
+            return Proxy.newProxyInstance(QueryInspectingDataSource.class.getClassLoader(),
+                    new Class<?>[]{type}, new StatementHandler(statement, sql));
+        }
+    }
+
+    private static final class StatementHandler implements InvocationHandler {
+
+        private final Statement target;
+        private final String preparedSql;
+
+        private StatementHandler(Statement target, String preparedSql) {
+            this.target = target;
+            this.preparedSql = preparedSql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            RequestQueryStats stats = RequestQueryStats.current();
+            if (stats == null) {
+                return QueryInspectingDataSource.invoke(target, method, args);
+            }
+
+            String name = method.getName();
+            if (name.startsWith("execute")) {
+                String sql = args != null && args.length > 0 && args[0] instanceof String s ? s : preparedSql;
+                long started = System.nanoTime();
+                Object result;
+                try {
+                    result = QueryInspectingDataSource.invoke(target, method, args);
+                } finally {
+                    stats.recordStatement(sql, System.nanoTime() - started);
+                }
+                return wrap(result, stats);
+            }
+            Object result = QueryInspectingDataSource.invoke(target, method, args);
+            if ("getResultSet".equals(name) || "getGeneratedKeys".equals(name)) {
+                return wrap(result, stats);
+            }
+            return result;
+        }
+
+        private static Object wrap(Object result, RequestQueryStats stats) {
+            if (result instanceof ResultSet resultSet) {
+                return Proxy.newProxyInstance(QueryInspectingDataSource.class.getClassLoader(),
+                        new Class<?>[]{ResultSet.class}, new ResultSetHandler(resultSet, stats));
+            }
+            return result;
+        }
+    }
+
+    private static final class ResultSetHandler implements InvocationHandler {
+
+        private final ResultSet target;
+        private final RequestQueryStats stats;
+
+        private ResultSetHandler(ResultSet target, RequestQueryStats stats) {
+            this.target = target;
+            this.stats = stats;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result = QueryInspectingDataSource.invoke(target, method, args);
+            if ("next".equals(method.getName()) && Boolean.TRUE.equals(result)) {
+                stats.recordRow();
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.wanli.query;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * 为每个请求开启 SQL 统计，请求结束后交给 {@link QueryInspector} 检查
+ * 只统计处理请求的线程上执行的语句，异步任务中的语句不计入。
+ *
+ * @author JamesWu
+ * @since 1.0.0
+ */
+public class QueryInspectionFilter extends OncePerRequestFilter {
+
+    private final QueryInspector queryInspector;
+
+    public QueryInspectionFilter(QueryInspector queryInspector) {
+        this.queryInspector = queryInspector;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        RequestQueryStats stats = RequestQueryStats.begin();
+        long started = System.nanoTime();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            RequestQueryStats.end();
+            queryInspector.complete(request.getMethod(), request.getRequestURI(), response.getStatus(),
+                    System.nanoTime() - started, stats);
+        }
+    }
+}
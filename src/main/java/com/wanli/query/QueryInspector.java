@@ -0,0 +1,164 @@
+package com.wanli.query;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 请求级 SQL 检查
+ * 汇总每个请求的语句数、读取行数与 SQL 耗时，超过阈值的请求（语句过多、同一语句重复执行即疑似 N+1、
+ * 单条语句或累计 SQL 耗时过长）记录到最近标记列表并输出告警日志。
+ *
+ * @author JamesWu
+ * @since 1.0.0
+ */
+@Component
+public class QueryInspector {
+
+    private static final Logger log = LoggerFactory.getLogger(QueryInspector.class);
+
+    private static final int MAX_SQL_LENGTH = 500;
+
+    private final int maxStatements;
+    private final int maxRepeatedStatements;
+    private final Duration slowStatement;
+    private final Duration slowRequestQueryTime;
+    private final int historySize;
+
+    private final Deque<FlaggedRequest> flagged = new ArrayDeque<>();
+    private final DistributionSummary statementsPerRequest;
+    private final DistributionSummary rowsPerRequest;
+    private final MeterRegistry meterRegistry;
+
+    public QueryInspector(MeterRegistry meterRegistry,
+                          @Value("${app.query-inspector.max-statements:20}") int maxStatements,
+                          @Value("${app.query-inspector.max-repeated-statements:5}") int maxRepeatedStatements,
+                          @Value("${app.query-inspector.slow-statement:200ms}") Duration slowStatement,
+                          @Value("${app.query-inspector.slow-request-query-time:500ms}") Duration slowRequestQueryTime,
+                          @Value("${app.query-inspector.history-size:100}") int historySize) {
+        this.meterRegistry = meterRegistry;
+        this.maxStatements = maxStatements;
+        this.maxRepeatedStatements = maxRepeatedStatements;
+        this.slowStatement = slowStatement;
+        this.slowRequestQueryTime = slowRequestQueryTime;
+        this.historySize = historySize;
+        this.statementsPerRequest = DistributionSummary.builder("http.request.sql.statements")
+                .description("SQL statements executed per HTTP request")
+                .register(meterRegistry);
+        this.rowsPerRequest = DistributionSummary.builder("http.request.sql.rows")
+                .description("Rows fetched per HTTP request")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 请求结束时检查统计结果
+     *
+     * @param method HTTP 方法
+     * @param uri 请求路径
+     * @param status 响应状态码
+     * @param durationNanos 请求总耗时
+     * @param stats 请求内的 SQL 统计
+     */
+    void complete(String method, String uri, int status, long durationNanos, RequestQueryStats stats) {
+        if (stats.getStatements() == 0) {
+            return;
+        }
+        statementsPerRequest.record(stats.getStatements());
+        rowsPerRequest.record(stats.getRows());
+
+        List<String> reasons = new ArrayList<>(4);
+        if (stats.getStatements() > maxStatements) {
+            reasons.add("too-many-statements");
+        }
+        if (stats.getMostRepeatedCount() > maxRepeatedStatements) {
+            reasons.add("repeated-statement");
+        }
+        if (stats.getSlowestNanos() > slowStatement.toNanos()) {
+            reasons.add("slow-statement");
+        }
+        if (stats.getQueryNanos() > slowRequestQueryTime.toNanos()) {
+            reasons.add("slow-request-query-time");
+        }
+        if (reasons.isEmpty()) {
+            return;
+        }
+
+        for (String reason : reasons) {
+            Counter.builder("http.request.sql.flagged")
+                    .description("HTTP requests flagged by the query inspector")
+                    .tag("reason", reason)
+                    .register(meterRegistry)
+                    .increment();
+        }
+        FlaggedRequest request = new FlaggedRequest(LocalDateTime.now(), method, uri, status,
+                TimeUnit.NANOSECONDS.toMillis(durationNanos), stats.getStatements(), stats.getRows(),
+                TimeUnit.NANOSECONDS.toMillis(stats.getQueryNanos()), truncate(stats.getSlowestSql()),
+                TimeUnit.NANOSECONDS.toMillis(stats.getSlowestNanos()), truncate(stats.getMostRepeatedSql()),
+                stats.getMostRepeatedCount(), reasons);
+        synchronized (flagged) {
+            flagged.addFirst(request);
+            while (flagged.size() > historySize) {
+                flagged.removeLast();
+            }
+        }
+        log.warn("SQL 检查标记请求 {} {}：{}，语句 {} 条，SQL 耗时 {} ms，重复最多的语句执行 {} 次", method, uri, reasons,
+                request.statements(), request.queryTimeMillis(), request.mostRepeatedCount());
+    }
+
+    /**
+     * 最近被标记的请求（新的在前）
+     */
+    public List<FlaggedRequest> getFlaggedRequests() {
+        synchronized (flagged) {
+            return new ArrayList<>(flagged);
+        }
+    }
+
+    public void clear() {
+        synchronized (flagged) {
+            flagged.clear();
+        }
+    }
+
+    /**
+     * 当前阈值
+     */
+    public Map<String, Object> thresholds() {
+        Map<String, Object> thresholds = new LinkedHashMap<>();
+        thresholds.put("maxStatements", maxStatements);
+        thresholds.put("maxRepeatedStatements", maxRepeatedStatements);
+        thresholds.put("slowStatementMillis", slowStatement.toMillis());
+        thresholds.put("slowRequestQueryTimeMillis", slowRequestQueryTime.toMillis());
+        return thresholds;
+    }
+
+    private static String truncate(String sql) {
+        if (sql == null || sql.length() <= MAX_SQL_LENGTH) {
+            return sql;
+        }
+        return sql.substring(0, MAX_SQL_LENGTH) + "...";
+    }
+
+    /**
+     * 被标记的请求
+     */
+    public record FlaggedRequest(LocalDateTime at, String method, String uri, int status, long durationMillis,
+                                 int statements, long rows, long queryTimeMillis,
+                                 String slowestSql, long slowestSqlMillis,
+                                 String mostRepeatedSql, int mostRepeatedCount, List<String> reasons) {
+    }
+}
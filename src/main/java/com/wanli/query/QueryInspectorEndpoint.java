@@ -0,0 +1,97 @@
+package com.wanli.query;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.QueryStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * SQL 检查管理端点：/actuator/queryinspector
+ * GET 返回阈值、最近被标记的请求与 Hibernate 汇总统计；DELETE 清空标记记录与 Hibernate 统计。
+ *
+ * @author JamesWu
+ * @since 1.0.0
+ */
+@Component
+@Endpoint(id = "queryinspector")
+public class QueryInspectorEndpoint {
+
+    private static final int TOP_QUERIES = 10;
+
+    private final QueryInspector queryInspector;
+    private final Statistics statistics;
+
+    public QueryInspectorEndpoint(QueryInspector queryInspector, EntityManagerFactory entityManagerFactory) {
+        this.queryInspector = queryInspector;
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @ReadOperation
+    public Map<String, Object> report() {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("thresholds", queryInspector.thresholds());
+        report.put("flaggedRequests", queryInspector.getFlaggedRequests());
+        report.put("hibernate", hibernateStatistics());
+        return report;
+    }
+
+    @DeleteOperation
+    public void reset() {
+        queryInspector.clear();
+        statistics.clear();
+    }
+
+    private Map<String, Object> hibernateStatistics() {
+        Map<String, Object> hibernate = new LinkedHashMap<>();
+        hibernate.put("enabled", statistics.isStatisticsEnabled());
+        if (!statistics.isStatisticsEnabled()) {
+            return hibernate;
+        }
+        hibernate.put("startTime", statistics.getStart());
+        hibernate.put("sessionsOpened", statistics.getSessionOpenCount());
+        hibernate.put("transactions", statistics.getTransactionCount());
+        hibernate.put("statementsPrepared", statistics.getPrepareStatementCount());
+        hibernate.put("queriesExecuted", statistics.getQueryExecutionCount());
+        hibernate.put("queryExecutionMaxTimeMillis", statistics.getQueryExecutionMaxTime());
+        hibernate.put("queryExecutionMaxTimeQuery", statistics.getQueryExecutionMaxTimeQueryString());
+        hibernate.put("entitiesLoaded", statistics.getEntityLoadCount());
+        hibernate.put("entitiesFetched", statistics.getEntityFetchCount());
+        hibernate.put("collectionsFetched", statistics.getCollectionFetchCount());
+        hibernate.put("secondLevelCacheHits", statistics.getSecondLevelCacheHitCount());
+        hibernate.put("secondLevelCacheMisses", statistics.getSecondLevelCacheMissCount());
+        hibernate.put("queryCacheHits", statistics.getQueryCacheHitCount());
+        hibernate.put("queryCacheMisses", statistics.getQueryCacheMissCount());
+        hibernate.put("slowestQueries", slowestQueries());
+        return hibernate;
+    }
+
+    /**
+     * 按累计耗时排序的 HQL 查询
+     */
+    private List<Map<String, Object>> slowestQueries() {
+        List<Map<String, Object>> queries = new ArrayList<>();
+        for (String query : statistics.getQueries()) {
+            QueryStatistics queryStatistics = statistics.getQueryStatistics(query);
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("query", query);
+            entry.put("executions", queryStatistics.getExecutionCount());
+            entry.put("totalTimeMillis", queryStatistics.getExecutionTotalTime());
+            entry.put("avgTimeMillis", queryStatistics.getExecutionAvgTime());
+            entry.put("maxTimeMillis", queryStatistics.getExecutionMaxTime());
+            entry.put("rows", queryStatistics.getExecutionRowCount());
+            queries.add(entry);
+        }
+        queries.sort(Comparator.comparingLong(entry -> -((Long) entry.get("totalTimeMillis"))));
+        return queries.size() > TOP_QUERIES ? new ArrayList<>(queries.subList(0, TOP_QUERIES)) : queries;
+    }
+}
@@ -0,0 +1,109 @@
+package com.wanli.query;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 单个 HTTP 请求内的 SQL 执行统计，只在处理请求的线程内读写
+ *
+ * @author JamesWu
+ * @since 1.0.0
+ */
+public class RequestQueryStats {
+
+    /**
+     * 单个请求最多跟踪的不同 SQL 数量，超出后不再统计新 SQL 的重复次数
+     */
+    private static final int MAX_TRACKED_STATEMENTS = 64;
+
+    private static final ThreadLocal<RequestQueryStats> CURRENT = new ThreadLocal<>();
+
+    private int statements;
+    private long rows;
+    private long queryNanos;
+    private String slowestSql;
+    private long slowestNanos;
+    private String mostRepeatedSql;
+    private int mostRepeatedCount;
+    private final Map<String, Integer> statementCounts = new HashMap<>();
+
+    /**
+     * 开始统计当前线程的请求
+     */
+    static RequestQueryStats begin() {
+        RequestQueryStats stats = new RequestQueryStats();
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    /**
+     * 结束统计
+     */
+    static void end() {
+        CURRENT.remove();
+    }
+
+    /**
+     * 当前线程正在统计的请求，不在请求内时为 null
+     */
+    static RequestQueryStats current() {
+        return CURRENT.get();
+    }
+
+    void recordStatement(String sql, long nanos) {
+        statements++;
+        queryNanos += nanos;
+        if (nanos > slowestNanos) {
+            slowestNanos = nanos;
+            slowestSql = sql;
+        }
+        if (sql == null) {
+            return;
+        }
+        Integer count = statementCounts.get(sql);
+        if (count == null) {
+            if (statementCounts.size() >= MAX_TRACKED_STATEMENTS) {
+                return;
+            }
+            count = 0;
+        }
+        count++;
+        statementCounts.put(sql, count);
+        if (count > mostRepeatedCount) {
+            mostRepeatedCount = count;
+            mostRepeatedSql = sql;
+        }
+    }
+
+    void recordRow() {
+        rows++;
+    }
+
+    public int getStatements() {
+        return statements;
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    public long getQueryNanos() {
+        return queryNanos;
+    }
+
+    public String getSlowestSql() {
+        return slowestSql;
+    }
+
+    public long getSlowestNanos() {
+        return slowestNanos;
+    }
+
+    public String getMostRepeatedSql() {
+        return mostRepeatedSql;
+    }
+
+    public int getMostRepeatedCount() {
+        return mostRepeatedCount;
+    }
+}
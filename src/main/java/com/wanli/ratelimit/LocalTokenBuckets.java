@@ -0,0 +1,116 @@
+package com.wanli.ratelimit;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 进程内令牌桶，Redis 不可用时的降级实现
+ * 各节点独立计数，降级期间集群的实际限额约为配置值乘以节点数。
+ * 桶数量达到上限后最多每秒清理一次，由单个线程完成，其余请求不参与扫描。
+ *
+ * @author JamesWu
+ * @since 1.0.0
+ */
+class LocalTokenBuckets {
+
+    /**
+     * 两次清理之间的最小间隔
+     */
+    static final long EVICT_INTERVAL_MS = 1000;
+
+    private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
+    private final int maxBuckets;
+    private final AtomicLong nextEvictAt = new AtomicLong();
+
+    LocalTokenBuckets(int maxBuckets) {
+        this.maxBuckets = maxBuckets;
+    }
+
+    /**
+     * 尝试取一个令牌
+     *
+     * @return 0 表示放行，否则为建议的重试等待毫秒数
+     */
+    long tryAcquire(String key, RateLimitProperties.Limit limit, long now) {
+        if (buckets.size() >= maxBuckets) {
+            evict(now);
+        }
+        Bucket bucket = buckets.computeIfAbsent(key,
+                k -> new Bucket(limit.getCapacity(), limit.refillPerMillisecond(), now));
+        return bucket.tryAcquire(now);
+    }
+
+    int size() {
+        return buckets.size();
+    }
+
+    /**
+     * 已回满的桶与新建的桶等价，先直接丢弃；仍然超限时按最近使用时间淘汰最久未用的桶，降到上限的 90%。
+     * 间隔未到或其他线程正在清理时直接返回，桶数量可能短暂超过上限。
+     */
+    private void evict(long now) {
+        long scheduled = nextEvictAt.get();
+        if (now < scheduled || !nextEvictAt.compareAndSet(scheduled, now + EVICT_INTERVAL_MS)) {
+            return;
+        }
+        buckets.values().removeIf(bucket -> bucket.isFull(now));
+        int excess = buckets.size() - maxBuckets * 9 / 10;
+        if (excess <= 0) {
+            return;
+        }
+        List<Map.Entry<String, Long>> byLastUsed = buckets.entrySet().stream()
+                .map(entry -> Map.entry(entry.getKey(), entry.getValue().lastUsedAt()))
+                .sorted(Map.Entry.comparingByValue())
+                .limit(excess)
+                .toList();
+        byLastUsed.forEach(entry -> buckets.remove(entry.getKey()));
+    }
+
+    private static final class Bucket {
+
+        private final double capacity;
+        private final double refillPerMillisecond;
+        private double tokens;
+        private long updatedAt;
+        /**
+         * 最近一次取令牌的时间；refill 在清理扫描时也会推进 updatedAt，不能用于淘汰排序
+         */
+        private long lastUsedAt;
+
+        private Bucket(double capacity, double refillPerMillisecond, long now) {
+            this.capacity = capacity;
+            this.refillPerMillisecond = refillPerMillisecond;
+            this.tokens = capacity;
+            this.updatedAt = now;
+            this.lastUsedAt = now;
+        }
+
+        private synchronized long tryAcquire(long now) {
+            lastUsedAt = Math.max(lastUsedAt, now);
+            refill(now);
+            if (tokens >= 1) {
+                tokens -= 1;
+                return 0;
+            }
+            return Math.max(1, (long) Math.ceil((1 - tokens) / refillPerMillisecond));
+        }
+
+        private synchronized long lastUsedAt() {
+            return lastUsedAt;
+        }
+
+        private synchronized boolean isFull(long now) {
+            refill(now);
+            return tokens >= capacity;
+        }
+
+        private void refill(long now) {
+            if (now > updatedAt) {
+                tokens = Math.min(capacity, tokens + (now - updatedAt) * refillPerMillisecond);
+                updatedAt = now;
+            }
+        }
+    }
+}
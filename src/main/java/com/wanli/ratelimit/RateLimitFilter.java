@@ -0,0 +1,286 @@
+package com.wanli.ratelimit;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.PathContainer;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.SequenceInputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * 限流过滤器
+ * 按 {@link RateLimitProperties} 中的路由规则先按客户端 IP、再按账号取令牌，任一维度被拒绝即返回 429。
+ * 每个请求最多匹配一条规则；未匹配的请求直接放行，不产生任何开销。
+ *
+ * @author JamesWu
+ * @since 1.0.0
+ */
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    /**
+     * 按请求体字段限流时最多读取的字节数，更大的请求体不做账号维度限流
+     */
+    private static final int MAX_BODY_BYTES = 16 * 1024;
+
+    private final RateLimiter rateLimiter;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final List<CompiledRoute> routes = new ArrayList<>();
+
+    public RateLimitFilter(RateLimiter rateLimiter, RateLimitProperties properties, ObjectMapper objectMapper) {
+        this.rateLimiter = rateLimiter;
+        this.objectMapper = objectMapper;
+        this.enabled = properties.isEnabled();
+        for (RateLimitProperties.Route route : properties.getRoutes()) {
+            routes.add(new CompiledRoute(route));
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || routes.isEmpty();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        PathContainer path = PathContainer.parsePath(
+                request.getRequestURI().substring(request.getContextPath().length()));
+        for (CompiledRoute route : routes) {
+            if (!route.matchesMethod(request.getMethod())) {
+                continue;
+            }
+            PathPattern.PathMatchInfo match = route.pattern.matchAndExtract(path);
+            if (match == null) {
+                continue;
+            }
+
+            HttpServletRequest effective = request;
+            if (route.ip != null) {
+                RateLimiter.Decision decision = rateLimiter.tryAcquire(route.name, "ip", request.getRemoteAddr(), route.ip);
+                if (!decision.allowed()) {
+                    reject(response, decision);
+                    return;
+                }
+            }
+            if (route.account != null) {
+                String account = null;
+                switch (route.accountType) {
+                    case "param" -> account = request.getParameter(route.accountName);
+                    case "path" -> account = match.getUriVariables().get(route.accountName);
+                    case "body" -> {
+                        CachedBodyRequest cached = CachedBodyRequest.of(request);
+                        if (cached != null) {
+                            effective = cached;
+                            account = cached.jsonField(objectMapper, route.accountName);
+                        }
+                    }
+                    default -> { }
+                }
+                if (account != null && !account.isBlank()) {
+                    RateLimiter.Decision decision = rateLimiter.tryAcquire(route.name, "account",
+                            account.trim().toLowerCase(Locale.ROOT), route.account);
+                    if (!decision.allowed()) {
+                        reject(response, decision);
+                        return;
+                    }
+                }
+            }
+            chain.doFilter(effective, response);
+            return;
+        }
+        chain.doFilter(request, response);
+    }
+
+    private void reject(HttpServletResponse response, RateLimiter.Decision decision) throws IOException {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("success", false);
+        body.put("message", "请求过于频繁，请稍后再试");
+
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(decision.retryAfterSeconds()));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        objectMapper.writeValue(response.getOutputStream(), body);
+    }
+
+    /**
+     * 预编译的路由规则
+     */
+    private static final class CompiledRoute {
+
+        private final String name;
+        private final String method;
+        private final PathPattern pattern;
+        private final RateLimitProperties.Limit ip;
+        private final RateLimitProperties.Limit account;
+        private final String accountType;
+        private final String accountName;
+
+        private CompiledRoute(RateLimitProperties.Route route) {
+            this.name = route.getName();
+            this.method = route.getMethod();
+            this.pattern = PathPatternParser.defaultInstance.parse(route.getPath());
+            this.ip = route.getIp();
+
+            String source = route.getAccountSource();
+            int separator = source != null ? source.indexOf(':') : -1;
+            if (route.getAccount() != null && separator > 0) {
+                this.account = route.getAccount();
+                this.accountType = source.substring(0, separator);
+                this.accountName = source.substring(separator + 1);
+            } else {
+                this.account = null;
+                this.accountType = null;
+                this.accountName = null;
+            }
+        }
+
+        private boolean matchesMethod(String requestMethod) {
+            return method == null || method.isEmpty() || method.equalsIgnoreCase(requestMethod);
+        }
+    }
+
+    /**
+     * 缓存请求体的请求包装，使过滤器读取请求体后控制器仍能再次读取
+     */
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        private CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        /**
+         * 读取请求体，超过上限时返回 null 且不消费请求体
+         */
+        static CachedBodyRequest of(HttpServletRequest request) throws IOException {
+            long length = request.getContentLengthLong();
+            if (length > MAX_BODY_BYTES) {
+                return null;
+            }
+            // 未声明长度时最多预读上限加一个字节，超出部分在后续读取时与预读内容拼接
+            byte[] body = request.getInputStream().readNBytes(MAX_BODY_BYTES + 1);
+            return new CachedBodyRequest(request, body);
+        }
+
+        private boolean complete() {
+            return body.length <= MAX_BODY_BYTES;
+        }
+
+        String jsonField(ObjectMapper objectMapper, String field) {
+            if (body.length == 0 || !complete()) {
+                return null;
+            }
+            try {
+                JsonNode node = objectMapper.readTree(body).get(field);
+                return node != null && node.isTextual() ? node.asText() : null;
+            } catch (IOException e) {
+                return null;
+            }
+        }
+
+        @Override
+        public ServletInputStream getInputStream() throws IOException {
+            InputStream in = complete() ? new ByteArrayInputStream(body)
+                    : new SequenceInputStream(new ByteArrayInputStream(body), super.getInputStream());
+            return new ServletInputStream() {
+
+                private boolean eof;
+
+                @Override
+                public int read() throws IOException {
+                    return track(in.read());
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) throws IOException {
+                    return track(in.read(b, off, len));
+                }
+
+                private int track(int result) {
+                    if (result < 0) {
+                        eof = true;
+                    }
+                    return result;
+                }
+
+                @Override
+                public boolean isFinished() {
+                    try {
+                        return eof || complete() && in.available() == 0;
+                    } catch (IOException e) {
+                        return false;
+                    }
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                /**
+                 * 请求体已在过滤器中读入内存（超长部分随后阻塞读取），不需要等待容器回调，直接依次通知监听器
+                 */
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    Objects.requireNonNull(listener, "listener");
+                    try {
+                        if (!isFinished()) {
+                            listener.onDataAvailable();
+                        }
+                        if (isFinished()) {
+                            listener.onAllDataRead();
+                        }
+                    } catch (IOException | RuntimeException e) {
+                        listener.onError(e);
+                    }
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() throws IOException {
+            String encoding = getCharacterEncoding();
+            Charset charset = encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8;
+            return new BufferedReader(new InputStreamReader(getInputStream(), charset));
+        }
+
+        @Override
+        public int getContentLength() {
+            return complete() ? body.length : super.getContentLength();
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return complete() ? body.length : super.getContentLengthLong();
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package com.wanli.ratelimit;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 限流配置（app.rate-limit）
+ * 每条路由按客户端 IP 限流，可选再按账号（请求参数、路径变量或 JSON 请求体字段）限流。
+ *
+ * @author JamesWu
+ * @since 1.0.0
+ */
+@Component
+@ConfigurationProperties(prefix = "app.rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * 单次 Redis 判定的最长等待时间，超时按失败处理并由本地令牌桶判定
+     */
+    private Duration redisTimeout = Duration.ofMillis(20);
+
+    /**
+     * 连续失败多少次后断开 Redis，直接使用本地令牌桶
+     */
+    private int failureThreshold = 5;
+
+    /**
+     * 断开后多久再尝试 Redis
+     */
+    private Duration openDuration = Duration.ofSeconds(10);
+
+    /**
+     * 本地令牌桶数量上限，超过后（每秒最多一次）清理已回满的桶，仍超限时淘汰最久未用的桶
+     */
+    private int localMaxBuckets = 100_000;
+
+    private List<Route> routes = new ArrayList<>();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Duration getRedisTimeout() {
+        return redisTimeout;
+    }
+
+    public void setRedisTimeout(Duration redisTimeout) {
+        this.redisTimeout = redisTimeout;
+    }
+
+    public int getFailureThreshold() {
+        return failureThreshold;
+    }
+
+    public void setFailureThreshold(int failureThreshold) {
+        this.failureThreshold = failureThreshold;
+    }
+
+    public Duration getOpenDuration() {
+        return openDuration;
+    }
+
+    public void setOpenDuration(Duration openDuration) {
+        this.openDuration = openDuration;
+    }
+
+    public int getLocalMaxBuckets() {
+        return localMaxBuckets;
+    }
+
+    public void setLocalMaxBuckets(int localMaxBuckets) {
+        this.localMaxBuckets = localMaxBuckets;
+    }
+
+    public List<Route> getRoutes() {
+        return routes;
+    }
+
+    public void setRoutes(List<Route> routes) {
+        this.routes = routes;
+    }
+
+    /**
+     * 路由限流规则
+     */
+    public static class Route {
+
+        /**
+         * 规则名称，用作 Redis 键与指标标签
+         */
+        private String name;
+
+        /**
+         * HTTP 方法，为空表示任意方法
+         */
+        private String method;
+
+        /**
+         * 路径模式（不含 context-path），如 /api/users/{id}/password
+         */
+        private String path;
+
+        /**
+         * 按客户端 IP 的限额
+         */
+        private Limit ip;
+
+        /**
+         * 账号来源：param:名称、path:变量名 或 body:JSON字段名，为空表示不按账号限流
+         */
+        private String accountSource;
+
+        /**
+         * 按账号的限额
+         */
+        private Limit account;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public String getMethod() {
+            return method;
+        }
+
+        public void setMethod(String method) {
+            this.method = method;
+        }
+
+        public String getPath() {
+            return path;
+        }
+
+        public void setPath(String path) {
+            this.path = path;
+        }
+
+        public Limit getIp() {
+            return ip;
+        }
+
+        public void setIp(Limit ip) {
+            this.ip = ip;
+        }
+
+        public String getAccountSource() {
+            return accountSource;
+        }
+
+        public void setAccountSource(String accountSource) {
+            this.accountSource = accountSource;
+        }
+
+        public Limit getAccount() {
+            return account;
+        }
+
+        public void setAccount(Limit account) {
+            this.account = account;
+        }
+    }
+
+    /**
+     * 令牌桶限额：桶容量为 capacity，每个 period 匀速补满 capacity 个令牌
+     */
+    public static class Limit {
+
+        private int capacity;
+
+        private Duration period = Duration.ofMinutes(1);
+
+        public int getCapacity() {
+            return capacity;
+        }
+
+        public void setCapacity(int capacity) {
+            this.capacity = capacity;
+        }
+
+        public Duration getPeriod() {
+            return period;
+        }
+
+        public void setPeriod(Duration period) {
+            this.period = period;
+        }
+
+        /**
+         * 每毫秒补充的令牌数
+         */
+        public double refillPerMillisecond() {
+            return (double) capacity / Math.max(1, period.toMillis());
+        }
+    }
+}
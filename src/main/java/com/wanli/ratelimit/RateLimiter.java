@@ -0,0 +1,195 @@
+package com.wanli.ratelimit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 分布式令牌桶限流器
+ * 每个桶是一个 Redis 哈希（剩余令牌、上次补充时间），由 Lua 脚本原子地补充并扣减，一次判定一次往返。
+ * Redis 调用设有超时；失败或超时时改用本地令牌桶判定，连续失败达到阈值后断开一段时间，
+ * 期间直接走本地令牌桶，避免 Redis 故障拖慢请求。
+ *
+ * @author JamesWu
+ * @since 1.0.0
+ */
+@Component
+public class RateLimiter {
+
+    private static final Logger log = LoggerFactory.getLogger(RateLimiter.class);
+
+    private static final String KEY_PREFIX = "ratelimit:";
+
+    /**
+     * KEYS[1] 桶；ARGV[1] 容量，ARGV[2] 每毫秒补充令牌数，ARGV[3] 当前时间毫秒，ARGV[4] 桶 TTL 毫秒
+     * 返回 0 表示放行，否则为建议的重试等待毫秒数
+     */
+    private static final RedisScript<Long> TOKEN_BUCKET_SCRIPT = new DefaultRedisScript<>("""
+            local capacity = tonumber(ARGV[1])
+            local rate = tonumber(ARGV[2])
+            local now = tonumber(ARGV[3])
+            local bucket = redis.call('HMGET', KEYS[1], 'tokens', 'ts')
+            local tokens = tonumber(bucket[1])
+            local ts = tonumber(bucket[2])
+            if tokens == nil or ts == nil then
+                tokens = capacity
+                ts = now
+            end
+            if now > ts then
+                tokens = math.min(capacity, tokens + (now - ts) * rate)
+                ts = now
+            end
+            local wait = 0
+            if tokens >= 1 then
+                tokens = tokens - 1
+            else
+                wait = math.max(1, math.ceil((1 - tokens) / rate))
+            end
+            redis.call('HMSET', KEYS[1], 'tokens', tostring(tokens), 'ts', tostring(ts))
+            redis.call('PEXPIRE', KEYS[1], ARGV[4])
+            return wait
+            """, Long.class);
+
+    private final ReactiveStringRedisTemplate redisTemplate;
+    private final RateLimitProperties properties;
+    private final LocalTokenBuckets localBuckets;
+    private final MeterRegistry meterRegistry;
+    private final Timer latencyTimer;
+    private final Counter redisFailures;
+    private final Map<String, Counter> decisionCounters = new ConcurrentHashMap<>();
+
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private volatile long openUntil;
+
+    public RateLimiter(ReactiveStringRedisTemplate redisTemplate,
+                       RateLimitProperties properties,
+                       MeterRegistry meterRegistry) {
+        this.redisTemplate = redisTemplate;
+        this.properties = properties;
+        this.localBuckets = new LocalTokenBuckets(properties.getLocalMaxBuckets());
+        this.meterRegistry = meterRegistry;
+        this.latencyTimer = Timer.builder("rate.limit.latency")
+                .description("Time spent making a rate limit decision")
+                .publishPercentiles(0.5, 0.99, 0.999)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.redisFailures = Counter.builder("rate.limit.redis.failures")
+                .description("Redis rate limit calls that failed or timed out")
+                .register(meterRegistry);
+        Gauge.builder("rate.limit.circuit.open", this, limiter -> limiter.isCircuitOpen() ? 1 : 0)
+                .description("1 while decisions bypass Redis")
+                .register(meterRegistry);
+        Gauge.builder("rate.limit.local.buckets", localBuckets, LocalTokenBuckets::size)
+                .register(meterRegistry);
+    }
+
+    /**
+     * 尝试为指定桶取一个令牌
+     *
+     * @param route 路由规则名称
+     * @param dimension 限流维度（ip / account）
+     * @param key 维度取值
+     * @param limit 限额
+     * @return 判定结果
+     */
+    public Decision tryAcquire(String route, String dimension, String key, RateLimitProperties.Limit limit) {
+        long started = System.nanoTime();
+        String bucketKey = KEY_PREFIX + route + ":" + dimension + ":" + key;
+        long now = System.currentTimeMillis();
+
+        Decision decision = null;
+        if (!isCircuitOpen()) {
+            decision = tryRedis(bucketKey, limit, now);
+        }
+        if (decision == null) {
+            decision = new Decision(localBuckets.tryAcquire(bucketKey, limit, now), Backend.LOCAL);
+        }
+
+        latencyTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        decisionCounter(route, dimension, decision).increment();
+        return decision;
+    }
+
+    public boolean isCircuitOpen() {
+        return System.currentTimeMillis() < openUntil;
+    }
+
+    private Decision tryRedis(String bucketKey, RateLimitProperties.Limit limit, long now) {
+        try {
+            Long wait = redisTemplate.execute(TOKEN_BUCKET_SCRIPT, List.of(bucketKey),
+                            List.of(Integer.toString(limit.getCapacity()),
+                                    Double.toString(limit.refillPerMillisecond()),
+                                    Long.toString(now),
+                                    Long.toString(limit.getPeriod().toMillis())))
+                    .next()
+                    .block(properties.getRedisTimeout());
+            if (wait == null) {
+                throw new IllegalStateException("限流脚本无返回值");
+            }
+            consecutiveFailures.set(0);
+            return new Decision(wait, Backend.REDIS);
+        } catch (RuntimeException e) {
+            redisFailures.increment();
+            if (consecutiveFailures.incrementAndGet() >= properties.getFailureThreshold()) {
+                consecutiveFailures.set(0);
+                openUntil = System.currentTimeMillis() + properties.getOpenDuration().toMillis();
+                log.warn("Redis 限流连续失败，{} 内改用本地令牌桶：{}", properties.getOpenDuration(), e.toString());
+            }
+            return null;
+        }
+    }
+
+    private Counter decisionCounter(String route, String dimension, Decision decision) {
+        String result = decision.allowed() ? "allowed" : "denied";
+        String backend = decision.backend().name().toLowerCase(Locale.ROOT);
+        return decisionCounters.computeIfAbsent(route + '|' + dimension + '|' + result + '|' + backend,
+                k -> Counter.builder("rate.limit.decisions")
+                        .description("Rate limit decisions by route and outcome")
+                        .tag("route", route)
+                        .tag("dimension", dimension)
+                        .tag("result", result)
+                        .tag("backend", backend)
+                        .register(meterRegistry));
+    }
+
+    /**
+     * 判定来源
+     */
+    public enum Backend {
+        REDIS, LOCAL
+    }
+
+    /**
+     * 限流判定结果
+     *
+     * @param retryAfterMillis 0 表示放行，否则为建议的重试等待毫秒数
+     * @param backend 判定来源
+     */
+    public record Decision(long retryAfterMillis, Backend backend) {
+
+        public boolean allowed() {
+            return retryAfterMillis == 0;
+        }
+
+        /**
+         * Retry-After 头的秒数（向上取整）
+         */
+        public long retryAfterSeconds() {
+            return Math.max(1, (retryAfterMillis + 999) / 1000);
+        }
+    }
+}
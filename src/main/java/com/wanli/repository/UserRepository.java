@@ -1,10 +1,15 @@
 package com.wanli.repository;
 
+import com.wanli.dto.UserView;
 import com.wanli.entity.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -14,12 +19,25 @@ import java.util.Optional;
 
 /**
  * 用户数据访问层接口
+ * 列表与搜索接口使用 *Views* 查询：以构造器表达式投影为 {@link UserView}，
+ * 不读取 password_hash，结果不是受管实体，不占用持久化上下文也不参与脏检查
  * 
  * @author JamesWu
  * @since 1.0.0
  */
 @Repository
-public interface UserRepository extends JpaRepository<User, String> {
+public interface UserRepository extends JpaRepository<User, String>, UserRepositoryCustom {
+
+    /**
+     * 用户视图投影（与 UserView 的组件顺序一致）
+     */
+    String SELECT_VIEW = "SELECT new com.wanli.dto.UserView(u.id, u.username, u.email, u.fullName, u.phone, "
+            + "u.avatarUrl, u.status, u.emailVerified, u.phoneVerified, u.lastLoginAt, u.createdAt, u.updatedAt, "
+            + "u.createdBy, u.updatedBy) FROM User u";
+
+    String KEYWORD_CONDITION = "LOWER(u.username) LIKE LOWER(CONCAT('%', :keyword, '%')) OR "
+            + "LOWER(u.email) LIKE LOWER(CONCAT('%', :keyword, '%')) OR "
+            + "LOWER(u.fullName) LIKE LOWER(CONCAT('%', :keyword, '%'))";
 
     /**
      * 根据用户名查询用户
@@ -27,6 +45,10 @@ public interface UserRepository extends JpaRepository<User, String> {
      * @param username 用户名
      * @return 用户信息
      */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = User.QUERY_CACHE_REGION)
+    })
     Optional<User> findByUsername(String username);
 
     /**
@@ -35,6 +57,10 @@ public interface UserRepository extends JpaRepository<User, String> {
      * @param email 邮箱
      * @return 用户信息
      */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = User.QUERY_CACHE_REGION)
+    })
     Optional<User> findByEmail(String email);
 
     /**
@@ -43,7 +69,8 @@ public interface UserRepository extends JpaRepository<User, String> {
      * @param phoneNumber 手机号
      * @return 用户信息
      */
-    Optional<User> findByPhoneNumber(String phoneNumber);
+    @Query("SELECT u FROM User u WHERE u.phone = :phoneNumber")
+    Optional<User> findByPhoneNumber(@Param("phoneNumber") String phoneNumber);
 
     /**
      * 根据用户名或邮箱查询用户
@@ -52,6 +79,10 @@ public interface UserRepository extends JpaRepository<User, String> {
      * @param email 邮箱
      * @return 用户信息
      */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = User.QUERY_CACHE_REGION)
+    })
     Optional<User> findByUsernameOrEmail(String username, String email);
 
     /**
@@ -76,7 +107,8 @@ public interface UserRepository extends JpaRepository<User, String> {
      * @param phoneNumber 手机号
      * @return 是否存在
      */
-    boolean existsByPhoneNumber(String phoneNumber);
+    @Query("SELECT COUNT(u) > 0 FROM User u WHERE u.phone = :phoneNumber")
+    boolean existsByPhoneNumber(@Param("phoneNumber") String phoneNumber);
 
     /**
      * 根据状态查询用户列表
@@ -87,6 +119,26 @@ public interface UserRepository extends JpaRepository<User, String> {
      */
     Page<User> findByStatus(User.UserStatus status, Pageable pageable);
 
+    /**
+     * 分页查询用户视图
+     * 
+     * @param pageable 分页参数
+     * @return 用户视图分页列表
+     */
+    @Query(value = SELECT_VIEW, countQuery = "SELECT COUNT(u) FROM User u")
+    Page<UserView> findViews(Pageable pageable);
+
+    /**
+     * 根据状态分页查询用户视图
+     * 
+     * @param status 用户状态
+     * @param pageable 分页参数
+     * @return 用户视图分页列表
+     */
+    @Query(value = SELECT_VIEW + " WHERE u.status = :status",
+           countQuery = "SELECT COUNT(u) FROM User u WHERE u.status = :status")
+    Page<UserView> findViewsByStatus(@Param("status") User.UserStatus status, Pageable pageable);
+
     /**
      * 根据状态统计用户数量
      * 
@@ -174,12 +226,20 @@ public interface UserRepository extends JpaRepository<User, String> {
      * @param pageable 分页参数
      * @return 用户分页列表
      */
-    @Query("SELECT u FROM User u WHERE " +
-           "LOWER(u.username) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
-           "LOWER(u.email) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
-           "LOWER(u.fullName) LIKE LOWER(CONCAT('%', :keyword, '%'))")
+    @Query("SELECT u FROM User u WHERE " + KEYWORD_CONDITION)
     Page<User> findByKeyword(@Param("keyword") String keyword, Pageable pageable);
 
+    /**
+     * 多条件模糊查询用户视图
+     * 
+     * @param keyword 关键字
+     * @param pageable 分页参数
+     * @return 用户视图分页列表
+     */
+    @Query(value = SELECT_VIEW + " WHERE " + KEYWORD_CONDITION,
+           countQuery = "SELECT COUNT(u) FROM User u WHERE " + KEYWORD_CONDITION)
+    Page<UserView> findViewsByKeyword(@Param("keyword") String keyword, Pageable pageable);
+
     /**
      * 查询活跃用户（最近30天内登录过的用户）
      * 
@@ -264,7 +324,11 @@ public interface UserRepository extends JpaRepository<User, String> {
      * 
      * @param deletedBefore 删除时间之前
      * @param status 用户状态（已删除）
+     * @deprecated 单条无界 DELETE 会长时间持有大量行锁，且不清理搜索索引、缓存与计数；
+     *             已删除用户由 {@link com.wanli.archive.UserArchiver} 分块归档
      */
+    @Deprecated
+    @Modifying
     @Query("DELETE FROM User u WHERE u.updatedAt < :deletedBefore AND u.status = :status")
     void deleteOldDeletedUsers(@Param("deletedBefore") LocalDateTime deletedBefore, 
                               @Param("status") User.UserStatus status);
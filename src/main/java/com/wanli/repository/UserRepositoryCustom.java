@@ -0,0 +1,83 @@
+package com.wanli.repository;
+
+import com.wanli.dto.UserCursor;
+import com.wanli.dto.UserView;
+import com.wanli.entity.User;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * 用户数据访问层自定义扩展
+ * 
+ * @author JamesWu
+ * @since 1.0.0
+ */
+public interface UserRepositoryCustom {
+
+    /**
+     * 游标（keyset）分页查询用户，不执行 COUNT 查询
+     * 按 (排序键, id) 排序，从游标位置之后读取 size 条；结果投影为 {@link UserView}，不加载实体
+     * 
+     * @param status 用户状态过滤（可为空）
+     * @param sortBy 排序字段，见 {@link UserCursor#SORT_PROPERTIES}
+     * @param direction 排序方向
+     * @param after 上一页最后一行的游标，首页为空
+     * @param size 每页大小
+     * @return 用户视图分片
+     */
+    Slice<UserView> findSliceAfter(User.UserStatus status, String sortBy, Sort.Direction direction,
+                                   UserCursor after, int size);
+
+    /**
+     * 更新用户状态（单条 UPDATE，不加载实体）
+     * 仅当当前状态等于 expected 时更新，避免基于过期状态覆盖并发修改
+     * 
+     * @param id 用户ID
+     * @param expected 期望的当前状态
+     * @param status 新状态
+     * @param updatedAt 更新时间
+     * @return 受影响行数，0 表示用户不存在或当前状态不是 expected
+     */
+    int updateStatus(String id, User.UserStatus expected, User.UserStatus status, LocalDateTime updatedAt);
+
+    /**
+     * 标记邮箱已验证（单条 UPDATE，不加载实体）
+     * 
+     * @param id 用户ID
+     * @param updatedAt 更新时间
+     * @return 匹配的行数，0 表示用户不存在
+     */
+    int markEmailVerified(String id, LocalDateTime updatedAt);
+
+    /**
+     * 标记手机号已验证（单条 UPDATE，不加载实体）
+     * 
+     * @param id 用户ID
+     * @param updatedAt 更新时间
+     * @return 匹配的行数，0 表示用户不存在
+     */
+    int markPhoneVerified(String id, LocalDateTime updatedAt);
+
+    /**
+     * 替换密码哈希（单条 UPDATE，不加载实体）
+     * 仅当当前哈希等于 expectedHash 时更新，避免覆盖并发修改的密码
+     * 
+     * @param id 用户ID
+     * @param expectedHash 期望的当前哈希
+     * @param passwordHash 新哈希
+     * @param updatedAt 更新时间，为空时保留原更新时间（哈希升级不视为用户修改）
+     * @return 受影响行数，0 表示用户不存在或密码已被修改
+     */
+    int updatePasswordHash(String id, String expectedHash, String passwordHash, LocalDateTime updatedAt);
+
+    /**
+     * 锁定用户行并读取当前状态（SELECT ... FOR UPDATE），须在事务内调用
+     * 
+     * @param id 用户ID
+     * @return 当前状态
+     */
+    Optional<User.UserStatus> lockStatus(String id);
+}
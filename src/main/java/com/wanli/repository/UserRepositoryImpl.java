@@ -0,0 +1,161 @@
+package com.wanli.repository;
+
+import com.wanli.cache.UserEntityCacheLock;
+import com.wanli.dto.UserCursor;
+import com.wanli.dto.UserView;
+import com.wanli.entity.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * 用户数据访问层自定义扩展实现
+ * 定向更新使用 JDBC 而非 JPQL 批量更新：Hibernate 执行 JPQL/原生批量更新后会清空整个 User 二级缓存区域，
+ * 这里只对该用户的二级缓存条目加软锁（持有到事务结束），提交后再由调用方通过 UserNearCache 按ID失效
+ * 
+ * @author JamesWu
+ * @since 1.0.0
+ */
+public class UserRepositoryImpl implements UserRepositoryCustom {
+
+    /**
+     * 允许为空的排序字段。MySQL 中 NULL 在升序时排在最前、降序时排在最后
+     */
+    private static final Set<String> NULLABLE_SORT_PROPERTIES = Set.of("lastLoginAt");
+
+    private static final String UPDATE_STATUS =
+            "UPDATE users SET status = ?, updated_at = ? WHERE id = ? AND status = ?";
+    // MySQL Connector/J 默认返回匹配行数（useAffectedRows=false），值未变化的行也计入
+    private static final String MARK_EMAIL_VERIFIED =
+            "UPDATE users SET email_verified = TRUE, updated_at = ? WHERE id = ?";
+    private static final String MARK_PHONE_VERIFIED =
+            "UPDATE users SET phone_verified = TRUE, updated_at = ? WHERE id = ?";
+    // 显式赋值 updated_at 可抑制 ON UPDATE CURRENT_TIMESTAMP
+    private static final String UPDATE_PASSWORD_HASH = "UPDATE users SET password_hash = ?, "
+            + "updated_at = COALESCE(?, updated_at) WHERE id = ? AND password_hash = ?";
+    private static final String LOCK_STATUS = "SELECT status FROM users WHERE id = ? FOR UPDATE";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final UserEntityCacheLock userEntityCacheLock;
+
+    public UserRepositoryImpl(JdbcTemplate jdbcTemplate, UserEntityCacheLock userEntityCacheLock) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.userEntityCacheLock = userEntityCacheLock;
+    }
+
+    @Override
+    public Slice<UserView> findSliceAfter(User.UserStatus status, String sortBy, Sort.Direction direction,
+                                          UserCursor after, int size) {
+        if (!UserCursor.SORT_PROPERTIES.contains(sortBy)) {
+            throw new IllegalArgumentException("游标分页不支持的排序字段: " + sortBy);
+        }
+
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<UserView> query = cb.createQuery(UserView.class);
+        Root<User> root = query.from(User.class);
+        Path<LocalDateTime> key = root.get(sortBy);
+        Path<String> id = root.get("id");
+        query.select(cb.construct(UserView.class,
+                id, root.get("username"), root.get("email"), root.get("fullName"), root.get("phone"),
+                root.get("avatarUrl"), root.get("status"), root.get("emailVerified"), root.get("phoneVerified"),
+                root.get("lastLoginAt"), root.get("createdAt"), root.get("updatedAt"),
+                root.get("createdBy"), root.get("updatedBy")));
+
+        List<Predicate> predicates = new ArrayList<>();
+        if (status != null) {
+            predicates.add(cb.equal(root.get("status"), status));
+        }
+        if (after != null) {
+            predicates.add(seekPredicate(cb, key, id, direction, after,
+                    NULLABLE_SORT_PROPERTIES.contains(sortBy)));
+        }
+        query.where(predicates.toArray(new Predicate[0]));
+        if (direction.isAscending()) {
+            query.orderBy(cb.asc(key), cb.asc(id));
+        } else {
+            query.orderBy(cb.desc(key), cb.desc(id));
+        }
+
+        List<UserView> rows = entityManager.createQuery(query)
+                .setMaxResults(size + 1)
+                .getResultList();
+        boolean hasNext = rows.size() > size;
+        List<UserView> content = hasNext ? rows.subList(0, size) : rows;
+        return new SliceImpl<>(content, PageRequest.of(0, size, Sort.by(direction, sortBy, "id")), hasNext);
+    }
+
+    @Override
+    public int updateStatus(String id, User.UserStatus expected, User.UserStatus status, LocalDateTime updatedAt) {
+        return userEntityCacheLock.writeLocked(id, () -> jdbcTemplate.update(UPDATE_STATUS,
+                status.name(), Timestamp.valueOf(updatedAt), id, expected.name()));
+    }
+
+    @Override
+    public int markEmailVerified(String id, LocalDateTime updatedAt) {
+        return userEntityCacheLock.writeLocked(id, () ->
+                jdbcTemplate.update(MARK_EMAIL_VERIFIED, Timestamp.valueOf(updatedAt), id));
+    }
+
+    @Override
+    public int markPhoneVerified(String id, LocalDateTime updatedAt) {
+        return userEntityCacheLock.writeLocked(id, () ->
+                jdbcTemplate.update(MARK_PHONE_VERIFIED, Timestamp.valueOf(updatedAt), id));
+    }
+
+    @Override
+    public int updatePasswordHash(String id, String expectedHash, String passwordHash, LocalDateTime updatedAt) {
+        return userEntityCacheLock.writeLocked(id, () -> jdbcTemplate.update(UPDATE_PASSWORD_HASH, passwordHash,
+                updatedAt != null ? Timestamp.valueOf(updatedAt) : null, id, expectedHash));
+    }
+
+    @Override
+    public Optional<User.UserStatus> lockStatus(String id) {
+        List<String> statuses = jdbcTemplate.queryForList(LOCK_STATUS, String.class, id);
+        return statuses.stream().findFirst().map(User.UserStatus::valueOf);
+    }
+
+    /**
+     * 构造"位于游标之后"的条件
+     */
+    private Predicate seekPredicate(CriteriaBuilder cb, Path<LocalDateTime> key, Path<String> id,
+                                    Sort.Direction direction, UserCursor after, boolean nullable) {
+        LocalDateTime value = after.getValue();
+        String lastId = after.getId();
+
+        if (direction.isAscending()) {
+            if (value == null) {
+                // 仍处于 NULL 段：NULL 段内 id 更大的行，以及全部非 NULL 行
+                return cb.or(cb.and(cb.isNull(key), cb.greaterThan(id, lastId)), cb.isNotNull(key));
+            }
+            return cb.or(cb.greaterThan(key, value),
+                    cb.and(cb.equal(key, value), cb.greaterThan(id, lastId)));
+        }
+
+        if (value == null) {
+            // 降序时 NULL 段位于末尾
+            return cb.and(cb.isNull(key), cb.lessThan(id, lastId));
+        }
+        Predicate seek = cb.or(cb.lessThan(key, value),
+                cb.and(cb.equal(key, value), cb.lessThan(id, lastId)));
+        return nullable ? cb.or(seek, cb.isNull(key)) : seek;
+    }
+}
@@ -0,0 +1,54 @@
+package com.wanli.repository;
+
+import com.wanli.entity.User;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+/**
+ * 用户行映射器（JDBC 直接查询使用）
+ * 只读取 {@link #COLUMNS} 中的列，不包含密码哈希；映射出的对象不受持久化上下文管理
+ *
+ * @author JamesWu
+ * @since 1.0.0
+ */
+public class UserRowMapper implements RowMapper<User> {
+
+    /**
+     * 查询列（不含 password_hash）
+     */
+    public static final String COLUMNS = "id, username, email, full_name, phone, avatar_url, status, role, "
+            + "email_verified, phone_verified, last_login_at, created_at, updated_at, created_by, updated_by";
+
+    public static final UserRowMapper INSTANCE = new UserRowMapper();
+
+    @Override
+    public User mapRow(ResultSet rs, int rowNum) throws SQLException {
+        User user = new User();
+        user.setId(rs.getString("id"));
+        user.setUsername(rs.getString("username"));
+        user.setEmail(rs.getString("email"));
+        user.setFullName(rs.getString("full_name"));
+        user.setPhone(rs.getString("phone"));
+        user.setAvatarUrl(rs.getString("avatar_url"));
+        String status = rs.getString("status");
+        user.setStatus(status != null ? User.UserStatus.valueOf(status) : null);
+        String role = rs.getString("role");
+        user.setRole(role != null ? User.UserRole.valueOf(role) : User.UserRole.USER);
+        user.setEmailVerified(rs.getBoolean("email_verified"));
+        user.setPhoneVerified(rs.getBoolean("phone_verified"));
+        user.setLastLoginAt(toLocalDateTime(rs.getTimestamp("last_login_at")));
+        user.setCreatedAt(toLocalDateTime(rs.getTimestamp("created_at")));
+        user.setUpdatedAt(toLocalDateTime(rs.getTimestamp("updated_at")));
+        user.setCreatedBy(rs.getString("created_by"));
+        user.setUpdatedBy(rs.getString("updated_by"));
+        return user;
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
+    }
+}
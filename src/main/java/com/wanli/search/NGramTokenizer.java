@@ -0,0 +1,55 @@
+package com.wanli.search;
+
+import java.text.Normalizer;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * n-gram 分词器
+ * 按 Unicode 码点切分二元组（bigram），中文等 CJK 字符按单字计，因此两字中文名也能被检索。
+ * 仅有一个字符的文本输出其本身。
+ *
+ * @author JamesWu
+ * @since 1.0.0
+ */
+public final class NGramTokenizer {
+
+    /**
+     * 词元长度（码点数）
+     */
+    public static final int GRAM_SIZE = 2;
+
+    private NGramTokenizer() {
+    }
+
+    /**
+     * 归一化：NFKC（全角转半角等）、小写、合并空白
+     */
+    public static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String normalized = Normalizer.normalize(text, Normalizer.Form.NFKC).toLowerCase(Locale.ROOT);
+        return normalized.trim().replaceAll("\\s+", " ");
+    }
+
+    /**
+     * 将归一化后的文本切分为 n-gram 集合
+     */
+    public static Set<String> grams(String normalized) {
+        Set<String> grams = new LinkedHashSet<>();
+        if (normalized.isEmpty()) {
+            return grams;
+        }
+        int[] codePoints = normalized.codePoints().toArray();
+        if (codePoints.length < GRAM_SIZE) {
+            grams.add(normalized);
+            return grams;
+        }
+        for (int i = 0; i + GRAM_SIZE <= codePoints.length; i++) {
+            grams.add(new String(codePoints, i, GRAM_SIZE));
+        }
+        return grams;
+    }
+}
@@ -0,0 +1,296 @@
+package com.wanli.search;
+
+import com.wanli.entity.User;
+import com.wanli.repository.UserRowMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 用户搜索倒排索引
+ * 将用户名、邮箱、全名切分为 n-gram 存入 user_search_grams 表，
+ * 搜索时取包含关键字全部词元的用户作为候选，再在内存中做子串校验、打分和分页，
+ * 避免 LOWER(col) LIKE '%keyword%' 造成的全表扫描。
+ *
+ * @author JamesWu
+ * @since 1.0.0
+ */
+@Component
+public class UserSearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(UserSearchIndex.class);
+
+    private static final String DELETE_GRAMS = "DELETE FROM user_search_grams WHERE user_id IN (:ids)";
+    private static final String INSERT_GRAM = "INSERT INTO user_search_grams (gram, user_id) VALUES (:gram, :userId)";
+    private static final String MATCHING_USER_IDS = "SELECT user_id FROM user_search_grams WHERE gram IN (:grams) "
+            + "GROUP BY user_id HAVING COUNT(*) = :gramCount";
+    // 候选超过上限时按匹配层级截断：完全匹配、前缀匹配优先保留，同层按创建时间倒序（与内存排序一致）
+    private static final String FIND_CANDIDATES = "SELECT u.id FROM users u "
+            + "JOIN (" + MATCHING_USER_IDS + ") c ON c.user_id = u.id "
+            + "ORDER BY CASE WHEN u.username = :keyword OR u.email = :keyword OR u.full_name = :keyword THEN 2 "
+            + "WHEN u.username LIKE :prefix OR u.full_name LIKE :prefix OR u.email LIKE :prefix THEN 1 "
+            + "ELSE 0 END DESC, u.created_at DESC LIMIT :limit";
+    private static final String COUNT_CANDIDATES = "SELECT COUNT(*) FROM (" + MATCHING_USER_IDS + ") c";
+    private static final String FIND_USERS = "SELECT " + UserRowMapper.COLUMNS + " FROM users WHERE id IN (:ids)";
+    private static final String REBUILD_CHUNK = "SELECT id, username, email, full_name FROM users "
+            + "WHERE id > :lastId ORDER BY id LIMIT :limit FOR UPDATE";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int maxCandidates;
+    private final int rebuildChunkSize;
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+
+    private volatile LocalDateTime lastRebuiltAt;
+
+    public UserSearchIndex(NamedParameterJdbcTemplate jdbcTemplate,
+                           PlatformTransactionManager transactionManager,
+                           @Value("${app.search.max-candidates:2000}") int maxCandidates,
+                           @Value("${app.search.rebuild-chunk-size:1000}") int rebuildChunkSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maxCandidates = maxCandidates;
+        this.rebuildChunkSize = rebuildChunkSize;
+    }
+
+    /**
+     * 关键字是否足够长，可以走倒排索引
+     */
+    public boolean supports(String keyword) {
+        String normalized = NGramTokenizer.normalize(keyword);
+        return normalized.codePointCount(0, normalized.length()) >= NGramTokenizer.GRAM_SIZE;
+    }
+
+    /**
+     * 索引单个用户（覆盖旧词元），在调用方事务内执行
+     *
+     * @param user 用户
+     */
+    public void index(User user) {
+        indexAll(List.of(user));
+    }
+
+    /**
+     * 批量索引用户（覆盖旧词元），在调用方事务内执行
+     *
+     * @param users 用户列表
+     */
+    public void indexAll(Collection<User> users) {
+        if (users.isEmpty()) {
+            return;
+        }
+        List<String> ids = new ArrayList<>(users.size());
+        List<MapSqlParameterSource> rows = new ArrayList<>();
+        for (User user : users) {
+            ids.add(user.getId());
+            for (String gram : gramsOf(user)) {
+                rows.add(new MapSqlParameterSource()
+                        .addValue("gram", gram)
+                        .addValue("userId", user.getId()));
+            }
+        }
+        jdbcTemplate.update(DELETE_GRAMS, Map.of("ids", ids));
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_GRAM, rows.toArray(new MapSqlParameterSource[0]));
+        }
+    }
+
+    /**
+     * 移除用户的索引
+     *
+     * @param ids 用户ID列表
+     */
+    public void remove(Collection<String> ids) {
+        if (!ids.isEmpty()) {
+            jdbcTemplate.update(DELETE_GRAMS, Map.of("ids", ids));
+        }
+    }
+
+    /**
+     * 按关键字搜索用户
+     * 结果按匹配程度排序：完全匹配 > 前缀匹配 > 包含；同分按创建时间倒序。
+     * 候选数量超过上限时，数据库按同样的层级截取前 max-candidates 个候选（完全匹配与前缀匹配不会被截掉），
+     * 总数为完整候选数减去被排除的误命中，是近似值。
+     *
+     * @param keyword 关键字（至少两个字符）
+     * @param pageable 分页参数（排序由相关度决定）
+     * @return 用户分页列表（不含密码哈希）
+     */
+    public Page<User> search(String keyword, Pageable pageable) {
+        String normalized = NGramTokenizer.normalize(keyword);
+        Set<String> grams = NGramTokenizer.grams(normalized);
+        if (grams.isEmpty()) {
+            return Page.empty(pageable);
+        }
+
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("grams", grams)
+                .addValue("gramCount", grams.size())
+                .addValue("keyword", normalized)
+                .addValue("prefix", escapeLike(normalized) + "%")
+                .addValue("limit", maxCandidates);
+        List<String> candidateIds = jdbcTemplate.queryForList(FIND_CANDIDATES, params, String.class);
+        if (candidateIds.isEmpty()) {
+            return Page.empty(pageable);
+        }
+        // 被截掉的候选只可能是"包含"层级，按未校验的候选数计入总数
+        long truncated = 0;
+        if (candidateIds.size() >= maxCandidates) {
+            Long total = jdbcTemplate.queryForObject(COUNT_CANDIDATES, params, Long.class);
+            truncated = Math.max(0, (total != null ? total : 0) - candidateIds.size());
+        }
+
+        List<User> candidates = jdbcTemplate.query(FIND_USERS, Map.of("ids", candidateIds), UserRowMapper.INSTANCE);
+        List<ScoredUser> matches = new ArrayList<>(candidates.size());
+        for (User user : candidates) {
+            int score = score(user, normalized);
+            if (score > 0) {
+                matches.add(new ScoredUser(user, score));
+            }
+        }
+        matches.sort(Comparator.comparingInt(ScoredUser::score).reversed()
+                .thenComparing(scored -> scored.user().getCreatedAt(),
+                        Comparator.nullsLast(Comparator.reverseOrder())));
+
+        int from = (int) Math.min(pageable.getOffset(), matches.size());
+        int to = Math.min(from + pageable.getPageSize(), matches.size());
+        List<User> content = new ArrayList<>(to - from);
+        for (ScoredUser scored : matches.subList(from, to)) {
+            content.add(scored.user());
+        }
+        return new PageImpl<>(content, pageable, matches.size() + truncated);
+    }
+
+    /**
+     * 全量重建索引：按主键分块扫描 users 表，每块在独立事务中覆盖，期间索引持续可用
+     * 每块的读取与写入在同一事务内并锁定这些行：并发的 updateUser 要么等重建写完再覆盖，
+     * 要么先提交、由重建读到新值，不会被旧词元覆盖。
+     *
+     * @return 是否执行了重建（已有重建在进行时返回 false）
+     */
+    public boolean rebuild() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            return false;
+        }
+        try {
+            long started = System.currentTimeMillis();
+            long indexed = 0;
+            String lastId = "";
+            while (true) {
+                String from = lastId;
+                List<User> chunk = transactionTemplate.execute(status -> {
+                    List<User> users = jdbcTemplate.query(REBUILD_CHUNK, new MapSqlParameterSource()
+                            .addValue("lastId", from)
+                            .addValue("limit", rebuildChunkSize), (rs, rowNum) -> {
+                        User user = new User();
+                        user.setId(rs.getString("id"));
+                        user.setUsername(rs.getString("username"));
+                        user.setEmail(rs.getString("email"));
+                        user.setFullName(rs.getString("full_name"));
+                        return user;
+                    });
+                    indexAll(users);
+                    return users;
+                });
+                if (chunk == null || chunk.isEmpty()) {
+                    break;
+                }
+                indexed += chunk.size();
+                lastId = chunk.get(chunk.size() - 1).getId();
+            }
+            lastRebuiltAt = LocalDateTime.now();
+            log.info("用户搜索索引重建完成，共 {} 个用户，耗时 {} ms", indexed, System.currentTimeMillis() - started);
+            return true;
+        } finally {
+            rebuilding.set(false);
+        }
+    }
+
+    /**
+     * 索引是否为空（首次部署后需要重建）
+     */
+    public boolean isEmpty() {
+        List<Integer> rows = jdbcTemplate.queryForList("SELECT 1 FROM user_search_grams LIMIT 1", Map.of(), Integer.class);
+        return rows.isEmpty();
+    }
+
+    public boolean isRebuilding() {
+        return rebuilding.get();
+    }
+
+    public LocalDateTime getLastRebuiltAt() {
+        return lastRebuiltAt;
+    }
+
+    private static Set<String> gramsOf(User user) {
+        Set<String> grams = NGramTokenizer.grams(NGramTokenizer.normalize(user.getUsername()));
+        grams.addAll(NGramTokenizer.grams(NGramTokenizer.normalize(user.getEmail())));
+        grams.addAll(NGramTokenizer.grams(NGramTokenizer.normalize(user.getFullName())));
+        return grams;
+    }
+
+    /**
+     * 转义 LIKE 通配符（MySQL 默认转义符为反斜杠）
+     */
+    private static String escapeLike(String text) {
+        return text.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    /**
+     * 相关度打分，0 表示不匹配（n-gram 候选的误命中）
+     */
+    static int score(User user, String keyword) {
+        String username = NGramTokenizer.normalize(user.getUsername());
+        String email = NGramTokenizer.normalize(user.getEmail());
+        String fullName = NGramTokenizer.normalize(user.getFullName());
+
+        if (username.equals(keyword)) {
+            return 100;
+        }
+        if (email.equals(keyword)) {
+            return 90;
+        }
+        if (fullName.equals(keyword)) {
+            return 80;
+        }
+        if (username.startsWith(keyword)) {
+            return 60;
+        }
+        if (fullName.startsWith(keyword)) {
+            return 50;
+        }
+        if (email.startsWith(keyword)) {
+            return 40;
+        }
+        if (username.contains(keyword)) {
+            return 30;
+        }
+        if (fullName.contains(keyword)) {
+            return 20;
+        }
+        if (email.contains(keyword)) {
+            return 10;
+        }
+        return 0;
+    }
+
+    private record ScoredUser(User user, int score) {
+    }
+}
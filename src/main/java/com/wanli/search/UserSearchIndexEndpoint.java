@@ -0,0 +1,48 @@
+package com.wanli.search;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 用户搜索索引管理端点
+ * GET 查看索引状态，POST 在后台触发全量重建
+ *
+ * @author JamesWu
+ * @since 1.0.0
+ */
+@Component
+@Endpoint(id = "usersearchindex")
+public class UserSearchIndexEndpoint {
+
+    private final UserSearchIndex userSearchIndex;
+    private final UserSearchIndexJob userSearchIndexJob;
+
+    public UserSearchIndexEndpoint(UserSearchIndex userSearchIndex, UserSearchIndexJob userSearchIndexJob) {
+        this.userSearchIndex = userSearchIndex;
+        this.userSearchIndexJob = userSearchIndexJob;
+    }
+
+    @ReadOperation
+    public Map<String, Object> status() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("rebuilding", userSearchIndex.isRebuilding());
+        status.put("lastRebuiltAt", userSearchIndex.getLastRebuiltAt());
+        return status;
+    }
+
+    @WriteOperation
+    public Map<String, Object> rebuild() {
+        boolean started = !userSearchIndex.isRebuilding();
+        if (started) {
+            userSearchIndexJob.rebuildAsync();
+        }
+        Map<String, Object> status = status();
+        status.put("started", started);
+        return status;
+    }
+}
@@ -0,0 +1,68 @@
+package com.wanli.search;
+
+import com.wanli.lock.RedisLock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * 用户搜索索引重建任务
+ * 启动时索引为空则自动重建；可通过 app.search.rebuild-cron 配置定时重建（默认关闭）。
+ * 重建持有集群锁，多个节点同时启动或同时触发定时任务时只有一个节点执行
+ *
+ * @author JamesWu
+ * @since 1.0.0
+ */
+@Component
+public class UserSearchIndexJob {
+
+    private static final Logger log = LoggerFactory.getLogger(UserSearchIndexJob.class);
+
+    private static final String REBUILD_LOCK = "user-search-rebuild";
+    private static final Duration REBUILD_LOCK_TTL = Duration.ofMinutes(30);
+
+    private final UserSearchIndex userSearchIndex;
+    private final RedisLock redisLock;
+
+    public UserSearchIndexJob(UserSearchIndex userSearchIndex, RedisLock redisLock) {
+        this.userSearchIndex = userSearchIndex;
+        this.redisLock = redisLock;
+    }
+
+    /**
+     * 首次部署（索引为空）时在后台构建索引
+     */
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildIfEmpty() {
+        // 在锁内检查：其他节点已建完索引时不再重复构建
+        redisLock.runIfAcquired(REBUILD_LOCK, REBUILD_LOCK_TTL, () -> {
+            if (userSearchIndex.isEmpty()) {
+                log.info("用户搜索索引为空，开始构建");
+                userSearchIndex.rebuild();
+            }
+        });
+    }
+
+    /**
+     * 定时重建
+     */
+    @Scheduled(cron = "${app.search.rebuild-cron:-}")
+    public void scheduledRebuild() {
+        redisLock.runIfAcquired(REBUILD_LOCK, REBUILD_LOCK_TTL, userSearchIndex::rebuild);
+    }
+
+    /**
+     * 在后台执行重建
+     */
+    @Async
+    public void rebuildAsync() {
+        redisLock.runIfAcquired(REBUILD_LOCK, REBUILD_LOCK_TTL, userSearchIndex::rebuild);
+    }
+}
@@ -0,0 +1,110 @@
+package com.wanli.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * 邮箱验证令牌
+ * 令牌格式为 "base64url(用户ID.过期时间秒).base64url(HMAC-SHA256)"，校验只需重新计算签名并比较过期时间，不查询数据库也不访问 Redis。
+ * 令牌不落库：验证邮件在发送时才签发，邮件队列中只保存收件人。
+ * 签名输入带有固定前缀，即使与 JWT 共用密钥，两类令牌也不能互相冒用。
+ *
+ * @author JamesWu
+ * @since 1.0.0
+ */
+@Component
+public class EmailVerificationTokens {
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final String PURPOSE = "email-verification:";
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final SecretKeySpec key;
+    private final Duration validity;
+
+    public EmailVerificationTokens(@Value("${app.mail.verification.secret:${jwt.secret}}") String secret,
+                                   @Value("${app.mail.verification.token-validity:72h}") Duration validity) {
+        this.key = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), ALGORITHM);
+        this.validity = validity;
+    }
+
+    public Duration getValidity() {
+        return validity;
+    }
+
+    /**
+     * 签发令牌
+     *
+     * @param userId 用户ID
+     * @return 可直接放入 URL 的令牌
+     */
+    public String issue(String userId) {
+        String payload = userId + "." + Instant.now().plus(validity).getEpochSecond();
+        byte[] payloadBytes = payload.getBytes(StandardCharsets.UTF_8);
+        return ENCODER.encodeToString(payloadBytes) + "." + ENCODER.encodeToString(sign(payloadBytes));
+    }
+
+    /**
+     * 校验令牌
+     *
+     * @param token 令牌
+     * @return 令牌中的用户ID
+     * @throws RuntimeException 令牌格式错误、签名不符或已过期
+     */
+    public String verify(String token) {
+        int separator = token != null ? token.indexOf('.') : -1;
+        if (separator <= 0) {
+            throw new RuntimeException("验证链接无效");
+        }
+        byte[] payloadBytes;
+        byte[] signature;
+        try {
+            payloadBytes = DECODER.decode(token.substring(0, separator));
+            signature = DECODER.decode(token.substring(separator + 1));
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("验证链接无效");
+        }
+        if (!MessageDigest.isEqual(sign(payloadBytes), signature)) {
+            throw new RuntimeException("验证链接无效");
+        }
+
+        String payload = new String(payloadBytes, StandardCharsets.UTF_8);
+        int dot = payload.lastIndexOf('.');
+        if (dot <= 0) {
+            throw new RuntimeException("验证链接无效");
+        }
+        long expiresAt;
+        try {
+            expiresAt = Long.parseLong(payload.substring(dot + 1));
+        } catch (NumberFormatException e) {
+            throw new RuntimeException("验证链接无效");
+        }
+        if (Instant.now().getEpochSecond() > expiresAt) {
+            throw new RuntimeException("验证链接已过期");
+        }
+        return payload.substring(0, dot);
+    }
+
+    private byte[] sign(byte[] payload) {
+        try {
+            // Mac 不是线程安全的，每次签名单独创建
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            mac.update(PURPOSE.getBytes(StandardCharsets.UTF_8));
+            return mac.doFinal(payload);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 不可用", e);
+        }
+    }
+}
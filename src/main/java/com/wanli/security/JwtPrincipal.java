@@ -0,0 +1,24 @@
+package com.wanli.security;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+/**
+ * 已验证的 JWT 中携带的身份信息，作为 Spring Security 认证主体
+ *
+ * @param userId 用户ID
+ * @param username 用户名
+ * @param role 角色（不含 ROLE_ 前缀）
+ * @param expiresAt 令牌过期时间
+ * @author JamesWu
+ * @since 1.0.0
+ */
+public record JwtPrincipal(String userId, String username, String role, Instant expiresAt) implements Serializable {
+
+    /**
+     * 令牌在给定时刻是否仍有效
+     */
+    public boolean isValidAt(Instant now) {
+        return expiresAt.isAfter(now);
+    }
+}
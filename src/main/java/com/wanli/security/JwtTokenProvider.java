@@ -0,0 +1,133 @@
+package com.wanli.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.Optional;
+
+/**
+ * JWT 签发与验证
+ * 签名密钥与解析器在启动时构建一次；令牌中携带用户ID、用户名和角色，验证时不查询数据库。
+ * 最近验证通过的令牌保存在有界本地缓存（jwt-verified-tokens）中，
+ * 同一令牌的后续请求只需一次缓存查找和过期时间比较，无需重新计算 HMAC 与解析 JSON。
+ *
+ * @author JamesWu
+ * @since 1.0.0
+ */
+@Component
+public class JwtTokenProvider {
+
+    private static final String VERIFIED_TOKEN_CACHE = "jwt-verified-tokens";
+
+    private static final String CLAIM_USERNAME = "username";
+    private static final String CLAIM_ROLE = "role";
+
+    private final SecretKey signingKey;
+    private final JwtParser parser;
+    private final Duration expiration;
+    private final Cache<String, JwtPrincipal> verifiedTokens;
+
+    private final Counter cachedCounter;
+    private final Counter verifiedCounter;
+    private final Counter invalidCounter;
+
+    public JwtTokenProvider(@Value("${jwt.secret}") String secret,
+                            @Value("${jwt.expiration}") long expirationMillis,
+                            CacheManager jcacheManager,
+                            MeterRegistry meterRegistry) {
+        // HS256 要求密钥不少于 256 位，密钥过短时启动失败
+        this.signingKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        this.parser = Jwts.parserBuilder().setSigningKey(signingKey).build();
+        this.expiration = Duration.ofMillis(expirationMillis);
+        this.verifiedTokens = jcacheManager.getCache(VERIFIED_TOKEN_CACHE, String.class, JwtPrincipal.class);
+
+        this.cachedCounter = verificationCounter(meterRegistry, "cached");
+        this.verifiedCounter = verificationCounter(meterRegistry, "verified");
+        this.invalidCounter = verificationCounter(meterRegistry, "invalid");
+    }
+
+    /**
+     * 签发访问令牌
+     *
+     * @param userId 用户ID
+     * @param username 用户名
+     * @param role 角色
+     * @return 紧凑格式的 JWT
+     */
+    public String createToken(String userId, String username, String role) {
+        Instant now = Instant.now();
+        return Jwts.builder()
+                .setSubject(userId)
+                .claim(CLAIM_USERNAME, username)
+                .claim(CLAIM_ROLE, role)
+                .setIssuedAt(Date.from(now))
+                .setExpiration(Date.from(now.plus(expiration)))
+                .signWith(signingKey, SignatureAlgorithm.HS256)
+                .compact();
+    }
+
+    /**
+     * 验证令牌
+     *
+     * @param token 紧凑格式的 JWT
+     * @return 令牌中的身份信息，签名无效或已过期时为空
+     */
+    public Optional<JwtPrincipal> verify(String token) {
+        Instant now = Instant.now();
+        JwtPrincipal cached = verifiedTokens.get(token);
+        if (cached != null) {
+            if (cached.isValidAt(now)) {
+                cachedCounter.increment();
+                return Optional.of(cached);
+            }
+            verifiedTokens.remove(token);
+        }
+
+        try {
+            Claims claims = parser.parseClaimsJws(token).getBody();
+            if (claims.getExpiration() == null) {
+                invalidCounter.increment();
+                return Optional.empty();
+            }
+            JwtPrincipal principal = new JwtPrincipal(claims.getSubject(),
+                    claims.get(CLAIM_USERNAME, String.class),
+                    claims.get(CLAIM_ROLE, String.class),
+                    claims.getExpiration().toInstant());
+            verifiedTokens.put(token, principal);
+            verifiedCounter.increment();
+            return Optional.of(principal);
+        } catch (JwtException | IllegalArgumentException e) {
+            invalidCounter.increment();
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * 访问令牌有效期
+     */
+    public Duration getExpiration() {
+        return expiration;
+    }
+
+    private static Counter verificationCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("auth.token.verifications")
+                .description("Access token verifications by outcome")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
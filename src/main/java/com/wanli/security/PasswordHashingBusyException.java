@@ -0,0 +1,15 @@
+package com.wanli.security;
+
+/**
+ * 密码哈希线程池已满，请求被快速拒绝
+ * 控制器应返回 429，由客户端稍后重试
+ *
+ * @author JamesWu
+ * @since 1.0.0
+ */
+public class PasswordHashingBusyException extends RuntimeException {
+
+    public PasswordHashingBusyException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,206 @@
+package com.wanli.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 密码哈希引擎
+ * bcrypt 计算在独立的定长线程池中执行，不占用 Tomcat 请求线程的 CPU 时间片；
+ * 线程池队列有界，队列满或等待超时时抛出 {@link PasswordHashingBusyException}，避免突发注册拖垮其他接口。
+ *
+ * 启动时按 app.password.target-hash-time 在本机 CPU 上校准 bcrypt 强度；
+ * 强度低于当前值的已有哈希在下次验证成功后由调用方升级（见 {@link #upgradeEncoding(String)}）。
+ *
+ * @author JamesWu
+ * @since 1.0.0
+ */
+@Component
+public class PasswordHashingEngine implements PasswordEncoder {
+
+    private static final Logger log = LoggerFactory.getLogger(PasswordHashingEngine.class);
+
+    private static final int CALIBRATION_STRENGTH = 10;
+    private static final int CALIBRATION_ROUNDS = 3;
+
+    private final BCryptPasswordEncoder encoder;
+    private final int strength;
+    private final ThreadPoolExecutor executor;
+    private final Duration timeout;
+
+    private final Timer encodeTimer;
+    private final Timer matchesTimer;
+    private final Timer queueWaitTimer;
+    private final Counter rejectedCounter;
+
+    public PasswordHashingEngine(MeterRegistry meterRegistry,
+                                 @Value("${app.password.strength:0}") int configuredStrength,
+                                 @Value("${app.password.target-hash-time:250ms}") Duration targetHashTime,
+                                 @Value("${app.password.min-strength:10}") int minStrength,
+                                 @Value("${app.password.max-strength:14}") int maxStrength,
+                                 @Value("${app.password.threads:0}") int threads,
+                                 @Value("${app.password.queue-capacity:64}") int queueCapacity,
+                                 @Value("${app.password.timeout:5s}") Duration timeout) {
+        this.strength = configuredStrength > 0
+                ? configuredStrength
+                : calibrate(targetHashTime, minStrength, maxStrength);
+        this.encoder = new BCryptPasswordEncoder(strength);
+        this.timeout = timeout;
+
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger sequence = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "password-hash-" + sequence.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+
+        this.encodeTimer = operationTimer(meterRegistry, "encode");
+        this.matchesTimer = operationTimer(meterRegistry, "matches");
+        this.queueWaitTimer = Timer.builder("password.hashing.queue.wait")
+                .description("Time a password hashing task waits for a worker thread")
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("password.hashing.rejected")
+                .description("Password hashing requests rejected because the pool was saturated")
+                .register(meterRegistry);
+        Gauge.builder("password.hashing.queue.size", executor, e -> e.getQueue().size())
+                .register(meterRegistry);
+        Gauge.builder("password.hashing.active", executor, ThreadPoolExecutor::getActiveCount)
+                .register(meterRegistry);
+        Gauge.builder("password.hashing.strength", this, engine -> engine.strength)
+                .register(meterRegistry);
+
+        log.info("密码哈希引擎已启动：bcrypt 强度 {}，线程数 {}，队列容量 {}", strength, poolSize, queueCapacity);
+    }
+
+    /**
+     * 在哈希线程池中计算密码哈希
+     *
+     * @throws PasswordHashingBusyException 线程池已满或等待超时
+     */
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return submit(encodeTimer, () -> encoder.encode(rawPassword));
+    }
+
+    /**
+     * 在哈希线程池中验证密码
+     *
+     * @throws PasswordHashingBusyException 线程池已满或等待超时
+     */
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return submit(matchesTimer, () -> encoder.matches(rawPassword, encodedPassword));
+    }
+
+    /**
+     * 哈希强度低于当前校准值时返回 true，调用方应在验证成功后用明文重新哈希
+     */
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return encodedPassword != null && encoder.upgradeEncoding(encodedPassword);
+    }
+
+    /**
+     * 在调用线程上计算密码哈希
+     * 供批量导入等已有独立有界线程池的批处理使用，不占用交互请求的哈希线程池
+     */
+    public String encodeOnCallerThread(CharSequence rawPassword) {
+        return encodeTimer.record(() -> encoder.encode(rawPassword));
+    }
+
+    /**
+     * 当前 bcrypt 强度
+     */
+    public int getStrength() {
+        return strength;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private <T> T submit(Timer timer, Callable<T> operation) {
+        long submittedAt = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                queueWaitTimer.record(System.nanoTime() - submittedAt, TimeUnit.NANOSECONDS);
+                return timer.recordCallable(operation);
+            });
+        } catch (RejectedExecutionException e) {
+            rejectedCounter.increment();
+            throw new PasswordHashingBusyException("服务繁忙，请稍后重试");
+        }
+
+        try {
+            return future.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            rejectedCounter.increment();
+            throw new PasswordHashingBusyException("服务繁忙，请稍后重试");
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new PasswordHashingBusyException("密码哈希被中断");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("密码哈希失败", cause);
+        }
+    }
+
+    private static Timer operationTimer(MeterRegistry meterRegistry, String operation) {
+        return Timer.builder("password.hashing")
+                .description("Time to compute a bcrypt hash or verification")
+                .tag("operation", operation)
+                .register(meterRegistry);
+    }
+
+    /**
+     * 校准 bcrypt 强度：测量强度 10 的耗时中位数，强度每加 1 耗时翻倍，取最接近目标耗时的强度
+     */
+    private static int calibrate(Duration target, int minStrength, int maxStrength) {
+        BCryptPasswordEncoder probe = new BCryptPasswordEncoder(CALIBRATION_STRENGTH);
+        probe.encode("calibration");
+        long[] samples = new long[CALIBRATION_ROUNDS];
+        for (int i = 0; i < samples.length; i++) {
+            long started = System.nanoTime();
+            probe.encode("calibration");
+            samples[i] = System.nanoTime() - started;
+        }
+        Arrays.sort(samples);
+        long measured = Math.max(1, samples[samples.length / 2]);
+
+        double doublings = Math.log((double) target.toNanos() / measured) / Math.log(2);
+        int strength = CALIBRATION_STRENGTH + (int) Math.round(doublings);
+        strength = Math.max(minStrength, Math.min(maxStrength, strength));
+        log.info("bcrypt 强度校准：强度 {} 耗时 {} ms，目标 {} ms，选用强度 {}", CALIBRATION_STRENGTH,
+                TimeUnit.NANOSECONDS.toMillis(measured), target.toMillis(), strength);
+        return strength;
+    }
+}
@@ -0,0 +1,302 @@
+package com.wanli.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Redis 刷新令牌存储
+ * 刷新令牌格式为 "用户ID.随机串"，Redis 中只保存随机串的 SHA-256 摘要：
+ * <ul>
+ *     <li>auth:refresh:{userId}:摘要 —— 字符串，值为 "角色|用户名"，带 TTL</li>
+ *     <li>auth:refresh:{userId}:tokens —— 有序集合，成员为该用户的令牌摘要，分值为过期时间</li>
+ * </ul>
+ * 同一用户的键共享 {userId} 哈希标签，在集群中落在同一槽位，因此签发、轮换、吊销都能以单个 Lua 脚本原子完成，
+ * 每次操作只需一次 Redis 往返，且不访问数据库。
+ * 令牌键依靠 TTL 自动过期；有序集合在每次写入时顺带裁剪已过期成员并续期，无需扫描。
+ *
+ * 每次刷新都会轮换令牌，旧令牌留下一个"已轮换"标记直到原过期时间；
+ * 已轮换的令牌再次出现说明令牌可能被盗用，此时吊销该用户的全部刷新令牌。
+ * 新令牌沿用旧令牌的剩余有效期而不是重新计时，整条轮换链在登录后 jwt.refresh-expiration 内结束，
+ * 令牌中携带的角色最迟到那时随重新登录从数据库刷新。
+ *
+ * @author JamesWu
+ * @since 1.0.0
+ */
+@Component
+public class RefreshTokenStore {
+
+    private static final String KEY_PREFIX = "auth:refresh:";
+    private static final String TOKENS_SUFFIX = "tokens";
+    private static final String ROTATED_MARKER = "!rotated";
+    private static final char VALUE_SEPARATOR = '|';
+
+    private static final int TOKEN_BYTES = 32;
+    private static final int MAX_USER_ID_LENGTH = 64;
+
+    /**
+     * KEYS[1] 令牌键，KEYS[2] 用户令牌集合；ARGV[1] 摘要，ARGV[2] 值，ARGV[3] TTL 毫秒，ARGV[4] 当前时间毫秒
+     */
+    private static final RedisScript<Long> ISSUE_SCRIPT = new DefaultRedisScript<>("""
+            redis.call('SET', KEYS[1], ARGV[2], 'PX', ARGV[3])
+            redis.call('ZADD', KEYS[2], tonumber(ARGV[4]) + tonumber(ARGV[3]), ARGV[1])
+            redis.call('ZREMRANGEBYSCORE', KEYS[2], '-inf', ARGV[4])
+            redis.call('PEXPIRE', KEYS[2], ARGV[3])
+            return 1
+            """, Long.class);
+
+    /**
+     * KEYS[1] 旧令牌键，KEYS[2] 用户令牌集合，KEYS[3] 新令牌键；
+     * ARGV[1] 旧摘要，ARGV[2] 新摘要，ARGV[3] 令牌集合 TTL 毫秒，ARGV[4] 当前时间毫秒，ARGV[5] 令牌键前缀
+     * 新令牌继承旧令牌的剩余 TTL；返回 "剩余毫秒|旧令牌的值"；令牌不存在返回 nil；令牌已被轮换过则吊销全部令牌并返回标记
+     */
+    private static final RedisScript<String> ROTATE_SCRIPT = new DefaultRedisScript<>("""
+            local value = redis.call('GET', KEYS[1])
+            if not value then
+                return false
+            end
+            if value == '%1$s' then
+                local members = redis.call('ZRANGE', KEYS[2], 0, -1)
+                for _, member in ipairs(members) do
+                    redis.call('DEL', ARGV[5] .. member)
+                end
+                redis.call('DEL', KEYS[2])
+                return value
+            end
+            local remaining = redis.call('PTTL', KEYS[1])
+            if remaining <= 0 then
+                redis.call('DEL', KEYS[1])
+                redis.call('ZREM', KEYS[2], ARGV[1])
+                return false
+            end
+            redis.call('SET', KEYS[1], '%1$s', 'PX', remaining)
+            redis.call('ZREM', KEYS[2], ARGV[1])
+            redis.call('SET', KEYS[3], value, 'PX', remaining)
+            redis.call('ZADD', KEYS[2], tonumber(ARGV[4]) + remaining, ARGV[2])
+            redis.call('ZREMRANGEBYSCORE', KEYS[2], '-inf', ARGV[4])
+            redis.call('PEXPIRE', KEYS[2], ARGV[3])
+            return remaining .. '%2$s' .. value
+            """.formatted(ROTATED_MARKER, VALUE_SEPARATOR), String.class);
+
+    /**
+     * KEYS[1] 令牌键，KEYS[2] 用户令牌集合；ARGV[1] 摘要
+     */
+    private static final RedisScript<Long> REVOKE_SCRIPT = new DefaultRedisScript<>("""
+            redis.call('ZREM', KEYS[2], ARGV[1])
+            return redis.call('DEL', KEYS[1])
+            """, Long.class);
+
+    /**
+     * KEYS[1] 用户令牌集合；ARGV[1] 令牌键前缀
+     */
+    private static final RedisScript<Long> REVOKE_ALL_SCRIPT = new DefaultRedisScript<>("""
+            local members = redis.call('ZRANGE', KEYS[1], 0, -1)
+            for _, member in ipairs(members) do
+                redis.call('DEL', ARGV[1] .. member)
+            end
+            redis.call('DEL', KEYS[1])
+            return #members
+            """, Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final Duration ttl;
+    private final SecureRandom random = new SecureRandom();
+
+    private final Counter rotatedCounter;
+    private final Counter invalidCounter;
+    private final Counter reusedCounter;
+
+    public RefreshTokenStore(StringRedisTemplate redisTemplate,
+                             @Value("${jwt.refresh-expiration}") long refreshExpirationMillis,
+                             MeterRegistry meterRegistry) {
+        this.redisTemplate = redisTemplate;
+        this.ttl = Duration.ofMillis(refreshExpirationMillis);
+        this.rotatedCounter = refreshCounter(meterRegistry, "rotated");
+        this.invalidCounter = refreshCounter(meterRegistry, "invalid");
+        this.reusedCounter = refreshCounter(meterRegistry, "reused");
+    }
+
+    /**
+     * 签发刷新令牌
+     *
+     * @param userId 用户ID
+     * @param username 用户名
+     * @param role 角色
+     * @return 刷新令牌
+     */
+    public String issue(String userId, String username, String role) {
+        String secret = newSecret();
+        String digest = digest(secret);
+        redisTemplate.execute(ISSUE_SCRIPT, List.of(tokenKey(userId, digest), tokensKey(userId)),
+                digest, role + VALUE_SEPARATOR + username, Long.toString(ttl.toMillis()),
+                Long.toString(System.currentTimeMillis()));
+        return userId + '.' + secret;
+    }
+
+    /**
+     * 使用刷新令牌换取新的刷新令牌（旧令牌随即失效）
+     *
+     * @param refreshToken 刷新令牌
+     * @return 轮换结果，令牌无效、已过期或已被使用过时为空
+     */
+    public Optional<Rotation> rotate(String refreshToken) {
+        ParsedToken parsed = parse(refreshToken);
+        if (parsed == null) {
+            invalidCounter.increment();
+            return Optional.empty();
+        }
+
+        String secret = newSecret();
+        String digest = digest(secret);
+        String value = redisTemplate.execute(ROTATE_SCRIPT,
+                List.of(tokenKey(parsed.userId(), parsed.digest()), tokensKey(parsed.userId()),
+                        tokenKey(parsed.userId(), digest)),
+                parsed.digest(), digest, Long.toString(ttl.toMillis()),
+                Long.toString(System.currentTimeMillis()), tokenKeyPrefix(parsed.userId()));
+        if (value == null) {
+            invalidCounter.increment();
+            return Optional.empty();
+        }
+        if (ROTATED_MARKER.equals(value)) {
+            reusedCounter.increment();
+            return Optional.empty();
+        }
+
+        int ttlEnd = value.indexOf(VALUE_SEPARATOR);
+        int separator = value.indexOf(VALUE_SEPARATOR, ttlEnd + 1);
+        rotatedCounter.increment();
+        return Optional.of(new Rotation(parsed.userId(), value.substring(separator + 1),
+                value.substring(ttlEnd + 1, separator), parsed.userId() + '.' + secret,
+                Duration.ofMillis(Long.parseLong(value.substring(0, ttlEnd)))));
+    }
+
+    /**
+     * 吊销单个刷新令牌（退出当前设备）
+     *
+     * @param refreshToken 刷新令牌
+     */
+    public void revoke(String refreshToken) {
+        ParsedToken parsed = parse(refreshToken);
+        if (parsed != null) {
+            redisTemplate.execute(REVOKE_SCRIPT,
+                    List.of(tokenKey(parsed.userId(), parsed.digest()), tokensKey(parsed.userId())),
+                    parsed.digest());
+        }
+    }
+
+    /**
+     * 吊销用户的全部刷新令牌（退出所有设备），一次 Redis 往返
+     *
+     * @param userId 用户ID
+     * @return 吊销的令牌数量
+     */
+    public long revokeAll(String userId) {
+        Long revoked = redisTemplate.execute(REVOKE_ALL_SCRIPT, List.of(tokensKey(userId)), tokenKeyPrefix(userId));
+        return revoked != null ? revoked : 0;
+    }
+
+    /**
+     * 在当前事务提交后吊销用户的全部刷新令牌（无事务时立即执行）
+     *
+     * @param userId 用户ID
+     */
+    public void revokeAllAfterCommit(String userId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    revokeAll(userId);
+                }
+            });
+        } else {
+            revokeAll(userId);
+        }
+    }
+
+    /**
+     * 刷新令牌有效期
+     */
+    public Duration getTtl() {
+        return ttl;
+    }
+
+    private String newSecret() {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        random.nextBytes(bytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    private static ParsedToken parse(String refreshToken) {
+        if (refreshToken == null) {
+            return null;
+        }
+        int separator = refreshToken.lastIndexOf('.');
+        if (separator <= 0 || separator > MAX_USER_ID_LENGTH || separator == refreshToken.length() - 1) {
+            return null;
+        }
+        String userId = refreshToken.substring(0, separator);
+        if (userId.indexOf('{') >= 0 || userId.indexOf('}') >= 0 || userId.indexOf(':') >= 0) {
+            return null;
+        }
+        return new ParsedToken(userId, digest(refreshToken.substring(separator + 1)));
+    }
+
+    private static String tokenKeyPrefix(String userId) {
+        return KEY_PREFIX + "{" + userId + "}:";
+    }
+
+    private static String tokenKey(String userId, String digest) {
+        return tokenKeyPrefix(userId) + digest;
+    }
+
+    private static String tokensKey(String userId) {
+        return tokenKeyPrefix(userId) + TOKENS_SUFFIX;
+    }
+
+    private static String digest(String secret) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(sha256.digest(secret.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Counter refreshCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("auth.refresh")
+                .description("Refresh token rotations by outcome")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private record ParsedToken(String userId, String digest) {
+    }
+
+    /**
+     * 令牌轮换结果
+     *
+     * @param userId 用户ID
+     * @param username 用户名
+     * @param role 角色
+     * @param refreshToken 新的刷新令牌
+     * @param ttl 新刷新令牌的剩余有效期（沿用登录时签发的令牌的过期时间）
+     */
+    public record Rotation(String userId, String username, String role, String refreshToken, Duration ttl) {
+    }
+}
@@ -0,0 +1,130 @@
+package com.wanli.service;
+
+import com.wanli.dto.LoginResponseDto;
+import com.wanli.entity.User;
+import com.wanli.repository.UserRepository;
+import com.wanli.security.JwtTokenProvider;
+import com.wanli.security.PasswordHashingBusyException;
+import com.wanli.security.RefreshTokenStore;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * 认证服务类
+ * 提供登录、访问令牌签发以及刷新令牌的轮换与吊销；刷新与退出只访问 Redis，不访问数据库
+ * 
+ * @author JamesWu
+ * @since 1.0.0
+ */
+@Service
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class AuthService {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private JwtTokenProvider jwtTokenProvider;
+
+    @Autowired
+    private RefreshTokenStore refreshTokenStore;
+
+    /**
+     * 用户不存在时参与比对的哈希，使两种失败情况的耗时一致，避免通过响应时间探测用户名
+     */
+    private volatile String dummyPasswordHash;
+
+    /**
+     * 用户登录
+     * 
+     * @param login 用户名或邮箱
+     * @param password 密码
+     * @return 访问令牌、刷新令牌与用户信息
+     * @throws PasswordHashingBusyException 密码哈希线程池已满
+     */
+    public LoginResponseDto login(String login, String password) {
+        // 不用 findByUsernameOrEmail：某用户的用户名恰好等于另一用户的邮箱时会匹配两行并抛出异常。
+        // 含 @ 时优先按邮箱查找，查不到再按用户名兜底（用户名未禁止 @）
+        Optional<User> userOpt = login.indexOf('@') >= 0
+                ? userRepository.findByEmail(login).or(() -> userRepository.findByUsername(login))
+                : userRepository.findByUsername(login);
+        if (!userOpt.isPresent()) {
+            passwordEncoder.matches(password, dummyPasswordHash());
+            throw new RuntimeException("用户名或密码错误");
+        }
+        
+        User user = userOpt.get();
+        if (!userService.checkPassword(user, password)) {
+            throw new RuntimeException("用户名或密码错误");
+        }
+        if (user.getStatus() != User.UserStatus.ACTIVE) {
+            throw new RuntimeException("账号已停用");
+        }
+        
+        userService.updateLastLoginTime(user.getId());
+        
+        String role = user.getRole().name();
+        String token = jwtTokenProvider.createToken(user.getId(), user.getUsername(), role);
+        String refreshToken = refreshTokenStore.issue(user.getId(), user.getUsername(), role);
+        LoginResponseDto.UserInfoDto userInfo = new LoginResponseDto.UserInfoDto(
+                user.getId(), user.getUsername(), user.getEmail(), role);
+        return new LoginResponseDto(token, userInfo, jwtTokenProvider.getExpiration().toSeconds(),
+                refreshToken, refreshTokenStore.getTtl().toSeconds());
+    }
+
+    /**
+     * 刷新访问令牌
+     * 刷新令牌每次使用后即轮换，用户名与角色取自刷新令牌记录，整个过程只有一次 Redis 往返
+     * 
+     * @param refreshToken 刷新令牌
+     * @return 新的访问令牌与刷新令牌（不含用户信息）
+     */
+    public LoginResponseDto refresh(String refreshToken) {
+        RefreshTokenStore.Rotation rotation = refreshTokenStore.rotate(refreshToken)
+                .orElseThrow(() -> new RuntimeException("刷新令牌无效或已过期"));
+        
+        String token = jwtTokenProvider.createToken(rotation.userId(), rotation.username(), rotation.role());
+        return new LoginResponseDto(token, null, jwtTokenProvider.getExpiration().toSeconds(),
+                rotation.refreshToken(), rotation.ttl().toSeconds());
+    }
+
+    /**
+     * 退出当前设备（吊销刷新令牌，已签发的访问令牌在过期前仍然有效）
+     * 
+     * @param refreshToken 刷新令牌
+     */
+    public void logout(String refreshToken) {
+        refreshTokenStore.revoke(refreshToken);
+    }
+
+    /**
+     * 退出所有设备
+     * 
+     * @param userId 用户ID
+     * @return 吊销的刷新令牌数量
+     */
+    public long logoutAll(String userId) {
+        return refreshTokenStore.revokeAll(userId);
+    }
+
+    private String dummyPasswordHash() {
+        String hash = dummyPasswordHash;
+        if (hash == null) {
+            hash = passwordEncoder.encode(UUID.randomUUID().toString());
+            dummyPasswordHash = hash;
+        }
+        return hash;
+    }
+}
@@ -0,0 +1,234 @@
+package com.wanli.service;
+
+import com.wanli.cache.UserNearCache;
+import com.wanli.dto.UserView;
+import com.wanli.entity.User;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 最后登录时间写缓冲
+ * 登录时只在内存中按用户ID合并最后登录时间，定时以批量 JDBC UPDATE 写回数据库，
+ * 避免每次登录都对热点行执行一次查询和一次更新。
+ *
+ * 缓冲中的条目数达到 app.last-login.max-buffer-size 时通知后台线程提前刷新，登录线程从不等待数据库；
+ * 数据库不可用时缓冲最多保留 app.last-login.max-pending 个用户，超出后新用户的登录时间直接丢弃并计数，
+ * 已在缓冲中的用户仍然合并。应用正常关闭时刷新剩余条目，进程崩溃时最多丢失一个刷新周期内的登录时间。
+ *
+ * @author JamesWu
+ * @since 1.0.0
+ */
+@Component
+public class LastLoginBuffer {
+
+    private static final Logger log = LoggerFactory.getLogger(LastLoginBuffer.class);
+
+    /**
+     * 只前移不回退：乱序到达的旧时间不会覆盖较新的登录时间
+     */
+    private static final String UPDATE_LAST_LOGIN = "UPDATE users SET last_login_at = ?, updated_at = ? "
+            + "WHERE id = ? AND (last_login_at IS NULL OR last_login_at < ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final UserNearCache userNearCache;
+
+    private final ConcurrentHashMap<String, LocalDateTime> pending = new ConcurrentHashMap<>();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final AtomicBoolean earlyFlushRequested = new AtomicBoolean();
+    private final ExecutorService earlyFlushExecutor;
+
+    /**
+     * 上次刷新是否失败；失败期间不再提前刷新，由定时任务按周期重试
+     */
+    private volatile boolean lastFlushFailed;
+
+    private final Timer flushTimer;
+    private final Counter flushedCounter;
+    private final Counter droppedCounter;
+
+    @Value("${app.last-login.max-buffer-size:10000}")
+    private int maxBufferSize;
+
+    @Value("${app.last-login.max-pending:100000}")
+    private int maxPending;
+
+    @Value("${app.last-login.batch-size:500}")
+    private int batchSize;
+
+    public LastLoginBuffer(JdbcTemplate jdbcTemplate,
+                           PlatformTransactionManager transactionManager,
+                           UserNearCache userNearCache,
+                           MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.userNearCache = userNearCache;
+        this.flushTimer = Timer.builder("user.last.login.flush")
+                .description("Time to write buffered last-login timestamps to the database")
+                .register(meterRegistry);
+        this.flushedCounter = Counter.builder("user.last.login.flushed")
+                .description("Number of buffered last-login timestamps written to the database")
+                .register(meterRegistry);
+        this.droppedCounter = Counter.builder("user.last.login.dropped")
+                .description("Last-login timestamps dropped because the buffer reached max-pending")
+                .register(meterRegistry);
+        this.earlyFlushExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "last-login-flush");
+            thread.setDaemon(true);
+            return thread;
+        });
+        Gauge.builder("user.last.login.pending", pending, Map::size)
+                .description("Number of users with a buffered last-login timestamp")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 记录登录时间
+     *
+     * @param id 用户ID
+     * @param loginAt 登录时间
+     */
+    public void record(String id, LocalDateTime loginAt) {
+        if (pending.size() >= maxPending && !pending.containsKey(id)) {
+            droppedCounter.increment();
+            return;
+        }
+        pending.merge(id, loginAt, (current, next) -> next.isAfter(current) ? next : current);
+        if (pending.size() >= maxBufferSize && !lastFlushFailed && earlyFlushRequested.compareAndSet(false, true)) {
+            earlyFlushExecutor.execute(() -> {
+                earlyFlushRequested.set(false);
+                flush();
+            });
+        }
+    }
+
+    /**
+     * 缓冲中的最后登录时间
+     *
+     * @param id 用户ID
+     * @return 尚未写回数据库的最后登录时间，没有时为 null
+     */
+    public LocalDateTime get(String id) {
+        return pending.get(id);
+    }
+
+    /**
+     * 用缓冲中的最后登录时间覆盖用户对象上的值
+     *
+     * @param user 用户（调用方持有的副本，或只读事务中的实体）
+     * @return 同一个用户对象
+     */
+    public User overlay(User user) {
+        LocalDateTime buffered = pending.get(user.getId());
+        if (buffered != null && (user.getLastLoginAt() == null || buffered.isAfter(user.getLastLoginAt()))) {
+            user.setLastLoginAt(buffered);
+        }
+        return user;
+    }
+
+    /**
+     * 用缓冲中的最后登录时间覆盖用户视图上的值
+     *
+     * @param user 用户视图
+     * @return 覆盖后的视图，无需覆盖时返回原对象
+     */
+    public UserView overlay(UserView user) {
+        LocalDateTime buffered = pending.get(user.id());
+        if (buffered != null && (user.lastLoginAt() == null || buffered.isAfter(user.lastLoginAt()))) {
+            return user.withLastLoginAt(buffered);
+        }
+        return user;
+    }
+
+    /**
+     * 将缓冲写回数据库
+     * 每批在独立事务中执行，提交后失效对应用户的缓存；写入失败的条目保留到下次刷新
+     */
+    @Scheduled(fixedDelayString = "${app.last-login.flush-interval-ms:5000}")
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        flushLock.lock();
+        try {
+            flushTimer.record(this::flushPending);
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * 应用关闭时写回剩余的登录时间
+     */
+    @PreDestroy
+    public void flushOnShutdown() {
+        earlyFlushExecutor.shutdown();
+        flush();
+        if (!pending.isEmpty()) {
+            log.warn("应用关闭时仍有 {} 条最后登录时间未能写回", pending.size());
+        }
+    }
+
+    private void flushPending() {
+        List<Map.Entry<String, LocalDateTime>> batch = new ArrayList<>(batchSize);
+        for (Map.Entry<String, LocalDateTime> entry : pending.entrySet()) {
+            batch.add(Map.entry(entry.getKey(), entry.getValue()));
+            if (batch.size() == batchSize) {
+                if (!writeBatch(batch)) {
+                    lastFlushFailed = true;
+                    return;
+                }
+                batch = new ArrayList<>(batchSize);
+            }
+        }
+        lastFlushFailed = !batch.isEmpty() && !writeBatch(batch);
+    }
+
+    private boolean writeBatch(List<Map.Entry<String, LocalDateTime>> batch) {
+        List<Object[]> args = new ArrayList<>(batch.size());
+        List<String> ids = new ArrayList<>(batch.size());
+        for (Map.Entry<String, LocalDateTime> entry : batch) {
+            Timestamp loginAt = Timestamp.valueOf(entry.getValue());
+            args.add(new Object[]{loginAt, loginAt, entry.getKey(), loginAt});
+            ids.add(entry.getKey());
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.batchUpdate(UPDATE_LAST_LOGIN, args);
+                userNearCache.invalidateAfterCommit(ids);
+            });
+        } catch (DataAccessException e) {
+            log.warn("最后登录时间写回失败，{} 条将在下次刷新时重试: {}", batch.size(), e.getMessage());
+            return false;
+        }
+        for (Map.Entry<String, LocalDateTime> entry : batch) {
+            // 刷新期间又有新的登录时，保留较新的值等待下次刷新
+            pending.remove(entry.getKey(), entry.getValue());
+        }
+        flushedCounter.increment(batch.size());
+        return true;
+    }
+}
@@ -1,15 +1,32 @@
 package com.wanli.service;
 
+import com.wanli.cache.UserExistenceFilter;
+import com.wanli.cache.UserNearCache;
+import com.wanli.dto.UserCursor;
+import com.wanli.dto.UserView;
 import com.wanli.entity.User;
+import com.wanli.mail.MailQueue;
+import com.wanli.outbox.UserEventType;
+import com.wanli.outbox.UserOutbox;
 import com.wanli.repository.UserRepository;
+import com.wanli.search.UserSearchIndex;
+import com.wanli.security.EmailVerificationTokens;
+import com.wanli.security.PasswordHashingBusyException;
+import com.wanli.security.RefreshTokenStore;
+import com.wanli.stats.UserStatisticsCounter;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -30,20 +47,54 @@ public class UserService {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private UserNearCache userNearCache;
+
+    @Autowired
+    private UserExistenceFilter userExistenceFilter;
+
+    @Autowired
+    private UserSearchIndex userSearchIndex;
+
+    @Autowired
+    private UserStatisticsCounter userStatisticsCounter;
+
+    @Autowired
+    private LastLoginBuffer lastLoginBuffer;
+
+    @Autowired
+    private RefreshTokenStore refreshTokenStore;
+
+    @Autowired
+    private UserOutbox userOutbox;
+
+    @Autowired
+    private MailQueue mailQueue;
+
+    @Autowired
+    private EmailVerificationTokens emailVerificationTokens;
+
     /**
      * 创建新用户
+     * 密码哈希在事务之外计算，哈希期间不占用数据库连接；
+     * 验证邮件在同一事务内写入邮件队列，由 MailDispatcher 在后台发送，注册不等待 SMTP
      * 
      * @param user 用户信息
      * @return 创建的用户
+     * @throws PasswordHashingBusyException 密码哈希线程池已满
      */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public User createUser(User user) {
         // 检查用户名是否已存在
-        if (userRepository.existsByUsername(user.getUsername())) {
+        if (existsByUsername(user.getUsername())) {
             throw new RuntimeException("用户名已存在");
         }
         
         // 检查邮箱是否已存在
-        if (userRepository.existsByEmail(user.getEmail())) {
+        if (existsByEmail(user.getEmail())) {
             throw new RuntimeException("邮箱已存在");
         }
         
@@ -51,45 +102,62 @@ public class UserService {
         user.setId(UUID.randomUUID().toString());
         user.setPasswordHash(passwordEncoder.encode(user.getPasswordHash()));
         user.setStatus(User.UserStatus.ACTIVE);
+        // 注册请求体中的角色一律忽略
+        user.setRole(User.UserRole.USER);
         user.setEmailVerified(false);
         user.setPhoneVerified(false);
         user.setCreatedAt(LocalDateTime.now());
         user.setUpdatedAt(LocalDateTime.now());
         
-        return userRepository.save(user);
+        return transactionTemplate.execute(status -> {
+            User savedUser = userRepository.save(user);
+            userExistenceFilter.add(savedUser);
+            userSearchIndex.index(savedUser);
+            userStatisticsCounter.recordCreated(savedUser.getStatus());
+            userOutbox.append(UserEventType.CREATED, savedUser);
+            mailQueue.enqueueVerification(savedUser);
+            return savedUser;
+        });
     }
 
     /**
      * 根据ID查询用户
+     * 经由近端缓存查询，缓存命中时不开启事务、不占用数据库连接；
+     * 返回的用户不包含密码哈希
      * 
      * @param id 用户ID
      * @return 用户信息
      */
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public Optional<User> findById(String id) {
-        return userRepository.findById(id);
+        return userNearCache.getById(id, () -> userRepository.findById(id))
+                .map(lastLoginBuffer::overlay);
     }
 
     /**
      * 根据用户名查询用户
+     * 经由近端缓存查询，返回的用户不包含密码哈希
      * 
      * @param username 用户名
      * @return 用户信息
      */
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public Optional<User> findByUsername(String username) {
-        return userRepository.findByUsername(username);
+        return userNearCache.getByUsername(username, () -> userRepository.findByUsername(username))
+                .map(lastLoginBuffer::overlay);
     }
 
     /**
      * 根据邮箱查询用户
+     * 经由近端缓存查询，返回的用户不包含密码哈希
      * 
      * @param email 邮箱
      * @return 用户信息
      */
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public Optional<User> findByEmail(String email) {
-        return userRepository.findByEmail(email);
+        return userNearCache.getByEmail(email, () -> userRepository.findByEmail(email))
+                .map(lastLoginBuffer::overlay);
     }
 
     /**
@@ -100,7 +168,9 @@ public class UserService {
      */
     @Transactional(readOnly = true)
     public Page<User> findAll(Pageable pageable) {
-        return userRepository.findAll(pageable);
+        Page<User> page = userRepository.findAll(pageable);
+        page.forEach(lastLoginBuffer::overlay);
+        return page;
     }
 
     /**
@@ -112,7 +182,66 @@ public class UserService {
      */
     @Transactional(readOnly = true)
     public Page<User> findByStatus(User.UserStatus status, Pageable pageable) {
-        return userRepository.findByStatus(status, pageable);
+        Page<User> page = userRepository.findByStatus(status, pageable);
+        page.forEach(lastLoginBuffer::overlay);
+        return page;
+    }
+
+    /**
+     * 分页查询用户视图（列表接口使用，不加载实体与密码哈希）
+     * 
+     * @param pageable 分页参数
+     * @return 用户视图分页列表
+     */
+    @Transactional(readOnly = true)
+    public Page<UserView> findViews(Pageable pageable) {
+        return userRepository.findViews(pageable).map(lastLoginBuffer::overlay);
+    }
+
+    /**
+     * 根据状态分页查询用户视图（列表接口使用，不加载实体与密码哈希）
+     * 
+     * @param status 用户状态
+     * @param pageable 分页参数
+     * @return 用户视图分页列表
+     */
+    @Transactional(readOnly = true)
+    public Page<UserView> findViewsByStatus(User.UserStatus status, Pageable pageable) {
+        return userRepository.findViewsByStatus(status, pageable).map(lastLoginBuffer::overlay);
+    }
+
+    /**
+     * 按关键字搜索用户（用户名、邮箱、全名）
+     * 两个字符及以上的关键字走 n-gram 倒排索引，按相关度排序；单字符关键字回退到模糊查询。
+     * 两条路径都不加载实体与密码哈希
+     * 
+     * @param keyword 关键字
+     * @param pageable 分页参数
+     * @return 用户视图分页列表
+     */
+    @Transactional(readOnly = true)
+    public Page<UserView> search(String keyword, Pageable pageable) {
+        Page<UserView> page = userSearchIndex.supports(keyword)
+                ? userSearchIndex.search(keyword, pageable).map(UserView::from)
+                : userRepository.findViewsByKeyword(keyword, pageable);
+        return page.map(lastLoginBuffer::overlay);
+    }
+
+    /**
+     * 游标分页查询用户列表（不执行 COUNT 查询，深度翻页耗时不随页数增长）
+     * 返回数据库中的最后登录时间，不叠加尚未写回的登录时间，保证游标与排序一致
+     * 
+     * @param status 用户状态过滤（可为空）
+     * @param sortBy 排序字段
+     * @param direction 排序方向
+     * @param after 上一页返回的游标，首页为空
+     * @param size 每页大小
+     * @return 用户视图分片
+     */
+    @Transactional(readOnly = true)
+    public Slice<UserView> findSliceAfter(User.UserStatus status, String sortBy, Sort.Direction direction,
+                                          UserCursor after, int size) {
+        return userRepository.findSliceAfter(status, sortBy, direction, after, size);
     }
 
     /**
@@ -134,8 +263,8 @@ public class UserService {
         if (user.getFullName() != null) {
             existingUser.setFullName(user.getFullName());
         }
-        if (user.getPhoneNumber() != null) {
-            existingUser.setPhoneNumber(user.getPhoneNumber());
+        if (user.getPhone() != null) {
+            existingUser.setPhone(user.getPhone());
         }
         if (user.getAvatarUrl() != null) {
             existingUser.setAvatarUrl(user.getAvatarUrl());
@@ -143,17 +272,25 @@ public class UserService {
         
         existingUser.setUpdatedAt(LocalDateTime.now());
         
-        return userRepository.save(existingUser);
+        // 先刷出 UPDATE 持有行锁再写词元，与索引重建的加锁顺序一致
+        User savedUser = userRepository.saveAndFlush(existingUser);
+        userSearchIndex.index(savedUser);
+        userNearCache.invalidateAfterCommit(id);
+        userOutbox.append(UserEventType.UPDATED, savedUser);
+        return savedUser;
     }
 
     /**
      * 更新用户密码
+     * 密码验证与哈希在事务之外执行，最后以一条带旧哈希校验的 UPDATE 写入
      * 
      * @param id 用户ID
      * @param oldPassword 旧密码
      * @param newPassword 新密码
      * @return 是否更新成功
+     * @throws PasswordHashingBusyException 密码哈希线程池已满
      */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public boolean updatePassword(String id, String oldPassword, String newPassword) {
         Optional<User> userOpt = userRepository.findById(id);
         if (!userOpt.isPresent()) {
@@ -168,84 +305,119 @@ public class UserService {
         }
         
         // 更新密码
-        user.setPasswordHash(passwordEncoder.encode(newPassword));
-        user.setUpdatedAt(LocalDateTime.now());
+        String newHash = passwordEncoder.encode(newPassword);
+        if (userRepository.updatePasswordHash(id, user.getPasswordHash(), newHash, LocalDateTime.now()) == 0) {
+            throw new RuntimeException("密码已被修改，请重试");
+        }
+        userNearCache.invalidateAfterCommit(id);
+        refreshTokenStore.revokeAllAfterCommit(id);
+        return true;
+    }
+
+    /**
+     * 验证用户密码
+     * 验证成功且哈希强度低于当前配置时，顺带用明文重新哈希并写回（哈希升级失败不影响验证结果）
+     * 
+     * @param user 用户（须包含密码哈希，应直接从 UserRepository 读取）
+     * @param rawPassword 明文密码
+     * @return 密码是否正确
+     * @throws PasswordHashingBusyException 密码哈希线程池已满
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public boolean checkPassword(User user, String rawPassword) {
+        String currentHash = user.getPasswordHash();
+        if (currentHash == null || !passwordEncoder.matches(rawPassword, currentHash)) {
+            return false;
+        }
         
-        userRepository.save(user);
+        if (passwordEncoder.upgradeEncoding(currentHash)) {
+            try {
+                String upgradedHash = passwordEncoder.encode(rawPassword);
+                if (userRepository.updatePasswordHash(user.getId(), currentHash, upgradedHash, null) > 0) {
+                    user.setPasswordHash(upgradedHash);
+                    // 登录经由查询缓存与 users 二级缓存读取用户，不失效则旧哈希会一直被读到
+                    userNearCache.invalidateAfterCommit(user.getId());
+                }
+            } catch (PasswordHashingBusyException e) {
+                // 下次登录时再升级
+            }
+        }
         return true;
     }
 
     /**
      * 更新用户状态
+     * 以缓存中的用户作为前像，执行一条带状态校验的 UPDATE，不加载实体
      * 
      * @param id 用户ID
      * @param status 新状态
-     * @return 更新后的用户信息
+     * @return 更新后的用户信息（不含密码哈希）
      */
     public User updateUserStatus(String id, User.UserStatus status) {
-        Optional<User> userOpt = userRepository.findById(id);
-        if (!userOpt.isPresent()) {
-            throw new RuntimeException("用户不存在");
-        }
-        
-        User user = userOpt.get();
-        user.setStatus(status);
-        user.setUpdatedAt(LocalDateTime.now());
-        
-        return userRepository.save(user);
+        return changeStatus(id, status);
     }
 
     /**
      * 验证邮箱
      * 
      * @param id 用户ID
-     * @return 更新后的用户信息
+     * @return 更新后的用户信息（不含密码哈希）
      */
     public User verifyEmail(String id) {
-        Optional<User> userOpt = userRepository.findById(id);
-        if (!userOpt.isPresent()) {
+        User user = findById(id).orElseThrow(() -> new RuntimeException("用户不存在"));
+        LocalDateTime now = LocalDateTime.now();
+        if (userRepository.markEmailVerified(id, now) == 0) {
             throw new RuntimeException("用户不存在");
         }
+        userNearCache.invalidateAfterCommit(id);
         
-        User user = userOpt.get();
         user.setEmailVerified(true);
-        user.setUpdatedAt(LocalDateTime.now());
-        
-        return userRepository.save(user);
+        user.setUpdatedAt(now);
+        userOutbox.append(UserEventType.EMAIL_VERIFIED, user);
+        return user;
+    }
+
+    /**
+     * 通过验证邮件中的令牌验证邮箱
+     * 令牌只校验签名与有效期，不查询数据库
+     * 
+     * @param token 邮箱验证令牌
+     * @return 更新后的用户信息（不含密码哈希）
+     */
+    public User verifyEmailByToken(String token) {
+        return verifyEmail(emailVerificationTokens.verify(token));
     }
 
     /**
      * 验证手机号
      * 
      * @param id 用户ID
-     * @return 更新后的用户信息
+     * @return 更新后的用户信息（不含密码哈希）
      */
     public User verifyPhone(String id) {
-        Optional<User> userOpt = userRepository.findById(id);
-        if (!userOpt.isPresent()) {
+        User user = findById(id).orElseThrow(() -> new RuntimeException("用户不存在"));
+        LocalDateTime now = LocalDateTime.now();
+        if (userRepository.markPhoneVerified(id, now) == 0) {
             throw new RuntimeException("用户不存在");
         }
+        userNearCache.invalidateAfterCommit(id);
         
-        User user = userOpt.get();
         user.setPhoneVerified(true);
-        user.setUpdatedAt(LocalDateTime.now());
-        
-        return userRepository.save(user);
+        user.setUpdatedAt(now);
+        userOutbox.append(UserEventType.PHONE_VERIFIED, user);
+        return user;
     }
 
     /**
      * 更新最后登录时间
+     * 只写入内存缓冲，由 LastLoginBuffer 定时批量写回数据库；
+     * 通过本服务读取用户时可立即看到缓冲中的登录时间
      * 
      * @param id 用户ID
      */
+    @Transactional(propagation = Propagation.SUPPORTS)
     public void updateLastLoginTime(String id) {
-        Optional<User> userOpt = userRepository.findById(id);
-        if (userOpt.isPresent()) {
-            User user = userOpt.get();
-            user.setLastLoginAt(LocalDateTime.now());
-            user.setUpdatedAt(LocalDateTime.now());
-            userRepository.save(user);
-        }
+        lastLoginBuffer.record(id, LocalDateTime.now());
     }
 
     /**
@@ -254,58 +426,100 @@ public class UserService {
      * @param id 用户ID
      */
     public void deleteUser(String id) {
-        Optional<User> userOpt = userRepository.findById(id);
-        if (!userOpt.isPresent()) {
-            throw new RuntimeException("用户不存在");
-        }
-        
-        User user = userOpt.get();
-        user.setStatus(User.UserStatus.DELETED);
-        user.setUpdatedAt(LocalDateTime.now());
-        
-        userRepository.save(user);
+        changeStatus(id, User.UserStatus.DELETED);
     }
 
     /**
      * 检查用户名是否存在
+     * 布隆过滤器判定一定不存在时直接返回，不查询数据库
      * 
      * @param username 用户名
      * @return 是否存在
      */
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public boolean existsByUsername(String username) {
+        if (!userExistenceFilter.mightContainUsername(username)) {
+            return false;
+        }
         return userRepository.existsByUsername(username);
     }
 
     /**
      * 检查邮箱是否存在
+     * 布隆过滤器判定一定不存在时直接返回，不查询数据库
      * 
      * @param email 邮箱
      * @return 是否存在
      */
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public boolean existsByEmail(String email) {
+        if (!userExistenceFilter.mightContainEmail(email)) {
+            return false;
+        }
         return userRepository.existsByEmail(email);
     }
 
     /**
      * 统计用户总数
+     * 由增量计数器提供，不查询数据库
      * 
      * @return 用户总数
      */
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public long countUsers() {
-        return userRepository.count();
+        long total = 0;
+        for (long count : userStatisticsCounter.counts().values()) {
+            total += count;
+        }
+        return total;
     }
 
     /**
      * 根据状态统计用户数量
+     * 由增量计数器提供，不查询数据库
      * 
      * @param status 用户状态
      * @return 用户数量
      */
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public long countByStatus(User.UserStatus status) {
-        return userRepository.countByStatus(status);
+        return userStatisticsCounter.counts().get(status);
+    }
+
+    /**
+     * 统计各状态的用户数量
+     * 由增量计数器提供，不查询数据库；各状态数量取自同一快照
+     * 
+     * @return 状态到用户数量的映射
+     */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public Map<User.UserStatus, Long> countAllByStatus() {
+        return userStatisticsCounter.counts();
+    }
+
+    /**
+     * 单条 UPDATE 修改用户状态
+     * 缓存中的状态已过期（并发修改）时 UPDATE 不会命中，此时锁定该行读取当前状态后重试
+     */
+    private User changeStatus(String id, User.UserStatus status) {
+        User user = findById(id).orElseThrow(() -> new RuntimeException("用户不存在"));
+        User.UserStatus previousStatus = user.getStatus();
+        LocalDateTime now = LocalDateTime.now();
+        
+        if (userRepository.updateStatus(id, previousStatus, status, now) == 0) {
+            previousStatus = userRepository.lockStatus(id)
+                    .orElseThrow(() -> new RuntimeException("用户不存在"));
+            userRepository.updateStatus(id, previousStatus, status, now);
+        }
+        userStatisticsCounter.recordTransition(previousStatus, status);
+        userNearCache.invalidateAfterCommit(id);
+        if (status != User.UserStatus.ACTIVE) {
+            refreshTokenStore.revokeAllAfterCommit(id);
+        }
+        
+        user.setStatus(status);
+        user.setUpdatedAt(now);
+        userOutbox.append(status == User.UserStatus.DELETED ? UserEventType.DELETED : UserEventType.STATUS_CHANGED, user);
+        return user;
     }
-}
\ No newline at end of file
+}
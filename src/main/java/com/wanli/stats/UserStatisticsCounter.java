@@ -0,0 +1,334 @@
+package com.wanli.stats;
+
+import com.wanli.entity.User;
+import com.wanli.lock.RedisLock;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 用户状态计数器
+ * 按用户状态维护用户数量，统计接口无需再执行 COUNT 查询。
+ *
+ * 写操作提交后只在本地 LongAdder 中累加增量，由定时任务每隔 app.statistics.flush-interval-ms
+ * 以一次 pipeline 将增量 HINCRBY 到共享的 Redis 哈希，并顺带读回最新计数作为本地快照；
+ * 读取计数时返回快照加上本节点尚未刷新的增量，不访问 Redis 与数据库。
+ *
+ * 计数可能因进程崩溃丢失未刷新的增量、或因绕过 UserService 的批量 SQL 产生偏差，
+ * 对账任务会定期在分布式锁保护下用一次 GROUP BY 查询校正 Redis 中的计数。
+ *
+ * @author JamesWu
+ * @since 1.0.0
+ */
+@Component
+public class UserStatisticsCounter {
+
+    private static final Logger log = LoggerFactory.getLogger(UserStatisticsCounter.class);
+
+    private static final String COUNTS_KEY = "user:stats:counts";
+
+    /**
+     * 对账写入的标记字段；缺少该字段说明哈希丢失后仅由增量重新创建，计数不可信
+     */
+    private static final String RECONCILED_AT_FIELD = "_reconciledAt";
+
+    private static final String RECONCILE_LOCK = "user-statistics-reconcile";
+    private static final Duration RECONCILE_LOCK_TTL = Duration.ofMinutes(5);
+
+    private static final String COUNT_BY_STATUS = "SELECT status, COUNT(*) FROM users GROUP BY status";
+
+    private final StringRedisTemplate redisTemplate;
+    private final JdbcTemplate jdbcTemplate;
+    private final RedisLock redisLock;
+
+    /**
+     * 本节点已提交但尚未刷新到 Redis 的增量；映射创建后不再修改，可并发读取
+     */
+    private final Map<User.UserStatus, LongAdder> pending = new EnumMap<>(User.UserStatus.class);
+
+    /**
+     * 最近一次从 Redis（或回退时从数据库）读到的计数，尚不可用时为 null
+     */
+    private volatile Map<User.UserStatus, Long> snapshot;
+
+    private volatile LocalDateTime lastReconciledAt;
+
+    private final Timer reconcileTimer;
+    private final Counter driftCounter;
+
+    public UserStatisticsCounter(StringRedisTemplate redisTemplate,
+                                 JdbcTemplate jdbcTemplate,
+                                 RedisLock redisLock,
+                                 MeterRegistry meterRegistry) {
+        this.redisTemplate = redisTemplate;
+        this.jdbcTemplate = jdbcTemplate;
+        this.redisLock = redisLock;
+        for (User.UserStatus status : User.UserStatus.values()) {
+            pending.put(status, new LongAdder());
+            Gauge.builder("user.statistics.count", this, counter -> counter.snapshotValue(status))
+                    .tag("status", status.name())
+                    .description("Number of users per status as seen by the incremental counters")
+                    .register(meterRegistry);
+        }
+        this.reconcileTimer = Timer.builder("user.statistics.reconcile")
+                .description("Time to reconcile the user counters against the database")
+                .register(meterRegistry);
+        this.driftCounter = Counter.builder("user.statistics.drift")
+                .description("Total absolute drift corrected by reconciliation")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 应用启动后读取共享计数；Redis 中尚无可信计数时立即对账
+     */
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        flush();
+        if (snapshot == null) {
+            reconcile();
+        }
+    }
+
+    /**
+     * 记录新建用户，在当前事务提交后生效
+     *
+     * @param status 新用户的状态
+     */
+    public void recordCreated(User.UserStatus status) {
+        recordCreated(status, 1);
+    }
+
+    /**
+     * 记录批量新建用户，在当前事务提交后生效
+     *
+     * @param status 新用户的状态
+     * @param count 新建数量
+     */
+    public void recordCreated(User.UserStatus status, long count) {
+        afterCommit(() -> pending.get(status).add(count));
+    }
+
+    /**
+     * 记录从 users 表移除的用户（归档），在当前事务提交后生效
+     *
+     * @param status 被移除用户的状态
+     * @param count 移除数量
+     */
+    public void recordRemoved(User.UserStatus status, long count) {
+        afterCommit(() -> pending.get(status).add(-count));
+    }
+
+    /**
+     * 记录用户状态变更，在当前事务提交后生效
+     *
+     * @param from 原状态
+     * @param to 新状态
+     */
+    public void recordTransition(User.UserStatus from, User.UserStatus to) {
+        if (from == null || to == null || from == to) {
+            return;
+        }
+        afterCommit(() -> {
+            pending.get(from).decrement();
+            pending.get(to).increment();
+        });
+    }
+
+    /**
+     * 各状态的用户数量
+     * 正常情况下只读取本地快照；快照不可用（启动初期且 Redis 不可用）时回退到一次 GROUP BY 查询
+     *
+     * @return 状态到数量的映射，包含所有状态
+     */
+    public Map<User.UserStatus, Long> counts() {
+        Map<User.UserStatus, Long> base = snapshot;
+        if (base == null) {
+            base = loadFromDatabase();
+            snapshot = base;
+        }
+        Map<User.UserStatus, Long> counts = new EnumMap<>(User.UserStatus.class);
+        for (User.UserStatus status : User.UserStatus.values()) {
+            long value = base.getOrDefault(status, 0L) + pending.get(status).sum();
+            counts.put(status, Math.max(0, value));
+        }
+        return counts;
+    }
+
+    /**
+     * 将本地增量刷新到 Redis 并读回最新计数
+     * 刷新失败时增量退回本地，等待下次刷新；Redis 中的计数丢失（被驱逐或清空）时立即对账，
+     * 而不是等到下一次定时对账、期间每次读取都回退到 GROUP BY 查询
+     */
+    @Scheduled(fixedDelayString = "${app.statistics.flush-interval-ms:1000}")
+    public void flush() {
+        if (!flushAndRead()) {
+            log.warn("用户计数在 Redis 中缺失，立即对账");
+            snapshot = null;
+            reconcile();
+        }
+    }
+
+    /**
+     * 刷新增量并读回计数
+     *
+     * @return Redis 中的计数是否可信（含对账标记）；刷新失败时返回 true，保留当前快照
+     */
+    private boolean flushAndRead() {
+        Map<User.UserStatus, Long> deltas = new EnumMap<>(User.UserStatus.class);
+        for (Map.Entry<User.UserStatus, LongAdder> entry : pending.entrySet()) {
+            long delta = entry.getValue().sumThenReset();
+            if (delta != 0) {
+                deltas.put(entry.getKey(), delta);
+            }
+        }
+
+        try {
+            byte[] key = bytes(COUNTS_KEY);
+            List<Object> results = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                for (Map.Entry<User.UserStatus, Long> delta : deltas.entrySet()) {
+                    connection.hashCommands().hIncrBy(key, bytes(delta.getKey().name()), delta.getValue());
+                }
+                connection.hashCommands().hGetAll(key);
+                return null;
+            });
+            Map<?, ?> hash = (Map<?, ?>) results.get(results.size() - 1);
+            if (!hash.containsKey(RECONCILED_AT_FIELD)) {
+                return false;
+            }
+            snapshot = parse(hash);
+        } catch (DataAccessException e) {
+            for (Map.Entry<User.UserStatus, Long> delta : deltas.entrySet()) {
+                pending.get(delta.getKey()).add(delta.getValue());
+            }
+            log.warn("用户计数刷新失败: {}", e.getMessage());
+        }
+        return true;
+    }
+
+    /**
+     * 定时对账
+     */
+    @Scheduled(cron = "${app.statistics.reconcile-cron:0 */10 * * * *}")
+    public void scheduledReconcile() {
+        reconcile();
+    }
+
+    /**
+     * 用数据库中的实际数量校正 Redis 计数，集群内同一时刻只有一个节点执行
+     * 查询与写回之间其他节点刷新的增量可能被覆盖，产生的偏差不超过一个刷新周期的写入量，由下次对账校正
+     *
+     * @return 是否执行了对账（其他节点正在对账时返回 false）
+     */
+    public boolean reconcile() {
+        return redisLock.runIfAcquired(RECONCILE_LOCK, RECONCILE_LOCK_TTL, () -> reconcileTimer.record(() -> {
+            // 计数缺失时下面会整体重写，这里只需把增量推送出去
+            flushAndRead();
+            Map<User.UserStatus, Long> previous = snapshot;
+            Map<User.UserStatus, Long> actual = loadFromDatabase();
+
+            Map<String, String> hash = new HashMap<>();
+            long drift = 0;
+            for (User.UserStatus status : User.UserStatus.values()) {
+                long count = actual.getOrDefault(status, 0L);
+                hash.put(status.name(), Long.toString(count));
+                if (previous != null) {
+                    drift += Math.abs(count - previous.getOrDefault(status, 0L));
+                }
+            }
+            LocalDateTime now = LocalDateTime.now();
+            hash.put(RECONCILED_AT_FIELD, now.toString());
+            redisTemplate.opsForHash().putAll(COUNTS_KEY, hash);
+
+            snapshot = actual;
+            lastReconciledAt = now;
+            if (drift > 0) {
+                driftCounter.increment(drift);
+                log.info("用户计数对账完成，校正偏差 {}", drift);
+            }
+        }));
+    }
+
+    /**
+     * 计数器状态
+     */
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("ready", snapshot != null);
+        stats.put("counts", counts());
+        Map<User.UserStatus, Long> unflushed = new EnumMap<>(User.UserStatus.class);
+        pending.forEach((status, adder) -> unflushed.put(status, adder.sum()));
+        stats.put("pending", unflushed);
+        stats.put("lastReconciledAt", lastReconciledAt);
+        return stats;
+    }
+
+    private Map<User.UserStatus, Long> loadFromDatabase() {
+        Map<User.UserStatus, Long> counts = new EnumMap<>(User.UserStatus.class);
+        for (User.UserStatus status : User.UserStatus.values()) {
+            counts.put(status, 0L);
+        }
+        jdbcTemplate.query(COUNT_BY_STATUS, rs -> {
+            String status = rs.getString(1);
+            if (status != null) {
+                counts.put(User.UserStatus.valueOf(status), rs.getLong(2));
+            }
+        });
+        return counts;
+    }
+
+    private double snapshotValue(User.UserStatus status) {
+        Map<User.UserStatus, Long> counts = snapshot;
+        return counts != null ? counts.getOrDefault(status, 0L) : Double.NaN;
+    }
+
+    private static Map<User.UserStatus, Long> parse(Map<?, ?> hash) {
+        Map<User.UserStatus, Long> counts = new EnumMap<>(User.UserStatus.class);
+        for (User.UserStatus status : User.UserStatus.values()) {
+            Object value = hash.get(status.name());
+            counts.put(status, value != null ? Long.parseLong(value.toString()) : 0L);
+        }
+        return counts;
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,39 @@
+package com.wanli.stats;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * 用户计数器管理端点
+ * GET 查看计数器状态，POST 立即与数据库对账
+ *
+ * @author JamesWu
+ * @since 1.0.0
+ */
+@Component
+@Endpoint(id = "userstatistics")
+public class UserStatisticsEndpoint {
+
+    private final UserStatisticsCounter userStatisticsCounter;
+
+    public UserStatisticsEndpoint(UserStatisticsCounter userStatisticsCounter) {
+        this.userStatisticsCounter = userStatisticsCounter;
+    }
+
+    @ReadOperation
+    public Map<String, Object> stats() {
+        return userStatisticsCounter.stats();
+    }
+
+    @WriteOperation
+    public Map<String, Object> reconcile() {
+        boolean reconciled = userStatisticsCounter.reconcile();
+        Map<String, Object> stats = userStatisticsCounter.stats();
+        stats.put("reconciled", reconciled);
+        return stats;
+    }
+}
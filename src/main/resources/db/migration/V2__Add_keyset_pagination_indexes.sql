@@ -0,0 +1,5 @@
+-- 游标分页索引
+-- InnoDB 二级索引隐含主键列，(排序键, id) 的有序扫描可直接由这些索引提供
+CREATE INDEX idx_users_status_created_at ON users (status, created_at);
+CREATE INDEX idx_users_last_login_at ON users (last_login_at);
+CREATE INDEX idx_users_status_last_login_at ON users (status, last_login_at);
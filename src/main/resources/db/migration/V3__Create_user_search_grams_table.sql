@@ -0,0 +1,9 @@
+-- 用户搜索 n-gram 倒排索引表
+-- 词元已在应用层归一化（小写、NFKC），使用二进制排序规则精确匹配
+CREATE TABLE user_search_grams (
+    gram VARCHAR(8) NOT NULL COMMENT 'n-gram 词元',
+    user_id VARCHAR(36) NOT NULL COMMENT '用户ID',
+    
+    PRIMARY KEY (gram, user_id),
+    INDEX idx_user_search_grams_user_id (user_id)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_bin COMMENT='用户搜索倒排索引';
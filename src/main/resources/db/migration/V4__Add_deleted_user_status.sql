@@ -0,0 +1,5 @@
+-- 软删除状态
+-- UserService.deleteUser 将状态置为 DELETED，原 ENUM 定义缺少该取值；
+-- 实体映射要求状态非空，顺带补齐 NOT NULL 约束
+UPDATE users SET status = 'ACTIVE' WHERE status IS NULL;
+ALTER TABLE users MODIFY COLUMN status ENUM('ACTIVE', 'INACTIVE', 'SUSPENDED', 'DELETED') NOT NULL DEFAULT 'ACTIVE' COMMENT '用户状态';
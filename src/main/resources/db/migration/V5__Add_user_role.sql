@@ -0,0 +1,4 @@
+-- 用户角色
+-- 访问令牌携带角色，导出/导入/状态变更/删除与管理端点要求 ADMIN；
+-- 注册与导入的用户均为 USER，管理员只能通过 SQL 授予：UPDATE users SET role = 'ADMIN' WHERE username = ?
+ALTER TABLE users ADD COLUMN role ENUM('USER', 'ADMIN') NOT NULL DEFAULT 'USER' COMMENT '用户角色' AFTER status;
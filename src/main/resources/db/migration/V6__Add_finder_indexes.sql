@@ -0,0 +1,11 @@
+-- UserRepository 查询所需索引（执行计划由 mvn -Pquery-plan-check verify 检查）
+-- findByPhoneNumber / existsByPhoneNumber
+CREATE INDEX idx_users_phone ON users (phone);
+-- findByCreatedBy，按创建时间排序
+CREATE INDEX idx_users_created_by_created_at ON users (created_by, created_at);
+-- findByEmailVerifiedTrue、findByEmailVerifiedFalseAndStatus 及其 COUNT（覆盖索引）
+CREATE INDEX idx_users_email_verified_status ON users (email_verified, status, created_at);
+-- findByPhoneVerifiedTrue、findByPhoneVerifiedFalseAndStatus 及其 COUNT（覆盖索引）
+CREATE INDEX idx_users_phone_verified_status ON users (phone_verified, status, created_at);
+-- deleteOldDeletedUsers：按状态与删除时间（updated_at）定位
+CREATE INDEX idx_users_status_updated_at ON users (status, updated_at);
@@ -0,0 +1,23 @@
+-- 已删除用户归档表
+-- UserArchiver 将删除超过保留期的用户分块移入此表；不保留密码哈希，用户名/邮箱不再唯一（原值可被新用户重新注册）
+CREATE TABLE users_archive (
+    id VARCHAR(36) PRIMARY KEY COMMENT '用户ID',
+    username VARCHAR(50) NOT NULL COMMENT '用户名',
+    email VARCHAR(100) NOT NULL COMMENT '邮箱',
+    full_name VARCHAR(100) COMMENT '全名',
+    phone VARCHAR(20) COMMENT '手机号',
+    avatar_url VARCHAR(500) COMMENT '头像URL',
+    status VARCHAR(20) NOT NULL COMMENT '归档时的用户状态',
+    email_verified BOOLEAN NOT NULL DEFAULT FALSE COMMENT '邮箱是否验证',
+    phone_verified BOOLEAN NOT NULL DEFAULT FALSE COMMENT '手机是否验证',
+    last_login_at TIMESTAMP NULL COMMENT '最后登录时间',
+    created_at TIMESTAMP NULL COMMENT '创建时间',
+    deleted_at TIMESTAMP NULL COMMENT '删除时间（归档前的 updated_at）',
+    created_by VARCHAR(36) COMMENT '创建者',
+    updated_by VARCHAR(36) COMMENT '更新者',
+    archived_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '归档时间',
+
+    INDEX idx_users_archive_username (username),
+    INDEX idx_users_archive_email (email),
+    INDEX idx_users_archive_archived_at (archived_at)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='已删除用户归档表';
@@ -0,0 +1,14 @@
+-- 用户领域事件 outbox 表
+-- UserService 在修改用户的同一事务内写入事件，UserOutboxRelay 按 id 顺序分批发布到 Redis Stream 后写入 published_at；
+-- 已发布的行超过保留期后由 UserOutboxRelay 分块清理
+CREATE TABLE user_outbox (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY COMMENT '事件ID，发布后作为 eventId 供消费者去重',
+    event_type VARCHAR(32) NOT NULL COMMENT '事件类型',
+    user_id VARCHAR(36) NOT NULL COMMENT '用户ID',
+    payload TEXT NOT NULL COMMENT '事件发生后的用户快照（JSON，不含密码哈希）',
+    occurred_at TIMESTAMP(3) NOT NULL COMMENT '事件发生时间',
+    published_at TIMESTAMP(3) NULL COMMENT '发布时间，未发布为 NULL',
+
+    -- 未发布事件（published_at IS NULL）按 id 顺序读取；已发布事件按 published_at 范围清理
+    INDEX idx_user_outbox_published_at (published_at, id)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='用户领域事件 outbox 表';
@@ -0,0 +1,19 @@
+-- 待发送邮件队列
+-- 业务在自身事务内入队，MailDispatcher 按 next_attempt_at 领取（领取即把 next_attempt_at 推后一个租约并累加 attempts），
+-- 发送成功标记为 SENT，失败按指数退避重新安排，超过最大次数标记为 FAILED；SENT 超过保留期后分块删除
+CREATE TABLE mail_queue (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY COMMENT '邮件ID',
+    template VARCHAR(32) NOT NULL COMMENT '邮件模板',
+    user_id VARCHAR(36) COMMENT '收件用户ID',
+    recipient VARCHAR(100) NOT NULL COMMENT '收件邮箱',
+    recipient_name VARCHAR(100) COMMENT '收件人称呼',
+    status VARCHAR(16) NOT NULL DEFAULT 'PENDING' COMMENT '状态：PENDING / SENT / FAILED',
+    attempts INT NOT NULL DEFAULT 0 COMMENT '已尝试次数',
+    next_attempt_at TIMESTAMP(3) NOT NULL COMMENT '下次可发送时间（已领取时为租约到期时间）',
+    last_error VARCHAR(500) COMMENT '最近一次失败原因',
+    created_at TIMESTAMP(3) NOT NULL COMMENT '入队时间',
+    sent_at TIMESTAMP(3) NULL COMMENT '发送时间',
+
+    INDEX idx_mail_queue_status_next_attempt_at (status, next_attempt_at, id),
+    INDEX idx_mail_queue_status_sent_at (status, sent_at)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='待发送邮件队列';
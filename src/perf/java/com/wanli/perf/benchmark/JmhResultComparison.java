@@ -0,0 +1,82 @@
+package com.wanli.perf.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 对比两次 JMH JSON 结果（-rf json 输出）
+ * 按"基准方法 + 参数"逐项输出基线值、新值与变化百分比；变化幅度超过两次误差之和时标记为显著。
+ * 运行: mvn -Pperf test-compile exec:exec@jmh-compare -Djmh.baseline=旧结果.json -Djmh.candidate=新结果.json
+ *
+ * @author JamesWu
+ * @since 1.0.0
+ */
+public final class JmhResultComparison {
+
+    private JmhResultComparison() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("用法: JmhResultComparison <baseline.json> <candidate.json>");
+            System.exit(2);
+        }
+        ObjectMapper objectMapper = new ObjectMapper();
+        Map<String, Score> baseline = read(objectMapper, new File(args[0]));
+        Map<String, Score> candidate = read(objectMapper, new File(args[1]));
+
+        System.out.printf("%-80s %14s %14s %9s  %s%n", "Benchmark", "Baseline", "Candidate", "Change", "Unit");
+        Map<String, Score> all = new TreeMap<>(baseline);
+        candidate.forEach(all::putIfAbsent);
+        for (String name : all.keySet()) {
+            Score before = baseline.get(name);
+            Score after = candidate.get(name);
+            if (before == null || after == null) {
+                System.out.printf("%-80s %14s %14s %9s  %s%n", name,
+                        before != null ? format(before.value()) : "-", after != null ? format(after.value()) : "-",
+                        "n/a", (before != null ? before : after).unit());
+                continue;
+            }
+            double change = before.value() == 0 ? 0 : (after.value() - before.value()) / before.value() * 100;
+            boolean significant = Math.abs(after.value() - before.value()) > before.error() + after.error();
+            System.out.printf("%-80s %14s %14s %+8.1f%%  %s%s%n", name, format(before.value()),
+                    format(after.value()), change, after.unit(), significant ? "  *" : "");
+        }
+        System.out.println("* 变化超出两次测量的误差范围（注意吞吐量越高越好，耗时越低越好）");
+    }
+
+    private static Map<String, Score> read(ObjectMapper objectMapper, File file) throws IOException {
+        Map<String, Score> scores = new LinkedHashMap<>();
+        for (JsonNode run : objectMapper.readTree(file)) {
+            StringBuilder name = new StringBuilder(run.path("benchmark").asText())
+                    .append(" (").append(run.path("mode").asText()).append(')');
+            JsonNode params = run.path("params");
+            if (params.isObject()) {
+                Iterator<Map.Entry<String, JsonNode>> fields = params.fields();
+                while (fields.hasNext()) {
+                    Map.Entry<String, JsonNode> field = fields.next();
+                    name.append(' ').append(field.getKey()).append('=').append(field.getValue().asText());
+                }
+            }
+            JsonNode metric = run.path("primaryMetric");
+            double error = metric.path("scoreError").asDouble(0);
+            scores.put(name.toString(), new Score(metric.path("score").asDouble(),
+                    Double.isNaN(error) ? 0 : error, metric.path("scoreUnit").asText()));
+        }
+        return scores;
+    }
+
+    private static String format(double value) {
+        return String.format(value >= 100 ? "%.1f" : "%.3f", value);
+    }
+
+    private record Score(double value, double error, String unit) {
+    }
+}
@@ -0,0 +1,121 @@
+package com.wanli.perf.benchmark;
+
+import com.wanli.WanliBackendApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import redis.embedded.RedisServer;
+
+import javax.sql.DataSource;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.ServerSocket;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 性能测试用的完整应用实例
+ * 使用 H2（MySQL 兼容模式）内存库与嵌入式 Redis 启动 Spring 上下文，不依赖任何外部服务。
+ * 与生产配置的差异：关闭 Flyway（表结构来自 perf-schema.sql）、关闭布隆过滤器（H2 不支持流式结果集）、
+ * 固定 bcrypt 强度以跳过启动校准。
+ * 内置的嵌入式 Redis 为 2.8，不支持 Streams，用户事件不会发布（保留在 user_outbox 中）；
+ * 需要在本地验证事件发布时以系统属性 perf.redis.executable 指定 5.0 以上的 redis-server，
+ * 例如 -Djmh.args="... -jvmArgsAppend -Dperf.redis.executable=/usr/local/bin/redis-server"。
+ *
+ * @author JamesWu
+ * @since 1.0.0
+ */
+public final class PerfApplication implements AutoCloseable {
+
+    private final RedisServer redisServer;
+    private final ConfigurableApplicationContext context;
+    private final List<String> userIds;
+
+    private PerfApplication(RedisServer redisServer, ConfigurableApplicationContext context, List<String> userIds) {
+        this.redisServer = redisServer;
+        this.context = context;
+        this.userIds = userIds;
+    }
+
+    /**
+     * 启动应用
+     *
+     * @param name 数据库名称（同一 JVM 内唯一）
+     * @param users 预置用户数量
+     * @param web 是否启动 Web 服务器（随机端口）
+     * @param extraArgs 额外的配置参数（--key=value）
+     */
+    public static PerfApplication start(String name, int users, boolean web, String... extraArgs) {
+        int redisPort = freePort();
+        String redisExecutable = System.getProperty("perf.redis.executable");
+        RedisServer redisServer = redisExecutable != null
+                ? new RedisServer(new File(redisExecutable), redisPort)
+                : new RedisServer(redisPort);
+        redisServer.start();
+
+        try {
+            DataSource dataSource = PerfData.createDatabase(name);
+            List<String> userIds = PerfData.seedUsers(new JdbcTemplate(dataSource), users);
+
+            List<String> args = new ArrayList<>(List.of(
+                    "--spring.profiles.active=perf",
+                    "--spring.main.web-application-type=" + (web ? "servlet" : "none"),
+                    "--server.port=0",
+                    "--spring.flyway.enabled=false",
+                    "--spring.jpa.hibernate.ddl-auto=none",
+                    "--spring.jpa.show-sql=false",
+                    "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                    "--spring.data.redis.host=localhost",
+                    "--spring.data.redis.port=" + redisPort,
+                    "--app.bloom-filter.enabled=false",
+                    "--app.password.strength=10",
+                    "--logging.level.root=WARN",
+                    "--logging.level.com.wanli=WARN"));
+            args.addAll(List.of(extraArgs));
+
+            ConfigurableApplicationContext context = new SpringApplicationBuilder(WanliBackendApplication.class)
+                    .initializers(ctx -> ctx.getBeanFactory().registerSingleton("dataSource", dataSource))
+                    .run(args.toArray(new String[0]));
+            return new PerfApplication(redisServer, context, userIds);
+        } catch (RuntimeException e) {
+            redisServer.stop();
+            throw e;
+        }
+    }
+
+    public <T> T getBean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    /**
+     * 预置用户的ID（按插入顺序，第 i 个用户名为 user{i}）
+     */
+    public List<String> getUserIds() {
+        return userIds;
+    }
+
+    /**
+     * Web 服务器实际监听的端口
+     */
+    public int getPort() {
+        return context.getEnvironment().getProperty("local.server.port", Integer.class, -1);
+    }
+
+    @Override
+    public void close() {
+        try {
+            context.close();
+        } finally {
+            redisServer.stop();
+        }
+    }
+
+    private static int freePort() {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.wanli.perf.benchmark;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * 性能测试数据工具
+ * 创建 H2（MySQL 兼容模式）内存库并生成可复现的用户数据，其中约一半用户使用中文姓名
+ *
+ * @author JamesWu
+ * @since 1.0.0
+ */
+public final class PerfData {
+
+    private static final String[] SURNAMES = {"王", "李", "张", "刘", "陈", "杨", "黄", "赵", "吴", "周", "徐", "孙"};
+    private static final String[] GIVEN_NAMES = {"伟", "芳", "娜", "敏", "静", "丽", "强", "磊", "军", "洋", "勇", "艳", "杰", "涛", "明"};
+    private static final String[] LATIN_NAMES = {"James", "Mary", "John", "Linda", "David", "Susan", "Wang Lei", "Li Na", "Chen Jie"};
+
+    /**
+     * 所有测试用户的明文密码
+     */
+    public static final String PASSWORD = "password";
+
+    /**
+     * PASSWORD 的 bcrypt 哈希，只计算一次，生成数据时避免逐行哈希
+     */
+    public static final String PASSWORD_HASH = new BCryptPasswordEncoder(10).encode(PASSWORD);
+
+    /**
+     * 角色为 ADMIN 的测试用户（ACTIVE），压测以其身份访问需要本人或管理员权限的接口
+     */
+    public static final String ADMIN_USERNAME = "user1";
+
+    private PerfData() {
+    }
+
+    /**
+     * 创建内存数据库并初始化表结构
+     *
+     * @param name 数据库名称（同一 JVM 内唯一）
+     */
+    public static DataSource createDatabase(String name) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + name + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+        new ResourceDatabasePopulator(new ClassPathResource("perf-schema.sql")).execute(dataSource);
+        return dataSource;
+    }
+
+    /**
+     * 批量插入用户
+     *
+     * @return 插入的用户ID列表
+     */
+    public static List<String> seedUsers(JdbcTemplate jdbcTemplate, int count) {
+        Random random = new Random(42);
+        List<String> ids = new ArrayList<>(count);
+        List<Object[]> batch = new ArrayList<>(1000);
+        LocalDateTime base = LocalDateTime.of(2023, 1, 1, 0, 0);
+        for (int i = 0; i < count; i++) {
+            String id = new UUID(random.nextLong(), random.nextLong()).toString();
+            ids.add(id);
+            String fullName = i % 2 == 0
+                    ? SURNAMES[random.nextInt(SURNAMES.length)] + GIVEN_NAMES[random.nextInt(GIVEN_NAMES.length)]
+                        + (random.nextBoolean() ? GIVEN_NAMES[random.nextInt(GIVEN_NAMES.length)] : "")
+                    : LATIN_NAMES[random.nextInt(LATIN_NAMES.length)];
+            Timestamp createdAt = Timestamp.valueOf(base.plusMinutes(i));
+            Timestamp lastLoginAt = random.nextInt(4) == 0 ? null : Timestamp.valueOf(base.plusMinutes(i + random.nextInt(100000)));
+            batch.add(new Object[]{id, "user" + i, "user" + i + "@example" + (i % 50) + ".com", PASSWORD_HASH,
+                    fullName, "138" + String.format("%08d", i), i % 10 == 0 ? "INACTIVE" : "ACTIVE",
+                    ADMIN_USERNAME.equals("user" + i) ? "ADMIN" : "USER", lastLoginAt, createdAt, createdAt});
+            if (batch.size() == 1000) {
+                insert(jdbcTemplate, batch);
+            }
+        }
+        insert(jdbcTemplate, batch);
+        return ids;
+    }
+
+    private static void insert(JdbcTemplate jdbcTemplate, List<Object[]> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO users (id, username, email, password_hash, full_name, phone, status, "
+                + "role, last_login_at, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", batch);
+        batch.clear();
+    }
+}
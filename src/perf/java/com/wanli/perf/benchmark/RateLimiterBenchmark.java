@@ -0,0 +1,107 @@
+package com.wanli.perf.benchmark;
+
+import com.wanli.ratelimit.RateLimitProperties;
+import com.wanli.ratelimit.RateLimiter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import redis.embedded.RedisServer;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 限流判定延迟基准测试（SampleTime 模式输出 p99 / p99.9）
+ * redis：嵌入式 Redis 上的 Lua 令牌桶；local：断路后的本地令牌桶。
+ * 运行: mvn -Pperf test-compile exec:exec@jmh -Djmh.args="RateLimiter -f 1"
+ *
+ * @author JamesWu
+ * @since 1.0.0
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Threads(8)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class RateLimiterBenchmark {
+
+    private static final int REDIS_PORT = 16399;
+    private static final int KEYS = 10_000;
+
+    private RedisServer redisServer;
+    private LettuceConnectionFactory redisFactory;
+    private LettuceConnectionFactory deadFactory;
+    private RateLimiter redisLimiter;
+    private RateLimiter localLimiter;
+    private RateLimitProperties.Limit limit;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        redisServer = new RedisServer(REDIS_PORT);
+        redisServer.start();
+
+        redisFactory = connectionFactory(REDIS_PORT);
+        deadFactory = connectionFactory(REDIS_PORT + 1);
+
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setRedisTimeout(Duration.ofMillis(50));
+        properties.setFailureThreshold(1);
+        properties.setOpenDuration(Duration.ofHours(1));
+
+        limit = new RateLimitProperties.Limit();
+        limit.setCapacity(1_000_000);
+        limit.setPeriod(Duration.ofSeconds(1));
+
+        redisLimiter = new RateLimiter(new ReactiveStringRedisTemplate(redisFactory), properties,
+                new SimpleMeterRegistry());
+        localLimiter = new RateLimiter(new ReactiveStringRedisTemplate(deadFactory), properties,
+                new SimpleMeterRegistry());
+        // 第一次调用失败即断路，之后全部走本地令牌桶
+        localLimiter.tryAcquire("bench", "ip", "warmup", limit);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        redisFactory.destroy();
+        deadFactory.destroy();
+        redisServer.stop();
+    }
+
+    @Benchmark
+    public RateLimiter.Decision redis() {
+        return redisLimiter.tryAcquire("bench", "ip", randomKey(), limit);
+    }
+
+    @Benchmark
+    public RateLimiter.Decision local() {
+        return localLimiter.tryAcquire("bench", "ip", randomKey(), limit);
+    }
+
+    private static String randomKey() {
+        return "10.0." + ThreadLocalRandom.current().nextInt(KEYS);
+    }
+
+    private static LettuceConnectionFactory connectionFactory(int port) {
+        LettuceConnectionFactory factory = new LettuceConnectionFactory(
+                new RedisStandaloneConfiguration("localhost", port));
+        factory.afterPropertiesSet();
+        return factory;
+    }
+}
@@ -0,0 +1,162 @@
+package com.wanli.perf.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.wanli.dto.ApiResponse;
+import com.wanli.dto.ExistenceCheckResponse;
+import com.wanli.dto.PageView;
+import com.wanli.dto.UserView;
+import com.wanli.entity.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 响应序列化基准测试：构造响应并用 Jackson 序列化
+ * *Envelope 为改造前的写法（HashMap 信封 + 清空密码哈希后直接序列化 User 实体），
+ * *View 为当前 UserController 的写法（ApiResponse / PageView / UserView 记录）。
+ * ObjectMapper 与 Spring Boot 默认配置一致（Jackson2ObjectMapperBuilder，日期不输出为时间戳）。
+ * 运行: mvn -Pperf test-compile exec:exec@jmh -Djmh.args="ResponseSerialization -f 1"
+ * 每请求分配字节数: mvn -Pperf test-compile exec:exec@jmh -Djmh.args="ResponseSerialization -f 1 -prof gc"
+ * （看 gc.alloc.rate.norm，单位 B/op）
+ *
+ * @author JamesWu
+ * @since 1.0.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ResponseSerializationBenchmark {
+
+    @Param({"20", "100"})
+    private int pageSize;
+
+    private ObjectMapper objectMapper;
+    private User user;
+    private List<User> page;
+    private Page<User> userPage;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        user = user(0);
+        page = new ArrayList<>(pageSize);
+        for (int i = 0; i < pageSize; i++) {
+            page.add(user(i));
+        }
+        userPage = new PageImpl<>(page, PageRequest.of(0, pageSize), 100_000L);
+    }
+
+    /**
+     * GET /api/users/{id}（改造前）
+     */
+    @Benchmark
+    public byte[] userEnvelope() throws JsonProcessingException {
+        user.setPasswordHash(null);
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("data", user);
+        return objectMapper.writeValueAsBytes(response);
+    }
+
+    /**
+     * GET /api/users/{id}
+     */
+    @Benchmark
+    public byte[] userView() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(ApiResponse.ok(UserView.from(user)));
+    }
+
+    /**
+     * GET /api/users（改造前）
+     */
+    @Benchmark
+    public byte[] pageEnvelope() throws JsonProcessingException {
+        userPage.getContent().forEach(u -> u.setPasswordHash(null));
+        Map<String, Object> pageInfo = new HashMap<>();
+        pageInfo.put("content", userPage.getContent());
+        pageInfo.put("totalElements", userPage.getTotalElements());
+        pageInfo.put("totalPages", userPage.getTotalPages());
+        pageInfo.put("currentPage", userPage.getNumber());
+        pageInfo.put("size", userPage.getSize());
+        pageInfo.put("hasNext", userPage.hasNext());
+        pageInfo.put("hasPrevious", userPage.hasPrevious());
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("data", pageInfo);
+        return objectMapper.writeValueAsBytes(response);
+    }
+
+    /**
+     * GET /api/users
+     */
+    @Benchmark
+    public byte[] pageView() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(ApiResponse.ok(PageView.from(userPage, UserView::from)));
+    }
+
+    /**
+     * GET /api/users/check-username（改造前）
+     */
+    @Benchmark
+    public byte[] checkEnvelope() throws JsonProcessingException {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("exists", false);
+        response.put("message", "用户名可用");
+        return objectMapper.writeValueAsBytes(response);
+    }
+
+    /**
+     * GET /api/users/check-username
+     */
+    @Benchmark
+    public byte[] checkView() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(new ExistenceCheckResponse(true, false, "用户名可用"));
+    }
+
+    private static User user(int i) {
+        LocalDateTime createdAt = LocalDateTime.of(2024, 1, 1, 0, 0).plusMinutes(i);
+        User user = new User();
+        user.setId(UUID.nameUUIDFromBytes(("user" + i).getBytes()).toString());
+        user.setUsername("user" + i);
+        user.setEmail("user" + i + "@example.com");
+        user.setFullName(i % 2 == 0 ? "王伟" : "Wang Lei");
+        user.setPhone("138" + String.format("%08d", i));
+        user.setAvatarUrl("https://cdn.example.com/avatars/" + i + ".png");
+        user.setStatus(User.UserStatus.ACTIVE);
+        user.setEmailVerified(true);
+        user.setPhoneVerified(false);
+        user.setLastLoginAt(createdAt.plusDays(3));
+        user.setCreatedAt(createdAt);
+        user.setUpdatedAt(createdAt.plusDays(1));
+        return user;
+    }
+}
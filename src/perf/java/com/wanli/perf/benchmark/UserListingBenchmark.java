@@ -0,0 +1,106 @@
+package com.wanli.perf.benchmark;
+
+import com.wanli.dto.UserView;
+import com.wanli.entity.User;
+import com.wanli.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Session;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 用户列表查询基准测试：对比加载完整 User 实体与构造器表达式投影为 UserView 两种方式
+ * entities 模拟改造前的 GET /api/users：读写事务中加载实体（含 password_hash），提交时对每个实体做脏检查，再映射为视图；
+ * views 为当前实现：只读事务中直接投影，不进入持久化上下文。
+ * 每个方法结束前把持久化上下文中的实体数量交给 Blackhole，可在调试时确认 views 为 0。
+ * 运行: mvn -Pperf test-compile exec:exec@jmh -Djmh.args="UserListing -f 1 -prof gc"
+ * （gc.alloc.rate.norm 为每次请求分配的字节数）
+ *
+ * @author JamesWu
+ * @since 1.0.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class UserListingBenchmark {
+
+    @Param({"20", "200"})
+    private int pageSize;
+
+    private PerfApplication application;
+    private UserRepository userRepository;
+    private EntityManager entityManager;
+    private TransactionTemplate readWrite;
+    private TransactionTemplate readOnly;
+    private int pages;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        application = PerfApplication.start("user_listing_" + pageSize, 10_000, false);
+        userRepository = application.getBean(UserRepository.class);
+        entityManager = SharedEntityManagerCreator.createSharedEntityManager(
+                application.getBean(EntityManagerFactory.class));
+        PlatformTransactionManager transactionManager = application.getBean(PlatformTransactionManager.class);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        pages = application.getUserIds().size() / pageSize;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        application.close();
+    }
+
+    @Benchmark
+    public void entities(Blackhole blackhole) {
+        readWrite.executeWithoutResult(status -> {
+            Page<User> page = userRepository.findAll(randomPage());
+            blackhole.consume(page.map(UserView::from));
+            blackhole.consume(managedEntities());
+        });
+    }
+
+    @Benchmark
+    public void views(Blackhole blackhole) {
+        readOnly.executeWithoutResult(status -> {
+            blackhole.consume(userRepository.findViews(randomPage()));
+            blackhole.consume(managedEntities());
+        });
+    }
+
+    private Pageable randomPage() {
+        int page = ThreadLocalRandom.current().nextInt(Math.max(1, pages));
+        return PageRequest.of(page, pageSize, Sort.by(Sort.Direction.DESC, "createdAt"));
+    }
+
+    private int managedEntities() {
+        return entityManager.unwrap(Session.class).getStatistics().getEntityCount();
+    }
+}
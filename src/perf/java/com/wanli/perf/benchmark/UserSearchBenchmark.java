@@ -0,0 +1,83 @@
+package com.wanli.perf.benchmark;
+
+import com.wanli.entity.User;
+import com.wanli.repository.UserRowMapper;
+import com.wanli.search.UserSearchIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 用户搜索基准测试：n-gram 倒排索引 vs 原有的三列 LIKE '%keyword%' 查询
+ * 原查询与 UserRepository.findByKeyword 等价（分页查询 + COUNT 查询）。
+ *
+ * @author JamesWu
+ * @since 1.0.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class UserSearchBenchmark {
+
+    private static final String LIKE_WHERE = " FROM users WHERE LOWER(username) LIKE ? OR LOWER(email) LIKE ? "
+            + "OR LOWER(full_name) LIKE ?";
+
+    @Param({"50000"})
+    private int users;
+
+    @Param({"user4321", "张伟", "wang lei"})
+    private String keyword;
+
+    private JdbcTemplate jdbcTemplate;
+    private UserSearchIndex searchIndex;
+    private PageRequest pageRequest;
+
+    @Setup
+    public void setUp() {
+        DataSource dataSource = PerfData.createDatabase("search_" + users);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        searchIndex = new UserSearchIndex(new NamedParameterJdbcTemplate(dataSource),
+                new DataSourceTransactionManager(dataSource), 2000, 1000);
+
+        PerfData.seedUsers(jdbcTemplate, users);
+        searchIndex.rebuild();
+        pageRequest = PageRequest.of(0, 20);
+    }
+
+    @Benchmark
+    public List<Object> legacyLikeQuery() {
+        String pattern = "%" + keyword.toLowerCase() + "%";
+        List<User> content = jdbcTemplate.query("SELECT " + UserRowMapper.COLUMNS + LIKE_WHERE
+                + " ORDER BY created_at DESC LIMIT 20 OFFSET 0", UserRowMapper.INSTANCE, pattern, pattern, pattern);
+        Long total = jdbcTemplate.queryForObject("SELECT COUNT(*)" + LIKE_WHERE, Long.class, pattern, pattern, pattern);
+        List<Object> result = new ArrayList<>(content);
+        result.add(total);
+        return result;
+    }
+
+    @Benchmark
+    public Page<User> ngramIndexQuery() {
+        return searchIndex.search(keyword, pageRequest);
+    }
+}
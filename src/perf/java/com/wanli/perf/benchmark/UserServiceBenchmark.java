@@ -0,0 +1,101 @@
+package com.wanli.perf.benchmark;
+
+import com.wanli.entity.User;
+import com.wanli.service.UserService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * UserService 基准测试：在完整的 Spring 上下文（H2 + 嵌入式 Redis）中调用服务层，
+ * 覆盖按ID查询（近端缓存）、分页列表、用户名可用性检查以及资料与状态更新，
+ * 用于对比 Spring Boot / Hibernate 升级前后的差异。
+ * 运行: mvn -Pperf test-compile exec:exec@jmh -Djmh.args="UserService -f 1"
+ *
+ * @author JamesWu
+ * @since 1.0.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class UserServiceBenchmark {
+
+    @Param({"10000"})
+    private int users;
+
+    private PerfApplication application;
+    private UserService userService;
+    private List<String> ids;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        application = PerfApplication.start("user_service_" + users, users, false);
+        userService = application.getBean(UserService.class);
+        ids = application.getUserIds();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        application.close();
+    }
+
+    @Benchmark
+    public Optional<User> findById() {
+        return userService.findById(randomId());
+    }
+
+    @Benchmark
+    public Optional<User> findByUsername() {
+        return userService.findByUsername("user" + ThreadLocalRandom.current().nextInt(users));
+    }
+
+    @Benchmark
+    public Page<User> findAllPage() {
+        int page = ThreadLocalRandom.current().nextInt(50);
+        return userService.findAll(PageRequest.of(page, 20, Sort.by(Sort.Direction.DESC, "createdAt")));
+    }
+
+    @Benchmark
+    public boolean existsByUsername() {
+        return userService.existsByUsername("user" + ThreadLocalRandom.current().nextInt(users * 2));
+    }
+
+    @Benchmark
+    public User updateUser() {
+        User changes = new User();
+        changes.setFullName("perf-" + ThreadLocalRandom.current().nextInt(1000));
+        return userService.updateUser(randomId(), changes);
+    }
+
+    @Benchmark
+    public User updateUserStatus() {
+        User.UserStatus status = ThreadLocalRandom.current().nextBoolean()
+                ? User.UserStatus.ACTIVE : User.UserStatus.SUSPENDED;
+        return userService.updateUserStatus(randomId(), status);
+    }
+
+    private String randomId() {
+        return ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+    }
+}
@@ -0,0 +1,114 @@
+package com.wanli.perf.benchmark;
+
+import com.wanli.cache.UserEntityCacheLock;
+import com.wanli.entity.User;
+import com.wanli.repository.UserRepositoryImpl;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 用户定向更新基准测试：加载实体再整行写回 vs 单条 UPDATE
+ * 两种方式都在 JpaTransactionManager 事务中执行，与 UserService 的事务方式一致；
+ * 多线程并发更新随机用户，比较吞吐量。
+ *
+ * @author JamesWu
+ * @since 1.0.0
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Threads(8)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class UserUpdateBenchmark {
+
+    @Param({"10000"})
+    private int users;
+
+    private LocalContainerEntityManagerFactoryBean entityManagerFactoryBean;
+    private EntityManagerFactory entityManagerFactory;
+    private TransactionTemplate transactionTemplate;
+    private UserRepositoryImpl userRepository;
+    private List<String> ids;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        DataSource dataSource = PerfData.createDatabase("update_" + users);
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        ids = PerfData.seedUsers(jdbcTemplate, users);
+
+        entityManagerFactoryBean = new LocalContainerEntityManagerFactoryBean();
+        entityManagerFactoryBean.setDataSource(dataSource);
+        entityManagerFactoryBean.setPackagesToScan("com.wanli.entity");
+        entityManagerFactoryBean.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        entityManagerFactoryBean.setJpaPropertyMap(Map.of(
+                "hibernate.hbm2ddl.auto", "none",
+                "hibernate.cache.use_second_level_cache", "false"));
+        entityManagerFactoryBean.afterPropertiesSet();
+        entityManagerFactory = entityManagerFactoryBean.getObject();
+
+        transactionTemplate = new TransactionTemplate(new JpaTransactionManager(entityManagerFactory));
+        userRepository = new UserRepositoryImpl(jdbcTemplate, new UserEntityCacheLock(entityManagerFactory));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        entityManagerFactoryBean.destroy();
+    }
+
+    /**
+     * 原实现：findById + 修改字段 + save，提交时脏检查并写回所有列
+     */
+    @Benchmark
+    public User loadAndSave() {
+        String id = randomId();
+        return transactionTemplate.execute(status -> {
+            EntityManager entityManager = EntityManagerFactoryUtils.getTransactionalEntityManager(entityManagerFactory);
+            User user = entityManager.find(User.class, id);
+            user.setEmailVerified(true);
+            user.setUpdatedAt(LocalDateTime.now());
+            return entityManager.merge(user);
+        });
+    }
+
+    /**
+     * 新实现：单条 UPDATE ... WHERE id = ?
+     */
+    @Benchmark
+    public Integer targetedUpdate() {
+        String id = randomId();
+        return transactionTemplate.execute(status -> userRepository.markEmailVerified(id, LocalDateTime.now()));
+    }
+
+    private String randomId() {
+        return ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+    }
+}
@@ -0,0 +1,162 @@
+package com.wanli.perf.load;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 按接口统计延迟
+ * 每个接口记录两个直方图：
+ * <ul>
+ *     <li>响应时间：从计划发送时刻到收到响应，包含发送端排队，已校正协调遗漏（coordinated omission）</li>
+ *     <li>服务时间：从实际发送到收到响应</li>
+ * </ul>
+ * 报告输出为文本摘要、JSON 摘要以及每个接口的 .hgrm 百分位分布文件（可用 HdrHistogram 绘图工具叠加对比）。
+ *
+ * @author JamesWu
+ * @since 1.0.0
+ */
+public class LatencyReport {
+
+    private static final long HIGHEST_TRACKABLE_NANOS = 60_000_000_000L;
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9, 99.99};
+
+    private final Map<LoadScenario.Endpoint, Stats> stats = new EnumMap<>(LoadScenario.Endpoint.class);
+
+    public LatencyReport() {
+        for (LoadScenario.Endpoint endpoint : LoadScenario.Endpoint.values()) {
+            stats.put(endpoint, new Stats());
+        }
+    }
+
+    /**
+     * 记录一次请求
+     *
+     * @param endpoint 接口
+     * @param intendedStartNanos 计划发送时刻
+     * @param actualStartNanos 实际发送时刻
+     * @param endNanos 收到响应（或失败）的时刻
+     * @param success 是否为 2xx 响应
+     */
+    public void record(LoadScenario.Endpoint endpoint, long intendedStartNanos, long actualStartNanos,
+                       long endNanos, boolean success) {
+        Stats endpointStats = stats.get(endpoint);
+        endpointStats.responseTime.recordValue(Math.min(HIGHEST_TRACKABLE_NANOS, endNanos - intendedStartNanos));
+        endpointStats.serviceTime.recordValue(Math.min(HIGHEST_TRACKABLE_NANOS, endNanos - actualStartNanos));
+        (success ? endpointStats.successes : endpointStats.errors).increment();
+    }
+
+    /**
+     * 丢弃已记录的数据（预热结束时调用）
+     */
+    public void reset() {
+        for (Stats endpointStats : stats.values()) {
+            endpointStats.responseTime.reset();
+            endpointStats.serviceTime.reset();
+            endpointStats.successes.reset();
+            endpointStats.errors.reset();
+        }
+    }
+
+    /**
+     * 输出报告
+     *
+     * @param directory 报告目录
+     * @param targetRate 目标请求速率（每秒）
+     * @param measuredSeconds 测量时长（秒）
+     * @param out 摘要同时输出到的控制台
+     */
+    public void write(Path directory, int targetRate, double measuredSeconds, PrintStream out) throws IOException {
+        Files.createDirectories(directory);
+        Map<LoadScenario.Endpoint, Histogram> responseTimes = new EnumMap<>(LoadScenario.Endpoint.class);
+        Map<LoadScenario.Endpoint, Histogram> serviceTimes = new EnumMap<>(LoadScenario.Endpoint.class);
+        for (Map.Entry<LoadScenario.Endpoint, Stats> entry : stats.entrySet()) {
+            responseTimes.put(entry.getKey(), entry.getValue().responseTime.getIntervalHistogram());
+            serviceTimes.put(entry.getKey(), entry.getValue().serviceTime.getIntervalHistogram());
+        }
+
+        StringBuilder summary = new StringBuilder();
+        summary.append(String.format(Locale.ROOT, "目标速率 %d req/s，测量 %.0f 秒，延迟单位 ms（响应时间已校正协调遗漏）%n",
+                targetRate, measuredSeconds));
+        summary.append(String.format(Locale.ROOT, "%-36s %9s %7s %9s %9s %9s %9s %9s %9s %9s%n",
+                "Endpoint", "Requests", "Errors", "Rate/s", "p50", "p90", "p99", "p99.9", "p99.99", "max"));
+
+        StringBuilder json = new StringBuilder("{\n");
+        json.append(String.format(Locale.ROOT, "  \"targetRate\": %d,%n  \"measuredSeconds\": %.1f,%n  \"endpoints\": {%n",
+                targetRate, measuredSeconds));
+
+        boolean first = true;
+        for (LoadScenario.Endpoint endpoint : LoadScenario.Endpoint.values()) {
+            Histogram response = responseTimes.get(endpoint);
+            Histogram service = serviceTimes.get(endpoint);
+            long requests = response.getTotalCount();
+            long errors = stats.get(endpoint).errors.sum();
+
+            summary.append(String.format(Locale.ROOT, "%-36s %9d %7d %9.1f", endpoint.getLabel(), requests, errors,
+                    requests / measuredSeconds));
+            for (double percentile : PERCENTILES) {
+                summary.append(String.format(Locale.ROOT, " %9.2f", millis(response.getValueAtPercentile(percentile))));
+            }
+            summary.append(String.format(Locale.ROOT, " %9.2f%n", millis(response.getMaxValue())));
+
+            if (!first) {
+                json.append(",\n");
+            }
+            first = false;
+            json.append(String.format(Locale.ROOT, "    \"%s\": {\"requests\": %d, \"errors\": %d, "
+                    + "\"responseTimeMs\": %s, \"serviceTimeMs\": %s}", endpoint.getLabel(), requests, errors,
+                    percentilesJson(response), percentilesJson(service)));
+
+            String file = endpoint.name().toLowerCase(Locale.ROOT);
+            writeDistribution(directory.resolve(file + ".response.hgrm"), response);
+            writeDistribution(directory.resolve(file + ".service.hgrm"), service);
+        }
+        json.append("\n  }\n}\n");
+
+        Files.writeString(directory.resolve("summary.txt"), summary, StandardCharsets.UTF_8);
+        Files.writeString(directory.resolve("summary.json"), json, StandardCharsets.UTF_8);
+        out.print(summary);
+    }
+
+    private static String percentilesJson(Histogram histogram) {
+        StringBuilder json = new StringBuilder("{");
+        for (double percentile : PERCENTILES) {
+            json.append(String.format(Locale.ROOT, "\"p%s\": %.3f, ", trim(percentile),
+                    millis(histogram.getValueAtPercentile(percentile))));
+        }
+        json.append(String.format(Locale.ROOT, "\"max\": %.3f}", millis(histogram.getMaxValue())));
+        return json.toString();
+    }
+
+    private static void writeDistribution(Path file, Histogram histogram) throws IOException {
+        try (PrintStream out = new PrintStream(Files.newOutputStream(file), false, StandardCharsets.UTF_8)) {
+            // 以毫秒输出，与 HdrHistogram 在线绘图工具的默认单位一致
+            histogram.outputPercentileDistribution(out, 1_000_000.0);
+        }
+    }
+
+    private static String trim(double percentile) {
+        return percentile == Math.rint(percentile) ? Long.toString((long) percentile) : Double.toString(percentile);
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    private static final class Stats {
+
+        private final Recorder responseTime = new Recorder(HIGHEST_TRACKABLE_NANOS, 3);
+        private final Recorder serviceTime = new Recorder(HIGHEST_TRACKABLE_NANOS, 3);
+        private final LongAdder successes = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+    }
+}
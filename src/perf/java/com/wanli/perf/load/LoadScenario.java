@@ -0,0 +1,97 @@
+package com.wanli.perf.load;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 生产流量模型：按权重随机选择接口并构造请求
+ * 约 70% 按ID查询用户，其余为用户名检查、列表分页、资料更新与统计。
+ *
+ * @author JamesWu
+ * @since 1.0.0
+ */
+public class LoadScenario {
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(10);
+
+    /**
+     * 接口及其流量占比（百分比，合计 100）
+     */
+    public enum Endpoint {
+        GET_USER("GET /api/users/{id}", 70),
+        CHECK_USERNAME("GET /api/users/check-username", 10),
+        LIST_USERS("GET /api/users", 10),
+        UPDATE_USER("PUT /api/users/{id}", 5),
+        STATISTICS("GET /api/users/statistics", 5);
+
+        private final String label;
+        private final int weight;
+
+        Endpoint(String label, int weight) {
+            this.label = label;
+            this.weight = weight;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+    }
+
+    private final String baseUrl;
+    private final String bearerToken;
+    private final List<String> userIds;
+
+    public LoadScenario(String baseUrl, String bearerToken, List<String> userIds) {
+        this.baseUrl = baseUrl;
+        this.bearerToken = bearerToken;
+        this.userIds = userIds;
+    }
+
+    /**
+     * 按权重选择下一个接口
+     */
+    public Endpoint nextEndpoint() {
+        int roll = ThreadLocalRandom.current().nextInt(100);
+        for (Endpoint endpoint : Endpoint.values()) {
+            roll -= endpoint.weight;
+            if (roll < 0) {
+                return endpoint;
+            }
+        }
+        return Endpoint.GET_USER;
+    }
+
+    /**
+     * 构造接口请求
+     */
+    public HttpRequest request(Endpoint endpoint) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        HttpRequest.Builder builder = switch (endpoint) {
+            case GET_USER -> HttpRequest.newBuilder(uri("/api/users/" + randomUserId())).GET();
+            case CHECK_USERNAME -> HttpRequest.newBuilder(
+                    uri("/api/users/check-username?username=user" + random.nextInt(userIds.size() * 2))).GET();
+            case LIST_USERS -> HttpRequest.newBuilder(
+                    uri("/api/users?page=" + random.nextInt(20) + "&size=20")).GET();
+            case UPDATE_USER -> HttpRequest.newBuilder(uri("/api/users/" + randomUserId()))
+                    .header("Content-Type", "application/json")
+                    .PUT(HttpRequest.BodyPublishers.ofString(
+                            "{\"fullName\":\"load-" + random.nextInt(1000) + "\"}"));
+            case STATISTICS -> HttpRequest.newBuilder(uri("/api/users/statistics")).GET();
+        };
+        return builder
+                .header("Authorization", "Bearer " + bearerToken)
+                .timeout(REQUEST_TIMEOUT)
+                .build();
+    }
+
+    private String randomUserId() {
+        return userIds.get(ThreadLocalRandom.current().nextInt(userIds.size()));
+    }
+
+    private URI uri(String path) {
+        return URI.create(baseUrl + path);
+    }
+}
@@ -0,0 +1,146 @@
+package com.wanli.perf.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wanli.perf.benchmark.PerfApplication;
+import com.wanli.perf.benchmark.PerfData;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 进程内开环压测
+ * 在本进程内以 H2 + 嵌入式 Redis 启动应用，按固定速率（开环，不等待前一个请求完成）发送生产流量模型的请求，
+ * 延迟从计划发送时刻开始计算，服务端变慢时排队时间会计入结果，避免协调遗漏。
+ *
+ * 运行: mvn -Pperf test-compile exec:exec@load-test -Dload.args="rate=500 duration=60 warmup=10 users=10000"
+ * 参数（均可省略）：rate 每秒请求数，duration / warmup 秒，users 预置用户数，
+ * max-in-flight 最大并发请求数（超出时记为错误），output 报告目录
+ *
+ * @author JamesWu
+ * @since 1.0.0
+ */
+public final class LoadTest {
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parse(args);
+        int rate = Integer.parseInt(options.getOrDefault("rate", "500"));
+        int durationSeconds = Integer.parseInt(options.getOrDefault("duration", "60"));
+        int warmupSeconds = Integer.parseInt(options.getOrDefault("warmup", "10"));
+        int users = Integer.parseInt(options.getOrDefault("users", "10000"));
+        int maxInFlight = Integer.parseInt(options.getOrDefault("max-in-flight", "2000"));
+        Path output = Path.of(options.getOrDefault("output", "target/load-"
+                + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"))));
+
+        // 压测从单一地址发出，关闭限流以免测到的是 429
+        try (PerfApplication application = PerfApplication.start("load_" + users, users, true,
+                "--app.rate-limit.enabled=false")) {
+            // baseUrl 含 context-path，接口路径本身也以 /api 开头
+            String baseUrl = "http://localhost:" + application.getPort() + "/api";
+            ExecutorService callbacks = Executors.newFixedThreadPool(4);
+            HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(5))
+                    .executor(callbacks)
+                    .build();
+            try {
+                String token = login(client, baseUrl);
+                LoadScenario scenario = new LoadScenario(baseUrl, token, application.getUserIds());
+                LatencyReport report = new LatencyReport();
+
+                System.out.printf("预热 %d 秒，速率 %d req/s%n", warmupSeconds, rate);
+                run(client, scenario, report, rate, warmupSeconds, maxInFlight);
+                report.reset();
+
+                System.out.printf("测量 %d 秒，速率 %d req/s%n", durationSeconds, rate);
+                run(client, scenario, report, rate, durationSeconds, maxInFlight);
+
+                report.write(output, rate, durationSeconds, System.out);
+                System.out.println("报告已写入 " + output.toAbsolutePath());
+            } finally {
+                callbacks.shutdownNow();
+            }
+        }
+    }
+
+    /**
+     * 按固定间隔发送请求直到时长结束，并等待在途请求完成
+     */
+    private static void run(HttpClient client, LoadScenario scenario, LatencyReport report,
+                            int rate, int seconds, int maxInFlight) throws InterruptedException {
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / rate;
+        long total = (long) rate * seconds;
+        Semaphore inFlight = new Semaphore(maxInFlight);
+        long start = System.nanoTime();
+
+        for (long i = 0; i < total; i++) {
+            long intended = start + i * intervalNanos;
+            long wait;
+            while ((wait = intended - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(wait);
+            }
+
+            LoadScenario.Endpoint endpoint = scenario.nextEndpoint();
+            if (!inFlight.tryAcquire()) {
+                // 在途请求过多说明服务端已饱和，记为错误而不是阻塞发送节奏
+                long now = System.nanoTime();
+                report.record(endpoint, intended, now, now, false);
+                continue;
+            }
+            HttpRequest request = scenario.request(endpoint);
+            long actual = System.nanoTime();
+            client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, error) -> {
+                        long end = System.nanoTime();
+                        boolean success = error == null && response.statusCode() / 100 == 2;
+                        report.record(endpoint, intended, actual, end, success);
+                        inFlight.release();
+                    });
+        }
+        inFlight.acquire(maxInFlight);
+        inFlight.release(maxInFlight);
+    }
+
+    private static String login(HttpClient client, String baseUrl) throws IOException, InterruptedException {
+        // 以管理员身份登录：资料更新会随机修改任意用户，普通用户只能修改自己（否则测到的是 403）
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/auth/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"login\":\"" + PerfData.ADMIN_USERNAME
+                        + "\",\"password\":\"" + PerfData.PASSWORD + "\"}"))
+                .build();
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        JsonNode token = new ObjectMapper().readTree(response.body()).path("data").path("token");
+        if (response.statusCode() != 200 || !token.isTextual()) {
+            throw new IllegalStateException("登录失败: " + response.statusCode() + " " + response.body());
+        }
+        return token.asText();
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (separator > 0) {
+                options.put(arg.substring(0, separator), arg.substring(separator + 1));
+            }
+        }
+        return options;
+    }
+}
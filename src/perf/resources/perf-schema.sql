@@ -0,0 +1,89 @@
+-- 性能测试用嵌入式数据库结构（H2 MySQL 兼容模式）
+-- 与 db/migration 中的 MySQL 结构保持一致，去掉了 H2 不支持的表选项
+
+CREATE TABLE users (
+    id VARCHAR(36) PRIMARY KEY,
+    username VARCHAR(50) NOT NULL UNIQUE,
+    email VARCHAR(100) NOT NULL UNIQUE,
+    password_hash VARCHAR(255) NOT NULL,
+    full_name VARCHAR(100),
+    phone VARCHAR(20),
+    avatar_url VARCHAR(500),
+    status VARCHAR(20) DEFAULT 'ACTIVE',
+    role VARCHAR(20) NOT NULL DEFAULT 'USER',
+    email_verified BOOLEAN DEFAULT FALSE,
+    phone_verified BOOLEAN DEFAULT FALSE,
+    last_login_at TIMESTAMP NULL,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    created_by VARCHAR(36),
+    updated_by VARCHAR(36)
+);
+
+CREATE INDEX idx_users_status ON users (status);
+CREATE INDEX idx_users_created_at ON users (created_at);
+CREATE INDEX idx_users_status_created_at ON users (status, created_at);
+CREATE INDEX idx_users_last_login_at ON users (last_login_at);
+CREATE INDEX idx_users_status_last_login_at ON users (status, last_login_at);
+
+CREATE TABLE user_search_grams (
+    gram VARCHAR(8) NOT NULL,
+    user_id VARCHAR(36) NOT NULL,
+    PRIMARY KEY (gram, user_id)
+);
+
+CREATE INDEX idx_user_search_grams_user_id ON user_search_grams (user_id);
+
+CREATE INDEX idx_users_phone ON users (phone);
+CREATE INDEX idx_users_created_by_created_at ON users (created_by, created_at);
+CREATE INDEX idx_users_email_verified_status ON users (email_verified, status, created_at);
+CREATE INDEX idx_users_phone_verified_status ON users (phone_verified, status, created_at);
+CREATE INDEX idx_users_status_updated_at ON users (status, updated_at);
+
+CREATE TABLE users_archive (
+    id VARCHAR(36) PRIMARY KEY,
+    username VARCHAR(50) NOT NULL,
+    email VARCHAR(100) NOT NULL,
+    full_name VARCHAR(100),
+    phone VARCHAR(20),
+    avatar_url VARCHAR(500),
+    status VARCHAR(20) NOT NULL,
+    email_verified BOOLEAN NOT NULL DEFAULT FALSE,
+    phone_verified BOOLEAN NOT NULL DEFAULT FALSE,
+    last_login_at TIMESTAMP NULL,
+    created_at TIMESTAMP NULL,
+    deleted_at TIMESTAMP NULL,
+    created_by VARCHAR(36),
+    updated_by VARCHAR(36),
+    archived_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX idx_users_archive_archived_at ON users_archive (archived_at);
+
+CREATE TABLE user_outbox (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    event_type VARCHAR(32) NOT NULL,
+    user_id VARCHAR(36) NOT NULL,
+    payload TEXT NOT NULL,
+    occurred_at TIMESTAMP(3) NOT NULL,
+    published_at TIMESTAMP(3) NULL
+);
+
+CREATE INDEX idx_user_outbox_published_at ON user_outbox (published_at, id);
+
+CREATE TABLE mail_queue (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    template VARCHAR(32) NOT NULL,
+    user_id VARCHAR(36),
+    recipient VARCHAR(100) NOT NULL,
+    recipient_name VARCHAR(100),
+    status VARCHAR(16) NOT NULL DEFAULT 'PENDING',
+    attempts INT NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMP(3) NOT NULL,
+    last_error VARCHAR(500),
+    created_at TIMESTAMP(3) NOT NULL,
+    sent_at TIMESTAMP(3) NULL
+);
+
+CREATE INDEX idx_mail_queue_status_next_attempt_at ON mail_queue (status, next_attempt_at, id);
+CREATE INDEX idx_mail_queue_status_sent_at ON mail_queue (status, sent_at);
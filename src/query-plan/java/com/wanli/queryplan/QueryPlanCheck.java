@@ -0,0 +1,258 @@
+package com.wanli.queryplan;
+
+import com.wanli.cache.UserEntityCacheLock;
+import com.wanli.entity.User;
+import com.wanli.repository.UserRepository;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.autoconfigure.flyway.FlywayAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.JdbcTemplateAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.boot.autoconfigure.transaction.TransactionAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.utility.DockerImageName;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * UserRepository 执行计划回归检查
+ * 在 Testcontainers 启动的 MySQL 上执行全部 Flyway 迁移并预置大量用户，逐个调用 UserRepository 的方法，
+ * 对调用期间执行的每条语句按原参数执行 EXPLAIN。出现以下情况时以非零状态退出，使构建失败：
+ * 任一语句对表做全表扫描（type = ALL）或全索引扫描（type = index 且估算行数超过 query-plan.max-index-scan-rows，
+ * 按索引顺序读取并在 LIMIT 处停止的扫描估算行数很小，不计入）且该方法未声明允许原因；
+ * 方法调用失败；声明的方法没有对应的检查调用。
+ * DML 在回滚的事务中执行，不改变预置数据。
+ * 运行: mvn -Pquery-plan-check verify [-Dquery-plan.rows=200000]（需要 Docker；CI 的 test 任务会执行）
+ * 报告: target/query-plans/report.txt
+ *
+ * @author JamesWu
+ * @since 1.0.0
+ */
+public final class QueryPlanCheck {
+
+    private static final String PASSWORD_HASH = "$2a$10$7EqJtq98hPqEX7fNZaFWoOhi5BWX4Z8/J4BvVqnnHc4ZZ26OANmkC";
+
+    /**
+     * 按序号生成用户：80% ACTIVE，10% INACTIVE，5% SUSPENDED，5% DELETED；
+     * 75% 邮箱已验证，约三分之一手机号已验证，20% 从未登录，2% 由管理员创建，创建时间分布在两年内
+     */
+    private static final String SEED_USERS = "INSERT INTO users (id, username, email, password_hash, full_name, phone, "
+            + "status, email_verified, phone_verified, last_login_at, created_at, updated_at, created_by) "
+            + "WITH RECURSIVE seq (n) AS (SELECT 1 UNION ALL SELECT n + 1 FROM seq WHERE n < ?) "
+            + "SELECT UUID(), CONCAT('user', n), CONCAT('user', n, '@example.com'), ?, CONCAT('User ', n), "
+            + "CONCAT('138', LPAD(n, 8, '0')), "
+            + "CASE WHEN n % 20 = 0 THEN 'DELETED' WHEN n % 20 = 1 THEN 'SUSPENDED' "
+            + "WHEN n % 10 = 2 THEN 'INACTIVE' ELSE 'ACTIVE' END, "
+            + "n % 4 <> 0, n % 3 = 0, "
+            + "IF(n % 5 = 0, NULL, NOW() - INTERVAL (n % 90) DAY - INTERVAL (n % 86400) SECOND), "
+            + "NOW() - INTERVAL (n % 730) DAY - INTERVAL (n % 86400) SECOND, "
+            + "NOW() - INTERVAL (n % 365) DAY, "
+            + "IF(n % 50 = 0, CONCAT('admin-', n % 7), NULL) "
+            + "FROM seq";
+
+    /**
+     * 全索引扫描的估算行数上限，超过视为扫描整个索引
+     */
+    private static final long MAX_INDEX_SCAN_ROWS = Long.getLong("query-plan.max-index-scan-rows", 1000);
+
+    private QueryPlanCheck() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int rows = Integer.getInteger("query-plan.rows", 200_000);
+        String image = System.getProperty("query-plan.mysql-image", "mysql:8.0.36");
+        Path output = Path.of(System.getProperty("query-plan.output", "target/query-plans"));
+
+        List<String> report = new ArrayList<>();
+        List<String> failures = new ArrayList<>();
+
+        try (MySQLContainer<?> mysql = new MySQLContainer<>(DockerImageName.parse(image))
+                .withCommand("--character-set-server=utf8mb4", "--collation-server=utf8mb4_unicode_ci")) {
+            mysql.start();
+
+            try (HikariDataSource pool = new HikariDataSource()) {
+                pool.setJdbcUrl(mysql.getJdbcUrl());
+                pool.setUsername(mysql.getUsername());
+                pool.setPassword(mysql.getPassword());
+                pool.setMaximumPoolSize(4);
+                StatementRecorder recorder = new StatementRecorder(pool);
+
+                try (ConfigurableApplicationContext context = new SpringApplicationBuilder(QueryPlanConfiguration.class)
+                        .initializers(ctx -> ctx.getBeanFactory().registerSingleton("dataSource", recorder))
+                        .run("--spring.config.name=query-plan",
+                                "--spring.main.web-application-type=none",
+                                "--spring.main.banner-mode=off",
+                                "--spring.jpa.hibernate.ddl-auto=none",
+                                "--spring.jpa.open-in-view=false",
+                                "--spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+                                "--spring.jpa.properties.hibernate.cache.use_query_cache=false",
+                                "--logging.level.root=WARN")) {
+                    JdbcTemplate jdbc = new JdbcTemplate(pool);
+                    long started = System.currentTimeMillis();
+                    seed(jdbc, rows);
+                    System.out.printf("已预置 %d 个用户，耗时 %d ms%n", rows, System.currentTimeMillis() - started);
+
+                    check(context.getBean(UserRepository.class),
+                            new TransactionTemplate(context.getBean(PlatformTransactionManager.class)),
+                            recorder, pool, sample(jdbc), report, failures);
+                }
+            }
+        }
+
+        report.add("");
+        report.add(failures.isEmpty() ? "通过" : "失败 " + failures.size() + " 项:");
+        failures.forEach(failure -> report.add("  " + failure));
+        Files.createDirectories(output);
+        Files.write(output.resolve("report.txt"), report, StandardCharsets.UTF_8);
+        report.forEach(System.out::println);
+        System.out.println("报告已写入 " + output.resolve("report.txt").toAbsolutePath());
+        if (!failures.isEmpty()) {
+            System.exit(1);
+        }
+    }
+
+    private static void check(UserRepository repository, TransactionTemplate transactionTemplate,
+                              StatementRecorder recorder, HikariDataSource pool, RepositoryCalls.Sample sample,
+                              List<String> report, List<String> failures) throws SQLException {
+        Map<String, RepositoryCalls.Call> calls = RepositoryCalls.calls(sample);
+        Set<String> missing = new TreeSet<>(RepositoryCalls.requiredSignatures());
+        missing.removeAll(calls.keySet());
+        for (String signature : missing) {
+            failures.add(signature + ": 没有对应的执行计划检查调用（见 RepositoryCalls）");
+        }
+
+        for (RepositoryCalls.Call call : calls.values()) {
+            report.add(call.signature());
+            List<StatementRecorder.RecordedStatement> statements;
+            recorder.start();
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    status.setRollbackOnly();
+                    call.invocation().apply(repository);
+                });
+            } catch (RuntimeException e) {
+                failures.add(call.signature() + ": 调用失败 " + e);
+                report.add("  调用失败: " + e);
+                continue;
+            } finally {
+                statements = recorder.stop();
+            }
+            if (statements.isEmpty()) {
+                failures.add(call.signature() + ": 未执行任何语句");
+                continue;
+            }
+
+            for (StatementRecorder.RecordedStatement statement : statements) {
+                report.add("  " + statement.sql());
+                for (PlanRow row : explain(pool, statement)) {
+                    report.add("    " + row);
+                    if (row.isFullScan() || row.isFullIndexScan()) {
+                        String scan = row.isFullScan() ? "全表扫描" : "全索引扫描";
+                        if (call.fullScanReason() != null) {
+                            report.add("    允许" + scan + ": " + call.fullScanReason());
+                        } else {
+                            failures.add(call.signature() + ": " + scan + " " + row.table() + "（" + row.rows() + " 行）");
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private static List<PlanRow> explain(HikariDataSource pool, StatementRecorder.RecordedStatement statement)
+            throws SQLException {
+        try (Connection connection = pool.getConnection();
+             PreparedStatement explain = connection.prepareStatement("EXPLAIN " + statement.sql())) {
+            statement.bind(explain);
+            List<PlanRow> rows = new ArrayList<>();
+            try (ResultSet rs = explain.executeQuery()) {
+                while (rs.next()) {
+                    rows.add(new PlanRow(rs.getString("select_type"), rs.getString("table"), rs.getString("type"),
+                            rs.getString("key"), rs.getLong("rows"), rs.getString("Extra")));
+                }
+            }
+            return rows;
+        }
+    }
+
+    private static void seed(JdbcTemplate jdbc, int rows) {
+        // 递归深度是会话变量，需要与 INSERT 使用同一连接
+        jdbc.execute((ConnectionCallback<Void>) connection -> {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("SET SESSION cte_max_recursion_depth = " + (rows + 1));
+            }
+            try (PreparedStatement insert = connection.prepareStatement(SEED_USERS)) {
+                insert.setInt(1, rows);
+                insert.setString(2, PASSWORD_HASH);
+                insert.executeUpdate();
+            }
+            return null;
+        });
+        jdbc.execute("ANALYZE TABLE users");
+    }
+
+    private static RepositoryCalls.Sample sample(JdbcTemplate jdbc) {
+        List<String> ids = jdbc.queryForList("SELECT id FROM users WHERE status = 'ACTIVE' ORDER BY id LIMIT 10",
+                String.class);
+        return jdbc.queryForObject("SELECT id, username, email, phone, password_hash FROM users WHERE id = ?",
+                (rs, rowNum) -> new RepositoryCalls.Sample(rs.getString("id"), rs.getString("username"),
+                        rs.getString("email"), rs.getString("phone"), rs.getString("password_hash"), ids),
+                ids.get(0));
+    }
+
+    /**
+     * EXPLAIN 的一行
+     */
+    private record PlanRow(String selectType, String table, String type, String key, long rows, String extra) {
+
+        boolean isFullScan() {
+            return table != null && "ALL".equals(type);
+        }
+
+        boolean isFullIndexScan() {
+            return table != null && "index".equals(type) && rows > MAX_INDEX_SCAN_ROWS;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT, "%-8s %-10s type=%-6s key=%-36s rows=%-8d %s",
+                    selectType, table, type, key, rows, extra != null ? extra : "");
+        }
+    }
+
+    /**
+     * 只包含 JPA、Flyway 与 JdbcTemplate 的最小上下文，数据源由启动参数中的初始化器注册；
+     * UserRepositoryImpl 依赖的二级缓存软锁在缓存关闭时为空操作
+     */
+    @Configuration(proxyBeanMethods = false)
+    @ImportAutoConfiguration({FlywayAutoConfiguration.class, HibernateJpaAutoConfiguration.class,
+            JdbcTemplateAutoConfiguration.class, TransactionAutoConfiguration.class})
+    @Import(UserEntityCacheLock.class)
+    @EntityScan(basePackageClasses = User.class)
+    @EnableJpaRepositories(basePackageClasses = UserRepository.class)
+    static class QueryPlanConfiguration {
+    }
+}
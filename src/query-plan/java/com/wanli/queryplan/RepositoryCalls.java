@@ -0,0 +1,169 @@
+package com.wanli.queryplan;
+
+import com.wanli.dto.UserCursor;
+import com.wanli.entity.User;
+import com.wanli.repository.UserRepository;
+import com.wanli.repository.UserRepositoryCustom;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * UserRepository 各方法的检查用调用
+ * 每个在 UserRepository / UserRepositoryCustom 中声明的方法都必须在这里有一条调用，
+ * 新增查询方法而未补充调用时检查直接失败。参数取值贴近接口的实际用法（排序、分页大小、时间窗口）。
+ *
+ * @author JamesWu
+ * @since 1.0.0
+ */
+final class RepositoryCalls {
+
+    private static final Pageable PAGE = PageRequest.of(0, 20, Sort.by(Sort.Direction.DESC, "createdAt"));
+
+    /**
+     * 前导通配符 LIKE 无法使用 B-tree 索引；接口搜索走 user_search_grams 倒排索引，
+     * 只有单字符关键字才回退到 findViewsByKeyword
+     */
+    private static final String LEADING_WILDCARD = "前导通配符 LIKE，搜索走 n-gram 倒排索引";
+
+    /**
+     * 不带条件的 COUNT 只能扫描整个最小的二级索引；统计接口读取增量计数器，不执行该查询
+     */
+    private static final String UNFILTERED_COUNT = "不带条件的 COUNT 扫描整个索引，统计走计数器";
+
+    /**
+     * 偏移分页的总数来自不带条件的 COUNT；深分页与大列表应使用游标分页（findSliceAfter，不计总数）
+     */
+    private static final String UNFILTERED_PAGE_COUNT = "偏移分页总数需扫描整个索引，大列表走游标分页";
+
+    private RepositoryCalls() {
+    }
+
+    /**
+     * 一次检查调用
+     *
+     * @param signature 方法签名
+     * @param invocation 调用
+     * @param fullScanReason 允许全表扫描或全索引扫描的原因，为空表示不允许
+     */
+    record Call(String signature, Function<UserRepository, Object> invocation, String fullScanReason) {
+    }
+
+    /**
+     * 已有用户的样本值
+     */
+    record Sample(String id, String username, String email, String phone, String passwordHash, List<String> ids) {
+    }
+
+    /**
+     * 需要检查的方法签名
+     */
+    static Set<String> requiredSignatures() {
+        Set<String> signatures = new TreeSet<>();
+        for (Class<?> type : List.of(UserRepository.class, UserRepositoryCustom.class)) {
+            for (Method method : type.getDeclaredMethods()) {
+                if (!method.isDefault() && !method.isSynthetic() && !Modifier.isStatic(method.getModifiers())) {
+                    signatures.add(signature(method));
+                }
+            }
+        }
+        return signatures;
+    }
+
+    /**
+     * 按签名索引的调用，除声明的方法外还包含接口使用的继承方法（findById、findAll(Pageable)、count）
+     */
+    @SuppressWarnings("deprecation")
+    static Map<String, Call> calls(Sample sample) {
+        LocalDateTime now = LocalDateTime.now();
+        Map<String, Call> calls = new LinkedHashMap<>();
+
+        add(calls, "findById(Object)", r -> r.findById(sample.id()));
+        addFullScan(calls, "findAll(Pageable)", r -> r.findAll(PAGE), UNFILTERED_PAGE_COUNT);
+        addFullScan(calls, "count()", UserRepository::count, UNFILTERED_COUNT);
+
+        add(calls, "findByUsername(String)", r -> r.findByUsername(sample.username()));
+        add(calls, "findByEmail(String)", r -> r.findByEmail(sample.email()));
+        add(calls, "findByPhoneNumber(String)", r -> r.findByPhoneNumber(sample.phone()));
+        add(calls, "findByUsernameOrEmail(String,String)", r -> r.findByUsernameOrEmail(sample.username(), sample.email()));
+        add(calls, "existsByUsername(String)", r -> r.existsByUsername(sample.username()));
+        add(calls, "existsByEmail(String)", r -> r.existsByEmail(sample.email()));
+        add(calls, "existsByPhoneNumber(String)", r -> r.existsByPhoneNumber(sample.phone()));
+        add(calls, "findByStatus(UserStatus,Pageable)", r -> r.findByStatus(User.UserStatus.ACTIVE, PAGE));
+        addFullScan(calls, "findViews(Pageable)", r -> r.findViews(PAGE), UNFILTERED_PAGE_COUNT);
+        add(calls, "findViewsByStatus(UserStatus,Pageable)", r -> r.findViewsByStatus(User.UserStatus.ACTIVE, PAGE));
+        add(calls, "countByStatus(UserStatus)", r -> r.countByStatus(User.UserStatus.ACTIVE));
+        add(calls, "findByEmailVerifiedTrue(Pageable)", r -> r.findByEmailVerifiedTrue(PAGE));
+        add(calls, "findByPhoneVerifiedTrue(Pageable)", r -> r.findByPhoneVerifiedTrue(PAGE));
+        add(calls, "findByCreatedAtBetween(LocalDateTime,LocalDateTime,Pageable)",
+                r -> r.findByCreatedAtBetween(now.minusDays(7), now, PAGE));
+        add(calls, "findByLastLoginAtBetween(LocalDateTime,LocalDateTime,Pageable)",
+                r -> r.findByLastLoginAtBetween(now.minusDays(1), now, PAGE));
+        add(calls, "findByLastLoginAtBeforeOrLastLoginAtIsNull(LocalDateTime,Pageable)",
+                r -> r.findByLastLoginAtBeforeOrLastLoginAtIsNull(now.minusDays(80), PAGE));
+        addFullScan(calls, "findByFullNameContainingIgnoreCase(String,Pageable)",
+                r -> r.findByFullNameContainingIgnoreCase("1234", PAGE), LEADING_WILDCARD);
+        addFullScan(calls, "findByUsernameContainingIgnoreCase(String,Pageable)",
+                r -> r.findByUsernameContainingIgnoreCase("1234", PAGE), LEADING_WILDCARD);
+        addFullScan(calls, "findByEmailContainingIgnoreCase(String,Pageable)",
+                r -> r.findByEmailContainingIgnoreCase("1234", PAGE), LEADING_WILDCARD);
+        addFullScan(calls, "findByKeyword(String,Pageable)", r -> r.findByKeyword("7", PAGE), LEADING_WILDCARD);
+        addFullScan(calls, "findViewsByKeyword(String,Pageable)", r -> r.findViewsByKeyword("7", PAGE), LEADING_WILDCARD);
+        add(calls, "findActiveUsers(LocalDateTime,Pageable)", r -> r.findActiveUsers(now.minusDays(30), PAGE));
+        add(calls, "countActiveUsers(LocalDateTime)", r -> r.countActiveUsers(now.minusDays(30)));
+        add(calls, "findNewUsers(LocalDateTime,Pageable)", r -> r.findNewUsers(now.minusDays(7), PAGE));
+        add(calls, "countNewUsers(LocalDateTime)", r -> r.countNewUsers(now.minusDays(7)));
+        add(calls, "findByEmailVerifiedFalseAndStatus(UserStatus,Pageable)",
+                r -> r.findByEmailVerifiedFalseAndStatus(User.UserStatus.ACTIVE, PAGE));
+        add(calls, "findByPhoneVerifiedFalseAndStatus(UserStatus,Pageable)",
+                r -> r.findByPhoneVerifiedFalseAndStatus(User.UserStatus.ACTIVE, PAGE));
+        add(calls, "findByCreatedBy(String,Pageable)", r -> r.findByCreatedBy("admin-3", PAGE));
+        add(calls, "findByIdIn(List)", r -> r.findByIdIn(sample.ids()));
+        add(calls, "findByStatus(UserStatus)", r -> r.findByStatus(User.UserStatus.SUSPENDED));
+        add(calls, "deleteOldDeletedUsers(LocalDateTime,UserStatus)", r -> {
+            r.deleteOldDeletedUsers(now.minusDays(30), User.UserStatus.DELETED);
+            return null;
+        });
+
+        add(calls, "findSliceAfter(UserStatus,String,Direction,UserCursor,int)", r -> List.of(
+                r.findSliceAfter(null, "createdAt", Sort.Direction.DESC,
+                        new UserCursor("createdAt", Sort.Direction.DESC, now.minusDays(30), sample.id()), 20),
+                r.findSliceAfter(User.UserStatus.ACTIVE, "lastLoginAt", Sort.Direction.DESC,
+                        new UserCursor("lastLoginAt", Sort.Direction.DESC, now.minusDays(10), sample.id()), 20)));
+        add(calls, "updateStatus(String,UserStatus,UserStatus,LocalDateTime)",
+                r -> r.updateStatus(sample.id(), User.UserStatus.ACTIVE, User.UserStatus.SUSPENDED, now));
+        add(calls, "markEmailVerified(String,LocalDateTime)", r -> r.markEmailVerified(sample.id(), now));
+        add(calls, "markPhoneVerified(String,LocalDateTime)", r -> r.markPhoneVerified(sample.id(), now));
+        add(calls, "updatePasswordHash(String,String,String,LocalDateTime)",
+                r -> r.updatePasswordHash(sample.id(), sample.passwordHash(), sample.passwordHash(), null));
+        add(calls, "lockStatus(String)", r -> r.lockStatus(sample.id()));
+        return calls;
+    }
+
+    static String signature(Method method) {
+        return method.getName() + Arrays.stream(method.getParameterTypes())
+                .map(Class::getSimpleName)
+                .collect(Collectors.joining(",", "(", ")"));
+    }
+
+    private static void add(Map<String, Call> calls, String signature, Function<UserRepository, Object> invocation) {
+        calls.put(signature, new Call(signature, invocation, null));
+    }
+
+    private static void addFullScan(Map<String, Call> calls, String signature,
+                                    Function<UserRepository, Object> invocation, String reason) {
+        calls.put(signature, new Call(signature, invocation, reason));
+    }
+}
@@ -0,0 +1,162 @@
+package com.wanli.queryplan;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 记录执行语句的数据源包装
+ * 录制期间记下每条执行的 SQL 以及对 PreparedStatement 的参数设置调用，
+ * 之后可在 "EXPLAIN " + SQL 上按原样重放参数得到真实的执行计划。
+ *
+ * @author JamesWu
+ * @since 1.0.0
+ */
+public class StatementRecorder extends DelegatingDataSource {
+
+    private volatile List<RecordedStatement> recording;
+
+    public StatementRecorder(DataSource targetDataSource) {
+        super(targetDataSource);
+    }
+
+    /**
+     * 开始录制
+     */
+    public void start() {
+        recording = new ArrayList<>();
+    }
+
+    /**
+     * 结束录制
+     *
+     * @return 录制期间执行的语句
+     */
+    public List<RecordedStatement> stop() {
+        List<RecordedStatement> statements = recording;
+        recording = null;
+        return statements != null ? statements : List.of();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return connection(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return connection(super.getConnection(username, password));
+    }
+
+    private Connection connection(Connection target) {
+        return (Connection) Proxy.newProxyInstance(StatementRecorder.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, new ConnectionHandler(target));
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+
+    /**
+     * 执行过的语句
+     *
+     * @param sql SQL
+     * @param parameters 参数设置调用（按调用顺序）
+     */
+    public record RecordedStatement(String sql, List<ParameterCall> parameters) {
+
+        /**
+         * 在 EXPLAIN 语句上重放参数
+         */
+        public void bind(PreparedStatement explain) throws SQLException {
+            for (ParameterCall call : parameters) {
+                try {
+                    call.method().invoke(explain, call.args());
+                } catch (ReflectiveOperationException e) {
+                    throw new SQLException("无法重放参数 " + call.method().getName(), e);
+                }
+            }
+        }
+    }
+
+    /**
+     * PreparedStatement.setXxx 调用
+     */
+    public record ParameterCall(Method method, Object[] args) {
+    }
+
+    private final class ConnectionHandler implements InvocationHandler {
+
+        private final Connection target;
+
+        private ConnectionHandler(Connection target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            // 事务同步按连接对象判等，代理需要以自身身份比较
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    break;
+            }
+            Object result = StatementRecorder.invoke(target, method, args);
+            if (!(result instanceof Statement statement)) {
+                return result;
+            }
+            String sql = args != null && args.length > 0 && args[0] instanceof String s ? s : null;
+            Class<?> type = statement instanceof PreparedStatement ? PreparedStatement.class : Statement.class;
+            return Proxy.newProxyInstance(StatementRecorder.class.getClassLoader(),
+                    new Class<?>[]{type}, new StatementHandler(statement, sql));
+        }
+    }
+
+    private final class StatementHandler implements InvocationHandler {
+
+        private final Statement target;
+        private final String preparedSql;
+        private final List<ParameterCall> parameters = new ArrayList<>();
+
+        private StatementHandler(Statement target, String preparedSql) {
+            this.target = target;
+            this.preparedSql = preparedSql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            List<RecordedStatement> statements = recording;
+            if (statements != null) {
+                if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer) {
+                    parameters.add(new ParameterCall(method, args.clone()));
+                } else if ("clearParameters".equals(name)) {
+                    parameters.clear();
+                } else if (name.startsWith("execute")) {
+                    String sql = args != null && args.length > 0 && args[0] instanceof String s ? s : preparedSql;
+                    synchronized (statements) {
+                        statements.add(new RecordedStatement(sql, List.copyOf(parameters)));
+                    }
+                }
+            }
+            return StatementRecorder.invoke(target, method, args);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.wanli.cache;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * BloomFilter 测试
+ *
+ * @author JamesWu
+ * @since 1.0.0
+ */
+class BloomFilterTest {
+
+    @Test
+    void emptyFilterContainsNothing() {
+        BloomFilter filter = new BloomFilter(1000, 0.01);
+
+        assertThat(filter.mightContain("alice")).isFalse();
+        assertThat(filter.expectedFalsePositiveRate()).isZero();
+    }
+
+    @Test
+    void insertedValuesAreAlwaysFound() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("user" + i);
+        }
+
+        for (int i = 0; i < 10_000; i++) {
+            assertThat(filter.mightContain("user" + i)).as("user%d", i).isTrue();
+        }
+    }
+
+    @Test
+    void falsePositiveRateStaysNearTarget() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("user" + i);
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.mightContain("other" + i)) {
+                falsePositives++;
+            }
+        }
+
+        assertThat(falsePositives / 100_000.0).isLessThan(0.02);
+        assertThat(filter.expectedFalsePositiveRate()).isBetween(0.001, 0.02);
+    }
+
+    @Test
+    void memoryFollowsExpectedInsertions() {
+        // 1% 误判率约需每个元素 9.6 位
+        assertThat(new BloomFilter(1_000_000, 0.01).memoryBytes()).isBetween(1_150_000L, 1_250_000L);
+        assertThat(new BloomFilter(0, 0.01).memoryBytes()).isEqualTo(8);
+    }
+
+    @Test
+    void indexReachesBitsAboveIntRange() {
+        long bitSize = 1L << 36;
+        long max = 0;
+        for (int i = 1; i <= 16; i++) {
+            long index = BloomFilter.index(0x7FFF_FFF0, 0x7FFF_FFF0, i, bitSize);
+            assertThat(index).isBetween(0L, bitSize - 1);
+            max = Math.max(max, index);
+        }
+
+        assertThat(max).isGreaterThan(Integer.MAX_VALUE);
+        assertThat(BloomFilter.index(-5, -7, 3, 1000)).isBetween(0L, 999L);
+    }
+}
@@ -0,0 +1,68 @@
+package com.wanli.cache;
+
+import com.wanli.entity.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * UserExistenceFilter 测试：归一化键与 utf8mb4_unicode_ci 的相等语义一致
+ *
+ * @author JamesWu
+ * @since 1.0.0
+ */
+class UserExistenceFilterTest {
+
+    @Test
+    void normalizeIgnoresCase() {
+        assertThat(UserExistenceFilter.normalize("Alice")).isEqualTo(UserExistenceFilter.normalize("aLICE"));
+    }
+
+    @Test
+    void normalizeIgnoresAccents() {
+        assertThat(UserExistenceFilter.normalize("José")).isEqualTo(UserExistenceFilter.normalize("jose"));
+        assertThat(UserExistenceFilter.normalize("Zoë@example.com"))
+                .isEqualTo(UserExistenceFilter.normalize("zoe@example.com"));
+    }
+
+    @Test
+    void normalizeIgnoresFullWidthForms() {
+        assertThat(UserExistenceFilter.normalize("ａｌｉｃｅ")).isEqualTo(UserExistenceFilter.normalize("alice"));
+    }
+
+    @Test
+    void normalizeIgnoresTrailingSpacesOnly() {
+        assertThat(UserExistenceFilter.normalize("bob  ")).isEqualTo(UserExistenceFilter.normalize("bob"));
+        assertThat(UserExistenceFilter.normalize("bob")).isNotEqualTo(UserExistenceFilter.normalize("bob1"));
+        assertThat(UserExistenceFilter.normalize(null)).isEmpty();
+    }
+
+    @Test
+    void filterIsPermissiveUntilBuilt() {
+        UserExistenceFilter filter = new UserExistenceFilter(mock(JdbcTemplate.class), new SimpleMeterRegistry());
+
+        assertThat(filter.mightContainUsername("anyone")).isTrue();
+        assertThat(filter.mightContainEmail("anyone@example.com")).isTrue();
+    }
+
+    @Test
+    void addedUserIsFoundUnderEquivalentSpellings() {
+        UserExistenceFilter filter = new UserExistenceFilter(mock(JdbcTemplate.class), new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(filter, "expectedInsertions", 1000L);
+        ReflectionTestUtils.setField(filter, "falsePositiveRate", 0.01);
+        assertThat(filter.rebuild()).isTrue();
+
+        User user = new User();
+        user.setUsername("José");
+        user.setEmail("Jose@Example.com");
+        filter.add(user);
+
+        assertThat(filter.mightContainUsername("JOSE ")).isTrue();
+        assertThat(filter.mightContainEmail("jose@example.com")).isTrue();
+        assertThat(filter.mightContainUsername("maria")).isFalse();
+    }
+}
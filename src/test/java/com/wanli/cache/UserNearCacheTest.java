@@ -0,0 +1,169 @@
+package com.wanli.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wanli.entity.User;
+import org.ehcache.jsr107.EhcacheCachingProvider;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import redis.embedded.RedisServer;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.configuration.MutableConfiguration;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * UserNearCache 测试：墓碑阻止回源写入、键索引的清理与校验
+ * 墓碑与索引清理都在 Lua 脚本中完成，因此使用嵌入式 Redis
+ *
+ * @author JamesWu
+ * @since 1.0.0
+ */
+class UserNearCacheTest {
+
+    private static final int REDIS_PORT = 16399;
+
+    private static RedisServer redisServer;
+    private static LettuceConnectionFactory connectionFactory;
+    private static StringRedisTemplate redisTemplate;
+
+    private CacheManager cacheManager;
+    private UserNearCache cache;
+
+    @BeforeAll
+    static void startRedis() {
+        redisServer = new RedisServer(REDIS_PORT);
+        redisServer.start();
+        connectionFactory = new LettuceConnectionFactory(new RedisStandaloneConfiguration("localhost", REDIS_PORT));
+        connectionFactory.afterPropertiesSet();
+        redisTemplate = new StringRedisTemplate(connectionFactory);
+        redisTemplate.afterPropertiesSet();
+    }
+
+    @AfterAll
+    static void stopRedis() {
+        connectionFactory.destroy();
+        redisServer.stop();
+    }
+
+    @BeforeEach
+    void setUp() {
+        redisTemplate.execute(connection -> {
+            connection.serverCommands().flushDb();
+            return null;
+        }, true);
+        cacheManager = Caching.getCachingProvider(EhcacheCachingProvider.class.getName()).getCacheManager();
+        cacheManager.createCache("user-near-cache",
+                new MutableConfiguration<String, User>().setTypes(String.class, User.class).setStoreByValue(false));
+        cacheManager.createCache("user-key-index",
+                new MutableConfiguration<String, String>().setTypes(String.class, String.class).setStoreByValue(false));
+        cache = new UserNearCache(cacheManager, redisTemplate, new ObjectMapper().findAndRegisterModules(),
+                mock(UserEntityCacheLock.class));
+        ReflectionTestUtils.setField(cache, "redisTtl", Duration.ofMinutes(1));
+        ReflectionTestUtils.setField(cache, "tombstoneTtl", Duration.ofSeconds(5));
+    }
+
+    @AfterEach
+    void tearDown() {
+        cacheManager.destroyCache("user-near-cache");
+        cacheManager.destroyCache("user-key-index");
+    }
+
+    @Test
+    void loadedUserIsCachedInBothTiers() {
+        CountingLoader loader = new CountingLoader(user("u1", "alice", "alice@example.com"));
+
+        cache.getById("u1", loader);
+        Optional<User> second = cache.getById("u1", loader);
+
+        assertThat(second).map(User::getUsername).contains("alice");
+        assertThat(loader.calls.get()).isEqualTo(1);
+        assertThat(redisTemplate.hasKey("user:cache:id:u1")).isTrue();
+    }
+
+    @Test
+    void tombstoneRefusesPutOfLoadedUser() {
+        cache.invalidate(List.of("u1"));
+        CountingLoader loader = new CountingLoader(user("u1", "alice", "alice@example.com"));
+
+        assertThat(cache.getById("u1", loader)).isPresent();
+        assertThat(cache.getById("u1", loader)).isPresent();
+
+        assertThat(loader.calls.get()).isEqualTo(2);
+        assertThat(redisTemplate.hasKey("user:cache:id:u1")).isFalse();
+    }
+
+    @Test
+    void invalidateRemovesKeyIndexEntries() {
+        cache.getByUsername("alice", new CountingLoader(user("u1", "alice", "alice@example.com")));
+        cache.getByEmail("alice@example.com", new CountingLoader(user("u1", "alice", "alice@example.com")));
+        assertThat(redisTemplate.hasKey("user:cache:username:alice")).isTrue();
+
+        cache.invalidate(List.of("u1"));
+
+        assertThat(redisTemplate.hasKey("user:cache:username:alice")).isFalse();
+        assertThat(redisTemplate.hasKey("user:cache:email:alice@example.com")).isFalse();
+        assertThat(cache.getByUsername("alice", Optional::empty)).isEmpty();
+    }
+
+    @Test
+    void staleIndexPointingToRenamedUserIsDropped() {
+        cache.getById("u1", new CountingLoader(user("u1", "alice", "alice@example.com")));
+        // 其他节点写入的旧索引：u1 曾用名 bob
+        redisTemplate.opsForValue().set("user:cache:username:bob", "u1");
+
+        assertThat(cache.getByUsername("bob", Optional::empty)).isEmpty();
+
+        assertThat(redisTemplate.hasKey("user:cache:username:bob")).isFalse();
+    }
+
+    @Test
+    void indexHitIgnoresCaseOfLookup() {
+        CountingLoader loader = new CountingLoader(user("u1", "alice", "alice@example.com"));
+
+        cache.getByUsername("Alice", loader);
+        Optional<User> second = cache.getByUsername("Alice", loader);
+
+        assertThat(second).map(User::getId).contains("u1");
+        assertThat(loader.calls.get()).isEqualTo(1);
+    }
+
+    private static User user(String id, String username, String email) {
+        User user = new User();
+        user.setId(id);
+        user.setUsername(username);
+        user.setEmail(email);
+        user.setStatus(User.UserStatus.ACTIVE);
+        return user;
+    }
+
+    private static class CountingLoader implements Supplier<Optional<User>> {
+
+        private final User user;
+        private final AtomicInteger calls = new AtomicInteger();
+
+        CountingLoader(User user) {
+            this.user = user;
+        }
+
+        @Override
+        public Optional<User> get() {
+            calls.incrementAndGet();
+            return Optional.of(user);
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package com.wanli.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wanli.ratelimit.RateLimitProperties;
+import com.wanli.ratelimit.RateLimiter;
+import com.wanli.security.JwtPrincipal;
+import com.wanli.security.JwtTokenProvider;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.junit.jupiter.web.SpringJUnitWebConfig;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.WebApplicationContext;
+import org.springframework.web.servlet.config.annotation.EnableWebMvc;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Optional;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * SecurityConfig 路由规则测试
+ * 只加载安全配置与一个接收所有路径的占位控制器，令牌验证由模拟的 {@link JwtTokenProvider} 完成
+ *
+ * @author JamesWu
+ * @since 1.0.0
+ */
+@SpringJUnitWebConfig(SecurityConfigTest.TestConfig.class)
+class SecurityConfigTest {
+
+    private static final String ALICE_TOKEN = "alice-token";
+    private static final String BOB_TOKEN = "bob-token";
+    private static final String ADMIN_TOKEN = "admin-token";
+
+    @Autowired
+    private WebApplicationContext context;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(context).apply(springSecurity()).build();
+    }
+
+    @Test
+    void publicEndpointsAllowAnonymous() throws Exception {
+        expect(post("/api/auth/login"), 200);
+        expect(post("/api/auth/refresh"), 200);
+        expect(post("/api/users"), 200);
+        expect(get("/api/users/check-username"), 200);
+        expect(get("/api/users/check-email"), 200);
+        expect(get("/api/users/verify-email"), 200);
+        expect(get("/actuator/health"), 200);
+        expect(get("/actuator/health/liveness"), 200);
+        expect(get("/actuator/prometheus"), 200);
+        expect(get("/health"), 200);
+    }
+
+    @Test
+    void otherEndpointsRequireAuthentication() throws Exception {
+        expect(get("/api/users"), 401);
+        expect(get("/api/users/u1"), 401);
+        expect(get("/api/users").header(HttpHeaders.AUTHORIZATION, "Bearer unknown"), 401);
+        expect(get("/api/users"), ALICE_TOKEN, 200);
+    }
+
+    @Test
+    void adminEndpointsRejectUsers() throws Exception {
+        expect(get("/actuator/metrics"), ALICE_TOKEN, 403);
+        expect(get("/health/detailed"), ALICE_TOKEN, 403);
+        expect(get("/api/users/export"), ALICE_TOKEN, 403);
+        expect(post("/api/users/import"), ALICE_TOKEN, 403);
+        expect(put("/api/users/u1/status"), ALICE_TOKEN, 403);
+        expect(delete("/api/users/u1"), ALICE_TOKEN, 403);
+
+        expect(get("/actuator/metrics"), ADMIN_TOKEN, 200);
+        expect(get("/health/detailed"), ADMIN_TOKEN, 200);
+        expect(get("/api/users/export"), ADMIN_TOKEN, 200);
+        expect(post("/api/users/import"), ADMIN_TOKEN, 200);
+        expect(put("/api/users/u1/status"), ADMIN_TOKEN, 200);
+        expect(delete("/api/users/u1"), ADMIN_TOKEN, 200);
+    }
+
+    @Test
+    void usersCannotMarkThemselvesVerified() throws Exception {
+        expect(put("/api/users/u1/verify-email"), ALICE_TOKEN, 403);
+        expect(put("/api/users/u1/verify-phone"), ALICE_TOKEN, 403);
+        expect(put("/api/users/u1/verify-email"), ADMIN_TOKEN, 200);
+        expect(put("/api/users/u1/verify-phone"), ADMIN_TOKEN, 200);
+    }
+
+    @Test
+    void userUpdatesAreLimitedToSelfOrAdmin() throws Exception {
+        expect(put("/api/users/u1"), ALICE_TOKEN, 200);
+        expect(put("/api/users/u1/password"), ALICE_TOKEN, 200);
+        expect(put("/api/users/u1"), BOB_TOKEN, 403);
+        expect(put("/api/users/u1/password"), BOB_TOKEN, 403);
+        expect(put("/api/users/u1"), ADMIN_TOKEN, 200);
+        expect(put("/api/users/u1"), 401);
+    }
+
+    private void expect(MockHttpServletRequestBuilder request, String token, int status) throws Exception {
+        expect(request.header(HttpHeaders.AUTHORIZATION, "Bearer " + token), status);
+    }
+
+    private void expect(MockHttpServletRequestBuilder request, int status) throws Exception {
+        mockMvc.perform(request).andExpect(status().is(status));
+    }
+
+    @Configuration
+    @EnableWebMvc
+    @Import(SecurityConfig.class)
+    static class TestConfig {
+
+        @Bean
+        JwtTokenProvider jwtTokenProvider() {
+            JwtTokenProvider provider = mock(JwtTokenProvider.class);
+            Instant expiresAt = Instant.now().plus(1, ChronoUnit.HOURS);
+            when(provider.verify(ALICE_TOKEN)).thenReturn(Optional.of(new JwtPrincipal("u1", "alice", "USER", expiresAt)));
+            when(provider.verify(BOB_TOKEN)).thenReturn(Optional.of(new JwtPrincipal("u2", "bob", "USER", expiresAt)));
+            when(provider.verify(ADMIN_TOKEN)).thenReturn(Optional.of(new JwtPrincipal("u9", "root", "ADMIN", expiresAt)));
+            return provider;
+        }
+
+        @Bean
+        RateLimiter rateLimiter() {
+            return mock(RateLimiter.class);
+        }
+
+        @Bean
+        RateLimitProperties rateLimitProperties() {
+            RateLimitProperties properties = new RateLimitProperties();
+            properties.setEnabled(false);
+            return properties;
+        }
+
+        @Bean
+        ObjectMapper objectMapper() {
+            return new ObjectMapper();
+        }
+
+        @Bean
+        StubController stubController() {
+            return new StubController();
+        }
+    }
+
+    /**
+     * 所有路径都返回 200，响应状态只取决于安全规则
+     */
+    @RestController
+    static class StubController {
+
+        @RequestMapping("/**")
+        String ok() {
+            return "ok";
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.wanli.dto;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * UserCursor 测试
+ *
+ * @author JamesWu
+ * @since 1.0.0
+ */
+class UserCursorTest {
+
+    @Test
+    void decodeReturnsEncodedFields() {
+        LocalDateTime value = LocalDateTime.of(2024, 3, 1, 12, 30, 15, 123_000_000);
+        UserCursor cursor = new UserCursor("createdAt", Sort.Direction.DESC, value, "u1");
+
+        UserCursor decoded = UserCursor.decode(cursor.encode());
+
+        assertThat(decoded.getSortBy()).isEqualTo("createdAt");
+        assertThat(decoded.getDirection()).isEqualTo(Sort.Direction.DESC);
+        assertThat(decoded.getValue()).isEqualTo(value);
+        assertThat(decoded.getId()).isEqualTo("u1");
+    }
+
+    @Test
+    void nullSortValueRoundTrips() {
+        UserCursor cursor = new UserCursor("lastLoginAt", Sort.Direction.ASC, null, "u1");
+
+        UserCursor decoded = UserCursor.decode(cursor.encode());
+
+        assertThat(decoded.getValue()).isNull();
+        assertThat(decoded.getDirection()).isEqualTo(Sort.Direction.ASC);
+    }
+
+    @Test
+    void encodedCursorIsUrlSafe() {
+        UserCursor cursor = new UserCursor("createdAt", Sort.Direction.ASC, LocalDateTime.now(), "u1");
+
+        assertThat(cursor.encode()).matches("[A-Za-z0-9_-]+");
+    }
+
+    @Test
+    void unsupportedSortPropertyIsRejected() {
+        assertThatThrownBy(() -> new UserCursor("username", Sort.Direction.ASC, null, "u1"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> UserCursor.decode(raw("v1|username|ASC||u1")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("无效的分页游标");
+    }
+
+    @Test
+    void malformedCursorsAreRejected() {
+        assertThatThrownBy(() -> UserCursor.decode("not base64!")).hasMessage("无效的分页游标");
+        assertThatThrownBy(() -> UserCursor.decode(raw("v2|createdAt|ASC||u1"))).hasMessage("无效的分页游标");
+        assertThatThrownBy(() -> UserCursor.decode(raw("v1|createdAt|ASC|"))).hasMessage("无效的分页游标");
+        assertThatThrownBy(() -> UserCursor.decode(raw("v1|createdAt|ASC||"))).hasMessage("无效的分页游标");
+        assertThatThrownBy(() -> UserCursor.decode(raw("v1|createdAt|UP||u1"))).hasMessage("无效的分页游标");
+        assertThatThrownBy(() -> UserCursor.decode(raw("v1|createdAt|ASC|yesterday|u1"))).hasMessage("无效的分页游标");
+    }
+
+    private static String raw(String value) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+}
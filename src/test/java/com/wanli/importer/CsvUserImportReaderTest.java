@@ -0,0 +1,103 @@
+package com.wanli.importer;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * CsvUserImportReader 测试
+ *
+ * @author JamesWu
+ * @since 1.0.0
+ */
+class CsvUserImportReaderTest {
+
+    @Test
+    void headerIsCaseInsensitiveAndMayStartWithBom() throws IOException {
+        CsvUserImportReader reader = reader("\uFEFFEmail,USERNAME,Full_Name\nalice@example.com,alice,Alice\n");
+
+        UserImportRow row = reader.next();
+
+        assertThat(row.getRowNumber()).isEqualTo(1);
+        assertThat(row.getUsername()).isEqualTo("alice");
+        assertThat(row.getEmail()).isEqualTo("alice@example.com");
+        assertThat(row.getFullName()).isEqualTo("Alice");
+        assertThat(row.getPassword()).isNull();
+        assertThat(reader.next()).isNull();
+    }
+
+    @Test
+    void quotedFieldsMayContainSeparatorsQuotesAndNewlines() throws IOException {
+        CsvUserImportReader reader = reader("username,email,full_name\n"
+                + "bob,bob@example.com,\"Smith, Bob \"\"Jr\"\"\nSecond line\"\n");
+
+        UserImportRow row = reader.next();
+
+        assertThat(row.getFullName()).isEqualTo("Smith, Bob \"Jr\"\nSecond line");
+        assertThat(reader.next()).isNull();
+    }
+
+    @Test
+    void blankLinesAndCrlfAreIgnored() throws IOException {
+        CsvUserImportReader reader = reader("username,email\r\n\r\nalice,alice@example.com\r\n\r\n"
+                + "bob,bob@example.com\r\n");
+
+        assertThat(reader.next().getUsername()).isEqualTo("alice");
+        UserImportRow second = reader.next();
+        assertThat(second.getUsername()).isEqualTo("bob");
+        assertThat(second.getEmail()).isEqualTo("bob@example.com");
+        assertThat(second.getRowNumber()).isEqualTo(2);
+        assertThat(reader.next()).isNull();
+    }
+
+    @Test
+    void emptyAndMissingFieldsAreNull() throws IOException {
+        CsvUserImportReader reader = reader("username,email,password,phone\n  alice  ,,secret\n");
+
+        UserImportRow row = reader.next();
+
+        assertThat(row.getUsername()).isEqualTo("alice");
+        assertThat(row.getEmail()).isNull();
+        assertThat(row.getPassword()).isEqualTo("secret");
+        assertThat(row.getPhone()).isNull();
+        assertThat(row.getPasswordHash()).isNull();
+    }
+
+    @Test
+    void overlongFieldFailsOnlyItsRow() throws IOException {
+        CsvUserImportReader reader = reader("username,email\n" + "x".repeat(5000) + ",a@example.com\n"
+                + "bob,bob@example.com\n");
+
+        UserImportRow failed = reader.next();
+        assertThat(failed.getRowNumber()).isEqualTo(1);
+        assertThat(failed.getError()).isNotNull();
+
+        UserImportRow next = reader.next();
+        assertThat(next.getRowNumber()).isEqualTo(2);
+        assertThat(next.getUsername()).isEqualTo("bob");
+        assertThat(next.getError()).isNull();
+    }
+
+    @Test
+    void unclosedQuoteFailsTheRow() throws IOException {
+        CsvUserImportReader reader = reader("username,email\nalice,\"alice@example.com\n");
+
+        assertThat(reader.next().getError()).isEqualTo("引号未闭合");
+        assertThat(reader.next()).isNull();
+    }
+
+    @Test
+    void headerMustContainUsernameAndEmail() {
+        assertThatThrownBy(() -> reader("username,password\n")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> reader("")).hasMessage("CSV 缺少表头");
+    }
+
+    private static CsvUserImportReader reader(String csv) throws IOException {
+        return new CsvUserImportReader(new BufferedReader(new StringReader(csv)));
+    }
+}
@@ -0,0 +1,133 @@
+package com.wanli.importer;
+
+import com.wanli.cache.UserExistenceFilter;
+import com.wanli.outbox.UserOutbox;
+import com.wanli.search.UserSearchIndex;
+import com.wanli.security.PasswordHashingEngine;
+import com.wanli.stats.UserStatisticsCounter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+/**
+ * UserImportService 测试：逐行校验、块内去重与并发上限
+ *
+ * @author JamesWu
+ * @since 1.0.0
+ */
+class UserImportServiceTest {
+
+    private static final String BCRYPT_HASH = "$2a$10$N9qo8uLOickgx2ZMRZoMyeIjZAgcfl7p92ldGxad68LJZdL17lhWy";
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private UserImportService service;
+
+    @AfterEach
+    void tearDown() {
+        if (service != null) {
+            service.shutdown();
+        }
+    }
+
+    @Test
+    void validateAcceptsCompleteRow() {
+        assertThat(UserImportService.validate(row(1, "alice", "alice@example.com"))).isNull();
+    }
+
+    @Test
+    void validateChecksRequiredFieldsAndLengths() {
+        assertThat(UserImportService.validate(row(1, null, "a@example.com"))).isEqualTo("用户名不能为空");
+        assertThat(UserImportService.validate(row(1, "al", "a@example.com"))).isEqualTo("用户名长度必须在3-50个字符之间");
+        assertThat(UserImportService.validate(row(1, "alice", null))).isEqualTo("邮箱不能为空");
+        assertThat(UserImportService.validate(row(1, "alice", "not-an-email"))).isEqualTo("邮箱格式不正确");
+
+        UserImportRow longPhone = row(1, "alice", "alice@example.com");
+        longPhone.setPhone("1".repeat(21));
+        assertThat(UserImportService.validate(longPhone)).isEqualTo("手机号长度不能超过20个字符");
+    }
+
+    @Test
+    void validateRequiresPasswordOrBcryptHash() {
+        UserImportRow noPassword = row(1, "alice", "alice@example.com");
+        noPassword.setPasswordHash(null);
+        assertThat(UserImportService.validate(noPassword)).isEqualTo("密码不能为空");
+
+        noPassword.setPassword("secret");
+        assertThat(UserImportService.validate(noPassword)).isNull();
+
+        noPassword.setPasswordHash("md5:abcdef");
+        assertThat(UserImportService.validate(noPassword)).isEqualTo("密码哈希必须是 bcrypt 格式");
+    }
+
+    @Test
+    void duplicatesWithinAChunkFailAfterTheFirstOccurrence() throws IOException {
+        service = service(2);
+
+        UserImportResult result = service.importUsers(reader(
+                row(1, "alice", "alice@example.com"),
+                row(2, "ALICE", "other@example.com"),
+                row(3, "bob", "Alice@Example.com"),
+                row(4, "carol", "carol@example.com")));
+
+        assertThat(result.getTotal()).isEqualTo(4);
+        assertThat(result.getImported()).isEqualTo(2);
+        assertThat(result.getFailed()).isEqualTo(2);
+        assertThat(result.getErrors()).extracting(UserImportResult.RowError::getRow).containsExactly(2L, 3L);
+        assertThat(result.getErrors()).extracting(UserImportResult.RowError::getMessage)
+                .containsExactly("用户名在导入数据中重复", "邮箱在导入数据中重复");
+        verify(jdbcTemplate).batchUpdate(anyString(), anyList());
+    }
+
+    @Test
+    void importFailsFastWhenConcurrencyLimitIsReached() {
+        service = service(0);
+
+        assertThatThrownBy(() -> service.importUsers(reader(row(1, "alice", "alice@example.com"))))
+                .isInstanceOf(UserImportBusyException.class);
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+    }
+
+    private UserImportService service(int maxConcurrent) {
+        return new UserImportService(jdbcTemplate, mock(NamedParameterJdbcTemplate.class),
+                mock(PlatformTransactionManager.class), mock(PasswordHashingEngine.class),
+                mock(UserExistenceFilter.class), mock(UserSearchIndex.class), mock(UserStatisticsCounter.class),
+                mock(UserOutbox.class), new SimpleMeterRegistry(), 100, 1, maxConcurrent, 100);
+    }
+
+    private static UserImportRow row(long rowNumber, String username, String email) {
+        UserImportRow row = new UserImportRow(rowNumber);
+        row.setUsername(username);
+        row.setEmail(email);
+        row.setPasswordHash(BCRYPT_HASH);
+        return row;
+    }
+
+    private static UserImportReader reader(UserImportRow... rows) {
+        Iterator<UserImportRow> iterator = List.of(rows).iterator();
+        return new UserImportReader() {
+            @Override
+            public UserImportRow next() {
+                return iterator.hasNext() ? iterator.next() : null;
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+    }
+}
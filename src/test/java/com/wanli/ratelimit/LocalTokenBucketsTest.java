@@ -0,0 +1,80 @@
+package com.wanli.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * LocalTokenBuckets 测试
+ *
+ * @author JamesWu
+ * @since 1.0.0
+ */
+class LocalTokenBucketsTest {
+
+    @Test
+    void bucketRefillsOverTime() {
+        LocalTokenBuckets buckets = new LocalTokenBuckets(10);
+        RateLimitProperties.Limit limit = limit(1, Duration.ofSeconds(1));
+
+        assertThat(buckets.tryAcquire("k", limit, 0)).isZero();
+        assertThat(buckets.tryAcquire("k", limit, 0)).isPositive();
+        assertThat(buckets.tryAcquire("k", limit, 1001)).isZero();
+    }
+
+    @Test
+    void refilledBucketsAreEvictedFirst() {
+        LocalTokenBuckets buckets = new LocalTokenBuckets(3);
+        RateLimitProperties.Limit limit = limit(1, Duration.ofSeconds(1));
+        buckets.tryAcquire("a", limit, 0);
+        buckets.tryAcquire("b", limit, 0);
+        buckets.tryAcquire("c", limit, 5000);
+
+        buckets.tryAcquire("d", limit, 5000);
+
+        // a、b 已回满被清理，c 仍在冷却中
+        assertThat(buckets.size()).isEqualTo(2);
+        assertThat(buckets.tryAcquire("c", limit, 5000)).isPositive();
+    }
+
+    @Test
+    void leastRecentlyUsedBucketsAreEvictedWhenNoneIsFull() {
+        LocalTokenBuckets buckets = new LocalTokenBuckets(10);
+        RateLimitProperties.Limit limit = limit(1, Duration.ofHours(1));
+        for (int i = 0; i < 10; i++) {
+            buckets.tryAcquire("k" + i, limit, i);
+        }
+
+        buckets.tryAcquire("new", limit, 100);
+
+        // 淘汰最久未用的 k0 后降到上限的 90%，再放入新桶
+        assertThat(buckets.size()).isEqualTo(10);
+        assertThat(buckets.tryAcquire("k0", limit, 100)).isZero();
+        assertThat(buckets.tryAcquire("k9", limit, 100)).isPositive();
+    }
+
+    @Test
+    void evictionRunsAtMostOncePerInterval() {
+        LocalTokenBuckets buckets = new LocalTokenBuckets(10);
+        RateLimitProperties.Limit limit = limit(1, Duration.ofHours(1));
+        for (int i = 0; i < 10; i++) {
+            buckets.tryAcquire("k" + i, limit, i);
+        }
+        buckets.tryAcquire("first", limit, 100);
+
+        buckets.tryAcquire("second", limit, 101);
+        assertThat(buckets.size()).isEqualTo(11);
+
+        buckets.tryAcquire("third", limit, 101 + LocalTokenBuckets.EVICT_INTERVAL_MS);
+        assertThat(buckets.size()).isEqualTo(10);
+    }
+
+    private static RateLimitProperties.Limit limit(int capacity, Duration period) {
+        RateLimitProperties.Limit limit = new RateLimitProperties.Limit();
+        limit.setCapacity(capacity);
+        limit.setPeriod(period);
+        return limit;
+    }
+}
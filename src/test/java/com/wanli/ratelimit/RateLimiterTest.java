@@ -0,0 +1,107 @@
+package com.wanli.ratelimit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * RateLimiter 测试：Redis 失败时改用本地令牌桶，连续失败后断路
+ *
+ * @author JamesWu
+ * @since 1.0.0
+ */
+class RateLimiterTest {
+
+    private ReactiveStringRedisTemplate redisTemplate;
+    private RateLimitProperties properties;
+    private RateLimitProperties.Limit limit;
+
+    @BeforeEach
+    void setUp() {
+        redisTemplate = mock(ReactiveStringRedisTemplate.class);
+        properties = new RateLimitProperties();
+        properties.setFailureThreshold(2);
+        properties.setOpenDuration(Duration.ofHours(1));
+
+        limit = new RateLimitProperties.Limit();
+        limit.setCapacity(2);
+        limit.setPeriod(Duration.ofHours(1));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void redisDecisionIsUsedWhenAvailable() {
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), anyList())).thenReturn(Flux.just(0L));
+        RateLimiter rateLimiter = new RateLimiter(redisTemplate, properties, new SimpleMeterRegistry());
+
+        RateLimiter.Decision decision = rateLimiter.tryAcquire("login", "ip", "10.0.0.1", limit);
+
+        assertThat(decision.allowed()).isTrue();
+        assertThat(decision.backend()).isEqualTo(RateLimiter.Backend.REDIS);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void redisFailureFallsBackToLocalBuckets() {
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), anyList()))
+                .thenReturn(Flux.error(new RedisConnectionFailureException("down")));
+        RateLimiter rateLimiter = new RateLimiter(redisTemplate, properties, new SimpleMeterRegistry());
+
+        RateLimiter.Decision first = rateLimiter.tryAcquire("login", "ip", "10.0.0.1", limit);
+        RateLimiter.Decision second = rateLimiter.tryAcquire("login", "ip", "10.0.0.1", limit);
+        RateLimiter.Decision third = rateLimiter.tryAcquire("login", "ip", "10.0.0.1", limit);
+
+        assertThat(first.backend()).isEqualTo(RateLimiter.Backend.LOCAL);
+        assertThat(first.allowed()).isTrue();
+        assertThat(second.allowed()).isTrue();
+        assertThat(third.allowed()).isFalse();
+        assertThat(third.retryAfterMillis()).isPositive();
+        assertThat(rateLimiter.tryAcquire("login", "ip", "10.0.0.2", limit).allowed()).isTrue();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void circuitOpensAfterConsecutiveFailures() {
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), anyList()))
+                .thenReturn(Flux.error(new RedisConnectionFailureException("down")));
+        RateLimiter rateLimiter = new RateLimiter(redisTemplate, properties, new SimpleMeterRegistry());
+
+        rateLimiter.tryAcquire("login", "ip", "10.0.0.1", limit);
+        assertThat(rateLimiter.isCircuitOpen()).isFalse();
+        rateLimiter.tryAcquire("login", "ip", "10.0.0.2", limit);
+        assertThat(rateLimiter.isCircuitOpen()).isTrue();
+
+        RateLimiter.Decision decision = rateLimiter.tryAcquire("login", "ip", "10.0.0.3", limit);
+
+        assertThat(decision.backend()).isEqualTo(RateLimiter.Backend.LOCAL);
+        verify(redisTemplate, times(2)).execute(any(RedisScript.class), anyList(), anyList());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void slowRedisCountsAsFailure() {
+        properties.setRedisTimeout(Duration.ofMillis(10));
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), anyList()))
+                .thenReturn(Flux.<Long>never());
+        RateLimiter rateLimiter = new RateLimiter(redisTemplate, properties, new SimpleMeterRegistry());
+
+        RateLimiter.Decision decision = rateLimiter.tryAcquire("login", "ip", "10.0.0.1", limit);
+
+        assertThat(decision.backend()).isEqualTo(RateLimiter.Backend.LOCAL);
+        assertThat(decision.allowed()).isTrue();
+    }
+}
@@ -0,0 +1,47 @@
+package com.wanli.search;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * NGramTokenizer 测试
+ *
+ * @author JamesWu
+ * @since 1.0.0
+ */
+class NGramTokenizerTest {
+
+    @Test
+    void normalizeFoldsWidthCaseAndWhitespace() {
+        assertThat(NGramTokenizer.normalize("  Ｊｏｈｎ\t\tＤＯＥ  ")).isEqualTo("john doe");
+        assertThat(NGramTokenizer.normalize(null)).isEmpty();
+    }
+
+    @Test
+    void gramsAreOverlappingBigrams() {
+        assertThat(NGramTokenizer.grams("alice")).containsExactly("al", "li", "ic", "ce");
+    }
+
+    @Test
+    void repeatedGramsAreReturnedOnce() {
+        assertThat(NGramTokenizer.grams("aaaa")).containsExactly("aa");
+    }
+
+    @Test
+    void cjkCharactersCountAsOneCodePoint() {
+        assertThat(NGramTokenizer.grams("张三丰")).containsExactly("张三", "三丰");
+        assertThat(NGramTokenizer.grams("王五")).containsExactly("王五");
+    }
+
+    @Test
+    void supplementaryCharactersAreNotSplit() {
+        assertThat(NGramTokenizer.grams("𠀀𠀁a")).containsExactly("𠀀𠀁", "𠀁a");
+    }
+
+    @Test
+    void shortTextYieldsItself() {
+        assertThat(NGramTokenizer.grams("a")).containsExactly("a");
+        assertThat(NGramTokenizer.grams("")).isEmpty();
+    }
+}
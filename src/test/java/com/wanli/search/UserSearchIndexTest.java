@@ -0,0 +1,86 @@
+package com.wanli.search;
+
+import com.wanli.entity.User;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+
+/**
+ * UserSearchIndex 测试：相关度打分与重建的事务边界
+ *
+ * @author JamesWu
+ * @since 1.0.0
+ */
+class UserSearchIndexTest {
+
+    @Test
+    void exactMatchesRankAboveAnyPrefixMatch() {
+        assertThat(UserSearchIndex.score(user("alice", "x@example.com", "Bob"), "alice")).isEqualTo(100);
+        assertThat(UserSearchIndex.score(user("bob", "alice", "Bob"), "alice")).isEqualTo(90);
+        assertThat(UserSearchIndex.score(user("bob", "x@example.com", "Alice"), "alice")).isEqualTo(80);
+        assertThat(UserSearchIndex.score(user("alice2", "x@example.com", "Alice"), "alice")).isEqualTo(80);
+    }
+
+    @Test
+    void prefixMatchesRankAboveContainsMatches() {
+        assertThat(UserSearchIndex.score(user("alice1", "x@example.com", null), "alice")).isEqualTo(60);
+        assertThat(UserSearchIndex.score(user("bob", "x@example.com", "Alice Smith"), "alice")).isEqualTo(50);
+        assertThat(UserSearchIndex.score(user("bob", "alice@example.com", null), "alice")).isEqualTo(40);
+        assertThat(UserSearchIndex.score(user("malice", "x@example.com", null), "alice")).isEqualTo(30);
+        assertThat(UserSearchIndex.score(user("bob", "x@example.com", "Mary Alice"), "alice")).isEqualTo(20);
+        assertThat(UserSearchIndex.score(user("bob", "mary.alice@example.com", null), "alice")).isEqualTo(10);
+    }
+
+    @Test
+    void ngramFalsePositivesScoreZero() {
+        // 包含 "al"、"li"、"ic"、"ce" 全部词元，但不包含子串 "alice"
+        assertThat(UserSearchIndex.score(user("alic", "cece@example.com", null), "alice")).isZero();
+    }
+
+    @Test
+    void scoringIgnoresCaseAndWidth() {
+        assertThat(UserSearchIndex.score(user("ＡＬＩＣＥ", "x@example.com", null), "alice")).isEqualTo(100);
+    }
+
+    @Test
+    void rebuildReadsAndIndexesEachChunkInOneTransaction() {
+        NamedParameterJdbcTemplate jdbcTemplate = mock(NamedParameterJdbcTemplate.class);
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        doReturn(List.of(user("alice", "alice@example.com", "Alice")), List.of())
+                .when(jdbcTemplate).query(contains("FOR UPDATE"), any(SqlParameterSource.class), any(RowMapper.class));
+        UserSearchIndex index = new UserSearchIndex(jdbcTemplate, transactionManager, 2000, 1000);
+
+        assertThat(index.rebuild()).isTrue();
+
+        InOrder order = inOrder(transactionManager, jdbcTemplate);
+        order.verify(transactionManager).getTransaction(any());
+        order.verify(jdbcTemplate).query(anyString(), any(SqlParameterSource.class), any(RowMapper.class));
+        order.verify(jdbcTemplate).update(anyString(), anyMap());
+        order.verify(jdbcTemplate).batchUpdate(anyString(), any(SqlParameterSource[].class));
+        order.verify(transactionManager).commit(any());
+        assertThat(index.getLastRebuiltAt()).isNotNull();
+    }
+
+    private static User user(String username, String email, String fullName) {
+        User user = new User();
+        user.setId("id-" + username);
+        user.setUsername(username);
+        user.setEmail(email);
+        user.setFullName(fullName);
+        return user;
+    }
+}
@@ -0,0 +1,69 @@
+package com.wanli.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * EmailVerificationTokens 测试
+ *
+ * @author JamesWu
+ * @since 1.0.0
+ */
+class EmailVerificationTokensTest {
+
+    private static final String SECRET = "email-verification-test-secret";
+
+    private final EmailVerificationTokens tokens = new EmailVerificationTokens(SECRET, Duration.ofHours(72));
+
+    @Test
+    void verifyReturnsUserId() {
+        String token = tokens.issue("8f7c2a1e-4b3d-4c5e-9f6a-0b1c2d3e4f50");
+
+        assertThat(tokens.verify(token)).isEqualTo("8f7c2a1e-4b3d-4c5e-9f6a-0b1c2d3e4f50");
+    }
+
+    @Test
+    void userIdMayContainDots() {
+        assertThat(tokens.verify(tokens.issue("a.b.c"))).isEqualTo("a.b.c");
+    }
+
+    @Test
+    void tokenIsUrlSafe() {
+        assertThat(tokens.issue("u1")).matches("[A-Za-z0-9_-]+\\.[A-Za-z0-9_-]+");
+    }
+
+    @Test
+    void tamperedPayloadIsRejected() {
+        String token = tokens.issue("u1");
+        String forged = tokens.issue("u2");
+        String spliced = forged.substring(0, forged.indexOf('.')) + token.substring(token.indexOf('.'));
+
+        assertThatThrownBy(() -> tokens.verify(spliced)).hasMessage("验证链接无效");
+    }
+
+    @Test
+    void tokenSignedWithAnotherSecretIsRejected() {
+        String token = new EmailVerificationTokens("another-secret", Duration.ofHours(72)).issue("u1");
+
+        assertThatThrownBy(() -> tokens.verify(token)).hasMessage("验证链接无效");
+    }
+
+    @Test
+    void expiredTokenIsRejected() {
+        String token = new EmailVerificationTokens(SECRET, Duration.ofMinutes(-1)).issue("u1");
+
+        assertThatThrownBy(() -> tokens.verify(token)).hasMessage("验证链接已过期");
+    }
+
+    @Test
+    void malformedTokensAreRejected() {
+        assertThatThrownBy(() -> tokens.verify(null)).hasMessage("验证链接无效");
+        assertThatThrownBy(() -> tokens.verify("")).hasMessage("验证链接无效");
+        assertThatThrownBy(() -> tokens.verify("no-separator")).hasMessage("验证链接无效");
+        assertThatThrownBy(() -> tokens.verify("!!!.???")).hasMessage("验证链接无效");
+    }
+}
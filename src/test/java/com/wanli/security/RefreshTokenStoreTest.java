@@ -0,0 +1,171 @@
+package com.wanli.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import redis.embedded.RedisServer;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * RefreshTokenStore 测试
+ * 轮换与盗用检测都在 Lua 脚本中完成，因此使用嵌入式 Redis 而不是模拟对象
+ *
+ * @author JamesWu
+ * @since 1.0.0
+ */
+class RefreshTokenStoreTest {
+
+    private static final int REDIS_PORT = 16398;
+
+    private static RedisServer redisServer;
+    private static LettuceConnectionFactory connectionFactory;
+    private static StringRedisTemplate redisTemplate;
+
+    private RefreshTokenStore store;
+
+    @BeforeAll
+    static void startRedis() {
+        redisServer = new RedisServer(REDIS_PORT);
+        redisServer.start();
+        connectionFactory = new LettuceConnectionFactory(new RedisStandaloneConfiguration("localhost", REDIS_PORT));
+        connectionFactory.afterPropertiesSet();
+        redisTemplate = new StringRedisTemplate(connectionFactory);
+        redisTemplate.afterPropertiesSet();
+    }
+
+    @AfterAll
+    static void stopRedis() {
+        connectionFactory.destroy();
+        redisServer.stop();
+    }
+
+    @BeforeEach
+    void setUp() {
+        redisTemplate.execute(connection -> {
+            connection.serverCommands().flushDb();
+            return null;
+        }, true);
+        store = new RefreshTokenStore(redisTemplate, 60_000, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void rotateReturnsIdentityAndNewToken() {
+        String token = store.issue("u1", "alice", "USER");
+
+        Optional<RefreshTokenStore.Rotation> rotation = store.rotate(token);
+
+        assertThat(rotation).isPresent();
+        assertThat(rotation.get().userId()).isEqualTo("u1");
+        assertThat(rotation.get().username()).isEqualTo("alice");
+        assertThat(rotation.get().role()).isEqualTo("USER");
+        assertThat(rotation.get().refreshToken()).startsWith("u1.").isNotEqualTo(token);
+    }
+
+    @Test
+    void rotatedTokenCanBeUsedOnce() {
+        String token = store.issue("u1", "alice", "USER");
+        String next = store.rotate(token).orElseThrow().refreshToken();
+
+        assertThat(store.rotate(next)).isPresent();
+    }
+
+    @Test
+    void reusingRotatedTokenRevokesAllTokens() {
+        String token = store.issue("u1", "alice", "USER");
+        String otherDevice = store.issue("u1", "alice", "USER");
+        String next = store.rotate(token).orElseThrow().refreshToken();
+
+        assertThat(store.rotate(token)).isEmpty();
+        assertThat(store.rotate(next)).isEmpty();
+        assertThat(store.rotate(otherDevice)).isEmpty();
+    }
+
+    @Test
+    void reuseDoesNotAffectOtherUsers() {
+        String token = store.issue("u1", "alice", "USER");
+        String other = store.issue("u2", "bob", "USER");
+        store.rotate(token);
+
+        store.rotate(token);
+
+        assertThat(store.rotate(other)).isPresent();
+    }
+
+    @Test
+    void rotateRejectsUnknownAndMalformedTokens() {
+        store.issue("u1", "alice", "USER");
+
+        assertThat(store.rotate("u1.not-issued")).isEmpty();
+        assertThat(store.rotate("no-separator")).isEmpty();
+        assertThat(store.rotate("u1.")).isEmpty();
+        assertThat(store.rotate("{u1}.secret")).isEmpty();
+        assertThat(store.rotate(null)).isEmpty();
+    }
+
+    @Test
+    void revokedTokenCannotBeRotated() {
+        String token = store.issue("u1", "alice", "USER");
+        String otherDevice = store.issue("u1", "alice", "USER");
+
+        store.revoke(token);
+
+        assertThat(store.rotate(token)).isEmpty();
+        assertThat(store.rotate(otherDevice)).isPresent();
+    }
+
+    @Test
+    void revokeAllRevokesEveryDevice() {
+        String first = store.issue("u1", "alice", "USER");
+        String second = store.issue("u1", "alice", "USER");
+
+        assertThat(store.revokeAll("u1")).isEqualTo(2);
+        assertThat(store.rotate(first)).isEmpty();
+        assertThat(store.rotate(second)).isEmpty();
+        assertThat(store.revokeAll("u1")).isZero();
+    }
+
+    @Test
+    void rotatedTokenKeepsOriginalExpiry() {
+        String token = store.issue("u1", "alice", "USER");
+        String tokenKey = tokenKeys("u1").iterator().next();
+        redisTemplate.expire(tokenKey, Duration.ofSeconds(5));
+
+        RefreshTokenStore.Rotation rotation = store.rotate(token).orElseThrow();
+
+        assertThat(rotation.ttl()).isPositive().isLessThanOrEqualTo(Duration.ofSeconds(5));
+        Set<String> keys = tokenKeys("u1");
+        keys.remove(tokenKey);
+        Long remaining = redisTemplate.getExpire(keys.iterator().next(), TimeUnit.MILLISECONDS);
+        assertThat(remaining).isPositive().isLessThanOrEqualTo(5_000);
+        assertThat(store.rotate(rotation.refreshToken())).isPresent();
+    }
+
+    @Test
+    void rotationChainEndsWithOriginalExpiry() throws InterruptedException {
+        String token = store.issue("u1", "alice", "USER");
+        redisTemplate.expire(tokenKeys("u1").iterator().next(), Duration.ofMillis(300));
+        String next = store.rotate(token).orElseThrow().refreshToken();
+
+        Thread.sleep(400);
+
+        assertThat(store.rotate(next)).isEmpty();
+    }
+
+    private static Set<String> tokenKeys(String userId) {
+        Set<String> keys = new HashSet<>(redisTemplate.keys("auth:refresh:{" + userId + "}:*"));
+        keys.remove("auth:refresh:{" + userId + "}:tokens");
+        return keys;
+    }
+}
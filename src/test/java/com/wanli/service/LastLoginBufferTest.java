@@ -0,0 +1,139 @@
+package com.wanli.service;
+
+import com.wanli.cache.UserNearCache;
+import com.wanli.entity.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * LastLoginBuffer 测试：按用户合并、只前移不回退、失败保留
+ *
+ * @author JamesWu
+ * @since 1.0.0
+ */
+class LastLoginBufferTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2024, 1, 1, 8, 0);
+
+    private JdbcTemplate jdbcTemplate;
+    private UserNearCache userNearCache;
+    private LastLoginBuffer buffer;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        userNearCache = mock(UserNearCache.class);
+        buffer = new LastLoginBuffer(jdbcTemplate, mock(PlatformTransactionManager.class), userNearCache,
+                new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(buffer, "maxBufferSize", 1000);
+        ReflectionTestUtils.setField(buffer, "maxPending", 1000);
+        ReflectionTestUtils.setField(buffer, "batchSize", 100);
+    }
+
+    @Test
+    void recordKeepsLatestLoginPerUser() {
+        buffer.record("u1", T0.plusMinutes(5));
+        buffer.record("u1", T0);
+        assertThat(buffer.get("u1")).isEqualTo(T0.plusMinutes(5));
+
+        buffer.record("u1", T0.plusMinutes(10));
+        assertThat(buffer.get("u1")).isEqualTo(T0.plusMinutes(10));
+        assertThat(buffer.get("u2")).isNull();
+    }
+
+    @Test
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    void flushWritesOneForwardOnlyUpdatePerUser() {
+        buffer.record("u1", T0);
+        buffer.record("u1", T0.plusMinutes(1));
+        buffer.record("u2", T0);
+
+        buffer.flush();
+
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<List> args = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(sql.capture(), args.capture());
+        assertThat(sql.getValue()).contains("last_login_at < ?");
+        List<Object[]> rows = args.getValue();
+        assertThat(rows).hasSize(2);
+        Object[] u1 = rows.stream().filter(row -> "u1".equals(row[2])).findFirst().orElseThrow();
+        Timestamp expected = Timestamp.valueOf(T0.plusMinutes(1));
+        assertThat(u1).containsExactly(expected, expected, "u1", expected);
+
+        verify(userNearCache).invalidateAfterCommit(anyList());
+        assertThat(buffer.get("u1")).isNull();
+        assertThat(buffer.get("u2")).isNull();
+    }
+
+    @Test
+    void failedFlushKeepsEntriesForRetry() {
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenThrow(new QueryTimeoutException("timeout"));
+        buffer.record("u1", T0);
+
+        buffer.flush();
+
+        assertThat(buffer.get("u1")).isEqualTo(T0);
+        verify(userNearCache, never()).invalidateAfterCommit(anyList());
+    }
+
+    @Test
+    void loginDuringFlushIsKeptForNextFlush() {
+        buffer.record("u1", T0);
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenAnswer(invocation -> {
+            buffer.record("u1", T0.plusMinutes(1));
+            return new int[]{1};
+        });
+
+        buffer.flush();
+
+        assertThat(buffer.get("u1")).isEqualTo(T0.plusMinutes(1));
+    }
+
+    @Test
+    void newUsersAreDroppedOnceMaxPendingIsReached() {
+        ReflectionTestUtils.setField(buffer, "maxPending", 2);
+        buffer.record("u1", T0);
+        buffer.record("u2", T0);
+
+        buffer.record("u3", T0);
+        buffer.record("u1", T0.plusMinutes(1));
+
+        assertThat(buffer.get("u3")).isNull();
+        assertThat(buffer.get("u1")).isEqualTo(T0.plusMinutes(1));
+    }
+
+    @Test
+    void overlayOnlyMovesLastLoginForward() {
+        buffer.record("u1", T0.plusMinutes(1));
+        User older = user("u1", T0);
+        User newer = user("u1", T0.plusMinutes(2));
+
+        assertThat(buffer.overlay(older).getLastLoginAt()).isEqualTo(T0.plusMinutes(1));
+        assertThat(buffer.overlay(newer).getLastLoginAt()).isEqualTo(T0.plusMinutes(2));
+    }
+
+    private static User user(String id, LocalDateTime lastLoginAt) {
+        User user = new User();
+        user.setId(id);
+        user.setLastLoginAt(lastLoginAt);
+        return user;
+    }
+}